@@ -0,0 +1,132 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import com.facebook.react.bridge.WritableNativeMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the dispatching of the events of the external API to
+ * {@link JitsiMeetViewListener}s as done by {@code ExternalAPIModule}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ListenerUtilsBenchmark {
+    /**
+     * The payload of a {@code CONFERENCE_WILL_JOIN} event.
+     */
+    private WritableNativeMap data;
+
+    /**
+     * The {@link JitsiMeetViewListener} the events are dispatched to.
+     */
+    private JitsiMeetViewListener listener;
+
+    /**
+     * The methods of {@link #listener} by event name.
+     */
+    private Map<String, Method> listenerMethods;
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        data = new WritableNativeMap();
+        data.putString("url", "https://meet.jit.si/SomeConferenceRoom");
+        data.putString("error", "conference.connectionError.notAllowed");
+        data.putString("externalAPIScope", "4f7ae0b5-7bde-4a40-8b44-6c3e2b5e");
+
+        listener = new JitsiMeetViewListener() {
+            @Override
+            public void onConferenceFailed(Map<String, Object> data) {
+                blackhole.consume(data);
+            }
+
+            @Override
+            public void onConferenceJoined(Map<String, Object> data) {
+                blackhole.consume(data);
+            }
+
+            @Override
+            public void onConferenceLeft(Map<String, Object> data) {
+                blackhole.consume(data);
+            }
+
+            @Override
+            public void onConferenceWillJoin(Map<String, Object> data) {
+                blackhole.consume(data);
+            }
+
+            @Override
+            public void onConferenceWillLeave(Map<String, Object> data) {
+                blackhole.consume(data);
+            }
+
+            @Override
+            public void onLoadConfigError(Map<String, Object> data) {
+                blackhole.consume(data);
+            }
+        };
+        listenerMethods
+            = ListenerUtils.mapListenerMethods(JitsiMeetViewListener.class);
+    }
+
+    @Benchmark
+    public Method lookUpEventName() {
+        return listenerMethods.get("CONFERENCE_WILL_JOIN");
+    }
+
+    @Benchmark
+    public Map<String, Method> mapListenerMethods() {
+        return ListenerUtils.mapListenerMethods(JitsiMeetViewListener.class);
+    }
+
+    @Benchmark
+    public void runListenerMethod() {
+        ListenerUtils.runListenerMethod(
+            listener,
+            listenerMethods,
+            "CONFERENCE_WILL_JOIN",
+            data);
+    }
+
+    @Benchmark
+    public void runListenerMethodUnknownEvent() {
+        ListenerUtils.runListenerMethod(
+            listener,
+            listenerMethods,
+            "CONFERENCE_UNKNOWN",
+            data);
+    }
+
+    @Benchmark
+    public HashMap<String, Object> toHashMap() {
+        return ListenerUtils.toHashMap(data);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the reads of the {@link NativeState} snapshot which
+ * {@code NativeStateModule#getSnapshot()} and
+ * {@code AudioModeModule#getAudioDevicesSync()} do against the Promise path
+ * {@code AudioModeModule#getAudioDevices} took before, which built the result
+ * on the main thread while the native modules thread waited.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NativeStateBenchmark {
+    /**
+     * The audio devices which are published and read.
+     */
+    private static final List<String> AUDIO_DEVICES
+        = Arrays.asList("bluetooth", "earpiece", "speaker");
+
+    /**
+     * The {@link ExecutorService} which stands in for the main thread.
+     */
+    private ExecutorService mainThread;
+
+    @Setup
+    public void setUp() {
+        NativeState.publishAudioDevices(AUDIO_DEVICES, "bluetooth");
+        mainThread = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        mainThread.shutdownNow();
+    }
+
+    @Benchmark
+    public NativeState get() {
+        return NativeState.get();
+    }
+
+    /**
+     * Benchmarks {@code AudioModeModule#getAudioDevices} as it was before the
+     * snapshot: a post to the main thread which builds the result and
+     * resolves the Promise the caller waits for.
+     */
+    @Benchmark
+    public WritableMap getAudioDevicesPromise() throws Exception {
+        return
+            mainThread.submit(new Callable<WritableMap>() {
+                @Override
+                public WritableMap call() {
+                    WritableMap map = Arguments.createMap();
+                    WritableArray devices = Arguments.createArray();
+
+                    map.putString("selected", "bluetooth");
+                    for (String device : AUDIO_DEVICES) {
+                        devices.pushString(device);
+                    }
+                    map.putArray("devices", devices);
+
+                    return map;
+                }
+            }).get();
+    }
+
+    @Benchmark
+    public WritableMap getAudioDevicesSync() {
+        return Arguments.makeNativeMap(NativeState.get().audioDevicesToMap());
+    }
+
+    @Benchmark
+    public WritableMap getSnapshot() {
+        return Arguments.makeNativeMap(NativeState.get().toMap());
+    }
+}
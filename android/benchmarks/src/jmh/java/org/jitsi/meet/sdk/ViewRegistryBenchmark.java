@@ -0,0 +1,92 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the lookup of {@link JitsiMeetView}s by external API scope which
+ * {@code ExternalAPIModule} does (twice) for every event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ViewRegistryBenchmark {
+    /**
+     * The external API scope of the most recently registered view.
+     */
+    private String lastScope;
+
+    /**
+     * An external API scope no view is registered with e.g. the one of a view
+     * which was garbage collected.
+     */
+    private String missingScope;
+
+    /**
+     * The {@link ViewRegistry} to look the views up in.
+     */
+    private ViewRegistry<Object> registry;
+
+    /**
+     * The views registered in {@link #registry}, strongly referenced so that
+     * they are not garbage collected.
+     */
+    private final List<Object> views = new ArrayList<>();
+
+    /**
+     * The number of views registered in {@link #registry}. Applications
+     * usually have one or two.
+     */
+    @Param({ "1", "4" })
+    public int viewCount;
+
+    @Setup
+    public void setUp() {
+        registry = new ViewRegistry<>();
+        for (int i = 0; i < viewCount; i++) {
+            Object view = new Object();
+
+            lastScope = UUID.randomUUID().toString();
+            registry.add(view, lastScope);
+            views.add(view);
+        }
+        missingScope = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public Object find() {
+        return registry.find(lastScope);
+    }
+
+    @Benchmark
+    public Object findMissing() {
+        return registry.find(missingScope);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import com.facebook.react.bridge.WritableNativeArray;
+import com.facebook.react.bridge.WritableNativeMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the caching of the results of the queries of the invite feature
+ * by {@link AddPeopleController} and their use to invite people by id.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AddPeopleControllerBenchmark {
+    /**
+     * The number of results of a query, as many as the directory search of
+     * Jitsi Meet returns.
+     */
+    private static final int RESULT_COUNT = 20;
+
+    /**
+     * The {@link AddPeopleController} under test.
+     */
+    private AddPeopleController addPeopleController;
+
+    /**
+     * The ids of the results to invite.
+     */
+    private List<String> ids;
+
+    /**
+     * The results of a query.
+     */
+    private WritableNativeArray results;
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        addPeopleController
+            = new AddPeopleController(
+                new InviteController("externalAPIScope"),
+                /* reactContext */ null);
+        addPeopleController.setListener(new AddPeopleControllerListener() {
+            @Override
+            public void onInviteSettled(
+                    AddPeopleController addPeopleController,
+                    List<Map<String, Object>> failedInvitees) {
+                blackhole.consume(failedInvitees);
+            }
+
+            @Override
+            public void onReceivedResults(
+                    AddPeopleController addPeopleController,
+                    List<Map<String, Object>> results,
+                    String query) {
+                blackhole.consume(results);
+            }
+        });
+
+        results = new WritableNativeArray();
+        ids = new ArrayList<>();
+        for (int i = 0; i < RESULT_COUNT; i++) {
+            WritableNativeMap result = new WritableNativeMap();
+
+            if (i % 4 == 3) {
+                result.putString("type", "phone");
+                result.putString("number", "+1555000" + i);
+                result.putString("title", "Dial out to +1555000" + i);
+                result.putString("subtitle", "United States");
+            } else {
+                result.putString("type", "user");
+                result.putString("id", "user" + i + "@example.com");
+                result.putString("name", "User " + i);
+                result.putString(
+                    "avatar",
+                    "https://example.com/avatars/" + i + ".png");
+                if (ids.size() < 5) {
+                    ids.add("user" + i + "@example.com");
+                }
+            }
+            results.pushMap(result);
+        }
+
+        addPeopleController.receivedResultsForQuery(results, "user");
+    }
+
+    @Benchmark
+    public void inviteById() {
+        addPeopleController.inviteById(ids);
+    }
+
+    /**
+     * Benchmarks the local matching of a query against the results of an
+     * earlier query, which is what the user waits for at every keystroke.
+     */
+    @Benchmark
+    public void performQuery() {
+        addPeopleController.performQuery("user 1");
+    }
+
+    @Benchmark
+    public void receivedResultsForQuery() {
+        addPeopleController.receivedResultsForQuery(results, "user");
+    }
+}
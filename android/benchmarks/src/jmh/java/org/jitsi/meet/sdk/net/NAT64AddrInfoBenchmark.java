@@ -0,0 +1,109 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.net;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the synthesis of IPv6 addresses by {@link NAT64AddrInfo} e.g. for
+ * the ICE candidates of a session description.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NAT64AddrInfoBenchmark {
+    /**
+     * The IPv4 addresses to synthesize IPv6 addresses for, in turn.
+     */
+    private static final String[] IPV4_ADDRESSES = {
+        "203.0.113.1", "192.168.1.23", "10.0.0.1", "172.16.254.3"
+    };
+
+    /**
+     * The index in {@link #IPV4_ADDRESSES} of the next IPv4 address.
+     */
+    private int index;
+
+    /**
+     * A {@link NAT64AddrInfo} with a /40 prefix i.e. with a suffix and the 'u'
+     * octet in the middle of the IPv4 address.
+     */
+    private NAT64AddrInfo info40;
+
+    /**
+     * A {@link NAT64AddrInfo} with the well-known /96 prefix.
+     */
+    private NAT64AddrInfo info96;
+
+    /**
+     * The IPv4 address of the host {@link #info96} was figured out from.
+     */
+    private byte[] ipv4;
+
+    /**
+     * The IPv6 address of the host {@link #info96} was figured out from.
+     */
+    private byte[] ipv6;
+
+    @Setup
+    public void setUp() {
+        ipv4 = new byte[] { (byte) 203, 0, 113, 1 };
+        ipv6 = new byte[] {
+            0x00, 0x64, (byte) 0xff, (byte) 0x9b, 0, 0, 0, 0, 0, 0, 0, 0,
+            (byte) 203, 0, 113, 1
+        };
+        info96 = NAT64AddrInfo.figureOutNAT64AddrInfo(ipv4, ipv6);
+        info40
+            = NAT64AddrInfo.figureOutNAT64AddrInfo(
+                ipv4,
+                new byte[] {
+                    0x20, 0x01, 0x0d, (byte) 0xb8, 0x01, (byte) 203, 0, 113,
+                    0, 1, 0x12, 0x34, 0x56, 0x78, (byte) 0x9a, (byte) 0xbc
+                });
+    }
+
+    @Benchmark
+    public NAT64AddrInfo figureOutNAT64AddrInfo() {
+        return NAT64AddrInfo.figureOutNAT64AddrInfo(ipv4, ipv6);
+    }
+
+    @Benchmark
+    public String getIPv6Address40() {
+        return info40.getIPv6Address(nextIPv4Address());
+    }
+
+    @Benchmark
+    public String getIPv6Address96() {
+        return info96.getIPv6Address(nextIPv4Address());
+    }
+
+    private String nextIPv4Address() {
+        String ipv4Address = IPV4_ADDRESSES[index];
+
+        index = (index + 1) % IPV4_ADDRESSES.length;
+
+        return ipv4Address;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.react.bridge;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stub of the React Native {@code Arguments}.
+ */
+public class Arguments {
+    public static WritableArray createArray() {
+        return new WritableNativeArray();
+    }
+
+    public static WritableMap createMap() {
+        return new WritableNativeMap();
+    }
+
+    static ReadableType getType(Object value) {
+        if (value == null) {
+            return ReadableType.Null;
+        } else if (value instanceof Boolean) {
+            return ReadableType.Boolean;
+        } else if (value instanceof Number) {
+            return ReadableType.Number;
+        } else if (value instanceof String) {
+            return ReadableType.String;
+        } else if (value instanceof ReadableMap) {
+            return ReadableType.Map;
+        } else {
+            return ReadableType.Array;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static WritableNativeArray makeNativeArray(List objects) {
+        WritableNativeArray array = new WritableNativeArray();
+
+        for (Object object : objects) {
+            if (object instanceof Map) {
+                array.pushMap(makeNativeMap((Map<String, Object>) object));
+            } else if (object == null) {
+                array.pushNull();
+            } else {
+                array.pushString(object.toString());
+            }
+        }
+
+        return array;
+    }
+
+    public static WritableNativeMap makeNativeMap(Map<String, Object> map) {
+        WritableNativeMap nativeMap = new WritableNativeMap();
+
+        for (Map.Entry<String, Object> e : map.entrySet()) {
+            Object value = e.getValue();
+
+            nativeMap.putString(
+                e.getKey(),
+                value == null ? null : value.toString());
+        }
+
+        return nativeMap;
+    }
+
+    static Object toJava(Object value) {
+        if (value instanceof ReadableMap) {
+            return ((ReadableMap) value).toHashMap();
+        } else if (value instanceof ReadableArray) {
+            return ((ReadableArray) value).toArrayList();
+        } else {
+            return value;
+        }
+    }
+}
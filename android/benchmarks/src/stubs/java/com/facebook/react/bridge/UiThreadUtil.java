@@ -0,0 +1,31 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.react.bridge;
+
+/**
+ * Stub of the React Native {@code UiThreadUtil} for which the benchmark thread
+ * is the UI thread.
+ */
+public class UiThreadUtil {
+    public static boolean isOnUiThread() {
+        return true;
+    }
+
+    public static void runOnUiThread(Runnable runnable) {
+        runnable.run();
+    }
+}
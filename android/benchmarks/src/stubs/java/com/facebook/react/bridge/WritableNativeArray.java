@@ -0,0 +1,90 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.react.bridge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stub of the React Native {@code WritableNativeArray} which keeps its values
+ * on the Java heap (like React Native's {@code JavaOnlyArray}) instead of
+ * behind JNI.
+ */
+public class WritableNativeArray implements WritableArray {
+    private final List<Object> values = new ArrayList<>();
+
+    @Override
+    public ReadableMap getMap(int index) {
+        return (ReadableMap) values.get(index);
+    }
+
+    @Override
+    public String getString(int index) {
+        return (String) values.get(index);
+    }
+
+    @Override
+    public ReadableType getType(int index) {
+        return Arguments.getType(values.get(index));
+    }
+
+    @Override
+    public void pushArray(WritableArray array) {
+        values.add(array);
+    }
+
+    @Override
+    public void pushBoolean(boolean value) {
+        values.add(value);
+    }
+
+    @Override
+    public void pushDouble(double value) {
+        values.add(value);
+    }
+
+    @Override
+    public void pushMap(WritableMap map) {
+        values.add(map);
+    }
+
+    @Override
+    public void pushNull() {
+        values.add(null);
+    }
+
+    @Override
+    public void pushString(String string) {
+        values.add(string);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public ArrayList<Object> toArrayList() {
+        ArrayList<Object> arrayList = new ArrayList<>(values.size());
+
+        for (Object value : values) {
+            arrayList.add(Arguments.toJava(value));
+        }
+
+        return arrayList;
+    }
+}
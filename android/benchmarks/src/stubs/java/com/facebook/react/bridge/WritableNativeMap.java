@@ -0,0 +1,148 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.react.bridge;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stub of the React Native {@code WritableNativeMap} which keeps its values on
+ * the Java heap (like React Native's {@code JavaOnlyMap}) instead of behind
+ * JNI.
+ */
+public class WritableNativeMap implements WritableMap {
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    @Override
+    public ReadableArray getArray(String name) {
+        return (ReadableArray) values.get(name);
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        return (Boolean) values.get(name);
+    }
+
+    @Override
+    public double getDouble(String name) {
+        return ((Number) values.get(name)).doubleValue();
+    }
+
+    @Override
+    public int getInt(String name) {
+        return ((Number) values.get(name)).intValue();
+    }
+
+    @Override
+    public ReadableMap getMap(String name) {
+        return (ReadableMap) values.get(name);
+    }
+
+    @Override
+    public String getString(String name) {
+        return (String) values.get(name);
+    }
+
+    @Override
+    public ReadableType getType(String name) {
+        return Arguments.getType(values.get(name));
+    }
+
+    @Override
+    public boolean hasKey(String name) {
+        return values.containsKey(name);
+    }
+
+    @Override
+    public boolean isNull(String name) {
+        return values.get(name) == null;
+    }
+
+    @Override
+    public ReadableMapKeySetIterator keySetIterator() {
+        final Iterator<String> i = values.keySet().iterator();
+
+        return new ReadableMapKeySetIterator() {
+            @Override
+            public boolean hasNextKey() {
+                return i.hasNext();
+            }
+
+            @Override
+            public String nextKey() {
+                return i.next();
+            }
+        };
+    }
+
+    @Override
+    public void merge(ReadableMap source) {
+        if (source instanceof WritableNativeMap) {
+            values.putAll(((WritableNativeMap) source).values);
+        } else {
+            values.putAll(source.toHashMap());
+        }
+    }
+
+    @Override
+    public void putArray(String key, WritableArray value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putDouble(String key, double value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putMap(String key, WritableMap value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putNull(String key) {
+        values.put(key, null);
+    }
+
+    @Override
+    public void putString(String key, String value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public HashMap<String, Object> toHashMap() {
+        HashMap<String, Object> hashMap = new HashMap<>();
+
+        for (Map.Entry<String, Object> e : values.entrySet()) {
+            hashMap.put(e.getKey(), Arguments.toJava(e.getValue()));
+        }
+
+        return hashMap;
+    }
+}
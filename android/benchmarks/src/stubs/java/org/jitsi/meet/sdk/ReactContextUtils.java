@@ -0,0 +1,32 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import com.facebook.react.bridge.ReactContext;
+
+/**
+ * Stub of {@code ReactContextUtils} which drops the events instead of emitting
+ * them to JavaScript, there being no JavaScript in the benchmarks.
+ */
+public class ReactContextUtils {
+    public static boolean emitEvent(
+            ReactContext reactContext,
+            String eventName,
+            Object data) {
+        return true;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import android.annotation.TargetApi;
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothProfile;
+import android.content.Context;
+import android.media.AudioDeviceCallback;
+import android.media.AudioDeviceInfo;
+import android.media.AudioFocusRequest;
+import android.media.AudioManager;
+import android.os.Build;
+
+/**
+ * {@link AudioHardware} implementation which delegates to the Android
+ * {@link AudioManager} and the default {@link BluetoothAdapter}.
+ */
+class AndroidAudioHardware implements AudioHardware {
+    /**
+     * {@link AudioManager} instance used to interact with the Android audio
+     * subsystem.
+     */
+    private final AudioManager audioManager;
+
+    /**
+     * The {@link Context} Bluetooth profile proxies are obtained in.
+     */
+    private final Context context;
+
+    public AndroidAudioHardware(Context context) {
+        this.context = context;
+
+        audioManager
+            = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+    }
+
+    @Override
+    public void abandonAudioFocus(
+            AudioManager.OnAudioFocusChangeListener listener) {
+        audioManager.abandonAudioFocus(listener);
+    }
+
+    @Override
+    @TargetApi(Build.VERSION_CODES.O)
+    public void abandonAudioFocusRequest(AudioFocusRequest audioFocusRequest) {
+        audioManager.abandonAudioFocusRequest(audioFocusRequest);
+    }
+
+    @Override
+    public void closeBluetoothHeadsetProfileProxy(BluetoothProfile proxy) {
+        BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
+
+        if (adapter != null) {
+            adapter.closeProfileProxy(BluetoothProfile.HEADSET, proxy);
+        }
+    }
+
+    @Override
+    public boolean getBluetoothHeadsetProfileProxy(
+            BluetoothProfile.ServiceListener listener) {
+        BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
+
+        return
+            adapter != null
+                && adapter.getProfileProxy(
+                    context,
+                    listener,
+                    BluetoothProfile.HEADSET);
+    }
+
+    @Override
+    @TargetApi(Build.VERSION_CODES.M)
+    public AudioDeviceInfo[] getDevices(int flags) {
+        return audioManager.getDevices(flags);
+    }
+
+    @Override
+    public boolean isBluetoothScoAvailableOffCall() {
+        return audioManager.isBluetoothScoAvailableOffCall();
+    }
+
+    @Override
+    public boolean isWiredHeadsetOn() {
+        // XXX: isWiredHeadsetOn is not deprecated when used just for knowing if
+        // there is a wired headset connected, regardless of audio being routed
+        // to it.
+        //noinspection deprecation
+        return audioManager.isWiredHeadsetOn();
+    }
+
+    @Override
+    @TargetApi(Build.VERSION_CODES.M)
+    public void registerAudioDeviceCallback(AudioDeviceCallback callback) {
+        audioManager.registerAudioDeviceCallback(callback, null);
+    }
+
+    @Override
+    @TargetApi(Build.VERSION_CODES.O)
+    public int requestAudioFocus(AudioFocusRequest audioFocusRequest) {
+        return audioManager.requestAudioFocus(audioFocusRequest);
+    }
+
+    @Override
+    public int requestAudioFocus(
+            AudioManager.OnAudioFocusChangeListener listener,
+            int streamType,
+            int durationHint) {
+        return
+            audioManager.requestAudioFocus(listener, streamType, durationHint);
+    }
+
+    @Override
+    public void setBluetoothScoOn(boolean on) {
+        audioManager.setBluetoothScoOn(on);
+    }
+
+    @Override
+    public void setMicrophoneMute(boolean on) {
+        audioManager.setMicrophoneMute(on);
+    }
+
+    @Override
+    public void setMode(int mode) {
+        audioManager.setMode(mode);
+    }
+
+    @Override
+    public void setSpeakerphoneOn(boolean on) {
+        audioManager.setSpeakerphoneOn(on);
+    }
+
+    @Override
+    public void startBluetoothSco() {
+        audioManager.startBluetoothSco();
+    }
+
+    @Override
+    public void stopBluetoothSco() {
+        audioManager.stopBluetoothSco();
+    }
+
+    @Override
+    @TargetApi(Build.VERSION_CODES.M)
+    public void unregisterAudioDeviceCallback(AudioDeviceCallback callback) {
+        audioManager.unregisterAudioDeviceCallback(callback);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.media.AudioManager;
+import android.media.audiofx.AutomaticGainControl;
+import android.os.Build;
+import android.util.Log;
+
+import org.webrtc.voiceengine.WebRtcAudioEffects;
+
+/**
+ * The audio capabilities of the device the application is running on, as far
+ * as WebRTC is concerned. Used by {@link WebRTCAudioOptions} to only enable
+ * the CPU-heavy software audio processing of WebRTC where the device does not
+ * offer it in hardware.
+ */
+public final class AudioCapabilities {
+    /**
+     * The tag used when logging.
+     */
+    private static final String TAG = AudioCapabilities.class.getSimpleName();
+
+    /**
+     * The {@code AudioCapabilities} of the device, probed once.
+     */
+    private static AudioCapabilities instance;
+
+    /**
+     * Gets the {@code AudioCapabilities} of the device. The device is probed
+     * upon the first call only because querying the audio effects is not
+     * cheap.
+     *
+     * @param context the {@code Context} to probe with.
+     * @return the {@code AudioCapabilities} of the device.
+     */
+    public static synchronized AudioCapabilities get(Context context) {
+        if (instance == null) {
+            instance = new AudioCapabilities(context.getApplicationContext());
+            Log.d(TAG, instance.toString());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Whether the device has a usable hardware acoustic echo canceler.
+     */
+    private final boolean hardwareAcousticEchoCanceler;
+
+    /**
+     * Whether the device has a hardware automatic gain control.
+     */
+    private final boolean hardwareAutomaticGainControl;
+
+    /**
+     * Whether the device has a usable hardware noise suppressor.
+     */
+    private final boolean hardwareNoiseSuppressor;
+
+    /**
+     * Whether the device advertises a low-latency audio path.
+     */
+    private final boolean lowLatencyAudio;
+
+    /**
+     * The native output buffer size in frames or {@code 0} if unknown.
+     */
+    private final int outputFramesPerBuffer;
+
+    /**
+     * The native output sample rate in Hz or {@code 0} if unknown.
+     */
+    private final int outputSampleRate;
+
+    /**
+     * Whether the device advertises professional audio i.e. a round-trip
+     * latency of at most 20 ms.
+     */
+    private final boolean proAudio;
+
+    private AudioCapabilities(Context context) {
+        // XXX WebRtcAudioEffects takes into account the devices on which
+        // WebRTC knows the hardware effects to be broken.
+        hardwareAcousticEchoCanceler
+            = WebRtcAudioEffects.isAcousticEchoCancelerSupported();
+        hardwareAutomaticGainControl = AutomaticGainControl.isAvailable();
+        hardwareNoiseSuppressor
+            = WebRtcAudioEffects.isNoiseSuppressorSupported();
+
+        PackageManager pm = context.getPackageManager();
+
+        lowLatencyAudio
+            = pm.hasSystemFeature(PackageManager.FEATURE_AUDIO_LOW_LATENCY);
+        proAudio
+            = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                && pm.hasSystemFeature(PackageManager.FEATURE_AUDIO_PRO);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            AudioManager audioManager
+                = (AudioManager)
+                    context.getSystemService(Context.AUDIO_SERVICE);
+
+            outputFramesPerBuffer
+                = parseInt(
+                    audioManager.getProperty(
+                        AudioManager.PROPERTY_OUTPUT_FRAMES_PER_BUFFER));
+            outputSampleRate
+                = parseInt(
+                    audioManager.getProperty(
+                        AudioManager.PROPERTY_OUTPUT_SAMPLE_RATE));
+        } else {
+            outputFramesPerBuffer = 0;
+            outputSampleRate = 0;
+        }
+    }
+
+    /**
+     * Gets the native output buffer size.
+     *
+     * @return the native output buffer size in frames or {@code 0} if unknown.
+     */
+    public int getOutputFramesPerBuffer() {
+        return outputFramesPerBuffer;
+    }
+
+    /**
+     * Gets the native output sample rate.
+     *
+     * @return the native output sample rate in Hz or {@code 0} if unknown.
+     */
+    public int getOutputSampleRate() {
+        return outputSampleRate;
+    }
+
+    /**
+     * Whether the device has a usable hardware acoustic echo canceler.
+     *
+     * @return {@code true} if the device has a usable hardware acoustic echo
+     * canceler; otherwise, {@code false}.
+     */
+    public boolean isHardwareAcousticEchoCancelerAvailable() {
+        return hardwareAcousticEchoCanceler;
+    }
+
+    /**
+     * Whether the device has a hardware automatic gain control.
+     *
+     * @return {@code true} if the device has a hardware automatic gain
+     * control; otherwise, {@code false}.
+     */
+    public boolean isHardwareAutomaticGainControlAvailable() {
+        return hardwareAutomaticGainControl;
+    }
+
+    /**
+     * Whether the device has a usable hardware noise suppressor.
+     *
+     * @return {@code true} if the device has a usable hardware noise
+     * suppressor; otherwise, {@code false}.
+     */
+    public boolean isHardwareNoiseSuppressorAvailable() {
+        return hardwareNoiseSuppressor;
+    }
+
+    /**
+     * Whether the device advertises a low-latency audio path. WebRTC plays
+     * audio through OpenSL ES on such devices unless told otherwise.
+     *
+     * @return {@code true} if the device advertises a low-latency audio path;
+     * otherwise, {@code false}.
+     */
+    public boolean isLowLatencyAudioSupported() {
+        return lowLatencyAudio;
+    }
+
+    /**
+     * Whether the device advertises professional audio.
+     *
+     * @return {@code true} if the device advertises professional audio;
+     * otherwise, {@code false}.
+     */
+    public boolean isProAudioSupported() {
+        return proAudio;
+    }
+
+    /**
+     * Parses a property of {@link AudioManager}.
+     *
+     * @param value the value of the property, may be {@code null}.
+     * @return the {@code int} value of the property or {@code 0} if it is not
+     * set or not a number.
+     */
+    private static int parseInt(String value) {
+        if (value != null) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException nfe) {
+                // Fall through.
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return
+            "AudioCapabilities{hardwareAcousticEchoCanceler="
+                + hardwareAcousticEchoCanceler
+                + ", hardwareAutomaticGainControl="
+                + hardwareAutomaticGainControl
+                + ", hardwareNoiseSuppressor=" + hardwareNoiseSuppressor
+                + ", lowLatencyAudio=" + lowLatencyAudio
+                + ", proAudio=" + proAudio
+                + ", outputFramesPerBuffer=" + outputFramesPerBuffer
+                + ", outputSampleRate=" + outputSampleRate
+                + "}";
+    }
+}
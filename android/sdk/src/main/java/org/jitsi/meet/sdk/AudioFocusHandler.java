@@ -0,0 +1,266 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import android.annotation.TargetApi;
+import android.media.AudioAttributes;
+import android.media.AudioFocusRequest;
+import android.media.AudioManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+/**
+ * Helper class which acquires the audio focus once per call, holds it across
+ * audio route changes and reports focus changes to {@link AudioModeModule}.
+ *
+ * Uses {@link AudioFocusRequest} on Android >= O and the legacy
+ * {@link AudioManager#requestAudioFocus(AudioManager.OnAudioFocusChangeListener, int, int)}
+ * API on older versions.
+ *
+ * All methods must be called on the main thread.
+ */
+class AudioFocusHandler {
+    /**
+     * {@link AudioHardware} instance used to interact with the Android audio
+     * subsystem.
+     */
+    private final AudioHardware audioHardware;
+
+    /**
+     * {@link AudioModeModule} where this handler reports.
+     */
+    private final AudioModeModule audioModeModule;
+
+    /**
+     * The {@link AudioFocusRequest} used on Android >= O. Kept around because
+     * the very same instance must be used to abandon the focus.
+     */
+    private Object audioFocusRequest;
+
+    /**
+     * The last focus change reported by the system, one of the
+     * {@code AudioManager.AUDIOFOCUS_*} constants.
+     */
+    private int focusState = AudioManager.AUDIOFOCUS_LOSS;
+
+    /**
+     * Whether the focus was requested (and not abandoned since). Does not imply
+     * that we currently hold it, the system may have taken it away.
+     */
+    private boolean focusRequested;
+
+    /**
+     * Whether the focus was lost permanently (e.g. to another call) and not
+     * requested explicitly since. Whoever took it is not to have it taken back
+     * behind the user's back e.g. because an audio device was plugged in.
+     */
+    private boolean focusLostPermanently;
+
+    /**
+     * {@link Handler} for running all operations on the main thread.
+     */
+    private final Handler mainThreadHandler
+        = new Handler(Looper.getMainLooper());
+
+    /**
+     * The listener the system notifies about focus changes.
+     */
+    private final AudioManager.OnAudioFocusChangeListener listener
+        = new AudioManager.OnAudioFocusChangeListener() {
+            @Override
+            public void onAudioFocusChange(final int focusChange) {
+                // The legacy API invokes the listener on the main thread as
+                // well, but make sure of it.
+                mainThreadHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onFocusChange(focusChange);
+                    }
+                });
+            }
+        };
+
+    public AudioFocusHandler(
+            AudioModeModule audioModeModule,
+            AudioHardware audioHardware) {
+        this.audioModeModule = audioModeModule;
+        this.audioHardware = audioHardware;
+    }
+
+    /**
+     * Abandons the audio focus if it was requested.
+     */
+    public void abandonAudioFocus() {
+        if (!focusRequested) {
+            return;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            abandonAudioFocusO();
+        } else {
+            audioHardware.abandonAudioFocus(listener);
+        }
+
+        focusRequested = false;
+        focusState = AudioManager.AUDIOFOCUS_LOSS;
+        Log.d(AudioModeModule.TAG, "Audio focus abandoned");
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    private void abandonAudioFocusO() {
+        if (audioFocusRequest != null) {
+            audioHardware.abandonAudioFocusRequest(
+                (AudioFocusRequest) audioFocusRequest);
+        }
+    }
+
+    /**
+     * Gets the string representation of a focus change to be reported to the
+     * JavaScript side.
+     *
+     * @param focusChange one of the {@code AudioManager.AUDIOFOCUS_*}
+     * constants.
+     * @return the string representation of {@code focusChange}.
+     */
+    static String focusChangeToString(int focusChange) {
+        switch (focusChange) {
+        case AudioManager.AUDIOFOCUS_GAIN:
+            return "GAIN";
+        case AudioManager.AUDIOFOCUS_LOSS:
+            return "LOSS";
+        case AudioManager.AUDIOFOCUS_LOSS_TRANSIENT:
+            return "LOSS_TRANSIENT";
+        case AudioManager.AUDIOFOCUS_LOSS_TRANSIENT_CAN_DUCK:
+            return "LOSS_TRANSIENT_CAN_DUCK";
+        default:
+            return "UNKNOWN";
+        }
+    }
+
+    /**
+     * Gets the current audio focus state.
+     *
+     * @return one of the {@code AudioManager.AUDIOFOCUS_*} constants.
+     */
+    public int getFocusState() {
+        return focusState;
+    }
+
+    /**
+     * Handles a focus change reported by the system.
+     *
+     * @param focusChange one of the {@code AudioManager.AUDIOFOCUS_*}
+     * constants.
+     */
+    private void onFocusChange(int focusChange) {
+        if (!focusRequested) {
+            // A late notification about a focus we no longer care about.
+            return;
+        }
+
+        Log.d(
+            AudioModeModule.TAG,
+            "Audio focus changed: " + focusChangeToString(focusChange));
+        focusState = focusChange;
+        audioModeModule.onAudioFocusChange(focusChange);
+
+        // XXX A permanent loss will not be followed by a gain so the system
+        // does not expect us to hold on to the request. Abandon it so that the
+        // next call to requestAudioFocus() actually requests the focus again.
+        if (focusChange == AudioManager.AUDIOFOCUS_LOSS) {
+            abandonAudioFocus();
+            focusLostPermanently = true;
+        }
+    }
+
+    /**
+     * Requests the audio focus for a call. Does nothing if the focus was
+     * already requested and not abandoned since, so that audio route changes
+     * during a call do not churn the focus.
+     *
+     * @param explicit whether the focus is requested because of an explicit
+     * action (e.g. JavaScript setting the audio mode) as opposed to an audio
+     * route update. After a permanent loss, only an explicit request actually
+     * requests the focus.
+     * @return {@code true} if the focus is (or was already) requested
+     * successfully or, after a permanent loss, is not to be requested;
+     * {@code false}, otherwise.
+     */
+    public boolean requestAudioFocus(boolean explicit) {
+        if (focusRequested) {
+            return true;
+        }
+        if (focusLostPermanently) {
+            if (!explicit) {
+                Log.d(
+                    AudioModeModule.TAG,
+                    "Audio focus lost permanently, not requesting it again");
+                return true;
+            }
+            focusLostPermanently = false;
+        }
+
+        int result;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            result = requestAudioFocusO();
+        } else {
+            result
+                = audioHardware.requestAudioFocus(
+                    listener,
+                    AudioManager.STREAM_VOICE_CALL,
+                    AudioManager.AUDIOFOCUS_GAIN);
+        }
+
+        if (result == AudioManager.AUDIOFOCUS_REQUEST_FAILED) {
+            Log.d(AudioModeModule.TAG, "Audio focus request failed");
+            return false;
+        }
+
+        focusRequested = true;
+        focusState = AudioManager.AUDIOFOCUS_GAIN;
+        Log.d(AudioModeModule.TAG, "Audio focus acquired");
+
+        return true;
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    private int requestAudioFocusO() {
+        if (audioFocusRequest == null) {
+            AudioAttributes audioAttributes
+                = new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_VOICE_COMMUNICATION)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                    .build();
+
+            // XXX We would rather have the JavaScript side decide what to do
+            // with a conference than the system ducking it automatically.
+            audioFocusRequest
+                = new AudioFocusRequest.Builder(AudioManager.AUDIOFOCUS_GAIN)
+                    .setAudioAttributes(audioAttributes)
+                    .setWillPauseWhenDucked(true)
+                    .setOnAudioFocusChangeListener(listener, mainThreadHandler)
+                    .build();
+        }
+
+        return
+            audioHardware.requestAudioFocus(
+                (AudioFocusRequest) audioFocusRequest);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import android.bluetooth.BluetoothProfile;
+import android.media.AudioDeviceCallback;
+import android.media.AudioDeviceInfo;
+import android.media.AudioFocusRequest;
+import android.media.AudioManager;
+
+/**
+ * The audio hardware {@link AudioModeModule} and its helpers route audio with
+ * i.e. the subset of {@link AudioManager} and
+ * {@link android.bluetooth.BluetoothAdapter} they use. Every method call is
+ * potentially an IPC to the system's audio or Bluetooth service.
+ *
+ * {@link AndroidAudioHardware} is the implementation used in production. Tests
+ * inject fakes in order to exercise the audio routing without real hardware.
+ */
+interface AudioHardware {
+    /**
+     * @see AudioManager#abandonAudioFocus(AudioManager.OnAudioFocusChangeListener)
+     */
+    void abandonAudioFocus(AudioManager.OnAudioFocusChangeListener listener);
+
+    /**
+     * @see AudioManager#abandonAudioFocusRequest(AudioFocusRequest)
+     */
+    void abandonAudioFocusRequest(AudioFocusRequest audioFocusRequest);
+
+    /**
+     * Closes a Bluetooth headset profile proxy obtained through
+     * {@link #getBluetoothHeadsetProfileProxy(BluetoothProfile.ServiceListener)}.
+     *
+     * @param proxy the proxy to close.
+     */
+    void closeBluetoothHeadsetProfileProxy(BluetoothProfile proxy);
+
+    /**
+     * Gets a proxy to the Bluetooth headset profile which is delivered to the
+     * given listener.
+     *
+     * @param listener the listener to deliver the proxy to.
+     * @return {@code true} if the proxy will be delivered; {@code false} if the
+     * device does not support Bluetooth or the request failed.
+     */
+    boolean getBluetoothHeadsetProfileProxy(
+            BluetoothProfile.ServiceListener listener);
+
+    /**
+     * @see AudioManager#getDevices(int)
+     */
+    AudioDeviceInfo[] getDevices(int flags);
+
+    /**
+     * @see AudioManager#isBluetoothScoAvailableOffCall()
+     */
+    boolean isBluetoothScoAvailableOffCall();
+
+    /**
+     * @see AudioManager#isWiredHeadsetOn()
+     */
+    boolean isWiredHeadsetOn();
+
+    /**
+     * @see AudioManager#registerAudioDeviceCallback(AudioDeviceCallback, android.os.Handler)
+     */
+    void registerAudioDeviceCallback(AudioDeviceCallback callback);
+
+    /**
+     * @see AudioManager#requestAudioFocus(AudioFocusRequest)
+     */
+    int requestAudioFocus(AudioFocusRequest audioFocusRequest);
+
+    /**
+     * @see AudioManager#requestAudioFocus(AudioManager.OnAudioFocusChangeListener, int, int)
+     */
+    int requestAudioFocus(
+            AudioManager.OnAudioFocusChangeListener listener,
+            int streamType,
+            int durationHint);
+
+    /**
+     * @see AudioManager#setBluetoothScoOn(boolean)
+     */
+    void setBluetoothScoOn(boolean on);
+
+    /**
+     * @see AudioManager#setMicrophoneMute(boolean)
+     */
+    void setMicrophoneMute(boolean on);
+
+    /**
+     * @see AudioManager#setMode(int)
+     */
+    void setMode(int mode);
+
+    /**
+     * @see AudioManager#setSpeakerphoneOn(boolean)
+     */
+    void setSpeakerphoneOn(boolean on);
+
+    /**
+     * @see AudioManager#startBluetoothSco()
+     */
+    void startBluetoothSco();
+
+    /**
+     * @see AudioManager#stopBluetoothSco()
+     */
+    void stopBluetoothSco();
+
+    /**
+     * @see AudioManager#unregisterAudioDeviceCallback(AudioDeviceCallback)
+     */
+    void unregisterAudioDeviceCallback(AudioDeviceCallback callback);
+}
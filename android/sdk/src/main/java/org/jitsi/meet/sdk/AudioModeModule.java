@@ -34,11 +34,13 @@ import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
-import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -79,6 +81,13 @@ class AudioModeModule extends ReactContextBaseJavaModule {
             ? AudioManager.ACTION_HEADSET_PLUG
             : Intent.ACTION_HEADSET_PLUG;
 
+    /**
+     * The name of the event emitted to JavaScript when the audio focus
+     * changes.
+     */
+    private static final String AUDIO_FOCUS_CHANGED_EVENT
+        = "org.jitsi.meet:features/audio-mode#audioFocusChanged";
+
     /**
      * The name of {@code AudioModeModule} to be used in the React Native
      * bridge.
@@ -91,10 +100,50 @@ class AudioModeModule extends ReactContextBaseJavaModule {
     static final String TAG = MODULE_NAME;
 
     /**
-     * {@link AudioManager} instance used to interact with the Android audio
+     * The {@link AudioRoutePolicy} consulted if {@link #audioRoutePolicy}
+     * fails or returns an unavailable device.
+     */
+    private static final AudioRoutePolicy DEFAULT_AUDIO_ROUTE_POLICY
+        = new DefaultAudioRoutePolicy();
+
+    /**
+     * The {@link AudioRoutePolicy} which decides the audio device to use
+     * unless the user explicitly selected one.
+     */
+    private static volatile AudioRoutePolicy audioRoutePolicy
+        = DEFAULT_AUDIO_ROUTE_POLICY;
+
+    /**
+     * Sets the {@link AudioRoutePolicy} which decides the audio device to use.
+     *
+     * @param audioRoutePolicy the {@code AudioRoutePolicy} to use or
+     * {@code null} to use {@link DefaultAudioRoutePolicy}.
+     */
+    static void setAudioRoutePolicy(AudioRoutePolicy audioRoutePolicy) {
+        AudioModeModule.audioRoutePolicy
+            = audioRoutePolicy == null
+                ? DEFAULT_AUDIO_ROUTE_POLICY
+                : audioRoutePolicy;
+    }
+
+    /**
+     * {@link AudioHardware} instance used to interact with the Android audio
      * subsystem.
      */
-    private final AudioManager audioManager;
+    private final AudioHardware audioHardware;
+
+    /**
+     * The {@link android.media.AudioDeviceCallback} registered on Android >= M
+     * to detect audio device changes. Typed as {@code Object} because the
+     * class does not exist on older Android versions.
+     */
+    private Object audioDeviceCallback;
+
+    /**
+     * {@link AudioFocusHandler} which acquires and holds the audio focus for
+     * the duration of a call.
+     */
+    private final AudioFocusHandler audioFocusHandler;
 
     /**
      * {@link BluetoothHeadsetMonitor} for detecting Bluetooth device changes in
@@ -102,6 +151,27 @@ class AudioModeModule extends ReactContextBaseJavaModule {
      */
     private BluetoothHeadsetMonitor bluetoothHeadsetMonitor;
 
+    /**
+     * {@link AudioRouteSelectionStore} which remembers the audio devices
+     * selected by the user across calls.
+     */
+    private final AudioRouteSelectionStore audioRouteSelectionStore;
+
+    /**
+     * {@link BluetoothSCOStateMachine} which establishes and tears down the
+     * Bluetooth SCO connection when audio is to be routed to / away from a
+     * Bluetooth headset.
+     */
+    private final BluetoothSCOStateMachine bluetoothSCOStateMachine;
+
+    /**
+     * Whether establishing the Bluetooth SCO connection failed (even after
+     * retrying). While {@code true}, the Bluetooth headset is skipped when
+     * picking the default audio device. Reset when the Bluetooth headset goes
+     * away or when the user explicitly selects it.
+     */
+    private boolean bluetoothSCOFailed;
+
     /**
      * {@link Handler} for running all operations on the main thread.
      */
@@ -117,36 +187,61 @@ class AudioModeModule extends ReactContextBaseJavaModule {
         @Override
         public void run() {
             Set<String> devices = new HashSet<>();
+            Map<String, String> identities = new HashMap<>();
             AudioDeviceInfo[] deviceInfos
-                = audioManager.getDevices(AudioManager.GET_DEVICES_ALL);
+                = audioHardware.getDevices(AudioManager.GET_DEVICES_ALL);
 
             for (AudioDeviceInfo info: deviceInfos) {
+                String device;
+
                 switch (info.getType()) {
                 case AudioDeviceInfo.TYPE_BLUETOOTH_SCO:
-                    devices.add(DEVICE_BLUETOOTH);
+                    device = DEVICE_BLUETOOTH;
                     break;
                 case AudioDeviceInfo.TYPE_BUILTIN_EARPIECE:
-                    devices.add(DEVICE_EARPIECE);
+                    device = DEVICE_EARPIECE;
                     break;
                 case AudioDeviceInfo.TYPE_BUILTIN_SPEAKER:
-                    devices.add(DEVICE_SPEAKER);
+                    device = DEVICE_SPEAKER;
                     break;
                 case AudioDeviceInfo.TYPE_WIRED_HEADPHONES:
                 case AudioDeviceInfo.TYPE_WIRED_HEADSET:
-                    devices.add(DEVICE_HEADPHONES);
+                    device = DEVICE_HEADPHONES;
                     break;
+                default:
+                    continue;
+                }
+
+                devices.add(device);
+
+                // Tell external devices apart by their product name so that
+                // selections made with one headset do not apply to another.
+                if (device.equals(DEVICE_BLUETOOTH)
+                        || device.equals(DEVICE_HEADPHONES)) {
+                    CharSequence productName = info.getProductName();
+
+                    if (productName != null && productName.length() != 0) {
+                        identities.put(device, device + ":" + productName);
+                    }
                 }
             }
 
             availableDevices = devices;
+            deviceIdentities = identities;
             Log.d(TAG, "Available audio devices: " +
                 availableDevices.toString());
 
+            if (!availableDevices.contains(DEVICE_BLUETOOTH)) {
+                bluetoothSCOFailed = false;
+            }
+
             // Reset user selection
             userSelectedDevice = null;
 
             if (mode != -1) {
-                updateAudioRoute(mode);
+                updateAudioRoute(mode, /* measure */ true);
+            } else {
+                publishAudioDevices();
             }
         }
     };
@@ -160,6 +255,8 @@ class AudioModeModule extends ReactContextBaseJavaModule {
             public void run() {
                 if (mode != -1) {
                     updateAudioRoute(mode);
+                } else {
+                    publishAudioDevices();
                 }
             }
         };
@@ -172,16 +269,33 @@ class AudioModeModule extends ReactContextBaseJavaModule {
     /**
      * Audio device types.
      */
-    private static final String DEVICE_BLUETOOTH  = "BLUETOOTH";
-    private static final String DEVICE_EARPIECE   = "EARPIECE";
-    private static final String DEVICE_HEADPHONES = "HEADPHONES";
-    private static final String DEVICE_SPEAKER    = "SPEAKER";
+    private static final String DEVICE_BLUETOOTH
+        = AudioRoutePolicy.DEVICE_BLUETOOTH;
+    private static final String DEVICE_EARPIECE
+        = AudioRoutePolicy.DEVICE_EARPIECE;
+    private static final String DEVICE_HEADPHONES
+        = AudioRoutePolicy.DEVICE_HEADPHONES;
+    private static final String DEVICE_SPEAKER
+        = AudioRoutePolicy.DEVICE_SPEAKER;
+
+    /**
+     * The {@link BroadcastReceiver} registered on Android < M to detect wired
+     * headset changes.
+     */
+    private BroadcastReceiver wiredHeadsetReceiver;
 
     /**
      * List of currently available audio devices.
      */
     private Set<String> availableDevices = new HashSet<>();
 
+    /**
+     * The identities of the currently available audio devices which can be
+     * told apart from other devices of the same type, by device type. The
+     * identity of any other available device is its type.
+     */
+    private Map<String, String> deviceIdentities = new HashMap<>();
+
     /**
      * Currently selected device.
      */
@@ -201,11 +315,28 @@ class AudioModeModule extends ReactContextBaseJavaModule {
      * is created.
      */
     public AudioModeModule(ReactApplicationContext reactContext) {
+        this(reactContext, new AndroidAudioHardware(reactContext));
+    }
+
+    /**
+     * Initializes a new module instance which routes audio with a specific
+     * {@link AudioHardware}.
+     *
+     * @param reactContext the {@link ReactApplicationContext} where this module
+     * is created.
+     * @param audioHardware the {@code AudioHardware} to route audio with.
+     */
+    AudioModeModule(
+            ReactApplicationContext reactContext,
+            AudioHardware audioHardware) {
         super(reactContext);
 
-        audioManager
-            = (AudioManager)
-                reactContext.getSystemService(Context.AUDIO_SERVICE);
+        this.audioHardware = audioHardware;
+
+        audioFocusHandler = new AudioFocusHandler(this, audioHardware);
+        audioRouteSelectionStore = new AudioRouteSelectionStore(reactContext);
+        bluetoothSCOStateMachine
+            = new BluetoothSCOStateMachine(this, reactContext, audioHardware);
 
         // Setup runtime device change detection.
         setupAudioRouteChangeDetection();
@@ -222,6 +353,60 @@ class AudioModeModule extends ReactContextBaseJavaModule {
 
             // Always assume there is a speaker.
             availableDevices.add(DEVICE_SPEAKER);
+
+            publishAudioDevices();
+        }
+    }
+
+    /**
+     * Releases the resources held by this module i.e. unregisters the device
+     * change listeners and restores the default audio mode if a call is in
+     * progress.
+     *
+     * Runs on the main thread.
+     */
+    private void dispose() {
+        if (mode != -1 && mode != DEFAULT) {
+            updateAudioRoute(DEFAULT);
+        }
+        mode = -1;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            disposeAudioRouteChangeDetectionM();
+        } else {
+            disposeAudioRouteChangeDetectionPreM();
+        }
+
+        bluetoothSCOStateMachine.dispose();
+        audioFocusHandler.abandonAudioFocus();
+    }
+
+    /**
+     * Releases the audio route change detection mechanism for Android API >=
+     * 23.
+     */
+    @TargetApi(Build.VERSION_CODES.M)
+    private void disposeAudioRouteChangeDetectionM() {
+        if (audioDeviceCallback != null) {
+            audioHardware.unregisterAudioDeviceCallback(
+                (android.media.AudioDeviceCallback) audioDeviceCallback);
+            audioDeviceCallback = null;
+        }
+    }
+
+    /**
+     * Releases the audio route change detection mechanism for Android API <
+     * 23.
+     */
+    private void disposeAudioRouteChangeDetectionPreM() {
+        if (wiredHeadsetReceiver != null) {
+            getReactApplicationContext().unregisterReceiver(
+                wiredHeadsetReceiver);
+            wiredHeadsetReceiver = null;
+        }
+        if (bluetoothHeadsetMonitor != null) {
+            bluetoothHeadsetMonitor.dispose();
+            bluetoothHeadsetMonitor = null;
         }
     }
 
@@ -246,30 +431,28 @@ class AudioModeModule extends ReactContextBaseJavaModule {
      * Gets the list of available audio device categories, i.e. 'bluetooth',
      * 'earpiece ', 'speaker', 'headphones'.
      *
+     * Reads the last published {@link NativeState} and thus does not wait for
+     * the main thread.
+     *
      * @param promise a {@link Promise} which will be resolved with an object
      *                containing a 'devices' key with a list of devices, plus a
      *                'selected' key with the selected one.
      */
     @ReactMethod
-    public void getAudioDevices(final Promise promise) {
-        mainThreadHandler.post(new Runnable() {
-            @Override
-            public void run() {
-                WritableMap map = Arguments.createMap();
-                map.putString("selected", selectedDevice);
-                WritableArray devices = Arguments.createArray();
-                for (String device : availableDevices) {
-                    if (mode == VIDEO_CALL && device.equals(DEVICE_EARPIECE)) {
-                        // Skip earpiece when in video call mode.
-                        continue;
-                    }
-                    devices.pushString(device);
-                }
-                map.putArray("devices", devices);
+    public void getAudioDevices(Promise promise) {
+        promise.resolve(getAudioDevicesSync());
+    }
 
-                promise.resolve(map);
-            }
-        });
+    /**
+     * Synchronous variant of {@link #getAudioDevices(Promise)} which returns
+     * the last published {@link NativeState} without a bridge round-trip.
+     *
+     * @return an object containing a 'devices' key with a list of devices, plus
+     * a 'selected' key with the selected one.
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getAudioDevicesSync() {
+        return Arguments.makeNativeMap(NativeState.get().audioDevicesToMap());
     }
 
     /**
@@ -282,6 +465,62 @@ class AudioModeModule extends ReactContextBaseJavaModule {
         return MODULE_NAME;
     }
 
+    /**
+     * Releases the resources held by this module when the React instance it
+     * belongs to is destroyed (e.g. reloaded). Otherwise the registered device
+     * change listeners would keep this module alive and reacting to events.
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+
+        // Pending operations are moot now, and they retain this instance.
+        mainThreadHandler.removeCallbacksAndMessages(null);
+        mainThreadHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                dispose();
+            }
+        });
+    }
+
+    /**
+     * Helper method called by {@link AudioFocusHandler} when the audio focus
+     * changes. Reports the change to JavaScript which decides whether to pause
+     * (e.g. mute) the conference during a transient loss.
+     *
+     * Runs on the main thread.
+     *
+     * @param focusChange one of the {@code AudioManager.AUDIOFOCUS_*}
+     * constants.
+     */
+    void onAudioFocusChange(int focusChange) {
+        WritableMap data = Arguments.createMap();
+
+        data.putString(
+            "focus",
+            AudioFocusHandler.focusChangeToString(focusChange));
+        ReactContextUtils.emitEvent(
+            getReactApplicationContext(),
+            AUDIO_FOCUS_CHANGED_EVENT,
+            data);
+
+        if (focusChange == AudioManager.AUDIOFOCUS_GAIN && mode != -1) {
+            // Whoever had the focus in the meantime (e.g. a phone call) may
+            // have changed the audio mode and route, so apply ours again.
+            selectedDevice = null;
+            updateAudioRoute(mode);
+        }
+    }
+
+    /**
+     * Helper method to trigger an audio route update when the
+     * {@link AudioRoutePolicy} changes.
+     */
+    void onAudioRoutePolicyChange() {
+        mainThreadHandler.post(updateAudioRouteRunner);
+    }
+
     /**
      * Helper method to trigger an audio route update when devices change. It
      * makes sure the operation is performed on the main thread.
@@ -303,6 +542,60 @@ class AudioModeModule extends ReactContextBaseJavaModule {
             availableDevices.add(DEVICE_BLUETOOTH);
         } else {
             availableDevices.remove(DEVICE_BLUETOOTH);
+            bluetoothSCOFailed = false;
+        }
+
+        if (mode != -1) {
+            updateAudioRoute(mode, /* measure */ true);
+        } else {
+            publishAudioDevices();
+        }
+    }
+
+    /**
+     * Helper method called by {@link BluetoothSCOStateMachine} when the
+     * Bluetooth SCO connection was established and audio now flows through the
+     * Bluetooth headset.
+     *
+     * Runs on the main thread.
+     */
+    void onBluetoothSCOConnected() {
+        Log.d(TAG, "Bluetooth SCO connected");
+        AudioRouteMetrics.getInstance().markSCOConnected();
+    }
+
+    /**
+     * Helper method called by {@link BluetoothSCOStateMachine} when the
+     * Bluetooth SCO connection could not be established even after retrying.
+     * Falls back to the next-best audio device.
+     *
+     * Runs on the main thread.
+     */
+    void onBluetoothSCOConnectFailed() {
+        AudioRouteMetrics.getInstance().markSCOFailed();
+        bluetoothSCOFailed = true;
+
+        if (DEVICE_BLUETOOTH.equals(userSelectedDevice)) {
+            userSelectedDevice = null;
+        }
+
+        if (mode != -1) {
+            updateAudioRoute(mode);
+        }
+    }
+
+    /**
+     * Helper method called by {@link BluetoothSCOStateMachine} when an
+     * established Bluetooth SCO connection was lost without us asking for it.
+     * Recomputes the audio route which will try to reconnect if the Bluetooth
+     * headset is still the best choice.
+     *
+     * Runs on the main thread.
+     */
+    void onBluetoothSCODisconnected() {
+        if (DEVICE_BLUETOOTH.equals(selectedDevice)) {
+            // Force updateAudioRoute to apply the route again.
+            selectedDevice = null;
         }
 
         if (mode != -1) {
@@ -320,18 +613,16 @@ class AudioModeModule extends ReactContextBaseJavaModule {
         mainThreadHandler.post(new Runnable() {
             @Override
             public void run() {
-                // XXX: isWiredHeadsetOn is not deprecated when used just for
-                // knowing if there is a wired headset connected, regardless of
-                // audio being routed to it.
-                //noinspection deprecation
-                if (audioManager.isWiredHeadsetOn()) {
+                if (audioHardware.isWiredHeadsetOn()) {
                     availableDevices.add(DEVICE_HEADPHONES);
                 } else {
                     availableDevices.remove(DEVICE_HEADPHONES);
                 }
 
                 if (mode != -1) {
-                    updateAudioRoute(mode);
+                    updateAudioRoute(mode, /* measure */ true);
+                } else {
+                    publishAudioDevices();
                 }
             }
         });
@@ -355,7 +646,15 @@ class AudioModeModule extends ReactContextBaseJavaModule {
 
                 if (mode != -1) {
                     Log.d(TAG, "User selected device set to: " + device);
+                    if (device.equals(DEVICE_BLUETOOTH)) {
+                        // The user explicitly asked for Bluetooth so give it
+                        // another chance.
+                        bluetoothSCOFailed = false;
+                    }
                     userSelectedDevice = device;
+                    audioRouteSelectionStore.put(
+                        getAudioRouteSelectionKey(),
+                        device);
                     updateAudioRoute(mode);
                 }
             }
@@ -363,17 +662,54 @@ class AudioModeModule extends ReactContextBaseJavaModule {
     }
 
     /**
-     * Helper method to set the output route to a Bluetooth device.
+     * Gets the key the audio device selected by the user is remembered with
+     * for the currently available audio devices.
+     *
+     * @return the {@link AudioRouteSelectionStore} key for the currently
+     * available audio devices.
+     */
+    private String getAudioRouteSelectionKey() {
+        Set<String> identities = new HashSet<>();
+
+        for (String device : availableDevices) {
+            String identity = deviceIdentities.get(device);
+
+            identities.add(identity == null ? device : identity);
+        }
+
+        return AudioRouteSelectionStore.getKey(identities);
+    }
+
+    /**
+     * Publishes the audio devices JavaScript may select from and the selected
+     * one in {@link NativeState}.
+     */
+    private void publishAudioDevices() {
+        List<String> devices = new ArrayList<>(availableDevices.size());
+
+        for (String device : availableDevices) {
+            if (mode == VIDEO_CALL && device.equals(DEVICE_EARPIECE)) {
+                // Skip earpiece when in video call mode.
+                continue;
+            }
+            devices.add(device);
+        }
+
+        NativeState.publishAudioDevices(devices, selectedDevice);
+    }
+
+    /**
+     * Helper method to set the output route to a Bluetooth device. The route is
+     * effectively switched by {@link BluetoothSCOStateMachine} once the SCO
+     * connection is established.
      *
      * @param enabled true if Bluetooth should use used, false otherwise.
      */
     private void setBluetoothAudioRoute(boolean enabled) {
         if (enabled) {
-            audioManager.startBluetoothSco();
-            audioManager.setBluetoothScoOn(true);
+            bluetoothSCOStateMachine.connect();
         } else {
-            audioManager.setBluetoothScoOn(false);
-            audioManager.stopBluetoothSco();
+            bluetoothSCOStateMachine.disconnect();
         }
     }
 
@@ -397,7 +733,14 @@ class AudioModeModule extends ReactContextBaseJavaModule {
                 boolean success;
 
                 try {
-                    success = updateAudioRoute(mode);
+                    // XXX JavaScript setting the mode of a call is the explicit
+                    // action which takes the focus back after it was lost
+                    // permanently.
+                    success
+                        = (mode == DEFAULT
+                                || audioFocusHandler.requestAudioFocus(
+                                    /* explicit */ true))
+                            && updateAudioRoute(mode);
                 } catch (Throwable e) {
                     success = false;
                     Log.e(
@@ -407,6 +750,9 @@ class AudioModeModule extends ReactContextBaseJavaModule {
                 }
                 if (success) {
                     AudioModeModule.this.mode = mode;
+                    // The devices JavaScript may select from depend on the
+                    // mode.
+                    publishAudioDevices();
                     promise.resolve(null);
                 } else {
                     promise.reject(
@@ -441,6 +787,7 @@ class AudioModeModule extends ReactContextBaseJavaModule {
                     public void onAudioDevicesAdded(
                             AudioDeviceInfo[] addedDevices) {
                         Log.d(TAG, "Audio devices added");
+                        AudioRouteMetrics.getInstance().start();
                         onAudioDeviceChange();
                     }
 
@@ -448,11 +795,13 @@ class AudioModeModule extends ReactContextBaseJavaModule {
                     public void onAudioDevicesRemoved(
                             AudioDeviceInfo[] removedDevices) {
                         Log.d(TAG, "Audio devices removed");
+                        AudioRouteMetrics.getInstance().start();
                         onAudioDeviceChange();
                     }
                 };
 
-        audioManager.registerAudioDeviceCallback(audioDeviceCallback, null);
+        audioHardware.registerAudioDeviceCallback(audioDeviceCallback);
+        this.audioDeviceCallback = audioDeviceCallback;
     }
 
     /**
@@ -463,33 +812,133 @@ class AudioModeModule extends ReactContextBaseJavaModule {
 
         // Detect changes in wired headset connections.
         IntentFilter wiredHeadSetFilter = new IntentFilter(ACTION_HEADSET_PLUG);
-        BroadcastReceiver wiredHeadsetReceiver = new BroadcastReceiver() {
+        wiredHeadsetReceiver = new BroadcastReceiver() {
             @Override
             public void onReceive(Context context, Intent intent) {
                 Log.d(TAG, "Wired headset added / removed");
+                AudioRouteMetrics.getInstance().start();
                 onHeadsetDeviceChange();
             }
         };
         context.registerReceiver(wiredHeadsetReceiver, wiredHeadSetFilter);
 
         // Detect Bluetooth device changes.
-        bluetoothHeadsetMonitor = new BluetoothHeadsetMonitor(this, context);
+        bluetoothHeadsetMonitor
+            = new BluetoothHeadsetMonitor(this, context, audioHardware);
     }
 
     /**
-     * Updates the audio route for the given mode.
+     * Asks the {@link AudioRoutePolicy} which audio device to use for the given
+     * mode. Falls back to {@link DefaultAudioRoutePolicy} if the application
+     * supplied policy fails or picks an unavailable device.
+     *
+     * @param mode the audio mode to be used when computing the audio route.
+     * @return the audio device to use.
+     */
+    private String selectAudioDevice(int mode) {
+        Set<String> devices = availableDevices;
+
+        // Skip Bluetooth if we failed to connect to it.
+        if (bluetoothSCOFailed && devices.contains(DEVICE_BLUETOOTH)) {
+            devices = new HashSet<>(devices);
+            devices.remove(DEVICE_BLUETOOTH);
+        }
+        devices = Collections.unmodifiableSet(devices);
+
+        boolean audioOnly = mode == AUDIO_CALL;
+        String lastSelectedDevice
+            = audioRouteSelectionStore.get(getAudioRouteSelectionKey());
+        AudioRoutePolicy policy = audioRoutePolicy;
+        String audioDevice;
+
+        AudioRouteMetrics.beginSection("AudioRoutePolicy.selectAudioDevice");
+        try {
+            audioDevice
+                = policy.selectAudioDevice(
+                    audioOnly,
+                    devices,
+                    lastSelectedDevice);
+        } catch (RuntimeException re) {
+            Log.e(TAG, "AudioRoutePolicy failed to select an audio device", re);
+            audioDevice = null;
+        } finally {
+            AudioRouteMetrics.endSection();
+        }
+
+        if (audioDevice == null || !devices.contains(audioDevice)) {
+            if (policy != DEFAULT_AUDIO_ROUTE_POLICY) {
+                Log.w(
+                    TAG,
+                    "AudioRoutePolicy selected unavailable audio device: "
+                        + audioDevice);
+            }
+            audioDevice
+                = DEFAULT_AUDIO_ROUTE_POLICY.selectAudioDevice(
+                    audioOnly,
+                    devices,
+                    lastSelectedDevice);
+        }
+
+        return audioDevice;
+    }
+
+    /**
+     * Updates the audio route for the given mode without measuring it in
+     * {@link AudioRouteMetrics}.
      *
      * @param mode the audio mode to be used when computing the audio route.
      * @return {@code true} if the audio route was updated successfully;
      * {@code false}, otherwise.
      */
     private boolean updateAudioRoute(int mode) {
+        return updateAudioRoute(mode, /* measure */ false);
+    }
+
+    /**
+     * Updates the audio route for the given mode.
+     *
+     * @param mode the audio mode to be used when computing the audio route.
+     * @param measure whether the update responds to a system callback
+     * reporting an audio device change and is to be measured in
+     * {@link AudioRouteMetrics}.
+     * @return {@code true} if the audio route was updated successfully;
+     * {@code false}, otherwise.
+     */
+    private boolean updateAudioRoute(int mode, boolean measure) {
+        AudioRouteMetrics.beginSection("AudioModeModule.updateAudioRoute");
+        try {
+            return updateAudioRouteInternal(mode, measure);
+        } finally {
+            publishAudioDevices();
+            AudioRouteMetrics.endSection();
+        }
+    }
+
+    /**
+     * Implements {@link #updateAudioRoute(int, boolean)}.
+     *
+     * @param mode the audio mode to be used when computing the audio route.
+     * @param measure whether the update is to be measured in
+     * {@link AudioRouteMetrics}.
+     * @return {@code true} if the audio route was updated successfully;
+     * {@code false}, otherwise.
+     */
+    private boolean updateAudioRouteInternal(int mode, boolean measure) {
         Log.d(TAG, "Update audio route for mode: " + mode);
 
+        AudioRouteMetrics metrics = AudioRouteMetrics.getInstance();
+
         if (mode == DEFAULT) {
-            audioManager.setMode(AudioManager.MODE_NORMAL);
-            audioManager.abandonAudioFocus(null);
-            audioManager.setSpeakerphoneOn(false);
+            if (measure) {
+                metrics.markUnchanged();
+            }
+            if (this.mode != DEFAULT && this.mode != -1) {
+                Log.d(TAG, metrics.toString());
+            }
+
+            audioHardware.setMode(AudioManager.MODE_NORMAL);
+            audioFocusHandler.abandonAudioFocus();
+            audioHardware.setSpeakerphoneOn(false);
             setBluetoothAudioRoute(false);
             selectedDevice = null;
             userSelectedDevice = null;
@@ -497,43 +946,39 @@ class AudioModeModule extends ReactContextBaseJavaModule {
             return true;
         }
 
-        audioManager.setMode(AudioManager.MODE_IN_COMMUNICATION);
-        audioManager.setMicrophoneMute(false);
+        audioHardware.setMode(AudioManager.MODE_IN_COMMUNICATION);
+        audioHardware.setMicrophoneMute(false);
 
-        if (audioManager.requestAudioFocus(
-                    null,
-                    AudioManager.STREAM_VOICE_CALL,
-                    AudioManager.AUDIOFOCUS_GAIN)
-                == AudioManager.AUDIOFOCUS_REQUEST_FAILED) {
-            Log.d(TAG, "Audio focus request failed");
+        // The focus is requested once per call and held across route changes.
+        // After a permanent loss, only setMode requests it again.
+        if (!audioFocusHandler.requestAudioFocus(/* explicit */ false)) {
+            if (measure) {
+                metrics.markUnchanged();
+            }
             return false;
         }
 
-        boolean bluetoothAvailable = availableDevices.contains(DEVICE_BLUETOOTH);
-        boolean earpieceAvailable = availableDevices.contains(DEVICE_EARPIECE);
-        boolean headsetAvailable = availableDevices.contains(DEVICE_HEADPHONES);
-
         // Pick the desired device based on what's available and the mode.
-        String audioDevice;
-        if (bluetoothAvailable) {
-            audioDevice = DEVICE_BLUETOOTH;
-        } else if (headsetAvailable) {
-            audioDevice = DEVICE_HEADPHONES;
-        } else if (mode == AUDIO_CALL && earpieceAvailable) {
-            audioDevice = DEVICE_EARPIECE;
-        } else {
-            audioDevice = DEVICE_SPEAKER;
+        String audioDevice = selectAudioDevice(mode);
+
+        if (measure) {
+            metrics.markDecided();
         }
 
         // Consider the user's selection
         if (userSelectedDevice != null
-                && availableDevices.contains(userSelectedDevice)) {
+                && availableDevices.contains(userSelectedDevice)
+                && !(userSelectedDevice.equals(DEVICE_BLUETOOTH)
+                    && bluetoothSCOFailed)) {
             audioDevice = userSelectedDevice;
         }
 
         // If the previously selected device and the current default one
         // match, do nothing.
         if (selectedDevice != null && selectedDevice.equals(audioDevice)) {
+            if (measure) {
+                metrics.markUnchanged();
+            }
             return true;
         }
 
@@ -544,7 +989,14 @@ class AudioModeModule extends ReactContextBaseJavaModule {
         setBluetoothAudioRoute(audioDevice.equals(DEVICE_BLUETOOTH));
 
         // Turn speaker on / off
-        audioManager.setSpeakerphoneOn(audioDevice.equals(DEVICE_SPEAKER));
+        audioHardware.setSpeakerphoneOn(audioDevice.equals(DEVICE_SPEAKER));
+
+        if (measure) {
+            metrics.markApplied(
+                audioDevice.equals(DEVICE_BLUETOOTH)
+                    && bluetoothSCOStateMachine.getState()
+                        != BluetoothSCOStateMachine.STATE_CONNECTED);
+        }
 
         return true;
     }
@@ -0,0 +1,315 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Latency metrics of audio route switches. Each switch is measured from the
+ * system callback which reported the audio device change (e.g. a headset was
+ * plugged in) to:
+ * - the audio device being decided upon;
+ * - the audio route being applied through {@code AudioManager};
+ * - the Bluetooth SCO connection being established, if the audio device is a
+ *   Bluetooth headset.
+ * Each stage is also measured from the previous one. Audio route changes which
+ * do not originate from a system callback (e.g. the user selecting an audio
+ * device) are not measured.
+ *
+ * The same stages are also emitted as {@link Trace} sections on Android API
+ * >= 18 so that they show up in systrace.
+ */
+public class AudioRouteMetrics {
+    /**
+     * The one and only {@code AudioRouteMetrics} instance.
+     */
+    private static final AudioRouteMetrics INSTANCE = new AudioRouteMetrics();
+
+    /**
+     * Gets the {@code AudioRouteMetrics} of the application.
+     *
+     * @return the {@code AudioRouteMetrics} of the application.
+     */
+    public static AudioRouteMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Begins a {@link Trace} section if supported by the platform.
+     *
+     * @param sectionName the name of the section.
+     */
+    static void beginSection(String sectionName) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    /**
+     * Ends the {@link Trace} section most recently begun on the current thread
+     * by {@link #beginSection(String)}.
+     */
+    static void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * The {@link System#nanoTime()} at which the audio route of the audio
+     * route switch being measured was applied.
+     */
+    private long applyTime;
+
+    /**
+     * The latencies from the audio route being applied to the Bluetooth SCO
+     * connection being established.
+     */
+    private final LatencyHistogram applyToSCOConnected
+        = new LatencyHistogram("applyToSCOConnected");
+
+    /**
+     * Whether the audio route switch being measured continues until the
+     * Bluetooth SCO connection is established.
+     */
+    private boolean awaitingSCO;
+
+    /**
+     * The latencies from the system callback to the audio route being applied.
+     */
+    private final LatencyHistogram callbackToApply
+        = new LatencyHistogram("callbackToApply");
+
+    /**
+     * The latencies from the system callback to the audio device being
+     * decided upon.
+     */
+    private final LatencyHistogram callbackToDecision
+        = new LatencyHistogram("callbackToDecision");
+
+    /**
+     * The latencies from the system callback to the Bluetooth SCO connection
+     * being established.
+     */
+    private final LatencyHistogram callbackToSCOConnected
+        = new LatencyHistogram("callbackToSCOConnected");
+
+    /**
+     * The latencies from the audio device being decided upon to the audio
+     * route being applied.
+     */
+    private final LatencyHistogram decisionToApply
+        = new LatencyHistogram("decisionToApply");
+
+    /**
+     * The {@link System#nanoTime()} at which the audio device of the audio
+     * route switch being measured was decided upon or {@code -1} if it was
+     * not yet.
+     */
+    private long decisionTime = -1;
+
+    /**
+     * The {@link System#nanoTime()} at which the system callback of the audio
+     * route switch being measured was received or {@code -1} if no switch is
+     * being measured.
+     */
+    private long startTime = -1;
+
+    private AudioRouteMetrics() {
+    }
+
+    /**
+     * Gets the latencies from the audio route being applied through
+     * {@code AudioManager} to the Bluetooth SCO connection being established.
+     *
+     * @return the {@link LatencyHistogram} of the latencies from the audio
+     * route being applied to the Bluetooth SCO connection being established.
+     */
+    public LatencyHistogram getApplyToSCOConnected() {
+        return applyToSCOConnected;
+    }
+
+    /**
+     * Gets the latencies from the system callback reporting an audio device
+     * change to the audio route being applied through {@code AudioManager}.
+     *
+     * @return the {@link LatencyHistogram} of the latencies from the system
+     * callback to the audio route being applied.
+     */
+    public LatencyHistogram getCallbackToApply() {
+        return callbackToApply;
+    }
+
+    /**
+     * Gets the latencies from the system callback reporting an audio device
+     * change to the audio device being decided upon.
+     *
+     * @return the {@link LatencyHistogram} of the latencies from the system
+     * callback to the audio device being decided upon.
+     */
+    public LatencyHistogram getCallbackToDecision() {
+        return callbackToDecision;
+    }
+
+    /**
+     * Gets the latencies from the system callback reporting an audio device
+     * change to the Bluetooth SCO connection being established.
+     *
+     * @return the {@link LatencyHistogram} of the latencies from the system
+     * callback to the Bluetooth SCO connection being established.
+     */
+    public LatencyHistogram getCallbackToSCOConnected() {
+        return callbackToSCOConnected;
+    }
+
+    /**
+     * Gets the latencies from the audio device being decided upon to the
+     * audio route being applied through {@code AudioManager}.
+     *
+     * @return the {@link LatencyHistogram} of the latencies from the audio
+     * device being decided upon to the audio route being applied.
+     */
+    public LatencyHistogram getDecisionToApply() {
+        return decisionToApply;
+    }
+
+    /**
+     * Ends the audio route switch being measured, if any.
+     */
+    private void end() {
+        startTime = -1;
+        decisionTime = -1;
+        awaitingSCO = false;
+    }
+
+    /**
+     * Records the elapsed time since a specific {@link System#nanoTime()} in a
+     * specific {@code LatencyHistogram}.
+     *
+     * @param histogram the {@code LatencyHistogram} to record in.
+     * @param since the {@code System.nanoTime()} to record the elapsed time
+     * since.
+     * @param now the current {@code System.nanoTime()}.
+     */
+    private static void record(
+            LatencyHistogram histogram,
+            long since,
+            long now) {
+        histogram.record((now - since) / 1000);
+    }
+
+    /**
+     * Records that the audio route of the audio route switch being measured,
+     * if any, was applied.
+     *
+     * @param awaitingSCO whether the switch continues until the Bluetooth SCO
+     * connection is established.
+     */
+    synchronized void markApplied(boolean awaitingSCO) {
+        if (startTime == -1) {
+            return;
+        }
+
+        long now = System.nanoTime();
+
+        record(callbackToApply, startTime, now);
+        if (decisionTime != -1) {
+            record(decisionToApply, decisionTime, now);
+        }
+        if (awaitingSCO) {
+            this.awaitingSCO = true;
+            applyTime = now;
+        } else {
+            end();
+        }
+    }
+
+    /**
+     * Records that the audio device of the audio route switch being measured,
+     * if any, was decided upon.
+     */
+    synchronized void markDecided() {
+        if (startTime != -1) {
+            decisionTime = System.nanoTime();
+            record(callbackToDecision, startTime, decisionTime);
+        }
+    }
+
+    /**
+     * Records that the Bluetooth SCO connection of the audio route switch
+     * being measured, if any, was established.
+     */
+    synchronized void markSCOConnected() {
+        if (startTime != -1 && awaitingSCO) {
+            long now = System.nanoTime();
+
+            record(callbackToSCOConnected, startTime, now);
+            record(applyToSCOConnected, applyTime, now);
+            end();
+        }
+    }
+
+    /**
+     * Records that the Bluetooth SCO connection of the audio route switch
+     * being measured, if any, failed to be established. The switch ends
+     * because the fallback audio route is not a response to the system
+     * callback.
+     */
+    synchronized void markSCOFailed() {
+        end();
+    }
+
+    /**
+     * Records that the audio route switch being measured, if any, ended
+     * without applying a new audio route.
+     */
+    synchronized void markUnchanged() {
+        end();
+    }
+
+    /**
+     * Starts measuring an audio route switch. Invoked when a system callback
+     * reports an audio device change. If a switch is already being measured,
+     * it is superseded.
+     */
+    synchronized void start() {
+        end();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Discards all latencies recorded so far.
+     */
+    public void reset() {
+        applyToSCOConnected.reset();
+        callbackToApply.reset();
+        callbackToDecision.reset();
+        callbackToSCOConnected.reset();
+        decisionToApply.reset();
+    }
+
+    @Override
+    public String toString() {
+        return
+            "AudioRouteMetrics{" + callbackToDecision
+                + ", " + callbackToApply
+                + ", " + callbackToSCOConnected
+                + ", " + decisionToApply
+                + ", " + applyToSCOConnected + "}";
+    }
+}
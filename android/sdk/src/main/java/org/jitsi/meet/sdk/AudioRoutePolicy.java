@@ -0,0 +1,61 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import android.support.annotation.Nullable;
+
+import java.util.Set;
+
+/**
+ * Interface for deciding which audio device a conference call uses. An
+ * implementation may be supplied by the application through
+ * {@link JitsiMeetView#setAudioRoutePolicy(AudioRoutePolicy)}, otherwise
+ * {@link DefaultAudioRoutePolicy} is used.
+ *
+ * A device the user explicitly selects during a call always takes precedence
+ * over the policy for the remainder of the call.
+ */
+public interface AudioRoutePolicy {
+    /**
+     * Audio device types.
+     */
+    String DEVICE_BLUETOOTH  = "BLUETOOTH";
+    String DEVICE_EARPIECE   = "EARPIECE";
+    String DEVICE_HEADPHONES = "HEADPHONES";
+    String DEVICE_SPEAKER    = "SPEAKER";
+
+    /**
+     * Selects the audio device to be used. Invoked on the main thread whenever
+     * a call starts and whenever the available devices change, so it must
+     * return quickly.
+     *
+     * @param audioOnly {@code true} if the call is audio-only; {@code false}
+     * if it is a video call.
+     * @param availableDevices the {@code DEVICE_*} types of the audio devices
+     * which are currently available.
+     * @param lastSelectedDevice the {@code DEVICE_*} type of the audio device
+     * the user selected the last time the very same devices were connected,
+     * remembered across calls, or {@code null} if there is no such selection.
+     * @return the {@code DEVICE_*} type of the audio device to be used. Must be
+     * one of {@code availableDevices}, otherwise {@link DefaultAudioRoutePolicy}
+     * is consulted instead.
+     */
+    String selectAudioDevice(
+            boolean audioOnly,
+            Set<String> availableDevices,
+            @Nullable String lastSelectedDevice);
+}
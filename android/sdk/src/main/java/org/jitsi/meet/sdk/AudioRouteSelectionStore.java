@@ -0,0 +1,119 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helper class which persists the audio devices selected by the user. A
+ * selection is remembered per identity of the set of audio devices which were
+ * available when it was made, so that the same selection can be made right
+ * away the next time the same devices are connected.
+ *
+ * The selections are read once and then served from memory. Writes go to disk
+ * asynchronously.
+ */
+class AudioRouteSelectionStore {
+    /**
+     * The name of the {@link SharedPreferences} file the selections are
+     * persisted in.
+     */
+    private static final String PREFERENCES_NAME
+        = "org.jitsi.meet.sdk.AudioRouteSelections";
+
+    /**
+     * Gets the key a selection is remembered with.
+     *
+     * @param deviceIdentities the identities of the available audio devices.
+     * @return the key for the specified set of device identities.
+     */
+    static String getKey(Collection<String> deviceIdentities) {
+        List<String> sorted = new ArrayList<>(deviceIdentities);
+
+        Collections.sort(sorted);
+
+        StringBuilder key = new StringBuilder();
+
+        for (String identity : sorted) {
+            if (key.length() != 0) {
+                key.append('|');
+            }
+            key.append(identity);
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * The {@link SharedPreferences} the selections are persisted in.
+     */
+    private final SharedPreferences preferences;
+
+    /**
+     * The in-memory copy of the persisted selections.
+     */
+    private final Map<String, String> selections = new HashMap<>();
+
+    public AudioRouteSelectionStore(Context context) {
+        preferences
+            = context.getSharedPreferences(
+                PREFERENCES_NAME,
+                Context.MODE_PRIVATE);
+
+        for (Map.Entry<String, ?> e : preferences.getAll().entrySet()) {
+            Object value = e.getValue();
+
+            if (value instanceof String) {
+                selections.put(e.getKey(), (String) value);
+            }
+        }
+    }
+
+    /**
+     * Gets the audio device the user selected the last time the devices with
+     * the specified identities were available.
+     *
+     * @param key the key obtained from {@link #getKey(Collection)}.
+     * @return the selected audio device type or {@code null}.
+     */
+    public String get(String key) {
+        return selections.get(key);
+    }
+
+    /**
+     * Remembers the audio device the user selected while the devices with the
+     * specified identities were available.
+     *
+     * @param key the key obtained from {@link #getKey(Collection)}.
+     * @param device the selected audio device type.
+     */
+    public void put(String key, String device) {
+        if (device.equals(selections.put(key, device))) {
+            return;
+        }
+
+        preferences.edit().putString(key, device).apply();
+    }
+}
@@ -16,18 +16,21 @@
 
 package org.jitsi.meet.sdk;
 
-import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
 import android.bluetooth.BluetoothHeadset;
 import android.bluetooth.BluetoothProfile;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
-import android.media.AudioManager;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Helper class to detect and handle Bluetooth device changes.  It monitors
  * Bluetooth headsets being connected / disconnected and notifies the module
@@ -39,6 +42,20 @@ class BluetoothHeadsetMonitor {
      */
     private final AudioModeModule audioModeModule;
 
+    /**
+     * {@link AudioHardware} instance used to interact with the Android audio
+     * and Bluetooth subsystems.
+     */
+    private final AudioHardware audioHardware;
+
+    /**
+     * The Bluetooth headset devices currently connected to the system. Kept up
+     * to date from the extras of the
+     * {@link BluetoothHeadset#ACTION_CONNECTION_STATE_CHANGED} broadcasts so
+     * that we do not have to query {@link #headset} on every change.
+     */
+    private final Set<BluetoothDevice> connectedDevices = new HashSet<>();
+
     /**
      * The {@link Context} in which {@link #audioModeModule} executes.
      */
@@ -46,8 +63,14 @@ class BluetoothHeadsetMonitor {
 
     /**
      * Reference to a proxy object which allows us to query connected devices.
+     * Typically a {@link BluetoothHeadset}.
+     */
+    private BluetoothProfile headset;
+
+    /**
+     * Whether {@link #dispose()} was called.
      */
-    private BluetoothHeadset headset;
+    private boolean disposed;
 
     /**
      * Flag indicating if there are any Bluetooth headset devices currently
@@ -55,6 +78,12 @@ class BluetoothHeadsetMonitor {
      */
     private boolean headsetAvailable = false;
 
+    /**
+     * The {@link BroadcastReceiver} listening for Bluetooth headset connection
+     * changes.
+     */
+    private BroadcastReceiver receiver;
+
     /**
      * {@link Handler} for running all operations on the main thread.
      */
@@ -68,23 +97,29 @@ class BluetoothHeadsetMonitor {
         = new Runnable() {
             @Override
             public void run() {
-                headsetAvailable
-                    = (headset != null)
-                        && !headset.getConnectedDevices().isEmpty();
-                audioModeModule.onBluetoothDeviceChange();
+                boolean headsetAvailable = !connectedDevices.isEmpty();
+
+                // Only notify about actual changes in availability. Bluetooth
+                // devices which come and go while another one stays connected
+                // do not affect the audio route.
+                if (BluetoothHeadsetMonitor.this.headsetAvailable
+                        != headsetAvailable) {
+                    BluetoothHeadsetMonitor.this.headsetAvailable
+                        = headsetAvailable;
+                    audioModeModule.onBluetoothDeviceChange();
+                }
             }
         };
 
     public BluetoothHeadsetMonitor(
             AudioModeModule audioModeModule,
-            Context context) {
+            Context context,
+            AudioHardware audioHardware) {
         this.audioModeModule = audioModeModule;
         this.context = context;
+        this.audioHardware = audioHardware;
 
-        AudioManager audioManager
-            = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
-
-        if (!audioManager.isBluetoothScoAvailableOffCall()) {
+        if (!audioHardware.isBluetoothScoAvailableOffCall()) {
             Log.w(AudioModeModule.TAG, "Bluetooth SCO is not available");
             return;
         }
@@ -97,14 +132,29 @@ class BluetoothHeadsetMonitor {
         }
     }
 
-    private boolean getBluetoothHeadsetProfileProxy() {
-        BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
+    /**
+     * Releases the resources held by this monitor i.e. unregisters the
+     * Bluetooth receiver and closes the Bluetooth headset profile proxy. It
+     * must not be used afterwards.
+     *
+     * Must be called on the main thread.
+     */
+    public void dispose() {
+        disposed = true;
+        mainThreadHandler.removeCallbacks(updateDevicesRunnable);
 
-        if (adapter == null) {
-            Log.w(AudioModeModule.TAG, "Device doesn't support Bluetooth");
-            return false;
+        if (receiver != null) {
+            context.unregisterReceiver(receiver);
+            receiver = null;
+        }
+        if (headset != null) {
+            audioHardware.closeBluetoothHeadsetProfileProxy(headset);
+            headset = null;
         }
+        connectedDevices.clear();
+    }
 
+    private boolean getBluetoothHeadsetProfileProxy() {
         // XXX: The profile listener listens for system services of the given
         // type being available to the application. That is, if our Bluetooth
         // adapter has the "headset" profile.
@@ -115,7 +165,31 @@ class BluetoothHeadsetMonitor {
                         int profile,
                         BluetoothProfile proxy) {
                     if (profile == BluetoothProfile.HEADSET) {
-                        headset = (BluetoothHeadset) proxy;
+                        if (disposed) {
+                            // The proxy became available after we were
+                            // disposed of, there is no one to use it.
+                            if (proxy != null) {
+                                audioHardware.closeBluetoothHeadsetProfileProxy(
+                                    proxy);
+                            }
+                            return;
+                        }
+
+                        headset = proxy;
+
+                        // Seed connectedDevices with the devices which were
+                        // connected before we started listening for the
+                        // connection state broadcasts. From then on the
+                        // broadcasts keep it up to date.
+                        connectedDevices.clear();
+                        if (headset != null) {
+                            List<BluetoothDevice> devices
+                                = headset.getConnectedDevices();
+
+                            if (devices != null) {
+                                connectedDevices.addAll(devices);
+                            }
+                        }
                         updateDevices();
                     }
                 }
@@ -127,11 +201,12 @@ class BluetoothHeadsetMonitor {
                 }
             };
 
-        return
-            adapter.getProfileProxy(
-                    context,
-                    listener,
-                    BluetoothProfile.HEADSET);
+        if (!audioHardware.getBluetoothHeadsetProfileProxy(listener)) {
+            Log.w(AudioModeModule.TAG, "Device doesn't support Bluetooth");
+            return false;
+        }
+
+        return true;
     }
 
     /**
@@ -150,31 +225,31 @@ class BluetoothHeadsetMonitor {
         if (action.equals(BluetoothHeadset.ACTION_CONNECTION_STATE_CHANGED)) {
             // XXX: This action will be fired when a Bluetooth headset is
             // connected or disconnected to the system. This is not related to
-            // audio routing.
+            // audio routing. The latter, i.e. the SCO connection, is handled by
+            // BluetoothSCOStateMachine.
             int state = intent.getIntExtra(BluetoothHeadset.EXTRA_STATE, -99);
+            BluetoothDevice device
+                = intent.getParcelableExtra(BluetoothDevice.EXTRA_DEVICE);
+
+            if (device == null) {
+                return;
+            }
 
             switch (state) {
             case BluetoothHeadset.STATE_CONNECTED:
-            case BluetoothHeadset.STATE_DISCONNECTED:
                 Log.d(
                         AudioModeModule.TAG,
                         "BT headset connection state changed: " + state);
+                AudioRouteMetrics.getInstance().start();
+                connectedDevices.add(device);
                 updateDevices();
                 break;
-            }
-        } else if (action.equals(AudioManager.ACTION_SCO_AUDIO_STATE_UPDATED)) {
-            // XXX: This action will be fired when the connection established
-            // with a Bluetooth headset (called a SCO connection) changes state.
-            // When the SCO connection is active we route audio to it.
-            int state
-                = intent.getIntExtra(AudioManager.EXTRA_SCO_AUDIO_STATE, -99);
-
-            switch (state) {
-            case AudioManager.SCO_AUDIO_STATE_CONNECTED:
-            case AudioManager.SCO_AUDIO_STATE_DISCONNECTED:
+            case BluetoothHeadset.STATE_DISCONNECTED:
                 Log.d(
                         AudioModeModule.TAG,
-                        "BT SCO connection state changed: " + state);
+                        "BT headset connection state changed: " + state);
+                AudioRouteMetrics.getInstance().start();
+                connectedDevices.remove(device);
                 updateDevices();
                 break;
             }
@@ -182,7 +257,7 @@ class BluetoothHeadsetMonitor {
     }
 
     private void registerBluetoothReceiver() {
-        BroadcastReceiver receiver = new BroadcastReceiver() {
+        receiver = new BroadcastReceiver() {
             @Override
             public void onReceive(Context context, Intent intent) {
                 onBluetoothReceiverReceive(context, intent);
@@ -190,14 +265,13 @@ class BluetoothHeadsetMonitor {
         };
         IntentFilter filter = new IntentFilter();
 
-        filter.addAction(AudioManager.ACTION_SCO_AUDIO_STATE_UPDATED);
         filter.addAction(BluetoothHeadset.ACTION_CONNECTION_STATE_CHANGED);
         context.registerReceiver(receiver, filter);
     }
 
     /**
-     * Detects if there are new devices connected / disconnected and fires the
-     * {@link AudioModeModule#onAudioDeviceChange()} callback.
+     * Detects if the Bluetooth headset availability changed and fires the
+     * {@link AudioModeModule#onBluetoothDeviceChange()} callback.
      */
     private void updateDevices() {
         mainThreadHandler.post(updateDevicesRunnable);
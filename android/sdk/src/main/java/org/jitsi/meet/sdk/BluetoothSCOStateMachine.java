@@ -0,0 +1,342 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.media.AudioManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+/**
+ * Helper class which drives the Bluetooth SCO audio connection through an
+ * explicit state machine. Audio is routed to the Bluetooth headset only after
+ * the system reports {@link AudioManager#SCO_AUDIO_STATE_CONNECTED}. Failed
+ * connection attempts are retried a bounded number of times after which
+ * {@link AudioModeModule} is told to fall back to the next-best route.
+ *
+ * All methods must be called on the main thread.
+ */
+class BluetoothSCOStateMachine {
+    /**
+     * The SCO states this state machine can be in.
+     * - IDLE: No SCO connection exists and none was requested.
+     * - CONNECTING: {@link AudioManager#startBluetoothSco()} was called and we
+     *   are waiting for {@link AudioManager#SCO_AUDIO_STATE_CONNECTED}.
+     * - CONNECTED: The SCO connection is up and audio is routed to it.
+     * - DISCONNECTING: {@link AudioManager#stopBluetoothSco()} was called and
+     *   we are waiting for {@link AudioManager#SCO_AUDIO_STATE_DISCONNECTED}.
+     */
+    static final int STATE_IDLE          = 0;
+    static final int STATE_CONNECTING    = 1;
+    static final int STATE_CONNECTED     = 2;
+    static final int STATE_DISCONNECTING = 3;
+
+    /**
+     * The maximum number of times establishing the SCO connection is attempted
+     * before giving up.
+     */
+    private static final int MAX_CONNECT_ATTEMPTS = 3;
+
+    /**
+     * The time in milliseconds to wait for the SCO connection to be
+     * established (or torn down) before the attempt is considered failed.
+     */
+    private static final long SCO_TIMEOUT = 4000;
+
+    /**
+     * The time in milliseconds to wait before a failed connection attempt is
+     * retried. It is multiplied by the number of failed attempts so far.
+     */
+    private static final long RETRY_DELAY = 500;
+
+    /**
+     * {@link AudioHardware} instance used to interact with the Android audio
+     * subsystem.
+     */
+    private final AudioHardware audioHardware;
+
+    /**
+     * {@link AudioModeModule} where this state machine reports.
+     */
+    private final AudioModeModule audioModeModule;
+
+    /**
+     * The {@link Context} {@link #receiver} is registered with.
+     */
+    private final Context context;
+
+    /**
+     * The number of failed connection attempts since the last call to
+     * {@link #connect()}.
+     */
+    private int failedAttempts;
+
+    /**
+     * {@link Handler} for running all operations on the main thread.
+     */
+    private final Handler mainThreadHandler
+        = new Handler(Looper.getMainLooper());
+
+    /**
+     * The {@link BroadcastReceiver} listening for SCO audio state changes.
+     */
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            // The broadcast is sticky so we will receive the last SCO state
+            // upon registration. It does not relate to any attempt of ours.
+            if (!isInitialStickyBroadcast()) {
+                onScoAudioStateUpdated(
+                    intent.getIntExtra(
+                        AudioManager.EXTRA_SCO_AUDIO_STATE,
+                        AudioManager.SCO_AUDIO_STATE_ERROR),
+                    intent.getIntExtra(
+                        AudioManager.EXTRA_SCO_AUDIO_PREVIOUS_STATE,
+                        AudioManager.SCO_AUDIO_STATE_ERROR));
+            }
+        }
+    };
+
+    /**
+     * {@link Runnable} which (re)starts a connection attempt.
+     */
+    private final Runnable startAttemptRunnable = new Runnable() {
+        @Override
+        public void run() {
+            startAttempt();
+        }
+    };
+
+    /**
+     * Whether {@link #connect()} superseded a {@link #disconnect()} which the
+     * system did not acknowledge yet. The
+     * {@link AudioManager#SCO_AUDIO_STATE_DISCONNECTED} which acknowledges it
+     * is still to come and must not be mistaken for the failure of the new
+     * connection attempt.
+     */
+    private boolean staleDisconnected;
+
+    /**
+     * The current SCO state.
+     */
+    private int state = STATE_IDLE;
+
+    /**
+     * {@link Runnable} which fires when the SCO connection failed to reach the
+     * desired state within {@link #SCO_TIMEOUT}.
+     */
+    private final Runnable timeoutRunnable = new Runnable() {
+        @Override
+        public void run() {
+            onTimeout();
+        }
+    };
+
+    public BluetoothSCOStateMachine(
+            AudioModeModule audioModeModule,
+            Context context,
+            AudioHardware audioHardware) {
+        this.audioModeModule = audioModeModule;
+        this.context = context;
+        this.audioHardware = audioHardware;
+
+        context.registerReceiver(
+            receiver,
+            new IntentFilter(AudioManager.ACTION_SCO_AUDIO_STATE_UPDATED));
+    }
+
+    /**
+     * Requests that audio be routed to the Bluetooth headset. Does nothing if
+     * the SCO connection is already established or being established.
+     */
+    public void connect() {
+        if (state == STATE_CONNECTED || state == STATE_CONNECTING) {
+            return;
+        }
+
+        Log.d(AudioModeModule.TAG, "BT SCO connecting");
+        // The timeout of a pending disconnect() must not fire during the new
+        // attempt.
+        mainThreadHandler.removeCallbacks(startAttemptRunnable);
+        mainThreadHandler.removeCallbacks(timeoutRunnable);
+        staleDisconnected = state == STATE_DISCONNECTING;
+        failedAttempts = 0;
+        state = STATE_CONNECTING;
+        startAttempt();
+    }
+
+    /**
+     * Releases the resources held by this state machine. It must not be used
+     * afterwards.
+     */
+    public void dispose() {
+        mainThreadHandler.removeCallbacks(startAttemptRunnable);
+        mainThreadHandler.removeCallbacks(timeoutRunnable);
+        context.unregisterReceiver(receiver);
+    }
+
+    /**
+     * Requests that audio no longer be routed to the Bluetooth headset. Does
+     * nothing if there is no SCO connection and none is being established.
+     */
+    public void disconnect() {
+        if (state == STATE_IDLE || state == STATE_DISCONNECTING) {
+            return;
+        }
+
+        Log.d(AudioModeModule.TAG, "BT SCO disconnecting");
+        mainThreadHandler.removeCallbacks(startAttemptRunnable);
+        mainThreadHandler.removeCallbacks(timeoutRunnable);
+
+        audioHardware.setBluetoothScoOn(false);
+        audioHardware.stopBluetoothSco();
+
+        staleDisconnected = false;
+        state = STATE_DISCONNECTING;
+        mainThreadHandler.postDelayed(timeoutRunnable, SCO_TIMEOUT);
+    }
+
+    /**
+     * Gets the current SCO state.
+     *
+     * @return one of the {@code STATE_*} constants.
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Handles an {@link AudioManager#ACTION_SCO_AUDIO_STATE_UPDATED} broadcast.
+     *
+     * @param scoState the new SCO audio state.
+     * @param previousScoState the previous SCO audio state.
+     */
+    private void onScoAudioStateUpdated(int scoState, int previousScoState) {
+        Log.d(
+            AudioModeModule.TAG,
+            "BT SCO state changed: " + previousScoState + " -> " + scoState
+                + " (state: " + state + ")");
+
+        switch (scoState) {
+        case AudioManager.SCO_AUDIO_STATE_CONNECTED:
+            if (state == STATE_CONNECTING) {
+                mainThreadHandler.removeCallbacks(timeoutRunnable);
+                staleDisconnected = false;
+                audioHardware.setBluetoothScoOn(true);
+                state = STATE_CONNECTED;
+                audioModeModule.onBluetoothSCOConnected();
+            }
+            break;
+
+        case AudioManager.SCO_AUDIO_STATE_DISCONNECTED:
+            switch (state) {
+            case STATE_CONNECTING:
+                // XXX The session which the superseded disconnect() stopped
+                // may have been connecting as well so its DISCONNECTED looks
+                // like the failure of the new attempt. If it never comes, the
+                // timeout takes care of the new attempt.
+                if (staleDisconnected) {
+                    staleDisconnected = false;
+                    break;
+                }
+
+                // XXX A DISCONNECTED right after CONNECTING means the attempt
+                // failed. Other DISCONNECTED updates may be stale and the
+                // timeout takes care of them.
+                if (previousScoState
+                        == AudioManager.SCO_AUDIO_STATE_CONNECTING) {
+                    mainThreadHandler.removeCallbacks(timeoutRunnable);
+                    onAttemptFailed();
+                }
+                break;
+
+            case STATE_CONNECTED:
+                // The connection was lost (e.g. the headset went out of range)
+                // without us asking for it.
+                state = STATE_IDLE;
+                audioHardware.setBluetoothScoOn(false);
+                audioModeModule.onBluetoothSCODisconnected();
+                break;
+
+            case STATE_DISCONNECTING:
+                mainThreadHandler.removeCallbacks(timeoutRunnable);
+                state = STATE_IDLE;
+                break;
+            }
+            break;
+        }
+    }
+
+    /**
+     * Handles a failed connection attempt by retrying with a growing delay or,
+     * if {@link #MAX_CONNECT_ATTEMPTS} is reached, by giving up and notifying
+     * {@link #audioModeModule}.
+     */
+    private void onAttemptFailed() {
+        audioHardware.stopBluetoothSco();
+        failedAttempts++;
+
+        if (failedAttempts < MAX_CONNECT_ATTEMPTS) {
+            Log.d(
+                AudioModeModule.TAG,
+                "BT SCO connection attempt " + failedAttempts
+                    + " failed, retrying");
+            mainThreadHandler.postDelayed(
+                startAttemptRunnable,
+                RETRY_DELAY * failedAttempts);
+        } else {
+            Log.w(
+                AudioModeModule.TAG,
+                "BT SCO connection failed after " + failedAttempts
+                    + " attempts");
+            state = STATE_IDLE;
+            audioModeModule.onBluetoothSCOConnectFailed();
+        }
+    }
+
+    /**
+     * Handles the expiry of {@link #SCO_TIMEOUT}.
+     */
+    private void onTimeout() {
+        switch (state) {
+        case STATE_CONNECTING:
+            onAttemptFailed();
+            break;
+
+        case STATE_DISCONNECTING:
+            // We will not hear back from the system, assume it is done.
+            state = STATE_IDLE;
+            break;
+        }
+    }
+
+    /**
+     * Starts a single connection attempt and arms {@link #timeoutRunnable}.
+     */
+    private void startAttempt() {
+        if (state != STATE_CONNECTING) {
+            return;
+        }
+
+        audioHardware.startBluetoothSco();
+        mainThreadHandler.postDelayed(timeoutRunnable, SCO_TIMEOUT);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import android.support.annotation.Nullable;
+
+import java.util.Set;
+
+/**
+ * The {@link AudioRoutePolicy} used unless the application supplies its own.
+ * Picks a Bluetooth headset, then a wired headset, then the earpiece (for
+ * audio-only calls) and finally the speaker. Selections remembered from
+ * previous calls are not taken into account.
+ */
+public class DefaultAudioRoutePolicy implements AudioRoutePolicy {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String selectAudioDevice(
+            boolean audioOnly,
+            Set<String> availableDevices,
+            @Nullable String lastSelectedDevice) {
+        if (availableDevices.contains(DEVICE_BLUETOOTH)) {
+            return DEVICE_BLUETOOTH;
+        } else if (availableDevices.contains(DEVICE_HEADPHONES)) {
+            return DEVICE_HEADPHONES;
+        } else if (audioOnly && availableDevices.contains(DEVICE_EARPIECE)) {
+            return DEVICE_EARPIECE;
+        } else {
+            return DEVICE_SPEAKER;
+        }
+    }
+}
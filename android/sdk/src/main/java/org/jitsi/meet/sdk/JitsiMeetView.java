@@ -21,6 +21,8 @@ import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
@@ -32,12 +34,15 @@ import com.facebook.react.modules.core.DefaultHardwareBackBtnHandler;
 import com.rnimmersive.RNImmersiveModule;
 
 import org.jitsi.meet.sdk.invite.InviteController;
+import org.jitsi.meet.sdk.net.DnsCache;
+import org.jitsi.meet.sdk.net.DnsCacheHolder;
+import org.jitsi.meet.sdk.net.NetworkProbe;
+import org.jitsi.meet.sdk.net.NetworkProbeResult;
 
+import java.net.InetSocketAddress;
 import java.net.URL;
-import java.util.Collections;
-import java.util.Set;
+import java.util.List;
 import java.util.UUID;
-import java.util.WeakHashMap;
 
 public class JitsiMeetView extends FrameLayout {
     /**
@@ -52,20 +57,66 @@ public class JitsiMeetView extends FrameLayout {
      */
     private final static String TAG = JitsiMeetView.class.getSimpleName();
 
-    private static final Set<JitsiMeetView> views
-        = Collections.newSetFromMap(new WeakHashMap<JitsiMeetView, Boolean>());
+    private static final ViewRegistry<JitsiMeetView> views
+        = new ViewRegistry<>();
 
     public static JitsiMeetView findViewByExternalAPIScope(
             String externalAPIScope) {
-        synchronized (views) {
-            for (JitsiMeetView view : views) {
-                if (view.externalAPIScope.equals(externalAPIScope)) {
-                    return view;
-                }
-            }
-        }
+        return views.find(externalAPIScope);
+    }
+
+    /**
+     * Gets the audio capabilities of the device e.g. whether it has hardware
+     * echo cancellation, as probed for {@link WebRTCAudioOptions}.
+     *
+     * @param context the {@code Context} to probe with.
+     * @return the {@link AudioCapabilities} of the device.
+     */
+    public static AudioCapabilities getAudioCapabilities(Context context) {
+        return AudioCapabilities.get(context);
+    }
+
+    /**
+     * Gets the latency metrics of the audio route switches performed by the
+     * SDK e.g. when a headset is plugged in during a conference.
+     *
+     * @return the {@link AudioRouteMetrics} of the application.
+     */
+    public static AudioRouteMetrics getAudioRouteMetrics() {
+        return AudioRouteMetrics.getInstance();
+    }
+
+    /**
+     * Gets the cache of the DNS records of the conference hosts which the
+     * HTTP client of the SDK resolves host names with e.g. to read its hit/miss
+     * metrics.
+     *
+     * @return the {@link DnsCache} of the application.
+     */
+    public static DnsCache getDnsCache() {
+        return DnsCacheHolder.getDnsCache();
+    }
+
+    /**
+     * Gets the host of a specific URL {@code String}.
+     *
+     * @param urlString the URL {@code String} to get the host of. May be
+     * scheme-relative e.g. {@code //example.com/http-bind}.
+     * @return the host of {@code urlString} or {@code null} if it has none
+     * e.g. because it is a room name only.
+     */
+    private static String getHost(@Nullable String urlString) {
+        return urlString == null ? null : Uri.parse(urlString).getHost();
+    }
 
-        return null;
+    /**
+     * Gets the most recent WiFi samples taken while the JavaScript side is
+     * subscribed to the WiFi stats e.g. during a conference.
+     *
+     * @return the {@link WiFiStatsHistory} of the application.
+     */
+    public static WiFiStatsHistory getWiFiStatsHistory() {
+        return WiFiStatsHistory.getInstance();
     }
 
     /**
@@ -79,17 +130,13 @@ public class JitsiMeetView extends FrameLayout {
      * {@code false}.
      */
     private static boolean loadURLStringInViews(String urlString) {
-        synchronized (views) {
-            if (!views.isEmpty()) {
-                for (JitsiMeetView view : views) {
-                    view.loadURLString(urlString);
-                }
+        List<JitsiMeetView> views = JitsiMeetView.views.getAll();
 
-                return true;
-            }
+        for (JitsiMeetView view : views) {
+            view.loadURLString(urlString);
         }
 
-        return false;
+        return !views.isEmpty();
     }
 
     /**
@@ -204,6 +251,81 @@ public class JitsiMeetView extends FrameLayout {
         }
     }
 
+    /**
+     * Probes the network to the host of a conference before joining it i.e.
+     * measures the round-trip time, jitter and throughput over HTTP(S) and,
+     * if a UDP echo server is specified, the round-trip time, jitter and loss
+     * over UDP. Meant e.g. for a "your connection" check on a lobby screen.
+     *
+     * @param url the URL of the conference.
+     * @param udpEchoAddress the address of a UDP echo server close to the
+     * conference host or {@code null}.
+     * @param listener the {@link NetworkProbe.Listener} to be notified on the
+     * main thread about the {@link NetworkProbeResult}.
+     * @return the started {@link NetworkProbe} which may be cancelled e.g.
+     * when the lobby screen is left.
+     */
+    public static NetworkProbe probeNetwork(
+            @NonNull URL url,
+            @Nullable InetSocketAddress udpEchoAddress,
+            @NonNull final NetworkProbe.Listener listener) {
+        final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+        final NetworkProbe probe = new NetworkProbe(url, udpEchoAddress);
+
+        probe.start(new NetworkProbe.Listener() {
+            @Override
+            public void onNetworkProbeCompleted(
+                    final NetworkProbeResult result) {
+                mainThreadHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // It may have been cancelled in the meantime.
+                        if (!probe.isCancelled()) {
+                            listener.onNetworkProbeCompleted(result);
+                        }
+                    }
+                });
+            }
+        });
+
+        return probe;
+    }
+
+    /**
+     * Sets the {@link AudioRoutePolicy} which decides the audio device
+     * conference calls use, for example to prefer the speaker on kiosk
+     * devices or to honor the device the user selected in a previous call.
+     * Takes effect immediately, also for an ongoing call.
+     *
+     * @param audioRoutePolicy the {@code AudioRoutePolicy} to use or
+     * {@code null} to use {@link DefaultAudioRoutePolicy}.
+     */
+    public static void setAudioRoutePolicy(
+            @Nullable AudioRoutePolicy audioRoutePolicy) {
+        AudioModeModule.setAudioRoutePolicy(audioRoutePolicy);
+
+        AudioModeModule audioModeModule
+            = ReactInstanceManagerHolder.getNativeModule(
+                    AudioModeModule.class);
+
+        if (audioModeModule != null) {
+            audioModeModule.onAudioRoutePolicyChange();
+        }
+    }
+
+    /**
+     * Sets the options of the WebRTC audio device module e.g. to always use
+     * the software echo canceler or to avoid the low-latency audio path. Must
+     * be called before the first {@code JitsiMeetView} is created.
+     *
+     * @param webRTCAudioOptions the {@code WebRTCAudioOptions} to use or
+     * {@code null} to use the defaults.
+     */
+    public static void setWebRTCAudioOptions(
+            @Nullable WebRTCAudioOptions webRTCAudioOptions) {
+        ReactInstanceManagerHolder.setWebRTCAudioOptions(webRTCAudioOptions);
+    }
+
     /**
      * The default base {@code URL} used to join a conference when a partial URL
      * (e.g. a room name only) is specified to {@link #loadURLString(String)} or
@@ -265,9 +387,7 @@ public class JitsiMeetView extends FrameLayout {
 
         // Hook this JitsiMeetView into ExternalAPI.
         externalAPIScope = UUID.randomUUID().toString();
-        synchronized (views) {
-            views.add(this);
-        }
+        views.add(this, externalAPIScope);
 
         // The entry point into the invite feature of Jitsi Meet. The Java
         // counterpart of the JavaScript InviteButton.
@@ -419,6 +539,7 @@ public class JitsiMeetView extends FrameLayout {
         if (urlObject != null) {
             props.putBundle("url", urlObject);
         }
+        prefetchHosts(urlObject);
 
         // welcomePageEnabled
         props.putBoolean("welcomePageEnabled", welcomePageEnabled);
@@ -530,6 +651,38 @@ public class JitsiMeetView extends FrameLayout {
         }
     }
 
+    /**
+     * Starts resolving the hosts a specific URL to be loaded will connect to
+     * so that they are resolved by the time the JavaScript side connects.
+     *
+     * @param urlObject the URL to be loaded in the format of
+     * {@link #loadURLObject(Bundle)}.
+     */
+    private void prefetchHosts(@Nullable Bundle urlObject) {
+        String host = null;
+        String bosh = null;
+        String websocket = null;
+
+        if (urlObject != null) {
+            host = getHost(urlObject.getString("url"));
+            if (host == null) {
+                host = getHost(urlObject.getString("serverURL"));
+            }
+
+            Bundle config = urlObject.getBundle("config");
+
+            if (config != null) {
+                bosh = getHost(config.getString("bosh"));
+                websocket = getHost(config.getString("websocket"));
+            }
+        }
+        if (host == null && defaultURL != null) {
+            host = defaultURL.getHost();
+        }
+
+        DnsCacheHolder.prefetch(host, bosh, websocket);
+    }
+
     /**
      * Sets the default base {@code URL} used to join a conference when a
      * partial URL (e.g. a room name only) is specified to
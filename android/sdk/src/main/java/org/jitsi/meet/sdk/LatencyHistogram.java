@@ -0,0 +1,223 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-bucket histogram of latencies in microseconds. Recording is
+ * lock-free and allocation-free so it may be done on hot paths such as the
+ * main thread.
+ */
+public class LatencyHistogram {
+    /**
+     * The inclusive upper bounds of the buckets in microseconds. Latencies
+     * greater than the last bound are counted in an additional overflow
+     * bucket.
+     */
+    private static final long[] BUCKET_BOUNDS = {
+        100, 250, 500,
+        1000, 2500, 5000,
+        10000, 25000, 50000,
+        100000, 250000, 500000,
+        1000000, 2500000, 5000000,
+        10000000
+    };
+
+    /**
+     * The number of latencies recorded in each bucket, the last one being the
+     * overflow bucket.
+     */
+    private final AtomicLongArray bucketCounts
+        = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+
+    /**
+     * The number of latencies recorded.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * The greatest latency recorded in microseconds.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * The name of this histogram.
+     */
+    private final String name;
+
+    /**
+     * The sum of the latencies recorded in microseconds.
+     */
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * Initializes a new {@code LatencyHistogram} instance.
+     *
+     * @param name the name of the new instance.
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the inclusive upper bounds of the buckets in microseconds. The
+     * overflow bucket, the last in {@link #getBucketCounts()}, has no bound.
+     *
+     * @return the inclusive upper bounds of the buckets in microseconds.
+     */
+    public long[] getBucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * Gets the number of latencies recorded in each bucket.
+     *
+     * @return the number of latencies recorded in each bucket, including the
+     * overflow bucket at the end.
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[bucketCounts.length()];
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts.get(i);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Gets the number of latencies recorded.
+     *
+     * @return the number of latencies recorded.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the greatest latency recorded.
+     *
+     * @return the greatest latency recorded in microseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the latencies recorded.
+     *
+     * @return the mean of the latencies recorded in microseconds or {@code 0}
+     * if nothing was recorded.
+     */
+    public long getMean() {
+        long count = this.count.get();
+
+        return count == 0 ? 0 : sum.get() / count;
+    }
+
+    /**
+     * Gets the name of this histogram.
+     *
+     * @return the name of this histogram.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets an estimate of a percentile of the latencies recorded, namely the
+     * upper bound of the bucket the percentile falls in. If it falls in the
+     * overflow bucket, {@link #getMax()} is returned.
+     *
+     * @param percentile the percentile in the range (0, 100].
+     * @return the estimate of {@code percentile} in microseconds or {@code 0}
+     * if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100d);
+
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            rank -= counts[i];
+            if (rank <= 0) {
+                return BUCKET_BOUNDS[i];
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param micros the latency in microseconds.
+     */
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+
+        int i = 0;
+
+        while (i < BUCKET_BOUNDS.length && micros > BUCKET_BOUNDS[i]) {
+            i++;
+        }
+        bucketCounts.incrementAndGet(i);
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+
+        long max;
+
+        while (micros > (max = this.max.get())
+                && !this.max.compareAndSet(max, micros)) {
+            // Retry.
+        }
+    }
+
+    /**
+     * Discards all latencies recorded so far.
+     */
+    public void reset() {
+        for (int i = 0; i < bucketCounts.length(); i++) {
+            bucketCounts.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+        sum.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return
+            name + "{count=" + getCount()
+                + ", mean=" + getMean()
+                + "us, p50=" + getPercentile(50)
+                + "us, p95=" + getPercentile(95)
+                + "us, max=" + getMax() + "us}";
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+/**
+ * Predicts the degradation of the WiFi link from the trend of its samples so
+ * that the JavaScript side may lower its sending and receiving bitrates before
+ * packet loss starts. Pure Java so that it may be fed recorded traces.
+ *
+ * The link is predicted to be degrading when, over a sliding window of
+ * samples, any of the following holds:
+ * <ul>
+ * <li>the rssi falls steadily and is projected to become poor shortly;</li>
+ * <li>the link speed dropped substantially below the best of the window;</li>
+ * <li>the device roamed to another access point recently.</li>
+ * </ul>
+ * The prediction is cleared only after none of the above held for
+ * {@link #RECOVERY_TIME} so that a fluctuating rssi does not make it flap.
+ *
+ * Not thread-safe; {@link WiFiStatsModule} feeds it from a single thread.
+ */
+class LinkQualityPredictor {
+    /**
+     * The ratio of the best link speed in the window below which the current
+     * link speed is considered to have dropped.
+     */
+    static final double LINK_SPEED_DROP_RATIO = 0.5;
+
+    /**
+     * The minimum number of samples in the window for the rssi trend to be
+     * computed.
+     */
+    static final int MIN_SAMPLES = 4;
+
+    /**
+     * The minimum time in milliseconds spanned by the samples in the window
+     * for the rssi trend to be computed.
+     */
+    static final long MIN_SPAN = 2000;
+
+    /**
+     * The rssi in dBm at or below which the link is considered poor. About
+     * two bars out of four.
+     */
+    static final int POOR_RSSI = -75;
+
+    /**
+     * The time in milliseconds ahead of the latest sample at which the rssi
+     * is projected.
+     */
+    static final long PREDICTION_HORIZON = 5000;
+
+    /**
+     * The value of {@link #getReasons()} when the link speed dropped.
+     */
+    static final int REASON_LINK_SPEED = 1 << 1;
+
+    /**
+     * The value of {@link #getReasons()} when the device roamed.
+     */
+    static final int REASON_ROAMING = 1 << 2;
+
+    /**
+     * The value of {@link #getReasons()} when the rssi is falling.
+     */
+    static final int REASON_RSSI_TREND = 1;
+
+    /**
+     * The time in milliseconds during which none of the reasons must hold for
+     * the prediction to be cleared.
+     */
+    static final long RECOVERY_TIME = 3000;
+
+    /**
+     * The time in milliseconds after a roaming event during which the link is
+     * considered degrading. The handoff itself interrupts the traffic and the
+     * new access point's link speed takes a while to settle.
+     */
+    static final long ROAMING_TIME = 5000;
+
+    /**
+     * The slope in dBm per second at or below which the rssi is considered to
+     * be falling. The rssi reported by the system fluctuates by a few dBm
+     * between samples which the linear regression over the window smooths
+     * out.
+     */
+    static final double SLOPE_THRESHOLD = -0.5;
+
+    /**
+     * The time in milliseconds spanned by the window of samples by default.
+     */
+    static final long WINDOW = 10000;
+
+    /**
+     * The BSSID of the access point of the latest sample or {@code null}.
+     */
+    private String bssid;
+
+    /**
+     * The number of samples in the window.
+     */
+    private int count;
+
+    /**
+     * Whether the link is predicted to be degrading.
+     */
+    private boolean degrading;
+
+    /**
+     * The index in the arrays of the oldest sample in the window.
+     */
+    private int head;
+
+    /**
+     * The time of the latest sample at which one of the reasons held or
+     * {@code -1}.
+     */
+    private long lastReasonTime = -1;
+
+    /**
+     * The link speeds in Mbps of the samples in the window or
+     * {@link WiFiStatsHistory#UNKNOWN}.
+     */
+    private final int[] linkSpeeds;
+
+    /**
+     * The rssi projected {@link #PREDICTION_HORIZON} ahead of the latest
+     * sample or {@link Double#NaN}.
+     */
+    private double predictedRssi = Double.NaN;
+
+    /**
+     * The reasons which held at the latest sample.
+     */
+    private int reasons;
+
+    /**
+     * The time of the latest roaming event or {@code -1}.
+     */
+    private long roamingTime = -1;
+
+    /**
+     * The rssis in dBm of the samples in the window.
+     */
+    private final int[] rssis;
+
+    /**
+     * The slope of the rssi in dBm per second or {@link Double#NaN}.
+     */
+    private double slope = Double.NaN;
+
+    /**
+     * The times in milliseconds of the samples in the window.
+     */
+    private final long[] timestamps;
+
+    /**
+     * The time in milliseconds spanned by the window of samples.
+     */
+    private final long window;
+
+    /**
+     * Initializes a new {@code LinkQualityPredictor} which is to be fed
+     * samples at a specific interval.
+     *
+     * @param interval the interval in milliseconds at which samples are to be
+     * added. Determines the number of samples the window holds.
+     */
+    LinkQualityPredictor(long interval) {
+        this(WINDOW, interval);
+    }
+
+    /**
+     * Initializes a new {@code LinkQualityPredictor} instance.
+     *
+     * @param window the time in milliseconds spanned by the window of
+     * samples.
+     * @param interval the interval in milliseconds at which samples are to be
+     * added.
+     */
+    LinkQualityPredictor(long window, long interval) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval");
+        }
+
+        // XXX Samples which do not fit are evicted early so the window may
+        // span less than window if samples come faster than interval.
+        int capacity = (int) Math.max(MIN_SAMPLES, window / interval + 1);
+
+        this.window = window;
+
+        linkSpeeds = new int[capacity];
+        rssis = new int[capacity];
+        timestamps = new long[capacity];
+    }
+
+    /**
+     * Adds a sample and updates the prediction.
+     *
+     * @param timestamp the time in milliseconds at which the sample was
+     * taken. Samples are to be added in chronological order.
+     * @param rssi the rssi in dBm.
+     * @param linkSpeed the link speed in Mbps or
+     * {@link WiFiStatsHistory#UNKNOWN}.
+     * @param bssid the BSSID of the access point or {@code null} if it is not
+     * known.
+     * @return {@code true} if the prediction changed i.e.
+     * {@link #isDegrading()} returns a different value than before the call;
+     * otherwise, {@code false}.
+     */
+    boolean add(long timestamp, int rssi, int linkSpeed, String bssid) {
+        if (bssid != null) {
+            if (this.bssid != null && !this.bssid.equalsIgnoreCase(bssid)) {
+                // The samples of the previous access point say nothing about
+                // the trend of the new one.
+                roamingTime = timestamp;
+                count = 0;
+            }
+            this.bssid = bssid;
+        }
+
+        // Evict the samples which went out of the window or do not fit.
+        while (count > 0
+                && (count == timestamps.length
+                    || timestamp - timestamps[head] > window)) {
+            head = (head + 1) % timestamps.length;
+            count--;
+        }
+
+        int tail = (head + count) % timestamps.length;
+
+        timestamps[tail] = timestamp;
+        rssis[tail] = rssi;
+        linkSpeeds[tail] = linkSpeed;
+        count++;
+
+        reasons = 0;
+        if (isRssiFalling(timestamp)) {
+            reasons |= REASON_RSSI_TREND;
+        }
+        if (hasLinkSpeedDropped(linkSpeed)) {
+            reasons |= REASON_LINK_SPEED;
+        }
+        if (roamingTime != -1 && timestamp - roamingTime < ROAMING_TIME) {
+            reasons |= REASON_ROAMING;
+        }
+
+        boolean degrading;
+
+        if (reasons != 0) {
+            lastReasonTime = timestamp;
+            degrading = true;
+        } else {
+            degrading
+                = this.degrading
+                    && timestamp - lastReasonTime < RECOVERY_TIME;
+        }
+
+        if (this.degrading == degrading) {
+            return false;
+        } else {
+            this.degrading = degrading;
+            return true;
+        }
+    }
+
+    /**
+     * Gets the rssi projected {@link #PREDICTION_HORIZON} ahead of the latest
+     * sample from the trend of the window.
+     *
+     * @return the projected rssi in dBm or {@link Double#NaN} if the window
+     * does not have enough samples.
+     */
+    double getPredictedRssi() {
+        return predictedRssi;
+    }
+
+    /**
+     * Gets the reasons which held at the latest sample.
+     *
+     * @return a combination of the {@code REASON_} flags or {@code 0}.
+     */
+    int getReasons() {
+        return reasons;
+    }
+
+    /**
+     * Gets the slope of the rssi over the window.
+     *
+     * @return the slope in dBm per second or {@link Double#NaN} if the window
+     * does not have enough samples.
+     */
+    double getSlope() {
+        return slope;
+    }
+
+    /**
+     * Determines whether the current link speed dropped substantially below
+     * the best one in the window.
+     *
+     * @param linkSpeed the current link speed in Mbps or
+     * {@link WiFiStatsHistory#UNKNOWN}.
+     * @return {@code true} if the link speed dropped; otherwise,
+     * {@code false}.
+     */
+    private boolean hasLinkSpeedDropped(int linkSpeed) {
+        if (linkSpeed <= 0) {
+            return false;
+        }
+
+        int max = 0;
+
+        for (int j = 0; j < count; j++) {
+            max = Math.max(max, linkSpeeds[(head + j) % linkSpeeds.length]);
+        }
+
+        return linkSpeed < max * LINK_SPEED_DROP_RATIO;
+    }
+
+    /**
+     * Determines whether the link is predicted to be degrading.
+     *
+     * @return {@code true} if the link is predicted to be degrading;
+     * otherwise, {@code false}.
+     */
+    boolean isDegrading() {
+        return degrading;
+    }
+
+    /**
+     * Computes the trend of the rssi over the window by linear regression
+     * and determines whether it is falling towards {@link #POOR_RSSI}.
+     *
+     * @param timestamp the time of the latest sample.
+     * @return {@code true} if the rssi is falling; otherwise, {@code false}.
+     */
+    private boolean isRssiFalling(long timestamp) {
+        long t0 = timestamps[head];
+
+        if (count < MIN_SAMPLES || timestamp - t0 < MIN_SPAN) {
+            slope = Double.NaN;
+            predictedRssi = Double.NaN;
+            return false;
+        }
+
+        // Least squares over seconds since the oldest sample to keep the
+        // sums small.
+        double sumT = 0, sumR = 0, sumTT = 0, sumTR = 0;
+
+        for (int j = 0; j < count; j++) {
+            int i = (head + j) % timestamps.length;
+            double t = (timestamps[i] - t0) / 1000.0;
+            double r = rssis[i];
+
+            sumT += t;
+            sumR += r;
+            sumTT += t * t;
+            sumTR += t * r;
+        }
+
+        double d = count * sumTT - sumT * sumT;
+
+        if (d == 0) {
+            slope = Double.NaN;
+            predictedRssi = Double.NaN;
+            return false;
+        }
+
+        slope = (count * sumTR - sumT * sumR) / d;
+
+        double intercept = (sumR - slope * sumT) / count;
+
+        predictedRssi
+            = intercept
+                + slope * ((timestamp - t0 + PREDICTION_HORIZON) / 1000.0);
+
+        return slope <= SLOPE_THRESHOLD && predictedRssi <= POOR_RSSI;
+    }
+
+    /**
+     * Removes all samples and clears the prediction.
+     */
+    void reset() {
+        bssid = null;
+        count = 0;
+        degrading = false;
+        head = 0;
+        lastReasonTime = -1;
+        predictedRssi = Double.NaN;
+        reasons = 0;
+        roamingTime = -1;
+        slope = Double.NaN;
+    }
+}
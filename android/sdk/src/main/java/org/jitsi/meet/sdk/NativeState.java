@@ -0,0 +1,215 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An immutable snapshot of native state which JavaScript reads frequently.
+ * The native modules publish a new snapshot whenever the state changes so that
+ * reads are a single volatile read on any thread, without a round-trip through
+ * the main thread.
+ */
+final class NativeState {
+    /**
+     * The current snapshot.
+     */
+    private static final AtomicReference<NativeState> current
+        = new AtomicReference<>(
+            new NativeState(
+                0,
+                Collections.<String>emptyList(),
+                null,
+                false,
+                false));
+
+    /**
+     * Gets the current snapshot.
+     *
+     * @return the current {@code NativeState}.
+     */
+    static NativeState get() {
+        return current.get();
+    }
+
+    /**
+     * Publishes the audio devices which JavaScript may select from and the
+     * selected one.
+     *
+     * @param audioDevices the available audio devices.
+     * @param selectedAudioDevice the selected audio device or {@code null}.
+     * @return the published {@code NativeState}.
+     */
+    static NativeState publishAudioDevices(
+            Collection<String> audioDevices,
+            String selectedAudioDevice) {
+        List<String> devices
+            = Collections.unmodifiableList(new ArrayList<>(audioDevices));
+
+        for (;;) {
+            NativeState state = current.get();
+            NativeState newState
+                = new NativeState(
+                    state.version + 1,
+                    devices,
+                    selectedAudioDevice,
+                    state.pictureInPictureSupported,
+                    state.proximityEnabled);
+
+            if (current.compareAndSet(state, newState)) {
+                return newState;
+            }
+        }
+    }
+
+    /**
+     * Publishes whether Picture-in-Picture is supported.
+     *
+     * @param pictureInPictureSupported {@code true} if Picture-in-Picture is
+     * supported; otherwise, {@code false}.
+     * @return the published {@code NativeState}.
+     */
+    static NativeState publishPictureInPictureSupported(
+            boolean pictureInPictureSupported) {
+        for (;;) {
+            NativeState state = current.get();
+
+            if (state.pictureInPictureSupported == pictureInPictureSupported) {
+                return state;
+            }
+
+            NativeState newState
+                = new NativeState(
+                    state.version + 1,
+                    state.audioDevices,
+                    state.selectedAudioDevice,
+                    pictureInPictureSupported,
+                    state.proximityEnabled);
+
+            if (current.compareAndSet(state, newState)) {
+                return newState;
+            }
+        }
+    }
+
+    /**
+     * Publishes whether the proximity sensor wake lock is enabled.
+     *
+     * @param proximityEnabled {@code true} if the proximity sensor wake lock
+     * is enabled; otherwise, {@code false}.
+     * @return the published {@code NativeState}.
+     */
+    static NativeState publishProximityEnabled(boolean proximityEnabled) {
+        for (;;) {
+            NativeState state = current.get();
+
+            if (state.proximityEnabled == proximityEnabled) {
+                return state;
+            }
+
+            NativeState newState
+                = new NativeState(
+                    state.version + 1,
+                    state.audioDevices,
+                    state.selectedAudioDevice,
+                    state.pictureInPictureSupported,
+                    proximityEnabled);
+
+            if (current.compareAndSet(state, newState)) {
+                return newState;
+            }
+        }
+    }
+
+    /**
+     * The audio devices which JavaScript may select from.
+     */
+    final List<String> audioDevices;
+
+    /**
+     * Whether Picture-in-Picture is supported.
+     */
+    final boolean pictureInPictureSupported;
+
+    /**
+     * Whether the proximity sensor wake lock is enabled.
+     */
+    final boolean proximityEnabled;
+
+    /**
+     * The selected audio device or {@code null}.
+     */
+    final String selectedAudioDevice;
+
+    /**
+     * The version of this snapshot. Incremented with every publication so
+     * that JavaScript can cheaply tell whether anything changed.
+     */
+    final long version;
+
+    private NativeState(
+            long version,
+            List<String> audioDevices,
+            String selectedAudioDevice,
+            boolean pictureInPictureSupported,
+            boolean proximityEnabled) {
+        this.version = version;
+        this.audioDevices = audioDevices;
+        this.selectedAudioDevice = selectedAudioDevice;
+        this.pictureInPictureSupported = pictureInPictureSupported;
+        this.proximityEnabled = proximityEnabled;
+    }
+
+    /**
+     * Gets the audio devices of this snapshot in the format of
+     * {@code AudioModeModule#getAudioDevices}.
+     *
+     * @return a {@code Map} with a 'devices' key with the list of devices and
+     * a 'selected' key with the selected one.
+     */
+    Map<String, Object> audioDevicesToMap() {
+        Map<String, Object> map = new HashMap<>();
+
+        map.put("devices", audioDevices);
+        map.put("selected", selectedAudioDevice);
+
+        return map;
+    }
+
+    /**
+     * Gets this snapshot as a {@code Map} which may be exported to JavaScript.
+     *
+     * @return a {@code Map} representation of this snapshot.
+     */
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+
+        map.put("audioDevices", audioDevicesToMap());
+        map.put("pictureInPictureSupported", pictureInPictureSupported);
+        map.put("proximityEnabled", proximityEnabled);
+        // XXX JavaScript numbers are doubles.
+        map.put("version", (double) version);
+
+        return map;
+    }
+}
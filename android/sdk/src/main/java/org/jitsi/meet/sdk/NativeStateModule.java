@@ -0,0 +1,81 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Module exposing the {@link NativeState} snapshot to JavaScript. The snapshot
+ * at the time the module is initialized is exported as a constant, the current
+ * one may be read with a blocking synchronous call which does not hop to any
+ * other thread.
+ */
+class NativeStateModule extends ReactContextBaseJavaModule {
+    /**
+     * React Native module name.
+     */
+    private static final String MODULE_NAME = "NativeState";
+
+    public NativeStateModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    /**
+     * Gets a mapping with the constants this module is exporting.
+     *
+     * @return a {@link Map} mapping the constants to be exported with their
+     * values.
+     */
+    @Override
+    public Map<String, Object> getConstants() {
+        Map<String, Object> constants = new HashMap<>();
+
+        constants.put("initialSnapshot", NativeState.get().toMap());
+
+        return constants;
+    }
+
+    /**
+     * Gets the name for this module to be used in the React Native bridge.
+     *
+     * @return a string with the module name.
+     */
+    @Override
+    public String getName() {
+        return MODULE_NAME;
+    }
+
+    /**
+     * Gets the current {@link NativeState} snapshot. JavaScript may compare
+     * its 'version' with the one it read last to tell whether anything
+     * changed.
+     *
+     * @return an object with 'audioDevices', 'pictureInPictureSupported',
+     * 'proximityEnabled' and 'version' keys.
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getSnapshot() {
+        return Arguments.makeNativeMap(NativeState.get().toMap());
+    }
+}
@@ -20,6 +20,9 @@ public class PictureInPictureModule extends ReactContextBaseJavaModule {
 
     public PictureInPictureModule(ReactApplicationContext reactContext) {
         super(reactContext);
+
+        NativeState.publishPictureInPictureSupported(
+            isPictureInPictureSupported());
     }
 
     /**
@@ -90,6 +90,17 @@ class ProximityModule extends ReactContextBaseJavaModule {
         return MODULE_NAME;
     }
 
+    /**
+     * Releases the proximity sensor wake lock when the React instance this
+     * module belongs to is destroyed so that it is not held forever.
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+
+        setEnabled(false);
+    }
+
     /**
      * Acquires / releases the proximity sensor wake lock.
      *
@@ -112,6 +123,8 @@ class ProximityModule extends ReactContextBaseJavaModule {
                 } else if (wakeLock.isHeld()) {
                     wakeLock.release();
                 }
+
+                NativeState.publishProximityEnabled(wakeLock.isHeld());
             }
         });
     }
@@ -18,6 +18,7 @@ package org.jitsi.meet.sdk;
 
 import android.app.Application;
 import android.support.annotation.Nullable;
+import android.util.Log;
 
 import com.facebook.react.ReactInstanceManager;
 import com.facebook.react.bridge.NativeModule;
@@ -25,6 +26,8 @@ import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.common.LifecycleState;
 
+import org.jitsi.meet.sdk.net.DnsCacheHolder;
+
 import java.util.Arrays;
 import java.util.List;
 
@@ -35,6 +38,12 @@ public class ReactInstanceManagerHolder {
      */
     private static ReactInstanceManager reactInstanceManager;
 
+    /**
+     * The options of the WebRTC audio device module to apply when
+     * {@link #reactInstanceManager} is initialized.
+     */
+    private static WebRTCAudioOptions webRTCAudioOptions;
+
     private static List<NativeModule> createNativeModules(
             ReactApplicationContext reactContext) {
         return Arrays.<NativeModule>asList(
@@ -42,11 +51,14 @@ public class ReactInstanceManagerHolder {
             new AppInfoModule(reactContext),
             new AudioModeModule(reactContext),
             new ExternalAPIModule(reactContext),
+            new NativeStateModule(reactContext),
             new PictureInPictureModule(reactContext),
             new ProximityModule(reactContext),
             new WiFiStatsModule(reactContext),
             new org.jitsi.meet.sdk.invite.InviteModule(reactContext),
-            new org.jitsi.meet.sdk.net.NAT64AddrInfoModule(reactContext)
+            new org.jitsi.meet.sdk.net.ConnectionInfoModule(reactContext),
+            new org.jitsi.meet.sdk.net.NAT64AddrInfoModule(reactContext),
+            new org.jitsi.meet.sdk.net.NetworkMonitorModule(reactContext)
         );
     }
 
@@ -101,6 +113,24 @@ public class ReactInstanceManagerHolder {
         return reactInstanceManager;
     }
 
+    /**
+     * Sets the options of the WebRTC audio device module. They take effect
+     * only if set before {@link #initReactInstanceManager(Application)} is
+     * first called.
+     *
+     * @param webRTCAudioOptions the {@code WebRTCAudioOptions} to apply or
+     * {@code null} for the defaults.
+     */
+    static void setWebRTCAudioOptions(
+            @Nullable WebRTCAudioOptions webRTCAudioOptions) {
+        if (reactInstanceManager != null) {
+            Log.w(
+                ReactInstanceManagerHolder.class.getSimpleName(),
+                "WebRTC audio options set after initialization are ignored");
+        }
+        ReactInstanceManagerHolder.webRTCAudioOptions = webRTCAudioOptions;
+    }
+
     /**
      * Internal method to initialize the React Native instance manager. We
      * create a single instance in order to load the JavaScript bundle a single
@@ -114,6 +144,19 @@ public class ReactInstanceManagerHolder {
             return;
         }
 
+        // The WebRTC audio device module reads its options when
+        // WebRTCModulePackage initializes the peer connection factory.
+        WebRTCAudioOptions options = webRTCAudioOptions;
+
+        if (options == null) {
+            options = new WebRTCAudioOptions();
+        }
+        options.apply(AudioCapabilities.get(application));
+
+        // The networking module of React Native picks the shared HTTP client
+        // up when it is created.
+        DnsCacheHolder.init(application);
+
         reactInstanceManager
             = ReactInstanceManager.builder()
                 .setApplication(application)
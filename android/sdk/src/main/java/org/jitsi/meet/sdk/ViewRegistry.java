@@ -0,0 +1,76 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps track of the existing views, such as {@link JitsiMeetView}s, by their
+ * external API scope without keeping them from being garbage collected.
+ *
+ * @param <V> the type of the views.
+ */
+final class ViewRegistry<V> {
+    /**
+     * The external API scopes of the registered views.
+     */
+    private final Map<V, String> scopes = new WeakHashMap<>();
+
+    /**
+     * Adds a view to this registry.
+     *
+     * @param view the view to add.
+     * @param externalAPIScope the external API scope of {@code view}.
+     */
+    synchronized void add(V view, String externalAPIScope) {
+        scopes.put(view, externalAPIScope);
+    }
+
+    /**
+     * Finds a registered view by its external API scope.
+     *
+     * @param externalAPIScope the external API scope of the view to find.
+     * @return the view with {@code externalAPIScope} or {@code null} if no such
+     * view is registered (anymore).
+     */
+    synchronized V find(String externalAPIScope) {
+        for (Map.Entry<V, String> entry : scopes.entrySet()) {
+            if (entry.getValue().equals(externalAPIScope)) {
+                V view = entry.getKey();
+
+                // XXX The view may have just been garbage collected.
+                if (view != null) {
+                    return view;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the registered views.
+     *
+     * @return a snapshot of the registered views.
+     */
+    synchronized List<V> getAll() {
+        return new ArrayList<>(scopes.keySet());
+    }
+}
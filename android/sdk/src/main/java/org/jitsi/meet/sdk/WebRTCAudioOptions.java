@@ -0,0 +1,206 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import android.util.Log;
+
+import org.webrtc.voiceengine.WebRtcAudioManager;
+import org.webrtc.voiceengine.WebRtcAudioUtils;
+
+/**
+ * Options of the WebRTC audio device module i.e. which audio path it uses and
+ * whether the echo cancellation and noise suppression run in hardware or in
+ * software.
+ *
+ * WebRTC turns its own (software) audio processing off for the effects which
+ * run in hardware so, with the default {@link #AUDIO_PROCESSING_AUTO}, the
+ * software implementations only cost CPU on the devices which lack a usable
+ * hardware implementation according to {@link AudioCapabilities}.
+ *
+ * The automatic gain control is not an option because the WebRTC audio device
+ * module never uses the hardware one, whatever it is told.
+ *
+ * The options are applied when the first {@link JitsiMeetView} is created and
+ * changing them afterwards has no effect.
+ */
+public class WebRTCAudioOptions {
+    /**
+     * Use the hardware implementation of an audio effect if
+     * {@link AudioCapabilities} reports it usable; otherwise, the software one.
+     */
+    public static final int AUDIO_PROCESSING_AUTO = 0;
+
+    /**
+     * Always use the software implementation of an audio effect e.g. on
+     * devices on which the hardware one is known to perform poorly.
+     */
+    public static final int AUDIO_PROCESSING_SOFTWARE = 1;
+
+    /**
+     * The tag used when logging.
+     */
+    private static final String TAG = WebRTCAudioOptions.class.getSimpleName();
+
+    /**
+     * How the acoustic echo cancellation is to be performed, one of the
+     * {@code AUDIO_PROCESSING_*} constants.
+     */
+    private int acousticEchoCanceler = AUDIO_PROCESSING_AUTO;
+
+    /**
+     * Whether the low-latency (i.e. OpenSL ES) audio path may be used where
+     * the device supports it.
+     */
+    private boolean lowLatencyAudioEnabled = true;
+
+    /**
+     * How the noise suppression is to be performed, one of the
+     * {@code AUDIO_PROCESSING_*} constants.
+     */
+    private int noiseSuppressor = AUDIO_PROCESSING_AUTO;
+
+    /**
+     * Applies these options to the WebRTC audio device module. Must be called
+     * before the WebRTC peer connection factory is initialized.
+     *
+     * @param capabilities the {@code AudioCapabilities} of the device.
+     */
+    void apply(AudioCapabilities capabilities) {
+        boolean hardwareAcousticEchoCanceler
+            = useHardware(
+                acousticEchoCanceler,
+                capabilities.isHardwareAcousticEchoCancelerAvailable());
+        boolean hardwareNoiseSuppressor
+            = useHardware(
+                noiseSuppressor,
+                capabilities.isHardwareNoiseSuppressorAvailable());
+        boolean lowLatencyAudio
+            = lowLatencyAudioEnabled
+                && capabilities.isLowLatencyAudioSupported();
+
+        Log.d(
+            TAG,
+            "Hardware AEC: " + hardwareAcousticEchoCanceler
+                + ", hardware NS: " + hardwareNoiseSuppressor
+                + ", low-latency audio: " + lowLatencyAudio);
+
+        // XXX The WebRtcBased flags tell WebRTC to not use the hardware
+        // effects.
+        WebRtcAudioUtils.setWebRtcBasedAcousticEchoCanceler(
+            !hardwareAcousticEchoCanceler);
+        WebRtcAudioUtils.setWebRtcBasedNoiseSuppressor(
+            !hardwareNoiseSuppressor);
+        WebRtcAudioManager.setBlacklistDeviceForOpenSLESUsage(
+            !lowLatencyAudio);
+    }
+
+    /**
+     * Gets how the acoustic echo cancellation is to be performed.
+     *
+     * @return one of the {@code AUDIO_PROCESSING_*} constants.
+     */
+    public int getAcousticEchoCanceler() {
+        return acousticEchoCanceler;
+    }
+
+    /**
+     * Gets how the noise suppression is to be performed.
+     *
+     * @return one of the {@code AUDIO_PROCESSING_*} constants.
+     */
+    public int getNoiseSuppressor() {
+        return noiseSuppressor;
+    }
+
+    /**
+     * Whether the low-latency (i.e. OpenSL ES) audio path may be used where
+     * the device supports it.
+     *
+     * @return {@code true} if the low-latency audio path may be used;
+     * otherwise, {@code false}.
+     */
+    public boolean isLowLatencyAudioEnabled() {
+        return lowLatencyAudioEnabled;
+    }
+
+    /**
+     * Sets how the acoustic echo cancellation is to be performed.
+     *
+     * @param acousticEchoCanceler one of the {@code AUDIO_PROCESSING_*}
+     * constants.
+     */
+    public void setAcousticEchoCanceler(int acousticEchoCanceler) {
+        this.acousticEchoCanceler = checkAudioProcessing(acousticEchoCanceler);
+    }
+
+    /**
+     * Sets whether the low-latency (i.e. OpenSL ES) audio path may be used
+     * where the device supports it. Some devices advertise low-latency audio
+     * but glitch with it in which case the AudioTrack / AudioRecord path is
+     * the safer choice.
+     *
+     * @param lowLatencyAudioEnabled {@code true} to allow the low-latency audio
+     * path; otherwise, {@code false}.
+     */
+    public void setLowLatencyAudioEnabled(boolean lowLatencyAudioEnabled) {
+        this.lowLatencyAudioEnabled = lowLatencyAudioEnabled;
+    }
+
+    /**
+     * Sets how the noise suppression is to be performed.
+     *
+     * @param noiseSuppressor one of the {@code AUDIO_PROCESSING_*} constants.
+     */
+    public void setNoiseSuppressor(int noiseSuppressor) {
+        this.noiseSuppressor = checkAudioProcessing(noiseSuppressor);
+    }
+
+    /**
+     * Checks that a value is one of the {@code AUDIO_PROCESSING_*} constants.
+     *
+     * @param audioProcessing the value to check.
+     * @return {@code audioProcessing}.
+     * @throws IllegalArgumentException if {@code audioProcessing} is not one of
+     * the {@code AUDIO_PROCESSING_*} constants.
+     */
+    private static int checkAudioProcessing(int audioProcessing) {
+        switch (audioProcessing) {
+        case AUDIO_PROCESSING_AUTO:
+        case AUDIO_PROCESSING_SOFTWARE:
+            return audioProcessing;
+        default:
+            throw new IllegalArgumentException(
+                "Invalid audio processing " + audioProcessing);
+        }
+    }
+
+    /**
+     * Decides whether the hardware implementation of an audio effect is to be
+     * used.
+     *
+     * @param audioProcessing one of the {@code AUDIO_PROCESSING_*} constants.
+     * @param hardwareAvailable whether the device has a usable hardware
+     * implementation of the audio effect.
+     * @return {@code true} if the hardware implementation is to be used;
+     * otherwise, {@code false}.
+     */
+    private static boolean useHardware(
+            int audioProcessing,
+            boolean hardwareAvailable) {
+        return audioProcessing == AUDIO_PROCESSING_AUTO && hardwareAvailable;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+/**
+ * The most recent WiFi samples taken by {@link WiFiStatsModule} while it is
+ * subscribed to. The samples are kept in a fixed-size ring buffer of primitive
+ * arrays so that sampling does not allocate and older samples are overwritten
+ * by newer ones.
+ *
+ * Each sample is identified by its index i.e. the number of samples added
+ * before it. Indices keep growing when samples are overwritten so they may be
+ * used to read the samples added since a previous read.
+ */
+public class WiFiStatsHistory {
+    /**
+     * The number of samples kept by the {@code WiFiStatsHistory} of the
+     * application. At the default sampling interval of one second it covers
+     * the last two minutes.
+     */
+    static final int DEFAULT_CAPACITY = 120;
+
+    /**
+     * The value of a sample field which is not known e.g. the frequency on
+     * Android versions which do not report it.
+     */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    /**
+     * The one and only {@code WiFiStatsHistory} instance of the application.
+     */
+    private static final WiFiStatsHistory INSTANCE
+        = new WiFiStatsHistory(DEFAULT_CAPACITY);
+
+    /**
+     * Gets the {@code WiFiStatsHistory} of the application.
+     *
+     * @return the {@code WiFiStatsHistory} of the application.
+     */
+    public static WiFiStatsHistory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The number of samples added since this instance was initialized or
+     * last cleared. It is the index of the next sample to be added.
+     */
+    private long count;
+
+    /**
+     * The frequencies in MHz of the samples.
+     */
+    private final int[] frequencies;
+
+    /**
+     * The link speeds in Mbps of the samples.
+     */
+    private final int[] linkSpeeds;
+
+    /**
+     * The RSSIs in dBm of the samples.
+     */
+    private final int[] rssis;
+
+    /**
+     * The times in milliseconds since the epoch at which the samples were
+     * taken.
+     */
+    private final long[] timestamps;
+
+    /**
+     * Initializes a new {@code WiFiStatsHistory} instance.
+     *
+     * @param capacity the maximum number of samples to be kept.
+     */
+    WiFiStatsHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity");
+        }
+
+        frequencies = new int[capacity];
+        linkSpeeds = new int[capacity];
+        rssis = new int[capacity];
+        timestamps = new long[capacity];
+    }
+
+    /**
+     * Adds a sample, overwriting the oldest one if this history is full.
+     *
+     * @param timestamp the time in milliseconds since the epoch at which the
+     * sample was taken.
+     * @param rssi the RSSI in dBm.
+     * @param linkSpeed the link speed in Mbps or {@link #UNKNOWN}.
+     * @param frequency the frequency in MHz or {@link #UNKNOWN}.
+     */
+    public synchronized void add(
+            long timestamp,
+            int rssi,
+            int linkSpeed,
+            int frequency) {
+        int i = (int) (count % timestamps.length);
+
+        timestamps[i] = timestamp;
+        rssis[i] = rssi;
+        linkSpeeds[i] = linkSpeed;
+        frequencies[i] = frequency;
+        count++;
+    }
+
+    /**
+     * Removes all samples and resets the indices.
+     */
+    public synchronized void clear() {
+        count = 0;
+    }
+
+    /**
+     * Copies the samples starting at a specific index into specific arrays,
+     * oldest first. Samples which were overwritten already are skipped. The
+     * arrays may be {@code null} if the respective field is not of interest;
+     * the non-{@code null} ones must be of the same length which determines
+     * the maximum number of samples to copy.
+     *
+     * @param fromIndex the index of the first sample to copy.
+     * @param timestamps the array to copy the timestamps into or {@code null}.
+     * @param rssis the array to copy the RSSIs into or {@code null}.
+     * @param linkSpeeds the array to copy the link speeds into or
+     * {@code null}.
+     * @param frequencies the array to copy the frequencies into or
+     * {@code null}.
+     * @return the number of samples copied.
+     */
+    public synchronized int copy(
+            long fromIndex,
+            long[] timestamps,
+            int[] rssis,
+            int[] linkSpeeds,
+            int[] frequencies) {
+        int max;
+
+        if (timestamps != null) {
+            max = timestamps.length;
+        } else if (rssis != null) {
+            max = rssis.length;
+        } else if (linkSpeeds != null) {
+            max = linkSpeeds.length;
+        } else if (frequencies != null) {
+            max = frequencies.length;
+        } else {
+            return 0;
+        }
+
+        long from = Math.max(fromIndex, getOldestIndex());
+        int n = (int) Math.max(0, Math.min(max, count - from));
+        int capacity = this.timestamps.length;
+
+        for (int j = 0; j < n; j++) {
+            int i = (int) ((from + j) % capacity);
+
+            if (timestamps != null) {
+                timestamps[j] = this.timestamps[i];
+            }
+            if (rssis != null) {
+                rssis[j] = this.rssis[i];
+            }
+            if (linkSpeeds != null) {
+                linkSpeeds[j] = this.linkSpeeds[i];
+            }
+            if (frequencies != null) {
+                frequencies[j] = this.frequencies[i];
+            }
+        }
+
+        return n;
+    }
+
+    /**
+     * Gets the maximum number of samples kept.
+     *
+     * @return the maximum number of samples kept.
+     */
+    public int getCapacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * Gets the number of samples added since this history was initialized or
+     * last cleared i.e. the index of the next sample to be added.
+     *
+     * @return the number of samples added.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the index of the oldest sample kept.
+     *
+     * @return the index of the oldest sample kept or {@link #getCount()} if
+     * there are none.
+     */
+    public synchronized long getOldestIndex() {
+        return Math.max(0, count - timestamps.length);
+    }
+
+    /**
+     * Gets the number of samples kept.
+     *
+     * @return the number of samples kept.
+     */
+    public synchronized int size() {
+        return (int) Math.min(count, timestamps.length);
+    }
+}
@@ -16,34 +16,82 @@
 
 package org.jitsi.meet.sdk;
 
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
 import android.net.wifi.WifiInfo;
 import android.net.wifi.WifiManager;
-import android.os.Handler;
-import android.os.Looper;
+import android.os.Build;
 import android.util.Log;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Module exposing WiFi statistics.
  *
  * Gathers rssi, signal in percentage, timestamp and the addresses
  * of the wifi device.
+ *
+ * While subscribed to, also samples rssi, link speed and frequency
+ * periodically on a background thread into {@link WiFiStatsHistory} and emits
+ * the samples to the JavaScript side in batches. The samples are fed to a
+ * {@link LinkQualityPredictor} and its predictions are emitted as they change
+ * so that the JavaScript side may lower its bitrates before packet loss
+ * starts.
  */
 class WiFiStatsModule extends ReactContextBaseJavaModule {
+    /**
+     * The number of samples emitted in a single {@link #WIFI_STATS_EVENT} by
+     * default.
+     */
+    static final int DEFAULT_BATCH_SIZE = 5;
+
+    /**
+     * The interval in milliseconds at which samples are taken by default.
+     */
+    static final int DEFAULT_SAMPLING_INTERVAL = 1000;
+
+    /**
+     * The minimum interval in milliseconds at which samples may be taken.
+     * Querying {@link WifiManager} more often is of no use because the system
+     * does not refresh the rssi that fast anyway.
+     */
+    static final int MIN_SAMPLING_INTERVAL = 100;
+
+    /**
+     * The name of the event with which changes of the prediction of
+     * {@link LinkQualityPredictor} are emitted to the JavaScript side.
+     */
+    private static final String LINK_QUALITY_EVENT
+        = "org.jitsi.meet:features/base/lib-jitsi-meet#linkQuality";
+
     /**
      * The name of {@code WiFiStatsModule} to be used in the React Native
      * bridge.
@@ -63,10 +111,61 @@ class WiFiStatsModule extends ReactContextBaseJavaModule {
     public final static int SIGNAL_LEVEL_SCALE = 101;
 
     /**
-     * {@link Handler} for running all operations on the main thread.
+     * The name of the event with which batches of samples are emitted to the
+     * JavaScript side.
+     */
+    private static final String WIFI_STATS_EVENT
+        = "org.jitsi.meet:features/base/lib-jitsi-meet#wiFiStats";
+
+    /**
+     * The {@link ScheduledExecutorService} on which the WiFi stats are
+     * retrieved and the samples are taken and emitted, off the main thread.
+     */
+    private final ScheduledExecutorService executor
+        = Executors.newSingleThreadScheduledExecutor();
+
+    /**
+     * The number of connectivity changes so far. {@link #wifiAddresses} are
+     * valid only as long as they were found in the current generation.
      */
-    private final Handler mainThreadHandler
-            = new Handler(Looper.getMainLooper());
+    private final AtomicInteger connectivityGeneration = new AtomicInteger();
+
+    /**
+     * The {@link BroadcastReceiver} which invalidates {@link #wifiAddresses}
+     * on connectivity changes.
+     */
+    private final BroadcastReceiver connectivityReceiver
+        = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                // XXX Do not clear wifiAddresses because a query in progress
+                // on the executor may store addresses it found before the
+                // change afterwards. Addresses of an older generation are
+                // ignored instead.
+                connectivityGeneration.incrementAndGet();
+            }
+        };
+
+    /**
+     * The {@link Sampler} taking the samples while this module is subscribed
+     * to.
+     */
+    private Sampler sampler;
+
+    /**
+     * The periodic execution of {@link #sampler} on {@link #executor}.
+     */
+    private ScheduledFuture<?> samplerFuture;
+
+    /**
+     * The addresses of the WiFi interface found by the latest
+     * {@link #queryWiFiStats()} or {@code null}. Walking all network
+     * interfaces is expensive on devices with many tunnel/VPN interfaces so
+     * they are reused as long as the WiFi IP address and network ID do not
+     * change and there is no connectivity change i.e. their generation is
+     * {@link #connectivityGeneration}.
+     */
+    private volatile WiFiAddresses wifiAddresses;
 
     /**
      * Initializes a new module instance. There shall be a single instance of
@@ -77,6 +176,10 @@ class WiFiStatsModule extends ReactContextBaseJavaModule {
      */
     public WiFiStatsModule(ReactApplicationContext reactContext) {
         super(reactContext);
+
+        reactContext.getApplicationContext().registerReceiver(
+            connectivityReceiver,
+            new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
     }
 
     /**
@@ -89,6 +192,139 @@ class WiFiStatsModule extends ReactContextBaseJavaModule {
         return MODULE_NAME;
     }
 
+    /**
+     * Finds the network interface with a specific address and gets its
+     * addresses, link-local ones excluded.
+     *
+     * @param wifiAddress the address of the network interface to find.
+     * @return the addresses of the network interface with
+     * {@code wifiAddress} or an empty list if there is no such interface.
+     */
+    private static List<String> findAddresses(InetAddress wifiAddress) {
+        List<String> addresses = new ArrayList<>();
+
+        try {
+            Enumeration<NetworkInterface> e
+                =  NetworkInterface.getNetworkInterfaces();
+            while (e.hasMoreElements()) {
+                NetworkInterface networkInterface = e.nextElement();
+                List<InetAddress> as
+                    = Collections.list(networkInterface.getInetAddresses());
+
+                // first check whether this is the desired interface
+                if (as.contains(wifiAddress)) {
+                    // interface found let's put its addresses
+                    // to the result
+                    for (InetAddress a : as) {
+                        if (!a.isLinkLocalAddress()) {
+                            addresses.add(a.getHostAddress());
+                        }
+                    }
+                    break;
+                }
+            }
+        } catch (SocketException e) {
+            Log.wtf(TAG,
+                "Unable to NetworkInterface.getNetworkInterfaces()"
+            );
+        }
+
+        return addresses;
+    }
+
+    /**
+     * Gets the {@link WifiManager} of the application.
+     *
+     * @return the {@link WifiManager} of the application.
+     */
+    private WifiManager getWifiManager() {
+        Context context = getReactApplicationContext().getApplicationContext();
+
+        return (WifiManager) context.getSystemService(Context.WIFI_SERVICE);
+    }
+
+    /**
+     * Stops sampling when the React instance this module belongs to is
+     * destroyed. The samples which have not been emitted yet remain in
+     * {@link WiFiStatsHistory}.
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+
+        executor.shutdownNow();
+        getReactApplicationContext().getApplicationContext()
+            .unregisterReceiver(connectivityReceiver);
+    }
+
+    /**
+     * Starts sampling rssi, link speed and frequency periodically and emitting
+     * the samples to the JavaScript side in batches. If sampling has already
+     * been started, restarts it with the specified parameters.
+     *
+     * @param interval the interval in milliseconds at which samples are to be
+     * taken. If not positive, {@link #DEFAULT_SAMPLING_INTERVAL} is used.
+     * @param batchSize the number of samples to be emitted at once. If not
+     * positive, {@link #DEFAULT_BATCH_SIZE} is used.
+     */
+    @ReactMethod
+    public synchronized void subscribe(int interval, int batchSize) {
+        unsubscribe();
+
+        if (interval <= 0) {
+            interval = DEFAULT_SAMPLING_INTERVAL;
+        } else if (interval < MIN_SAMPLING_INTERVAL) {
+            interval = MIN_SAMPLING_INTERVAL;
+        }
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_BATCH_SIZE;
+        }
+
+        WiFiStatsHistory history = WiFiStatsHistory.getInstance();
+
+        // XXX A batch larger than the history would have its oldest samples
+        // overwritten before it is emitted.
+        batchSize = Math.min(batchSize, history.getCapacity());
+
+        sampler = new Sampler(history, batchSize, interval);
+        samplerFuture
+            = executor.scheduleAtFixedRate(
+                sampler,
+                0,
+                interval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sampling started by {@link #subscribe(int, int)}. The samples
+     * taken since the last batch are emitted right away. Does nothing if
+     * sampling has not been started.
+     */
+    @ReactMethod
+    public synchronized void unsubscribe() {
+        if (samplerFuture == null) {
+            return;
+        }
+
+        samplerFuture.cancel(false);
+        samplerFuture = null;
+
+        final Sampler sampler = this.sampler;
+
+        this.sampler = null;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    sampler.emitBatch();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The module has been destroyed so there is no one to emit to.
+            Log.w(TAG, "Failed to emit the last batch of samples", e);
+        }
+    }
+
     /**
      * Returns the {@link InetAddress} represented by this int.
      *
@@ -110,99 +346,468 @@ class WiFiStatsModule extends ReactContextBaseJavaModule {
     /**
      * Public method to retrieve WiFi stats.
      *
-     * @param promise a {@link Promise} which will be resolved if WiFi stats are
-     * retrieved successfully, and it will be rejected otherwise.
+     * @param promise a {@link Promise} which will be resolved with the JSON
+     * representation of the WiFi stats if they are retrieved successfully, and
+     * it will be rejected otherwise.
      */
     @ReactMethod
-    public void getWiFiStats(final Promise promise) {
-        Runnable r = new Runnable() {
-            @Override
-            public void run() {
-                try {
-
-                    Context context
-                        = getReactApplicationContext().getApplicationContext();
-                    WifiManager wifiManager
-                        = (WifiManager) context
-                            .getSystemService(Context.WIFI_SERVICE);
-
-                    if (!wifiManager.isWifiEnabled()) {
-                        promise.reject(new Exception("Wifi not enabled"));
-                        return;
-                    }
+    public void getWiFiStats(Promise promise) {
+        getWiFiStats(promise, true);
+    }
 
-                    WifiInfo wifiInfo = wifiManager.getConnectionInfo();
+    /**
+     * Retrieves the WiFi stats on {@link #executor}.
+     *
+     * @param promise the {@link Promise} to be resolved with the WiFi stats or
+     * rejected.
+     * @param asString {@code true} to resolve {@code promise} with the JSON
+     * representation of the WiFi stats; {@code false} to resolve it with a
+     * {@link WritableMap}.
+     */
+    private void getWiFiStats(final Promise promise, final boolean asString) {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        WiFiStats stats = queryWiFiStats();
 
-                    if (wifiInfo.getNetworkId() == -1) {
-                        promise.reject(new Exception("Wifi not connected"));
-                        return;
+                        promise.resolve(
+                            asString ? stats.toJSONString() : stats.toMap());
+                    } catch (WiFiStatsException e) {
+                        promise.reject(new Exception(e.getMessage()));
+                    } catch (Throwable e) {
+                        Log.e(TAG, "Failed to obtain wifi stats", e);
+                        promise.reject(
+                            new Exception("Failed to obtain wifi stats"));
                     }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // XXX The executor is shut down once the module is destroyed and
+            // the promise would never settle otherwise.
+            promise.reject(e);
+        }
+    }
 
-                    int rssi = wifiInfo.getRssi();
-                    int signalLevel
-                        = WifiManager.calculateSignalLevel(
-                            rssi, SIGNAL_LEVEL_SCALE);
+    /**
+     * Retrieves the WiFi stats as a {@link WritableMap} with typed fields
+     * which, unlike the result of {@link #getWiFiStats(Promise)}, does not
+     * have to be parsed on the JavaScript side.
+     *
+     * @param promise a {@link Promise} which will be resolved with a
+     * {@link WritableMap} of the WiFi stats if they are retrieved
+     * successfully, and it will be rejected otherwise.
+     */
+    @ReactMethod
+    public void getWiFiStatsMap(Promise promise) {
+        getWiFiStats(promise, false);
+    }
 
-                    JSONObject result = new JSONObject();
-                    result.put("rssi", rssi)
-                        .put("signal", signalLevel)
-                        .put("timestamp",
-                                String.valueOf(System.currentTimeMillis()));
+    /**
+     * Queries the WiFi stats. Does blocking calls into the system and must
+     * not be called on the main thread.
+     *
+     * @return the {@link WiFiStats} of the WiFi device.
+     * @throws WiFiStatsException if WiFi is not enabled or not connected.
+     * @throws UnknownHostException if the IP address of the WiFi device is
+     * invalid.
+     */
+    private WiFiStats queryWiFiStats()
+            throws WiFiStatsException, UnknownHostException {
+        // XXX Read the generation before the system is queried so that the
+        // addresses found below are invalidated by any connectivity change
+        // which happens in the meantime.
+        int generation = connectivityGeneration.get();
+        WifiManager wifiManager = getWifiManager();
 
-                    JSONArray addresses = new JSONArray();
+        if (!wifiManager.isWifiEnabled()) {
+            throw new WiFiStatsException("Wifi not enabled");
+        }
 
-                    InetAddress wifiAddress
-                        = toInetAddress(wifiInfo.getIpAddress());
+        WifiInfo wifiInfo = wifiManager.getConnectionInfo();
 
-                    try {
-                        Enumeration<NetworkInterface> e
-                            =  NetworkInterface.getNetworkInterfaces();
-                        while (e.hasMoreElements()) {
-                            NetworkInterface networkInterface = e.nextElement();
-                            boolean found = false;
-
-                            // first check whether this is the desired interface
-                            Enumeration<InetAddress> as
-                                = networkInterface.getInetAddresses();
-                            while (as.hasMoreElements()) {
-                                InetAddress a = as.nextElement();
-                                if(a.equals(wifiAddress)) {
-                                    found = true;
-                                    break;
-                                }
-                            }
-
-                            if (found) {
-                                // interface found let's put addresses
-                                // to the result object
-                                as = networkInterface.getInetAddresses();
-                                while (as.hasMoreElements()) {
-                                    InetAddress a = as.nextElement();
-                                    if (a.isLinkLocalAddress())
-                                        continue;
-
-                                    addresses.put(a.getHostAddress());
-                                }
-                            }
+        if (wifiInfo.getNetworkId() == -1) {
+            throw new WiFiStatsException("Wifi not connected");
+        }
 
-                        }
-                    } catch (SocketException e) {
-                        Log.wtf(TAG,
-                            "Unable to NetworkInterface.getNetworkInterfaces()"
-                        );
-                    }
+        WiFiStats stats = new WiFiStats();
+
+        stats.rssi = wifiInfo.getRssi();
+        stats.signal
+            = WifiManager.calculateSignalLevel(stats.rssi, SIGNAL_LEVEL_SCALE);
+        stats.linkSpeed = wifiInfo.getLinkSpeed();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            stats.frequency = wifiInfo.getFrequency();
+        }
+        stats.timestamp = System.currentTimeMillis();
+
+        int ipAddress = wifiInfo.getIpAddress();
+        int networkId = wifiInfo.getNetworkId();
+        WiFiAddresses wifiAddresses = this.wifiAddresses;
+
+        if (wifiAddresses == null
+                || wifiAddresses.generation != generation
+                || wifiAddresses.ipAddress != ipAddress
+                || wifiAddresses.networkId != networkId) {
+            wifiAddresses
+                = new WiFiAddresses(
+                    generation,
+                    ipAddress,
+                    networkId,
+                    findAddresses(toInetAddress(ipAddress)));
+            this.wifiAddresses = wifiAddresses;
+        }
+        stats.addresses.addAll(wifiAddresses.addresses);
+
+        return stats;
+    }
+
+    /**
+     * Takes the samples on {@link #executor} while {@link WiFiStatsModule} is
+     * subscribed to and emits them in batches.
+     */
+    private class Sampler implements Runnable {
+        /**
+         * The number of samples to be emitted at once.
+         */
+        private final int batchSize;
+
+        /**
+         * The frequencies of the batch being emitted. Reused by all batches.
+         */
+        private final int[] frequencies;
+
+        /**
+         * The {@link WiFiStatsHistory} the samples are added to.
+         */
+        private final WiFiStatsHistory history;
+
+        /**
+         * The link speeds of the batch being emitted. Reused by all batches.
+         */
+        private final int[] linkSpeeds;
+
+        /**
+         * The {@link LinkQualityPredictor} the samples are fed to.
+         */
+        private final LinkQualityPredictor linkQualityPredictor;
+
+        /**
+         * The index in {@link #history} of the first sample of the next
+         * batch.
+         */
+        private long nextBatchIndex;
+
+        /**
+         * The rssis of the batch being emitted. Reused by all batches.
+         */
+        private final int[] rssis;
+
+        /**
+         * The timestamps of the batch being emitted. Reused by all batches.
+         */
+        private final long[] timestamps;
+
+        Sampler(WiFiStatsHistory history, int batchSize, int interval) {
+            this.history = history;
+            this.batchSize = batchSize;
 
-                    result.put("addresses", addresses);
-                    promise.resolve(result.toString());
+            linkQualityPredictor = new LinkQualityPredictor(interval);
 
-                    Log.d(TAG, "WiFi stats: " + result.toString());
-                } catch (Throwable e) {
-                    Log.e(TAG, "Failed to obtain wifi stats", e);
-                    promise.reject(
-                        new Exception("Failed to obtain wifi stats"));
+            frequencies = new int[batchSize];
+            linkSpeeds = new int[batchSize];
+            rssis = new int[batchSize];
+            timestamps = new long[batchSize];
+
+            nextBatchIndex = history.getCount();
+        }
+
+        /**
+         * Emits the samples taken since the last batch, if any, to the
+         * JavaScript side.
+         */
+        void emitBatch() {
+            // The history may have been cleared by the host application.
+            if (nextBatchIndex > history.getCount()) {
+                nextBatchIndex = history.getOldestIndex();
+            }
+
+            long fromIndex = Math.max(nextBatchIndex, history.getOldestIndex());
+            int n
+                = history.copy(
+                    fromIndex,
+                    timestamps, rssis, linkSpeeds, frequencies);
+
+            if (n == 0) {
+                return;
+            }
+            nextBatchIndex = fromIndex + n;
+
+            WritableArray timestampArray = Arguments.createArray();
+            WritableArray rssiArray = Arguments.createArray();
+            WritableArray signalArray = Arguments.createArray();
+            WritableArray linkSpeedArray = Arguments.createArray();
+            WritableArray frequencyArray = Arguments.createArray();
+
+            for (int i = 0; i < n; i++) {
+                timestampArray.pushDouble(timestamps[i]);
+                rssiArray.pushInt(rssis[i]);
+                signalArray.pushInt(
+                    WifiManager.calculateSignalLevel(
+                        rssis[i], SIGNAL_LEVEL_SCALE));
+                if (linkSpeeds[i] == WiFiStatsHistory.UNKNOWN) {
+                    linkSpeedArray.pushNull();
+                } else {
+                    linkSpeedArray.pushInt(linkSpeeds[i]);
+                }
+                if (frequencies[i] == WiFiStatsHistory.UNKNOWN) {
+                    frequencyArray.pushNull();
+                } else {
+                    frequencyArray.pushInt(frequencies[i]);
                 }
             }
-        };
-        mainThreadHandler.post(r);
+
+            WritableMap data = Arguments.createMap();
+
+            data.putArray("timestamp", timestampArray);
+            data.putArray("rssi", rssiArray);
+            data.putArray("signal", signalArray);
+            data.putArray("linkSpeed", linkSpeedArray);
+            data.putArray("frequency", frequencyArray);
+
+            ReactContextUtils.emitEvent(
+                getReactApplicationContext(),
+                WIFI_STATS_EVENT,
+                data);
+        }
+
+        /**
+         * Emits the prediction of {@link #linkQualityPredictor} to the
+         * JavaScript side.
+         *
+         * @param timestamp the time of the sample which changed the
+         * prediction.
+         * @param rssi the rssi of the sample which changed the prediction.
+         */
+        private void emitLinkQuality(long timestamp, int rssi) {
+            LinkQualityPredictor predictor = linkQualityPredictor;
+            int reasons = predictor.getReasons();
+            WritableArray reasonArray = Arguments.createArray();
+
+            if ((reasons & LinkQualityPredictor.REASON_RSSI_TREND) != 0) {
+                reasonArray.pushString("rssiTrend");
+            }
+            if ((reasons & LinkQualityPredictor.REASON_LINK_SPEED) != 0) {
+                reasonArray.pushString("linkSpeed");
+            }
+            if ((reasons & LinkQualityPredictor.REASON_ROAMING) != 0) {
+                reasonArray.pushString("roaming");
+            }
+
+            WritableMap data = Arguments.createMap();
+
+            data.putBoolean("degrading", predictor.isDegrading());
+            data.putArray("reasons", reasonArray);
+            data.putInt("rssi", rssi);
+            if (!Double.isNaN(predictor.getSlope())) {
+                data.putDouble("slope", predictor.getSlope());
+                data.putDouble("predictedRssi", predictor.getPredictedRssi());
+            }
+            data.putDouble("timestamp", timestamp);
+
+            ReactContextUtils.emitEvent(
+                getReactApplicationContext(),
+                LINK_QUALITY_EVENT,
+                data);
+        }
+
+        @Override
+        public void run() {
+            try {
+                sample();
+            } catch (Throwable t) {
+                // XXX An exception would cancel the periodic execution.
+                Log.e(TAG, "Failed to sample wifi stats", t);
+            }
+
+            if (history.getCount() - nextBatchIndex >= batchSize) {
+                emitBatch();
+            }
+        }
+
+        /**
+         * Takes a sample and adds it to {@link #history}. Does nothing if
+         * WiFi is not connected.
+         */
+        private void sample() {
+            WifiManager wifiManager = getWifiManager();
+
+            if (!wifiManager.isWifiEnabled()) {
+                return;
+            }
+
+            WifiInfo wifiInfo = wifiManager.getConnectionInfo();
+
+            if (wifiInfo == null || wifiInfo.getNetworkId() == -1) {
+                return;
+            }
+
+            int linkSpeed = wifiInfo.getLinkSpeed();
+            int frequency
+                = Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
+                    ? wifiInfo.getFrequency()
+                    : WiFiStatsHistory.UNKNOWN;
+
+            long timestamp = System.currentTimeMillis();
+            int rssi = wifiInfo.getRssi();
+
+            if (linkSpeed < 0) {
+                linkSpeed = WiFiStatsHistory.UNKNOWN;
+            }
+            history.add(
+                timestamp,
+                rssi,
+                linkSpeed,
+                frequency < 0 ? WiFiStatsHistory.UNKNOWN : frequency);
+
+            if (linkQualityPredictor.add(
+                    timestamp, rssi, linkSpeed, wifiInfo.getBSSID())) {
+                emitLinkQuality(timestamp, rssi);
+            }
+        }
+    }
+
+    /**
+     * The WiFi stats retrieved by {@link #queryWiFiStats()}.
+     */
+    private static class WiFiStats {
+        /**
+         * The addresses of the WiFi device, link-local ones excluded.
+         */
+        final List<String> addresses = new ArrayList<>();
+
+        /**
+         * The frequency in MHz or {@code -1} if it is not known.
+         */
+        int frequency = -1;
+
+        /**
+         * The link speed in Mbps or {@code -1} if it is not known.
+         */
+        int linkSpeed;
+
+        /**
+         * The rssi in dBm.
+         */
+        int rssi;
+
+        /**
+         * The signal level in the range of 0 to {@link #SIGNAL_LEVEL_SCALE}-1.
+         */
+        int signal;
+
+        /**
+         * The time in milliseconds since the epoch at which the stats were
+         * retrieved.
+         */
+        long timestamp;
+
+        /**
+         * Gets the JSON representation of these stats in the format of older
+         * versions of {@link WiFiStatsModule}.
+         *
+         * @return the JSON representation of these stats.
+         * @throws JSONException if the JSON representation fails to be built.
+         */
+        String toJSONString() throws JSONException {
+            JSONObject result = new JSONObject();
+
+            result.put("rssi", rssi)
+                .put("signal", signal)
+                .put("timestamp", String.valueOf(timestamp))
+                .put("addresses", new JSONArray(addresses));
+
+            return result.toString();
+        }
+
+        /**
+         * Gets the {@link WritableMap} representation of these stats. Unlike
+         * {@link #toJSONString()}, all numbers are numbers and the link speed
+         * and frequency are included if known.
+         *
+         * @return the {@link WritableMap} representation of these stats.
+         */
+        WritableMap toMap() {
+            WritableMap result = Arguments.createMap();
+            WritableArray addressArray = Arguments.createArray();
+
+            for (String address : addresses) {
+                addressArray.pushString(address);
+            }
+
+            result.putInt("rssi", rssi);
+            result.putInt("signal", signal);
+            result.putDouble("timestamp", timestamp);
+            if (linkSpeed >= 0) {
+                result.putInt("linkSpeed", linkSpeed);
+            }
+            if (frequency >= 0) {
+                result.putInt("frequency", frequency);
+            }
+            result.putArray("addresses", addressArray);
+
+            return result;
+        }
+    }
+
+    /**
+     * The addresses of the WiFi interface cached by {@link #queryWiFiStats()}
+     * along with the connectivity generation, WiFi IP address and network ID
+     * they were found for.
+     */
+    private static class WiFiAddresses {
+        /**
+         * The addresses of the WiFi interface, link-local ones excluded.
+         */
+        final List<String> addresses;
+
+        /**
+         * The value of {@link WiFiStatsModule#connectivityGeneration} at the
+         * time the addresses were found.
+         */
+        final int generation;
+
+        /**
+         * The WiFi IP address as returned by {@link WifiInfo#getIpAddress()}.
+         */
+        final int ipAddress;
+
+        /**
+         * The WiFi network ID as returned by
+         * {@link WifiInfo#getNetworkId()}.
+         */
+        final int networkId;
+
+        WiFiAddresses(
+                int generation,
+                int ipAddress,
+                int networkId,
+                List<String> addresses) {
+            this.generation = generation;
+            this.ipAddress = ipAddress;
+            this.networkId = networkId;
+            this.addresses = Collections.unmodifiableList(addresses);
+        }
+    }
+
+    /**
+     * The {@link Exception} thrown by {@link #queryWiFiStats()} when there
+     * are no WiFi stats to be retrieved.
+     */
+    private static class WiFiStatsException extends Exception {
+        WiFiStatsException(String message) {
+            super(message);
+        }
     }
 }
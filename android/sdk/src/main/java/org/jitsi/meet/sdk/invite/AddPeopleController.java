@@ -21,21 +21,66 @@ import android.util.Log;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableNativeArray;
-import com.facebook.react.bridge.WritableNativeMap;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Controller object used by native code to query and submit user selections for the user invitation flow.
  */
 public class AddPeopleController {
+    /**
+     * The time in milliseconds after which a cached search result is evicted.
+     */
+    static final long MAX_ITEM_AGE = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * The maximum number of search results to cache. Well above what a user
+     * selects from in a session of the add-people UI while bounding the
+     * memory kept by one typing dozens of queries.
+     */
+    static final int MAX_ITEMS = 500;
+
+    /**
+     * The maximum number of cached search results matched locally for a
+     * query, as many as the directory search of Jitsi Meet returns.
+     */
+    static final int MAX_LOCAL_RESULTS = 20;
+
+    /**
+     * Gets the key of a specific search result in {@link #items}.
+     *
+     * @param item the search result to get the key of.
+     * @return the id of {@code item}, its number if it is a phone number or
+     * {@code null} if it is neither.
+     */
+    private static String getKey(InviteItem item) {
+        String id = item.getString("id");
+
+        if (id == null && "phone".equals(item.getString("type"))) {
+            id = item.getString("number");
+        }
+
+        return id;
+    }
+
+    /**
+     * Prefix index over the names, emails and numbers of {@link #items} used
+     * to answer queries locally while the remote search is in flight.
+     */
+    private final InviteItemIndex index = new InviteItemIndex();
 
     /**
      * The AddPeopleControllerListener for this controller, used to pass query
@@ -47,12 +92,36 @@ public class AddPeopleController {
      * Local cache of search query results.  Used to re-hydrate the list
      * of selected items based on their ids passed to inviteById
      * in order to pass the full item maps back to the JitsiMeetView during submission.
+     * Bounded in size and age, and holding Java copies rather than bridge
+     * maps, so that it does not grow with every query.
      */
-    private final Map<String, ReadableMap> items = new HashMap<>();
+    private final InviteItemCache items
+        = new InviteItemCache(MAX_ITEMS, MAX_ITEM_AGE) {
+            @Override
+            void evicted(String key, InviteItem item) {
+                index.remove(key);
+            }
+        };
 
     private final WeakReference<InviteController> owner;
 
+    /**
+     * The sequence number of the latest query passed to
+     * {@link #performQuery(String)} or cancelled by {@link #cancelQuery()}.
+     */
+    private final AtomicInteger querySequence = new AtomicInteger();
+
     private final WeakReference<ReactApplicationContext> reactContext;
+
+    /**
+     * The latest query sent to the remote search or {@code null}.
+     */
+    private String remoteQuery;
+
+    /**
+     * The sequence number of {@link #remoteQuery}.
+     */
+    private int remoteQuerySequence;
     /**
      * Randomly generated UUID, used for identification in the InviteModule
      */
@@ -65,6 +134,15 @@ public class AddPeopleController {
         this.reactContext = new WeakReference<>(reactContext);
     }
 
+    /**
+     * Cancels the latest query passed to {@link #performQuery(String)}: its
+     * remote search is not started if it is still being debounced and its
+     * results are not delivered if it was started.
+     */
+    public void cancelQuery() {
+        querySequence.incrementAndGet();
+    }
+
     /**
      * Cancel the invitation flow and free memory allocated to the
      * AddPeopleController. After calling this method, this object is invalid -
@@ -72,6 +150,10 @@ public class AddPeopleController {
      * beginAddPeople.
      */
     public void endAddPeople() {
+        Log.d(
+            "AddPeopleController",
+            "Search result cache hit rate: " + items.getHitRate());
+
         InviteController owner = this.owner.get();
 
         if (owner != null) {
@@ -79,6 +161,33 @@ public class AddPeopleController {
         }
     }
 
+    /**
+     * Finds the cached search results which match a specific query.
+     *
+     * @param query the query to match.
+     * @param excludedKeys the keys of the search results not to return.
+     * @return the cached search results which match {@code query}, in the
+     * format of {@link AddPeopleControllerListener#onReceivedResults}.
+     */
+    private List<Map<String, Object>> findLocalResults(
+            String query,
+            Set<String> excludedKeys) {
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        for (String key : index.search(query, MAX_LOCAL_RESULTS)) {
+            if (!excludedKeys.contains(key)) {
+                // XXX The index does not know about the age of the items.
+                InviteItem item = items.peek(key);
+
+                if (item != null) {
+                    results.add(item.toHashMap());
+                }
+            }
+        }
+
+        return results;
+    }
+
     /**
      *
      * @return the AddPeopleControllerListener for this controller, used to pass
@@ -88,10 +197,71 @@ public class AddPeopleController {
         return listener;
     }
 
+    /**
+     * Gets the ratio of the ids passed to {@link #inviteById(List)} which
+     * were found among the cached search results.
+     *
+     * @return the ratio of the ids found or {@code 0} if no id was passed
+     * yet.
+     */
+    public double getItemCacheHitRate() {
+        return items.getHitRate();
+    }
+
     final ReactApplicationContext getReactApplicationContext() {
         return reactContext.get();
     }
 
+    /**
+     * Determines whether results received for a specific query are for the
+     * latest query passed to {@link #performQuery(String)} i.e. whether they
+     * are to be delivered.
+     *
+     * XXX The JavaScript side echoes the query but not its sequence number
+     * (iOS shares the bridge method) so results are attributed to the latest
+     * remote search of their query. Results for a query which was searched
+     * again are not stale anyway.
+     *
+     * @param query the query the results were received for.
+     * @return {@code true} if the results are for the latest query;
+     * otherwise, {@code false}.
+     */
+    synchronized boolean isLatestQuery(String query) {
+        return
+            remoteQuery != null
+                && remoteQuerySequence == querySequence.get()
+                && remoteQuery.equals(query);
+    }
+
+    /**
+     * Gets the sequence number of a new query, superseding the earlier ones.
+     *
+     * @return the sequence number of the new query.
+     */
+    int nextQuerySequence() {
+        return querySequence.incrementAndGet();
+    }
+
+    /**
+     * Notes that the remote search of a specific query is to be started
+     * unless the query was superseded in the meantime.
+     *
+     * @param query the query to search remotely.
+     * @param sequence the sequence number of {@code query}.
+     * @return {@code true} if the remote search of {@code query} is to be
+     * started; {@code false} if {@code query} was superseded or cancelled.
+     */
+    synchronized boolean startRemoteQuery(String query, int sequence) {
+        if (querySequence.get() != sequence) {
+            return false;
+        }
+
+        remoteQuery = query;
+        remoteQuerySequence = sequence;
+
+        return true;
+    }
+
     /**
      *
      * @return the unique identifier for this AddPeopleController
@@ -112,12 +282,10 @@ public class AddPeopleController {
             WritableArray invitees = new WritableNativeArray();
 
             for(int i = 0, size = ids.size(); i < size; i++) {
-                String id = ids.get(i);
+                InviteItem item = items.get(ids.get(i));
 
-                if(items.containsKey(id)) {
-                    WritableNativeMap map = new WritableNativeMap();
-                    map.merge(items.get(id));
-                    invitees.pushMap(map);
+                if(item != null) {
+                    invitees.pushMap(item.toWritableMap());
                 } else {
                     // If the id doesn't exist in the map, we can't do anything,
                     // so just skip it.
@@ -147,9 +315,42 @@ public class AddPeopleController {
      * be returned through the associated AddPeopleControllerListener's
      * onReceivedResults method.
      *
+     * The results of earlier queries which match the given query are returned
+     * right away, before the remote search completes. When it does, its
+     * results are returned along with these.
+     *
+     * The remote search is started after the query debounce delay of the
+     * {@link InviteController} unless another query is performed in the
+     * meantime. The results of superseded queries are dropped.
+     *
      * @param query
      */
-    public void performQuery(String query) {
+    public void performQuery(final String query) {
+        final AddPeopleControllerListener listener = getListener();
+
+        if (listener != null) {
+            final List<Map<String, Object>> localResults
+                = findLocalResults(query, Collections.<String>emptySet());
+
+            if (!localResults.isEmpty()) {
+                // Like the remote results, deliver the local results on the
+                // UI thread.
+                if (UiThreadUtil.isOnUiThread()) {
+                    listener.onReceivedResults(this, localResults, query);
+                } else {
+                    UiThreadUtil.runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            listener.onReceivedResults(
+                                AddPeopleController.this,
+                                localResults,
+                                query);
+                        }
+                    });
+                }
+            }
+        }
+
         InviteController owner = this.owner.get();
 
         if (owner != null) {
@@ -162,6 +363,8 @@ public class AddPeopleController {
      * later when the items are submitted.  Submission requires the full
      * map of information, but only the IDs are returned back to the delegate.
      * Using this map means we don't have to send the whole map back to the delegate.
+     * The results are merged with the cached results of earlier queries which
+     * match the query.
      *
      * @param results
      * @param query
@@ -171,23 +374,31 @@ public class AddPeopleController {
 
         if (listener != null) {
             List<Map<String, Object>> jvmResults = new ArrayList<>();
+            Set<String> keys = new HashSet<>();
 
             // cache results for use in submission later
             // convert to jvm array
             for(int i = 0; i < results.size(); i++) {
                 ReadableMap map = results.getMap(i);
-
-                if(map.hasKey("id")) {
-                    items.put(map.getString("id"), map);
-                } else if(map.hasKey("type") && map.getString("type").equals("phone") && map.hasKey("number")) {
-                    items.put(map.getString("number"), map);
+                HashMap<String, Object> jvmResult = map.toHashMap();
+                InviteItem item = new InviteItem(jvmResult);
+                String key = getKey(item);
+
+                if(key != null) {
+                    items.put(key, item);
+                    index.put(key, item);
+                    keys.add(key);
                 } else {
                     Log.w("AddPeopleController", "Received result without id and that was not a phone number, so not adding it to suggestions: " + map);
                 }
 
-                jvmResults.add(map.toHashMap());
+                jvmResults.add(jvmResult);
             }
 
+            // Keep returning the local results of performQuery which the
+            // remote search did not return.
+            jvmResults.addAll(findLocalResults(query, keys));
+
             listener.onReceivedResults(this, jvmResults, query);
         }
     }
@@ -38,7 +38,15 @@ public interface AddPeopleControllerListener {
 
     /**
      * Called when results are received for a query called through
-     * AddPeopleController.query().
+     * {@link AddPeopleController#performQuery(String)}.
+     *
+     * May be called twice per query: first, right away, with the results of
+     * earlier queries which match the query, if any; then, once the remote
+     * search completes, with its results followed by the matching results of
+     * earlier queries which it did not return. The second call carries all of
+     * the results of the query and replaces the first one rather than adding
+     * to it. The second call does not happen for a query which is superseded
+     * by another one before its remote search completes.
      *
      * @param addPeopleController
      * @param results a List of Map<String, Object> objects that represent items
@@ -16,6 +16,9 @@
 
 package org.jitsi.meet.sdk.invite;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContext;
@@ -25,20 +28,34 @@ import com.facebook.react.bridge.WritableNativeMap;
 
 import org.jitsi.meet.sdk.ReactContextUtils;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents the entry point into the invite feature of Jitsi Meet and is the
  * Java counterpart of the JavaScript {@code InviteButton}.
  */
 public class InviteController {
+    /**
+     * The default time in milliseconds for which
+     * {@link AddPeopleController#performQuery(String)} waits for another query
+     * before it starts a remote search.
+     */
+    public static final long DEFAULT_QUERY_DEBOUNCE_DELAY = 250;
+
+    /**
+     * The default time in milliseconds after which an invite started by
+     * {@link #invite(List)} which has not settled times out.
+     */
+    public static final long DEFAULT_INVITE_TIMEOUT
+        = TimeUnit.MINUTES.toMillis(1);
+
     private AddPeopleController addPeopleController;
 
     /**
@@ -55,8 +72,28 @@ public class InviteController {
 
     private final String externalAPIScope;
 
+    /**
+     * The {@link Handler} on which the remote searches of queries are delayed
+     * and the invites time out.
+     */
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
     private InviteControllerListener listener;
 
+    /**
+     * The invites started by {@link #invite(List, long)} which have not
+     * completed yet, by scope.
+     */
+    private final ConcurrentMap<String, PendingInvite> pendingInvites
+        = new ConcurrentHashMap<>();
+
+    /**
+     * The time in milliseconds for which
+     * {@link AddPeopleController#performQuery(String)} waits for another query
+     * before it starts a remote search.
+     */
+    private volatile long queryDebounceDelay = DEFAULT_QUERY_DEBOUNCE_DELAY;
+
     public InviteController(String externalAPIScope) {
         this.externalAPIScope = externalAPIScope;
     }
@@ -102,6 +139,16 @@ public class InviteController {
         return listener;
     }
 
+    /**
+     * Gets the time for which {@link AddPeopleController#performQuery(String)}
+     * waits for another query before it starts a remote search.
+     *
+     * @return the query debounce delay in milliseconds.
+     */
+    public long getQueryDebounceDelay() {
+        return queryDebounceDelay;
+    }
+
     /**
      * Sends JavaScript event to submit invitations to the given item ids
      *
@@ -119,37 +166,86 @@ public class InviteController {
                 invitees);
     }
 
+    /**
+     * Invites specific invitees to the current conference, timing out after
+     * {@link #DEFAULT_INVITE_TIMEOUT}.
+     *
+     * @param invitees the invitees, in the format of the results of a query.
+     * @return a {@code Future} which completes with the invitees which failed
+     * to be invited when the invite settles.
+     * @see #invite(List, long)
+     */
+    public Future<List<Map<String, Object>>> invite(
+            List<Map<String, Object>> invitees) {
+        return invite(invitees, DEFAULT_INVITE_TIMEOUT);
+    }
+
+    /**
+     * Invites specific invitees to the current conference. Many invites may
+     * be in flight at the same time.
+     *
+     * @param invitees the invitees, in the format of the results of a query.
+     * @param timeout the time in milliseconds after which the invite times out
+     * if it has not settled or {@code 0} to wait for it indefinitely.
+     * @return a {@code Future} which completes with the invitees which failed
+     * to be invited when the invite settles or with all invitees if the
+     * invite failed to even begin. If the invite times out, the
+     * {@code Future} fails with a {@link java.util.concurrent.TimeoutException}
+     * because it is not known which invitees were invited. Cancelling the
+     * {@code Future} stops waiting for the invite to settle, it does not
+     * recall the invitations sent already.
+     *
+     * {@link AddPeopleController#inviteById(List)} and
+     * {@link AddPeopleControllerListener#onInviteSettled(AddPeopleController, List)}
+     * remain the primary API which does not block any thread.
+     */
     public Future<List<Map<String, Object>>> invite(
-            final List<Map<String, Object>> invitees) {
-        final boolean inviteBegan
-            = invite(
+            List<Map<String, Object>> invitees,
+            long timeout) {
+        // XXX Track the invite before it begins because it may settle before
+        // the event is emitted.
+        final PendingInvite pendingInvite
+            = new PendingInvite(
                 UUID.randomUUID().toString(),
-                /* reactContext */ null,
-                Arguments.makeNativeArray(invitees));
-        FutureTask futureTask
-            = new FutureTask(new Callable() {
+                invitees,
+                pendingInvites);
+
+        if (timeout > 0) {
+            final Runnable timeOut = new Runnable() {
                 @Override
-                public List<Map<String, Object>> call() {
-                    if (inviteBegan) {
-                        // TODO Complete the returned Future when the invite
-                        // settles.
-                        return Collections.emptyList();
-                    } else {
-                        // The invite failed to even begin so report that all
-                        // invitees failed.
-                        return invitees;
-                    }
+                public void run() {
+                    pendingInvite.timeOut();
+                }
+            };
+
+            // XXX The timeout keeps the invite and its invitees reachable
+            // until it fires so remove it as soon as the invite completes.
+            pendingInvite.setCompletionListener(new Runnable() {
+                @Override
+                public void run() {
+                    handler.removeCallbacks(timeOut);
                 }
             });
+            handler.postDelayed(timeOut, timeout);
+        }
 
-        // If the invite failed to even begin, complete the returned Future
-        // already and the Future implementation will report that all invitees
-        // failed.
-        if (!inviteBegan) {
-            futureTask.run();
+        boolean inviteBegan = false;
+
+        try {
+            inviteBegan
+                = invite(
+                    pendingInvite.getScope(),
+                    /* reactContext */ null,
+                    Arguments.makeNativeArray(invitees));
+        } finally {
+            if (!inviteBegan) {
+                // The invite failed to even begin so report that all
+                // invitees failed.
+                pendingInvite.fail();
+            }
         }
 
-        return futureTask;
+        return pendingInvite;
     }
 
     private boolean invite(
@@ -184,6 +280,19 @@ public class InviteController {
                     endAddPeople(addPeopleController);
                 }
             }
+        } else {
+            PendingInvite pendingInvite
+                = pendingInvites.get(addPeopleControllerScope);
+
+            if (pendingInvite != null) {
+                List<Map<String, Object>> jFailedInvitees = new ArrayList<>();
+
+                for (int i = 0, size = failedInvitees.size(); i < size; ++i) {
+                    jFailedInvitees.add(failedInvitees.getMap(i).toHashMap());
+                }
+
+                pendingInvite.settle(jFailedInvitees);
+            }
         }
     }
 
@@ -208,7 +317,47 @@ public class InviteController {
      *
      * @param query {@code String} to use for the query
      */
-    void performQuery(AddPeopleController addPeopleController, String query) {
+    void performQuery(
+            final AddPeopleController addPeopleController,
+            final String query) {
+        final int sequence = addPeopleController.nextQuerySequence();
+        long delay = queryDebounceDelay;
+
+        if (delay <= 0) {
+            startRemoteQuery(addPeopleController, query, sequence);
+        } else {
+            // XXX Instead of removing the delayed Runnable when a query is
+            // superseded, the Runnable does nothing if its query was
+            // superseded.
+            handler.postDelayed(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        startRemoteQuery(addPeopleController, query, sequence);
+                    }
+                },
+                delay);
+        }
+    }
+
+    /**
+     * Emits the JavaScript event which starts the remote search of a specific
+     * query unless the query was superseded.
+     *
+     * @param addPeopleController the {@code AddPeopleController} which
+     * performs the query.
+     * @param query the query to search.
+     * @param sequence the sequence number of {@code query}.
+     */
+    private void startRemoteQuery(
+            AddPeopleController addPeopleController,
+            String query,
+            int sequence) {
+        if (this.addPeopleController != addPeopleController
+                || !addPeopleController.startRemoteQuery(query, sequence)) {
+            return;
+        }
+
         WritableNativeMap params = new WritableNativeMap();
 
         params.putString("addPeopleControllerScope", addPeopleController.getUuid());
@@ -226,9 +375,11 @@ public class InviteController {
             ReadableArray results) {
         AddPeopleController addPeopleController = this.addPeopleController;
 
+        // Drop the results of superseded queries before they are converted.
         if (addPeopleController != null
                 && addPeopleController.getUuid().equals(
-                    addPeopleControllerScope)) {
+                    addPeopleControllerScope)
+                && addPeopleController.isLatestQuery(query)) {
             addPeopleController.receivedResultsForQuery(results, query);
         }
     }
@@ -262,4 +413,16 @@ public class InviteController {
     public void setListener(InviteControllerListener listener) {
         this.listener = listener;
     }
+
+    /**
+     * Sets the time for which {@link AddPeopleController#performQuery(String)}
+     * waits for another query before it starts a remote search. Typing fast
+     * then starts a single remote search rather than one per keystroke.
+     *
+     * @param queryDebounceDelay the query debounce delay in milliseconds or
+     * {@code 0} to start the remote searches right away.
+     */
+    public void setQueryDebounceDelay(long queryDebounceDelay) {
+        this.queryDebounceDelay = queryDebounceDelay;
+    }
 }
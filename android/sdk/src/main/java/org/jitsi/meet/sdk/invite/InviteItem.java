@@ -0,0 +1,232 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import com.facebook.react.bridge.WritableNativeArray;
+import com.facebook.react.bridge.WritableNativeMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable Java copy of a result of a search of the invite feature. Unlike
+ * the {@code ReadableMap} received from the bridge, it does not keep native
+ * memory alive and it stores its entries compactly in two arrays rather than
+ * in a hash table.
+ */
+final class InviteItem {
+    /**
+     * Gets an immutable Java copy of a value of a result.
+     *
+     * @param value the value of a result as returned by
+     * {@code ReadableMap#toHashMap()}.
+     * @return an immutable Java copy of {@code value}.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object copy(Object value) {
+        if (value instanceof Map) {
+            return new InviteItem((Map<String, Object>) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            List<Object> copy = new ArrayList<>(list.size());
+
+            for (Object element : list) {
+                copy.add(copy(element));
+            }
+
+            return Collections.unmodifiableList(copy);
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * Pushes a value of a result into a {@code WritableNativeArray}.
+     *
+     * @param array the {@code WritableNativeArray} to push into.
+     * @param value the value to push.
+     */
+    private static void push(WritableNativeArray array, Object value) {
+        if (value == null) {
+            array.pushNull();
+        } else if (value instanceof Boolean) {
+            array.pushBoolean((Boolean) value);
+        } else if (value instanceof Number) {
+            array.pushDouble(((Number) value).doubleValue());
+        } else if (value instanceof InviteItem) {
+            array.pushMap(((InviteItem) value).toWritableMap());
+        } else if (value instanceof List) {
+            array.pushArray(toWritableArray((List<?>) value));
+        } else {
+            array.pushString(value.toString());
+        }
+    }
+
+    /**
+     * Gets the plain Java representation of a value of a result as returned
+     * by {@code ReadableMap#toHashMap()}.
+     *
+     * @param value the value of a result.
+     * @return the plain Java representation of {@code value}.
+     */
+    private static Object toJava(Object value) {
+        if (value instanceof InviteItem) {
+            return ((InviteItem) value).toHashMap();
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            ArrayList<Object> java = new ArrayList<>(list.size());
+
+            for (Object element : list) {
+                java.add(toJava(element));
+            }
+
+            return java;
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * Gets the {@code WritableNativeArray} representation of a list value of
+     * a result.
+     *
+     * @param list the list value of a result.
+     * @return the {@code WritableNativeArray} representation of {@code list}.
+     */
+    private static WritableNativeArray toWritableArray(List<?> list) {
+        WritableNativeArray array = new WritableNativeArray();
+
+        for (Object element : list) {
+            push(array, element);
+        }
+
+        return array;
+    }
+
+    /**
+     * The keys of the entries of this item.
+     */
+    private final String[] keys;
+
+    /**
+     * The values of the entries of this item, in the order of {@link #keys}.
+     * A value is {@code null}, a {@code Boolean}, a {@code Number}, a
+     * {@code String}, an {@code InviteItem} or an unmodifiable {@code List}
+     * of such values.
+     */
+    private final Object[] values;
+
+    /**
+     * Initializes a new {@code InviteItem} with a copy of a specific result.
+     *
+     * @param map the result as returned by {@code ReadableMap#toHashMap()}.
+     */
+    InviteItem(Map<String, Object> map) {
+        int size = map.size();
+        int i = 0;
+
+        keys = new String[size];
+        values = new Object[size];
+        for (Map.Entry<String, Object> e : map.entrySet()) {
+            keys[i] = e.getKey();
+            values[i] = copy(e.getValue());
+            i++;
+        }
+    }
+
+    /**
+     * Gets the value of a specific key.
+     *
+     * @param key the key to get the value of.
+     * @return the value of {@code key} or {@code null} if this item does not
+     * have {@code key}.
+     */
+    Object get(String key) {
+        // The results have a handful of keys so a linear search is as fast
+        // as hashing.
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the {@code String} value of a specific key.
+     *
+     * @param key the key to get the value of.
+     * @return the value of {@code key} or {@code null} if this item does not
+     * have {@code key} or its value is not a {@code String}.
+     */
+    String getString(String key) {
+        Object value = get(key);
+
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * Gets a new {@code HashMap} representation of this item as returned by
+     * {@code ReadableMap#toHashMap()}.
+     *
+     * @return a new {@code HashMap} representation of this item.
+     */
+    HashMap<String, Object> toHashMap() {
+        HashMap<String, Object> map = new HashMap<>();
+
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], toJava(values[i]));
+        }
+
+        return map;
+    }
+
+    /**
+     * Gets a new {@code WritableNativeMap} representation of this item to be
+     * sent over the bridge.
+     *
+     * @return a new {@code WritableNativeMap} representation of this item.
+     */
+    WritableNativeMap toWritableMap() {
+        WritableNativeMap map = new WritableNativeMap();
+
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            Object value = values[i];
+
+            if (value == null) {
+                map.putNull(key);
+            } else if (value instanceof Boolean) {
+                map.putBoolean(key, (Boolean) value);
+            } else if (value instanceof Number) {
+                map.putDouble(key, ((Number) value).doubleValue());
+            } else if (value instanceof InviteItem) {
+                map.putMap(key, ((InviteItem) value).toWritableMap());
+            } else if (value instanceof List) {
+                map.putArray(key, toWritableArray((List<?>) value));
+            } else {
+                map.putString(key, value.toString());
+            }
+        }
+
+        return map;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of {@link InviteItem}s bounded in size and in age which evicts the
+ * least recently used items first. Used by {@link AddPeopleController} to keep
+ * the results of the searches until they are invited by id.
+ */
+class InviteItemCache {
+    /**
+     * The {@link InviteItem}s by key, least recently used first.
+     */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * The number of {@link #get(String)} calls which found an item.
+     */
+    private int hitCount;
+
+    /**
+     * The time in milliseconds after it was put after which an item is
+     * evicted.
+     */
+    private final long maxAge;
+
+    /**
+     * The number of {@link #get(String)} calls which did not find an item.
+     */
+    private int missCount;
+
+    /**
+     * Initializes a new {@code InviteItemCache} instance.
+     *
+     * @param maxSize the maximum number of items to keep.
+     * @param maxAge the time in milliseconds after it was put after which an
+     * item is evicted.
+     */
+    InviteItemCache(final int maxSize, long maxAge) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize");
+        }
+        if (maxAge <= 0) {
+            throw new IllegalArgumentException("maxAge");
+        }
+
+        this.maxAge = maxAge;
+
+        entries
+            = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, Entry> eldest) {
+                    if (size() > maxSize) {
+                        evicted(eldest.getKey(), eldest.getValue().item);
+                        return true;
+                    } else {
+                        return false;
+                    }
+                }
+            };
+    }
+
+    /**
+     * Notifies this cache that an item was evicted because the maximum size
+     * was exceeded or it expired. Does nothing by default.
+     *
+     * @param key the key of the evicted item.
+     * @param item the evicted item.
+     */
+    void evicted(String key, InviteItem item) {
+    }
+
+    /**
+     * Removes all items. The hit and miss counts are kept and
+     * {@link #evicted(String, InviteItem)} is not called.
+     */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the item with a specific key and marks it as the most recently
+     * used.
+     *
+     * @param key the key of the item to get.
+     * @return the item with {@code key} or {@code null} if there is no such
+     * item or it expired.
+     */
+    synchronized InviteItem get(String key) {
+        InviteItem item = peek(key);
+
+        if (item == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+
+        return item;
+    }
+
+    /**
+     * Gets the number of {@link #get(String)} calls which found an item.
+     *
+     * @return the number of {@link #get(String)} calls which found an item.
+     */
+    synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the ratio of the {@link #get(String)} calls which found an item.
+     *
+     * @return the ratio of the {@link #get(String)} calls which found an item
+     * or {@code 0} if there were none.
+     */
+    synchronized double getHitRate() {
+        int count = hitCount + missCount;
+
+        return count == 0 ? 0 : hitCount / (double) count;
+    }
+
+    /**
+     * Gets the number of {@link #get(String)} calls which did not find an
+     * item.
+     *
+     * @return the number of {@link #get(String)} calls which did not find an
+     * item.
+     */
+    synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the current time. Overridden by tests.
+     *
+     * @return the current time in milliseconds.
+     */
+    long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * Gets the item with a specific key and marks it as the most recently
+     * used like {@link #get(String)} does but without counting a hit or a
+     * miss.
+     *
+     * @param key the key of the item to get.
+     * @return the item with {@code key} or {@code null} if there is no such
+     * item or it expired.
+     */
+    synchronized InviteItem peek(String key) {
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        } else if (now() - entry.time >= maxAge) {
+            entries.remove(key);
+            evicted(key, entry.item);
+            return null;
+        } else {
+            return entry.item;
+        }
+    }
+
+    /**
+     * Puts an item, replacing the item with the same key if any, and marks it
+     * as the most recently used. Evicts the least recently used item if the
+     * maximum size is exceeded.
+     *
+     * @param key the key of the item.
+     * @param item the item to put.
+     */
+    synchronized void put(String key, InviteItem item) {
+        entries.put(key, new Entry(item, now()));
+    }
+
+    /**
+     * Gets the number of items kept, expired ones which were not evicted yet
+     * included.
+     *
+     * @return the number of items kept.
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * An {@link InviteItem} along with the time it was put.
+     */
+    private static class Entry {
+        final InviteItem item;
+
+        final long time;
+
+        Entry(InviteItem item, long time) {
+            this.item = item;
+            this.time = time;
+        }
+    }
+}
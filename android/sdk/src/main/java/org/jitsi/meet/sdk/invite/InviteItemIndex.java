@@ -0,0 +1,241 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A prefix index over the names, emails and numbers of the
+ * {@link InviteItem}s received by {@link AddPeopleController} so that a query
+ * may be matched locally while the remote search is in flight.
+ *
+ * An item matches a query if every whitespace-separated word of the query is
+ * a prefix of a term of the item. The terms of an item are the values of its
+ * {@link #FIELDS} as well as their words i.e. their runs of letters and
+ * digits. For example, {@code "john.doe@example.com"} matches {@code "doe"},
+ * {@code "john.d"} and {@code "example"}.
+ */
+class InviteItemIndex {
+    /**
+     * The keys of the {@link InviteItem} values to index.
+     */
+    static final String[] FIELDS = { "email", "id", "name", "number" };
+
+    /**
+     * Gets the terms of a specific {@link InviteItem}.
+     *
+     * @param item the {@code InviteItem} to get the terms of.
+     * @return the distinct terms of {@code item}.
+     */
+    static String[] getTerms(InviteItem item) {
+        Set<String> terms = new LinkedHashSet<>();
+
+        for (String field : FIELDS) {
+            String value = item.getString(field);
+
+            if (value == null) {
+                continue;
+            }
+
+            value = value.trim().toLowerCase(Locale.ROOT);
+            if (value.isEmpty()) {
+                continue;
+            }
+            terms.add(value);
+
+            // The words i.e. the runs of letters and digits.
+            int start = -1;
+
+            for (int i = 0, length = value.length(); i <= length; i++) {
+                if (i < length && Character.isLetterOrDigit(value.charAt(i))) {
+                    if (start == -1) {
+                        start = i;
+                    }
+                } else if (start != -1) {
+                    terms.add(value.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+
+        return terms.toArray(new String[terms.size()]);
+    }
+
+    /**
+     * Splits a specific query into the prefixes to be matched.
+     *
+     * @param query the query to split.
+     * @return the lower case, whitespace-separated words of {@code query}.
+     */
+    static String[] getPrefixes(String query) {
+        if (query == null) {
+            return new String[0];
+        }
+
+        query = query.trim();
+
+        return
+            query.isEmpty()
+                ? new String[0]
+                : query.toLowerCase(Locale.ROOT).split("\\s+");
+    }
+
+    /**
+     * The keys of the indexed items by term, sorted by term so that the terms
+     * with a specific prefix form a range.
+     */
+    private final TreeMap<String, Set<String>> keysByTerm = new TreeMap<>();
+
+    /**
+     * The terms of the indexed items by key.
+     */
+    private final Map<String, String[]> termsByKey = new HashMap<>();
+
+    /**
+     * Indexes an item, replacing the item with the same key if any.
+     *
+     * @param key the key of the item.
+     * @param item the item to index.
+     */
+    synchronized void put(String key, InviteItem item) {
+        String[] terms = getTerms(item);
+
+        // Searches return the same results over and over again.
+        if (Arrays.equals(terms, termsByKey.get(key))) {
+            return;
+        }
+
+        remove(key);
+
+        termsByKey.put(key, terms);
+        for (String term : terms) {
+            Set<String> keys = keysByTerm.get(term);
+
+            if (keys == null) {
+                keys = new LinkedHashSet<>();
+                keysByTerm.put(term, keys);
+            }
+            keys.add(key);
+        }
+    }
+
+    /**
+     * Removes an item from this index. Does nothing if there is no item with
+     * the specified key.
+     *
+     * @param key the key of the item to remove.
+     */
+    synchronized void remove(String key) {
+        String[] terms = termsByKey.remove(key);
+
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<String> keys = keysByTerm.get(term);
+
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByTerm.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Finds the items which match a specific query.
+     *
+     * @param query the query to match.
+     * @param limit the maximum number of keys to return.
+     * @return the keys of the items which match {@code query}, at most
+     * {@code limit} of them.
+     */
+    synchronized List<String> search(String query, int limit) {
+        String[] prefixes = getPrefixes(query);
+
+        if (prefixes.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // The candidates are the items with a term with the first prefix and
+        // the other prefixes are matched against their terms.
+        String first = prefixes[0];
+        Set<String> candidates = new LinkedHashSet<>();
+        List<String> keys = new ArrayList<>();
+
+        for (Set<String> k
+                : keysByTerm.subMap(
+                        first, true,
+                        first + Character.MAX_VALUE, false)
+                    .values()) {
+            candidates.addAll(k);
+        }
+        for (String key : candidates) {
+            if (matches(termsByKey.get(key), prefixes)) {
+                keys.add(key);
+                if (keys.size() == limit) {
+                    break;
+                }
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Gets the number of items indexed.
+     *
+     * @return the number of items indexed.
+     */
+    synchronized int size() {
+        return termsByKey.size();
+    }
+
+    /**
+     * Determines whether each of specific prefixes is a prefix of one of
+     * specific terms.
+     *
+     * @param terms the terms to match.
+     * @param prefixes the prefixes to match.
+     * @return {@code true} if each of {@code prefixes} is a prefix of one of
+     * {@code terms}; otherwise, {@code false}.
+     */
+    private static boolean matches(String[] terms, String[] prefixes) {
+        for (int i = 1; i < prefixes.length; i++) {
+            boolean match = false;
+
+            for (String term : terms) {
+                if (term.startsWith(prefixes[i])) {
+                    match = true;
+                    break;
+                }
+            }
+            if (!match) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The {@code Future} returned by {@link InviteController#invite(List, long)}
+ * which completes with the failed invitees when the invite settles.
+ *
+ * While the invite is in flight, it is tracked by its scope in the map of the
+ * pending invites of its {@code InviteController} from which it removes itself
+ * when it completes in any way: settled, timed out or cancelled. Its
+ * completion listener, if any, is run then as well.
+ */
+class PendingInvite implements Future<List<Map<String, Object>>> {
+    /**
+     * Whether this invite was cancelled.
+     */
+    private boolean cancelled;
+
+    /**
+     * The {@link CountDownLatch} which is released when this invite
+     * completes.
+     */
+    private final CountDownLatch completion = new CountDownLatch(1);
+
+    /**
+     * The {@link Runnable} to run when this invite completes, if any.
+     */
+    private Runnable completionListener;
+
+    /**
+     * Whether this invite completed in any way.
+     */
+    private boolean done;
+
+    /**
+     * The exception this invite completed with, if any.
+     */
+    private Throwable exception;
+
+    /**
+     * The invitees of this invite.
+     */
+    private final List<Map<String, Object>> invitees;
+
+    /**
+     * The pending invites by scope this invite is tracked in.
+     */
+    private final ConcurrentMap<String, PendingInvite> pendingInvites;
+
+    /**
+     * The failed invitees this invite completed with, if any.
+     */
+    private List<Map<String, Object>> result;
+
+    /**
+     * The scope which identifies this invite to the JavaScript side.
+     */
+    private final String scope;
+
+    /**
+     * Initializes a new {@code PendingInvite} and starts tracking it.
+     *
+     * @param scope the scope which identifies the invite to the JavaScript
+     * side.
+     * @param invitees the invitees of the invite.
+     * @param pendingInvites the pending invites by scope to track the invite
+     * in until it completes.
+     */
+    PendingInvite(
+            String scope,
+            List<Map<String, Object>> invitees,
+            ConcurrentMap<String, PendingInvite> pendingInvites) {
+        this.scope = scope;
+        this.invitees = invitees;
+        this.pendingInvites = pendingInvites;
+
+        pendingInvites.put(scope, this);
+    }
+
+    /**
+     * Cancels this invite if it has not completed yet. The invite is not
+     * withdrawn from the JavaScript side, its outcome is merely ignored.
+     *
+     * @param mayInterruptIfRunning ignored because there is no thread running
+     * the invite.
+     * @return {@code true} if this invite was cancelled; {@code false} if it
+     * had already completed.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return complete(null, null, true);
+    }
+
+    /**
+     * Completes this invite unless it has already completed and stops
+     * tracking it.
+     *
+     * @param result the failed invitees to complete with.
+     * @param exception the exception to complete with or {@code null}.
+     * @param cancelled whether this invite is cancelled.
+     * @return {@code true} if this invite was completed; {@code false} if it
+     * had already completed.
+     */
+    private boolean complete(
+            List<Map<String, Object>> result,
+            Throwable exception,
+            boolean cancelled) {
+        Runnable completionListener;
+
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+
+            done = true;
+            this.result = result;
+            this.exception = exception;
+            this.cancelled = cancelled;
+
+            completionListener = this.completionListener;
+            this.completionListener = null;
+        }
+
+        completion.countDown();
+        pendingInvites.remove(scope, this);
+        if (completionListener != null) {
+            completionListener.run();
+        }
+
+        return true;
+    }
+
+    /**
+     * Completes this invite with all of its invitees failed e.g. because the
+     * invite failed to even begin.
+     */
+    void fail() {
+        complete(invitees, null, false);
+    }
+
+    @Override
+    public List<Map<String, Object>> get()
+            throws InterruptedException, ExecutionException {
+        completion.await();
+
+        return getResult();
+    }
+
+    @Override
+    public List<Map<String, Object>> get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (!completion.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+
+        return getResult();
+    }
+
+    /**
+     * Gets the result this invite completed with.
+     *
+     * @return the failed invitees.
+     * @throws CancellationException if this invite was cancelled.
+     * @throws ExecutionException if this invite completed with an exception.
+     */
+    private synchronized List<Map<String, Object>> getResult()
+            throws ExecutionException {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        if (exception != null) {
+            throw new ExecutionException(exception);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the scope which identifies this invite to the JavaScript side.
+     *
+     * @return the scope of this invite.
+     */
+    String getScope() {
+        return scope;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Sets the {@link Runnable} to run, on the thread which completes this
+     * invite, when it completes in any way. It is run right away if this
+     * invite has completed already.
+     *
+     * @param completionListener the {@code Runnable} to run when this invite
+     * completes.
+     */
+    void setCompletionListener(Runnable completionListener) {
+        synchronized (this) {
+            if (!done) {
+                this.completionListener = completionListener;
+                return;
+            }
+        }
+
+        completionListener.run();
+    }
+
+    /**
+     * Completes this invite with the invitees which failed to be invited, as
+     * reported by the JavaScript side.
+     *
+     * @param failedInvitees the invitees which failed to be invited.
+     */
+    void settle(List<Map<String, Object>> failedInvitees) {
+        complete(failedInvitees, null, false);
+    }
+
+    /**
+     * Completes this invite with a {@link TimeoutException} if it has not
+     * completed yet. It is not known which of the invitees were invited.
+     */
+    void timeOut() {
+        complete(
+            null,
+            new TimeoutException("Invite " + scope + " did not settle"),
+            false);
+    }
+}
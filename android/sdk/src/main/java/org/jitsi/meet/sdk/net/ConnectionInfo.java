@@ -0,0 +1,265 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+/**
+ * A snapshot of the properties of a network which matter to the quality of a
+ * conference: its transport, whether it is metered and the estimates of its
+ * bandwidth and signal strength.
+ */
+final class ConnectionInfo {
+    /**
+     * The cellular generations reported by {@link #getCellularGeneration()}.
+     */
+    static final String GENERATION_2G = "2g";
+    static final String GENERATION_3G = "3g";
+    static final String GENERATION_4G = "4g";
+    static final String GENERATION_5G = "5g";
+
+    /**
+     * The {@code TelephonyManager.NETWORK_TYPE_*} constants mapped to
+     * cellular generations by {@link #getCellularGeneration(int)}. Some are
+     * newer than the Android API level the SDK is compiled against.
+     */
+    private static final int NETWORK_TYPE_GPRS = 1;
+    private static final int NETWORK_TYPE_EDGE = 2;
+    private static final int NETWORK_TYPE_UMTS = 3;
+    private static final int NETWORK_TYPE_CDMA = 4;
+    private static final int NETWORK_TYPE_EVDO_0 = 5;
+    private static final int NETWORK_TYPE_EVDO_A = 6;
+    private static final int NETWORK_TYPE_1xRTT = 7;
+    private static final int NETWORK_TYPE_HSDPA = 8;
+    private static final int NETWORK_TYPE_HSUPA = 9;
+    private static final int NETWORK_TYPE_HSPA = 10;
+    private static final int NETWORK_TYPE_IDEN = 11;
+    private static final int NETWORK_TYPE_EVDO_B = 12;
+    private static final int NETWORK_TYPE_LTE = 13;
+    private static final int NETWORK_TYPE_EHRPD = 14;
+    private static final int NETWORK_TYPE_HSPAP = 15;
+    private static final int NETWORK_TYPE_GSM = 16;
+    private static final int NETWORK_TYPE_TD_SCDMA = 17;
+    private static final int NETWORK_TYPE_IWLAN = 18;
+    private static final int NETWORK_TYPE_LTE_CA = 19;
+    private static final int NETWORK_TYPE_NR = 20;
+
+    /**
+     * The transports reported by {@link #getTransport()}.
+     */
+    static final String TRANSPORT_BLUETOOTH = "bluetooth";
+    static final String TRANSPORT_CELLULAR = "cellular";
+    static final String TRANSPORT_ETHERNET = "ethernet";
+    static final String TRANSPORT_NONE = "none";
+    static final String TRANSPORT_UNKNOWN = "unknown";
+    static final String TRANSPORT_VPN = "vpn";
+    static final String TRANSPORT_WIFI = "wifi";
+
+    /**
+     * The value of the numeric properties which are not known.
+     */
+    static final int UNKNOWN = -1;
+
+    /**
+     * The {@code ConnectionInfo} of no network at all.
+     */
+    static final ConnectionInfo NONE
+        = new ConnectionInfo(
+            TRANSPORT_NONE,
+            false,
+            UNKNOWN,
+            UNKNOWN,
+            UNKNOWN,
+            null);
+
+    /**
+     * Gets a bandwidth estimate of the system as a bandwidth of a
+     * {@code ConnectionInfo}. {@code NetworkCapabilities} reports {@code 0}
+     * when it does not have an estimate e.g. for a VPN.
+     *
+     * @param kbps the bandwidth estimate in kbps of the system.
+     * @return {@code kbps} if it is positive; otherwise, {@link #UNKNOWN}.
+     */
+    static int getBandwidth(int kbps) {
+        return kbps > 0 ? kbps : UNKNOWN;
+    }
+
+    /**
+     * Gets the cellular generation of a specific cellular network type.
+     *
+     * @param networkType one of the {@code TelephonyManager.NETWORK_TYPE_*}
+     * constants.
+     * @return one of the {@code GENERATION_*} constants or {@code null} if
+     * {@code networkType} is not known.
+     */
+    static String getCellularGeneration(int networkType) {
+        switch (networkType) {
+        case NETWORK_TYPE_GPRS:
+        case NETWORK_TYPE_EDGE:
+        case NETWORK_TYPE_CDMA:
+        case NETWORK_TYPE_1xRTT:
+        case NETWORK_TYPE_IDEN:
+        case NETWORK_TYPE_GSM:
+            return GENERATION_2G;
+
+        case NETWORK_TYPE_UMTS:
+        case NETWORK_TYPE_EVDO_0:
+        case NETWORK_TYPE_EVDO_A:
+        case NETWORK_TYPE_HSDPA:
+        case NETWORK_TYPE_HSUPA:
+        case NETWORK_TYPE_HSPA:
+        case NETWORK_TYPE_EVDO_B:
+        case NETWORK_TYPE_EHRPD:
+        case NETWORK_TYPE_HSPAP:
+        case NETWORK_TYPE_TD_SCDMA:
+            return GENERATION_3G;
+
+        case NETWORK_TYPE_LTE:
+        case NETWORK_TYPE_IWLAN:
+        case NETWORK_TYPE_LTE_CA:
+            return GENERATION_4G;
+
+        case NETWORK_TYPE_NR:
+            return GENERATION_5G;
+
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * The cellular generation, one of the {@code GENERATION_*} constants, or
+     * {@code null} if the network is not cellular or the generation is not
+     * known.
+     */
+    private final String cellularGeneration;
+
+    /**
+     * The estimate of the downstream bandwidth in kbps or {@link #UNKNOWN}.
+     */
+    private final int downstreamBandwidth;
+
+    /**
+     * Whether the network is metered.
+     */
+    private final boolean metered;
+
+    /**
+     * The signal level in the range of 0 to 4 (both inclusive) or
+     * {@link #UNKNOWN}.
+     */
+    private final int signalLevel;
+
+    /**
+     * The transport, one of the {@code TRANSPORT_*} constants.
+     */
+    private final String transport;
+
+    /**
+     * The estimate of the upstream bandwidth in kbps or {@link #UNKNOWN}.
+     */
+    private final int upstreamBandwidth;
+
+    /**
+     * Creates new {@link ConnectionInfo}.
+     *
+     * @param transport one of the {@code TRANSPORT_*} constants.
+     * @param metered whether the network is metered.
+     * @param downstreamBandwidth the estimate of the downstream bandwidth in
+     * kbps or {@link #UNKNOWN}.
+     * @param upstreamBandwidth the estimate of the upstream bandwidth in kbps
+     * or {@link #UNKNOWN}.
+     * @param signalLevel the signal level in the range of 0 to 4 or
+     * {@link #UNKNOWN}.
+     * @param cellularGeneration one of the {@code GENERATION_*} constants or
+     * {@code null}.
+     */
+    ConnectionInfo(
+            String transport,
+            boolean metered,
+            int downstreamBandwidth,
+            int upstreamBandwidth,
+            int signalLevel,
+            String cellularGeneration) {
+        this.transport = transport;
+        this.metered = metered;
+        this.downstreamBandwidth = getBandwidth(downstreamBandwidth);
+        this.upstreamBandwidth = getBandwidth(upstreamBandwidth);
+        this.signalLevel = signalLevel;
+        this.cellularGeneration = cellularGeneration;
+    }
+
+    /**
+     * Gets the cellular generation of the network.
+     *
+     * @return one of the {@code GENERATION_*} constants or {@code null} if the
+     * network is not cellular or the generation is not known.
+     */
+    String getCellularGeneration() {
+        return cellularGeneration;
+    }
+
+    /**
+     * Gets the estimate of the downstream bandwidth of the network. It is the
+     * estimate of the first hop as reported by the system and thus an upper
+     * bound rather than the throughput to be expected.
+     *
+     * @return the estimate of the downstream bandwidth in kbps or
+     * {@link #UNKNOWN}.
+     */
+    int getDownstreamBandwidth() {
+        return downstreamBandwidth;
+    }
+
+    /**
+     * Gets the signal level of the network.
+     *
+     * @return the signal level in the range of 0 to 4 (both inclusive) or
+     * {@link #UNKNOWN}.
+     */
+    int getSignalLevel() {
+        return signalLevel;
+    }
+
+    /**
+     * Gets the transport of the network.
+     *
+     * @return one of the {@code TRANSPORT_*} constants.
+     */
+    String getTransport() {
+        return transport;
+    }
+
+    /**
+     * Gets the estimate of the upstream bandwidth of the network. It is the
+     * estimate of the first hop as reported by the system and thus an upper
+     * bound rather than the throughput to be expected.
+     *
+     * @return the estimate of the upstream bandwidth in kbps or
+     * {@link #UNKNOWN}.
+     */
+    int getUpstreamBandwidth() {
+        return upstreamBandwidth;
+    }
+
+    /**
+     * Gets whether the network is metered.
+     *
+     * @return {@code true} if the network is metered; {@code false},
+     * otherwise.
+     */
+    boolean isMetered() {
+        return metered;
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkInfo;
+import android.net.wifi.WifiInfo;
+import android.net.wifi.WifiManager;
+import android.os.Build;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Module exposing the properties of the active network which matter to the
+ * quality of a conference, whatever its transport (unlike
+ * {@code WiFiStatsModule}), along with the video constraints recommended for
+ * it. The JavaScript side may apply the latter before joining a conference so
+ * that calls on poor links start at an appropriate resolution.
+ */
+public class ConnectionInfoModule extends ReactContextBaseJavaModule {
+    /**
+     * The name of this module.
+     */
+    private final static String MODULE_NAME = "ConnectionInfo";
+
+    /**
+     * The number of signal levels reported, see
+     * {@link ConnectionInfo#getSignalLevel()}.
+     */
+    private final static int SIGNAL_LEVELS = 5;
+
+    /**
+     * The {@code Log} tag {@code ConnectionInfoModule} is to log messages
+     * with.
+     */
+    private final static String TAG = MODULE_NAME;
+
+    /**
+     * Gets the {@link ConnectionInfo} of the active network.
+     *
+     * @param context the {@link Context} to query the system services with.
+     * @return the {@link ConnectionInfo} of the active network or
+     * {@link ConnectionInfo#NONE} if there is none.
+     */
+    static ConnectionInfo getConnectionInfo(Context context) {
+        ConnectivityManager connectivityManager
+            = (ConnectivityManager)
+                context.getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            Network network = connectivityManager.getActiveNetwork();
+
+            if (network == null) {
+                return ConnectionInfo.NONE;
+            }
+
+            NetworkCapabilities networkCapabilities
+                = connectivityManager.getNetworkCapabilities(network);
+
+            return
+                networkCapabilities == null
+                    ? ConnectionInfo.NONE
+                    : getConnectionInfo(
+                        context,
+                        network,
+                        networkCapabilities);
+        }
+
+        NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+
+        if (networkInfo == null || !networkInfo.isConnected()) {
+            return ConnectionInfo.NONE;
+        }
+
+        String transport;
+
+        switch (networkInfo.getType()) {
+        case ConnectivityManager.TYPE_MOBILE:
+        case ConnectivityManager.TYPE_MOBILE_DUN:
+        case ConnectivityManager.TYPE_MOBILE_HIPRI:
+        case ConnectivityManager.TYPE_MOBILE_MMS:
+        case ConnectivityManager.TYPE_MOBILE_SUPL:
+        case ConnectivityManager.TYPE_WIMAX:
+            transport = ConnectionInfo.TRANSPORT_CELLULAR;
+            break;
+        case ConnectivityManager.TYPE_WIFI:
+            transport = ConnectionInfo.TRANSPORT_WIFI;
+            break;
+        case ConnectivityManager.TYPE_ETHERNET:
+            transport = ConnectionInfo.TRANSPORT_ETHERNET;
+            break;
+        case ConnectivityManager.TYPE_BLUETOOTH:
+            transport = ConnectionInfo.TRANSPORT_BLUETOOTH;
+            break;
+        case ConnectivityManager.TYPE_VPN:
+            transport = ConnectionInfo.TRANSPORT_VPN;
+            break;
+        default:
+            transport = ConnectionInfo.TRANSPORT_UNKNOWN;
+            break;
+        }
+
+        return
+            getConnectionInfo(
+                context,
+                transport,
+                connectivityManager.isActiveNetworkMetered(),
+                ConnectionInfo.UNKNOWN,
+                ConnectionInfo.UNKNOWN,
+                networkInfo);
+    }
+
+    /**
+     * Gets the {@link ConnectionInfo} of a specific network.
+     *
+     * @param context the {@link Context} to query the system services with.
+     * @param network the {@link Network} to get the {@code ConnectionInfo} of.
+     * @param networkCapabilities the {@link NetworkCapabilities} of
+     * {@code network}.
+     * @return the {@link ConnectionInfo} of {@code network}.
+     */
+    @TargetApi(Build.VERSION_CODES.M)
+    static ConnectionInfo getConnectionInfo(
+            Context context,
+            Network network,
+            NetworkCapabilities networkCapabilities) {
+        String transport;
+
+        // XXX A VPN also has the transport of the network it runs over and
+        // the latter is what determines the quality.
+        if (networkCapabilities.hasTransport(
+                NetworkCapabilities.TRANSPORT_CELLULAR)) {
+            transport = ConnectionInfo.TRANSPORT_CELLULAR;
+        } else if (networkCapabilities.hasTransport(
+                NetworkCapabilities.TRANSPORT_WIFI)) {
+            transport = ConnectionInfo.TRANSPORT_WIFI;
+        } else if (networkCapabilities.hasTransport(
+                NetworkCapabilities.TRANSPORT_ETHERNET)) {
+            transport = ConnectionInfo.TRANSPORT_ETHERNET;
+        } else if (networkCapabilities.hasTransport(
+                NetworkCapabilities.TRANSPORT_BLUETOOTH)) {
+            transport = ConnectionInfo.TRANSPORT_BLUETOOTH;
+        } else if (networkCapabilities.hasTransport(
+                NetworkCapabilities.TRANSPORT_VPN)) {
+            transport = ConnectionInfo.TRANSPORT_VPN;
+        } else {
+            transport = ConnectionInfo.TRANSPORT_UNKNOWN;
+        }
+
+        ConnectivityManager connectivityManager
+            = (ConnectivityManager)
+                context.getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        return
+            getConnectionInfo(
+                context,
+                transport,
+                !networkCapabilities.hasCapability(
+                    NetworkCapabilities.NET_CAPABILITY_NOT_METERED),
+                ConnectionInfo.getBandwidth(
+                    networkCapabilities.getLinkDownstreamBandwidthKbps()),
+                ConnectionInfo.getBandwidth(
+                    networkCapabilities.getLinkUpstreamBandwidthKbps()),
+                connectivityManager.getNetworkInfo(network));
+    }
+
+    /**
+     * Completes the {@link ConnectionInfo} of a network with the properties
+     * which are specific to its transport i.e. the signal level and the
+     * cellular generation.
+     *
+     * @param context the {@link Context} to query the system services with.
+     * @param transport the transport of the network.
+     * @param metered whether the network is metered.
+     * @param downstreamBandwidth the estimate of the downstream bandwidth in
+     * kbps or {@link ConnectionInfo#UNKNOWN}.
+     * @param upstreamBandwidth the estimate of the upstream bandwidth in kbps
+     * or {@link ConnectionInfo#UNKNOWN}.
+     * @param networkInfo the {@link NetworkInfo} of the network or
+     * {@code null}.
+     * @return the {@link ConnectionInfo} of the network.
+     */
+    private static ConnectionInfo getConnectionInfo(
+            Context context,
+            String transport,
+            boolean metered,
+            int downstreamBandwidth,
+            int upstreamBandwidth,
+            NetworkInfo networkInfo) {
+        String cellularGeneration = null;
+        int signalLevel = ConnectionInfo.UNKNOWN;
+
+        try {
+            if (ConnectionInfo.TRANSPORT_CELLULAR.equals(transport)) {
+                if (networkInfo != null) {
+                    cellularGeneration
+                        = ConnectionInfo.getCellularGeneration(
+                            networkInfo.getSubtype());
+                }
+                // XXX The signal level of the cellular network is only
+                // available through TelephonyManager#getSignalStrength() on
+                // Android >= P which the SDK does not compile against yet.
+            } else if (ConnectionInfo.TRANSPORT_WIFI.equals(transport)) {
+                WifiManager wifiManager
+                    = (WifiManager)
+                        context.getApplicationContext().getSystemService(
+                            Context.WIFI_SERVICE);
+                WifiInfo wifiInfo = wifiManager.getConnectionInfo();
+
+                if (wifiInfo != null && wifiInfo.getNetworkId() != -1) {
+                    signalLevel
+                        = WifiManager.calculateSignalLevel(
+                            wifiInfo.getRssi(),
+                            SIGNAL_LEVELS);
+                }
+            }
+        } catch (SecurityException e) {
+            // The signal level and the cellular generation are nice to have
+            // but some vendors demand permissions we do not ask for.
+            Log.w(TAG, "Failed to get the properties of the " + transport
+                + " network", e);
+        }
+
+        return
+            new ConnectionInfo(
+                transport,
+                metered,
+                downstreamBandwidth,
+                upstreamBandwidth,
+                signalLevel,
+                cellularGeneration);
+    }
+
+    /**
+     * Gets the {@link WritableMap} representation of a specific
+     * {@link ConnectionInfo} to be sent to the JavaScript side. The unknown
+     * properties are omitted.
+     *
+     * @param info the {@code ConnectionInfo} to represent.
+     * @return the {@code WritableMap} representation of {@code info}.
+     */
+    static WritableMap toWritableMap(ConnectionInfo info) {
+        WritableMap map = Arguments.createMap();
+
+        map.putString("transport", info.getTransport());
+        map.putBoolean("metered", info.isMetered());
+        if (info.getDownstreamBandwidth() != ConnectionInfo.UNKNOWN) {
+            map.putInt("downstreamBandwidth", info.getDownstreamBandwidth());
+        }
+        if (info.getUpstreamBandwidth() != ConnectionInfo.UNKNOWN) {
+            map.putInt("upstreamBandwidth", info.getUpstreamBandwidth());
+        }
+        if (info.getSignalLevel() != ConnectionInfo.UNKNOWN) {
+            map.putInt("signalLevel", info.getSignalLevel());
+        }
+        if (info.getCellularGeneration() != null) {
+            map.putString("cellularGeneration", info.getCellularGeneration());
+        }
+
+        VideoConstraints constraints = VideoConstraints.recommend(info);
+        WritableMap constraintsMap = Arguments.createMap();
+
+        constraintsMap.putInt("maxSendHeight", constraints.getMaxSendHeight());
+        constraintsMap.putInt(
+            "maxReceiveHeight",
+            constraints.getMaxReceiveHeight());
+        map.putMap("videoConstraints", constraintsMap);
+
+        return map;
+    }
+
+    /**
+     * The {@link ExecutorService} on which the system services are queried so
+     * that they do not block the native modules thread.
+     */
+    private final ExecutorService executor
+        = Executors.newSingleThreadExecutor();
+
+    public ConnectionInfoModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    /**
+     * Gets the properties of the active network and the video constraints
+     * recommended for it.
+     *
+     * @param promise a {@link Promise} which will be resolved with a map of
+     * the transport ({@code "cellular"}, {@code "wifi"}, {@code "ethernet"},
+     * {@code "bluetooth"}, {@code "vpn"}, {@code "unknown"} or
+     * {@code "none"}), metered state, downstream and upstream bandwidth
+     * estimates in kbps, signal level (0 to 4), cellular generation
+     * ({@code "2g"} to {@code "5g"}) and the recommended
+     * {@code videoConstraints} ({@code maxSendHeight} and
+     * {@code maxReceiveHeight}). The properties which are not known are
+     * omitted.
+     */
+    @ReactMethod
+    public void getConnectionInfo(final Promise promise) {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        promise.resolve(
+                            toWritableMap(
+                                getConnectionInfo(
+                                    getReactApplicationContext())));
+                    } catch (Throwable t) {
+                        Log.e(TAG, "Failed to get the connection info", t);
+                        promise.reject(t);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return MODULE_NAME;
+    }
+
+    /**
+     * Stops querying the system services when the React instance this module
+     * belongs to is destroyed.
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+
+        executor.shutdownNow();
+    }
+}
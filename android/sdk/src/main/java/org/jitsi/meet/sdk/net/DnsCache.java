@@ -0,0 +1,424 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the addresses of host names for as long as the TTLs of their DNS
+ * records allow so that the conference host is resolved once rather than by
+ * every HTTP client of the SDK. Host names may be prefetched in parallel e.g.
+ * as soon as a conference URL is loaded.
+ *
+ * Concurrent lookups of one and the same host name share a single resolution.
+ */
+public class DnsCache {
+    /**
+     * How long, in milliseconds, the addresses of a host name are cached when
+     * the TTLs of their records are unknown.
+     */
+    static final long DEFAULT_TTL = 60 * 1000;
+
+    /**
+     * The maximum time, in milliseconds, the addresses of a host name are
+     * cached, whatever the TTLs of their records.
+     */
+    static final long MAX_TTL = 10 * 60 * 1000;
+
+    /**
+     * The minimum time, in milliseconds, the addresses of a host name are
+     * cached, so that records with a TTL of zero do not defeat the cache
+     * within a burst of connections.
+     */
+    static final long MIN_TTL = 5 * 1000;
+
+    /**
+     * How long, in milliseconds, the failure to resolve a host name is cached.
+     */
+    static final long NEGATIVE_TTL = 5 * 1000;
+
+    /**
+     * Determines whether a specific host is an IP address literal which is not
+     * to be resolved.
+     *
+     * @param host the host to check.
+     * @return {@code true} if {@code host} is an IPv4 or IPv6 address literal;
+     * {@code false}, otherwise.
+     */
+    static boolean isIPAddressLiteral(String host) {
+        if (host.indexOf(':') != -1) {
+            return true;
+        }
+        try {
+            NAT64AddrInfo.parseIPv4Address(host);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The cached (or being resolved) addresses of the host names.
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * The {@link Executor} on which host names are prefetched.
+     */
+    private final Executor executor;
+
+    /**
+     * The number of lookups which were answered from the cache, including the
+     * ones which joined a resolution in progress e.g. a prefetch.
+     */
+    private long hitCount;
+
+    /**
+     * The number of lookups which had to resolve the host name.
+     */
+    private long missCount;
+
+    /**
+     * The number of prefetches which resolved a host name.
+     */
+    private long prefetchCount;
+
+    /**
+     * The {@link DnsResolver} which resolves the host names.
+     */
+    private final DnsResolver resolver;
+
+    /**
+     * Initializes a new {@code DnsCache} instance.
+     *
+     * @param resolver the {@link DnsResolver} which is to resolve the host
+     * names.
+     * @param executor the {@link Executor} on which host names are to be
+     * prefetched.
+     */
+    DnsCache(DnsResolver resolver, Executor executor) {
+        this.resolver = resolver;
+        this.executor = executor;
+    }
+
+    /**
+     * Removes all cached addresses e.g. because the network changed. The
+     * resolutions in progress complete for the lookups waiting for them but
+     * their results are not cached.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the ratio of {@link #getHitCount()} to all lookups.
+     *
+     * @return the hit rate in the range of 0 to 1 (both inclusive) or
+     * {@code 0} if there were no lookups.
+     */
+    public synchronized double getHitRate() {
+        long lookupCount = hitCount + missCount;
+
+        return lookupCount == 0 ? 0 : hitCount / (double) lookupCount;
+    }
+
+    /**
+     * Gets the number of lookups which were answered from the cache,
+     * including the ones which joined a resolution in progress e.g. a
+     * prefetch.
+     *
+     * @return the number of lookups which were answered from the cache.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups which had to resolve the host name.
+     *
+     * @return the number of lookups which had to resolve the host name.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of prefetches which resolved a host name i.e. which
+     * were not answered from the cache.
+     *
+     * @return the number of prefetches which resolved a host name.
+     */
+    public synchronized long getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    /**
+     * Looks up the addresses of a specific host name, from the cache if they
+     * have not expired; otherwise, resolves them on the current thread.
+     *
+     * @param host the host name to look up.
+     * @return the addresses of {@code host}.
+     * @throws UnknownHostException if {@code host} could not be resolved.
+     */
+    public List<InetAddress> lookup(String host) throws UnknownHostException {
+        if (isIPAddressLiteral(host)) {
+            return Arrays.asList(InetAddress.getAllByName(host));
+        }
+
+        host = host.toLowerCase(Locale.ROOT);
+
+        Entry entry;
+        boolean resolve = false;
+
+        synchronized (this) {
+            entry = entries.get(host);
+            if (entry != null && (entry.isPending() || !isExpired(entry))) {
+                hitCount++;
+            } else {
+                entry = new Entry();
+                entries.put(host, entry);
+                missCount++;
+                resolve = true;
+            }
+        }
+
+        if (resolve) {
+            resolve(host, entry);
+        }
+
+        return entry.getAddresses();
+    }
+
+    /**
+     * Gets the current time.
+     *
+     * @return the current time in milliseconds, from a monotonic clock.
+     */
+    long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * Determines whether a specific {@link Entry} which is not pending has
+     * expired. Must be called with the lock held.
+     *
+     * @param entry the {@code Entry} to check.
+     * @return {@code true} if {@code entry} has expired; {@code false},
+     * otherwise.
+     */
+    private boolean isExpired(Entry entry) {
+        return now() >= entry.expiration;
+    }
+
+    /**
+     * Starts resolving specific host names in parallel unless their addresses
+     * are cached or being resolved already.
+     *
+     * @param hosts the host names to prefetch.
+     */
+    public void prefetch(String... hosts) {
+        for (String host : hosts) {
+            if (host == null || host.isEmpty() || isIPAddressLiteral(host)) {
+                continue;
+            }
+
+            final String name = host.toLowerCase(Locale.ROOT);
+            final Entry entry;
+
+            synchronized (this) {
+                Entry oldEntry = entries.get(name);
+
+                if (oldEntry != null
+                        && (oldEntry.isPending() || !isExpired(oldEntry))) {
+                    continue;
+                }
+
+                entry = new Entry();
+                entries.put(name, entry);
+                prefetchCount++;
+            }
+
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        resolve(name, entry);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    if (entries.get(name) == entry) {
+                        entries.remove(name);
+                    }
+                }
+                entry.complete(
+                    null,
+                    new UnknownHostException("Prefetch rejected: " + name),
+                    0);
+            }
+        }
+    }
+
+    /**
+     * Resolves a specific host name into its A and AAAA records and completes
+     * a specific {@link Entry} with their addresses.
+     *
+     * @param host the host name to resolve.
+     * @param entry the {@code Entry} to complete.
+     */
+    private void resolve(String host, Entry entry) {
+        List<InetAddress> addresses = new ArrayList<>();
+        long ttl = MAX_TTL;
+
+        try {
+            for (DnsRecord record : resolver.queryAddresses(host)) {
+                addresses.add(
+                    InetAddress.getByAddress(host, record.getAddress()));
+                ttl
+                    = Math.min(
+                        ttl,
+                        record.getTtl() == DnsRecord.TTL_UNKNOWN
+                            ? DEFAULT_TTL
+                            : TimeUnit.SECONDS.toMillis(record.getTtl()));
+            }
+        } catch (IOException | RuntimeException e) {
+            // XXX A RuntimeException (e.g. an IllegalArgumentException for a
+            // host name which is not a valid DNS name or a SecurityException)
+            // must complete the entry as well or the lookups waiting for it
+            // would wait forever.
+            UnknownHostException unknownHostException
+                = new UnknownHostException(host);
+
+            unknownHostException.initCause(e);
+            // XXX Do not cache the failure of the resolution (e.g. no network)
+            // for as long as a negative answer.
+            entry.complete(null, unknownHostException, 0);
+            return;
+        }
+
+        if (addresses.isEmpty()) {
+            entry.complete(
+                null,
+                new UnknownHostException(host),
+                NEGATIVE_TTL);
+        } else {
+            entry.complete(
+                Collections.unmodifiableList(addresses),
+                null,
+                Math.max(MIN_TTL, ttl));
+        }
+    }
+
+    /**
+     * The cached (or being resolved) addresses of a host name.
+     */
+    private class Entry {
+        /**
+         * The addresses, if resolved successfully.
+         */
+        private List<InetAddress> addresses;
+
+        /**
+         * The exception, if the resolution failed.
+         */
+        private UnknownHostException exception;
+
+        /**
+         * When, in milliseconds as returned by {@link #now()}, this entry
+         * expires. Guarded by the lock of {@link DnsCache}.
+         */
+        long expiration;
+
+        /**
+         * Counted down when the resolution completes.
+         */
+        private final CountDownLatch resolved = new CountDownLatch(1);
+
+        /**
+         * Completes the resolution.
+         *
+         * @param addresses the addresses or {@code null} if the resolution
+         * failed.
+         * @param exception the exception if the resolution failed.
+         * @param ttl how long, in milliseconds, the result is to be cached.
+         */
+        void complete(
+                List<InetAddress> addresses,
+                UnknownHostException exception,
+                long ttl) {
+            synchronized (DnsCache.this) {
+                this.addresses = addresses;
+                this.exception = exception;
+                expiration = now() + ttl;
+            }
+            resolved.countDown();
+        }
+
+        /**
+         * Gets the addresses, waiting for the resolution to complete.
+         *
+         * @return the addresses.
+         * @throws UnknownHostException if the resolution failed or the
+         * waiting was interrupted.
+         */
+        List<InetAddress> getAddresses() throws UnknownHostException {
+            try {
+                resolved.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UnknownHostException("Interrupted");
+            }
+
+            synchronized (DnsCache.this) {
+                if (exception != null) {
+                    // XXX Rethrow a new instance so that the stack trace of
+                    // the caller is not lost.
+                    UnknownHostException e
+                        = new UnknownHostException(exception.getMessage());
+
+                    e.initCause(exception);
+                    throw e;
+                }
+
+                return addresses;
+            }
+        }
+
+        /**
+         * Gets whether the resolution is in progress. Must be called with the
+         * lock of {@link DnsCache} held.
+         *
+         * @return {@code true} if the resolution is in progress;
+         * {@code false}, otherwise.
+         */
+        boolean isPending() {
+            return resolved.getCount() != 0;
+        }
+    }
+}
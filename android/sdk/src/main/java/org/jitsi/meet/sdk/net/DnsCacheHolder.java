@@ -0,0 +1,164 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Build;
+
+import com.facebook.react.modules.network.OkHttpClientProvider;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Holds the {@link DnsCache} of the application which the HTTP client shared
+ * by React Native resolves host names with.
+ */
+public class DnsCacheHolder {
+    /**
+     * The maximum number of host names prefetched in parallel.
+     */
+    private final static int PREFETCH_THREADS = 4;
+
+    /**
+     * The {@link ConnectivityManager} which tells the active network on
+     * Android >= M, once {@link #init(Context)} is called.
+     */
+    private static ConnectivityManager connectivityManager;
+
+    /**
+     * The {@link DnsCache} of the application.
+     */
+    private static final DnsCache dnsCache;
+
+    static {
+        ThreadPoolExecutor executor
+            = new ThreadPoolExecutor(
+                PREFETCH_THREADS, PREFETCH_THREADS,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+
+        executor.allowCoreThreadTimeOut(true);
+
+        DnsResolver resolver = new DnsResolver() {
+            @Override
+            public List<DnsRecord> query(String name, int type)
+                throws IOException {
+                return getDnsResolver().query(name, type);
+            }
+
+            @Override
+            List<DnsRecord> queryAddresses(String name) throws IOException {
+                return getDnsResolver().queryAddresses(name);
+            }
+        };
+
+        dnsCache = new DnsCache(resolver, executor);
+    }
+
+    /**
+     * Gets the {@link DnsCache} of the application e.g. to read its hit/miss
+     * metrics.
+     *
+     * @return the {@link DnsCache} of the application.
+     */
+    public static DnsCache getDnsCache() {
+        return dnsCache;
+    }
+
+    /**
+     * Gets the {@link DnsResolver} for the active network. It uses the
+     * resolver of the system, bound to the active network on Android >= M, so
+     * that Private DNS, the DNS of a VPN and the like are honored. The TTLs of
+     * the records are unknown so {@link #dnsCache} keeps them for
+     * {@link DnsCache#DEFAULT_TTL}.
+     *
+     * @return the {@link DnsResolver} for the active network.
+     */
+    private static DnsResolver getDnsResolver() {
+        ConnectivityManager connectivityManager;
+
+        synchronized (DnsCacheHolder.class) {
+            connectivityManager = DnsCacheHolder.connectivityManager;
+        }
+
+        if (connectivityManager != null
+                && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            Network network = connectivityManager.getActiveNetwork();
+
+            if (network != null) {
+                return InetAddressDnsResolver.forNetwork(network);
+            }
+        }
+
+        return new InetAddressDnsResolver();
+    }
+
+    /**
+     * Plugs {@link #dnsCache} into the HTTP client shared by React Native and
+     * clears it whenever the network changes. Must be called before the React
+     * instance is created.
+     *
+     * @param context the {@link Context} of the application.
+     */
+    public static synchronized void init(Context context) {
+        if (connectivityManager != null) {
+            return;
+        }
+
+        context = context.getApplicationContext();
+        connectivityManager
+            = (ConnectivityManager)
+                context.getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        context.registerReceiver(
+            new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    if (!isInitialStickyBroadcast()) {
+                        dnsCache.clear();
+                    }
+                }
+            },
+            new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+
+        OkHttpClient client = OkHttpClientProvider.getOkHttpClient();
+
+        OkHttpClientProvider.replaceOkHttpClient(
+            client.newBuilder().dns(new OkHttpDns(dnsCache)).build());
+    }
+
+    /**
+     * Starts resolving specific host names in parallel e.g. the hosts of a
+     * conference which is about to be joined.
+     *
+     * @param hosts the host names to prefetch. {@code null} and empty ones are
+     * ignored.
+     */
+    public static void prefetch(String... hosts) {
+        dnsCache.prefetch(hosts);
+    }
+}
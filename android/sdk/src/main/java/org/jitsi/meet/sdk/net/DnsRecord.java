@@ -0,0 +1,71 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import java.net.InetAddress;
+
+/**
+ * An address record (A or AAAA) returned by a {@link DnsResolver}.
+ */
+final class DnsRecord {
+    /**
+     * The value of {@link #getTtl()} when the {@link DnsResolver} does not
+     * know the TTL of the record e.g. because it used
+     * {@link InetAddress#getAllByName(String)}.
+     */
+    static final long TTL_UNKNOWN = -1;
+
+    /**
+     * The address, 4 bytes for A and 16 bytes for AAAA records.
+     */
+    private final byte[] address;
+
+    /**
+     * The time to live of the record in seconds or {@link #TTL_UNKNOWN}.
+     */
+    private final long ttl;
+
+    /**
+     * Creates new {@link DnsRecord}.
+     *
+     * @param address the address, 4 bytes for A and 16 bytes for AAAA records.
+     * @param ttl the time to live of the record in seconds or
+     * {@link #TTL_UNKNOWN}.
+     */
+    DnsRecord(byte[] address, long ttl) {
+        this.address = address;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Gets the address of this record, as returned by
+     * {@link InetAddress#getAddress()}.
+     *
+     * @return the address, 4 bytes for A and 16 bytes for AAAA records.
+     */
+    byte[] getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the time to live of this record.
+     *
+     * @return the time to live in seconds or {@link #TTL_UNKNOWN}.
+     */
+    long getTtl() {
+        return ttl;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves host names into address records together with their TTLs.
+ */
+abstract class DnsResolver {
+    /**
+     * The type of IPv4 address records.
+     */
+    static final int TYPE_A = 1;
+
+    /**
+     * The type of IPv6 address records.
+     */
+    static final int TYPE_AAAA = 28;
+
+    /**
+     * Queries the address records of a specific type of a host name.
+     *
+     * @param name the host name to query.
+     * @param type {@link #TYPE_A} or {@link #TYPE_AAAA}.
+     * @return the address records of type {@code type} of {@code name}, empty
+     * if there are none.
+     * @throws IOException if the query failed.
+     */
+    abstract List<DnsRecord> query(String name, int type) throws IOException;
+
+    /**
+     * Queries the A and the AAAA records of a host name. By default, queries
+     * each type with {@link #query(String, int)}. Resolvers which get both
+     * types at once override it so that host names are not resolved twice.
+     *
+     * @param name the host name to query.
+     * @return the A records of {@code name} followed by its AAAA records,
+     * empty if there are none.
+     * @throws IOException if both queries failed.
+     */
+    List<DnsRecord> queryAddresses(String name) throws IOException {
+        List<DnsRecord> records = new ArrayList<>();
+        IOException ioException = null;
+        RuntimeException runtimeException = null;
+        int failures = 0;
+
+        for (int type : new int[] { TYPE_A, TYPE_AAAA }) {
+            try {
+                records.addAll(query(name, type));
+            } catch (IOException e) {
+                ioException = e;
+                failures++;
+            } catch (RuntimeException e) {
+                runtimeException = e;
+                failures++;
+            }
+        }
+
+        if (failures == 2) {
+            if (runtimeException != null) {
+                throw runtimeException;
+            }
+            throw ioException;
+        }
+
+        return records;
+    }
+}
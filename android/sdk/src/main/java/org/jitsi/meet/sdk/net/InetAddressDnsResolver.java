@@ -0,0 +1,106 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import android.annotation.TargetApi;
+import android.net.Network;
+import android.os.Build;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DnsResolver} which uses the resolver of the system through
+ * {@link InetAddress#getAllByName(String)} and thus honors whatever the system
+ * is configured with e.g. Private DNS or the DNS of a VPN. The TTLs of the
+ * records it returns are unknown.
+ */
+class InetAddressDnsResolver extends DnsResolver {
+    /**
+     * Creates a new {@link InetAddressDnsResolver} which resolves host names
+     * over a specific network with {@link Network#getAllByName(String)}.
+     *
+     * @param network the {@link Network} to resolve host names over.
+     * @return a new {@code InetAddressDnsResolver} for {@code network}.
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    static InetAddressDnsResolver forNetwork(final Network network) {
+        return new InetAddressDnsResolver() {
+            @Override
+            InetAddress[] getAllByName(String host)
+                throws UnknownHostException {
+                return network.getAllByName(host);
+            }
+        };
+    }
+
+    /**
+     * Resolves a host name into its addresses. Uses
+     * {@link InetAddress#getAllByName(String)} by default.
+     *
+     * @param host the host name to resolve.
+     * @return the addresses of {@code host}.
+     * @throws UnknownHostException if {@code host} could not be resolved.
+     */
+    InetAddress[] getAllByName(String host) throws UnknownHostException {
+        return InetAddress.getAllByName(host);
+    }
+
+    @Override
+    public List<DnsRecord> query(String name, int type)
+        throws UnknownHostException {
+        int addressLength = type == TYPE_A ? 4 : 16;
+        List<DnsRecord> records = new ArrayList<>();
+
+        for (DnsRecord record : queryAddresses(name)) {
+            if (record.getAddress().length == addressLength) {
+                records.add(record);
+            }
+        }
+
+        return records;
+    }
+
+    /**
+     * Resolves a host name into its A and AAAA records with a single call
+     * into the resolver of the system.
+     *
+     * @param name the host name to query.
+     * @return the A records of {@code name} followed by its AAAA records.
+     * @throws UnknownHostException if {@code name} could not be resolved.
+     */
+    @Override
+    List<DnsRecord> queryAddresses(String name) throws UnknownHostException {
+        List<DnsRecord> ipv4s = new ArrayList<>();
+        List<DnsRecord> ipv6s = new ArrayList<>();
+
+        for (InetAddress addr : getAllByName(name)) {
+            byte[] address = addr.getAddress();
+            DnsRecord record = new DnsRecord(address, DnsRecord.TTL_UNKNOWN);
+
+            if (address.length == 4) {
+                ipv4s.add(record);
+            } else {
+                ipv6s.add(record);
+            }
+        }
+        ipv4s.addAll(ipv6s);
+
+        return ipv4s;
+    }
+}
@@ -17,6 +17,9 @@ package org.jitsi.meet.sdk.net;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Constructs IPv6 addresses for IPv4 addresses in the NAT64 environment.
@@ -28,6 +31,23 @@ import java.net.UnknownHostException;
  * https://tools.ietf.org/html/rfc6052#section-2.2
  */
 public class NAT64AddrInfo {
+    /**
+     * The upper case hex digits.
+     */
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * The NAT64 prefix lengths (in bits) in the order in which they are tried
+     * by {@link #figureOutNAT64AddrInfo(byte[], byte[])}.
+     */
+    private static final int[] PREFIX_LENGTHS = { 96, 64, 56, 48, 40, 32 };
+
+    /**
+     * The index of the 'u' octet in an IPv6 address. It must be zero and the
+     * IPv4 address is laid out around it.
+     */
+    private static final int U_OCTET_INDEX = 8;
+
     /**
      * Coverts bytes array to upper case HEX string.
      *
@@ -35,13 +55,16 @@ public class NAT64AddrInfo {
      * @return ex. "010AFF" for an array of {1, 10, 255}.
      */
     static String bytesToHexString(byte[] bytes) {
-        StringBuilder hexStr = new StringBuilder();
+        char[] chars = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
 
-        for (byte b : bytes) {
-            hexStr.append(String.format("%02X", b));
+            chars[2 * i] = HEX_DIGITS[b >>> 4];
+            chars[2 * i + 1] = HEX_DIGITS[b & 0x0F];
         }
 
-        return hexStr.toString();
+        return new String(chars);
     }
 
     /**
@@ -56,21 +79,21 @@ public class NAT64AddrInfo {
      */
     public static NAT64AddrInfo discover(String host)
             throws UnknownHostException {
-        InetAddress ipv4 = null;
-        InetAddress ipv6 = null;
+        byte[] ipv4 = null;
+        byte[] ipv6 = null;
 
         for(InetAddress addr : InetAddress.getAllByName(host)) {
             byte[] bytes = addr.getAddress();
 
             if (bytes.length == 4) {
-                ipv4 = addr;
+                ipv4 = bytes;
             } else if (bytes.length == 16) {
-                ipv6 = addr;
+                ipv6 = bytes;
             }
         }
 
         if (ipv4 != null && ipv6 != null) {
-            return figureOutNAT64AddrInfo(ipv4.getAddress(), ipv6.getAddress());
+            return figureOutNAT64AddrInfo(ipv4, ipv6);
         }
 
         return null;
@@ -91,8 +114,9 @@ public class NAT64AddrInfo {
     static NAT64AddrInfo figureOutNAT64AddrInfo(
             byte[] ipv4AddrBytes,
             byte[] ipv6AddrBytes) {
-        String ipv6Str = bytesToHexString(ipv6AddrBytes);
-        String ipv4Str = bytesToHexString(ipv4AddrBytes);
+        if (ipv4AddrBytes.length != 4 || ipv6AddrBytes.length != 16) {
+            return null;
+        }
 
         // NAT64 address format:
         // +--+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
@@ -110,57 +134,107 @@ public class NAT64AddrInfo {
         // +--+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
         // |96|     prefix                                    |    v4(32)     |
         // +--+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
-        int prefixLength = 96;
-        int suffixLength = 0;
-        String prefix = null;
-        String suffix = null;
-
-        if (ipv4Str.equalsIgnoreCase(ipv6Str.substring(prefixLength / 4))) {
-            prefix = ipv6Str.substring(0, prefixLength / 4);
-        } else {
-            // Cut out the 'u' octet
-            ipv6Str = ipv6Str.substring(0, 16) + ipv6Str.substring(18);
-
-            for (prefixLength = 64, suffixLength = 6; prefixLength >= 32; ) {
-                if (ipv4Str.equalsIgnoreCase(
-                        ipv6Str.substring(
-                                prefixLength / 4, prefixLength / 4 + 8))) {
-                    prefix = ipv6Str.substring(0, prefixLength / 4);
-                    suffix = ipv6Str.substring(ipv6Str.length() - suffixLength);
+        for (int prefixLength : PREFIX_LENGTHS) {
+            int[] ipv4Offsets = getIPv4Offsets(prefixLength);
+            boolean match = true;
+
+            for (int i = 0; i < 4; i++) {
+                if (ipv6AddrBytes[ipv4Offsets[i]] != ipv4AddrBytes[i]) {
+                    match = false;
                     break;
                 }
+            }
+
+            if (match) {
+                byte[] template = ipv6AddrBytes.clone();
+
+                for (int ipv4Offset : ipv4Offsets) {
+                    template[ipv4Offset] = 0;
+                }
+                if (prefixLength != 96) {
+                    template[U_OCTET_INDEX] = 0;
+                }
 
-                prefixLength -= 8;
-                suffixLength += 2;
+                return new NAT64AddrInfo(template, ipv4Offsets);
             }
         }
 
-        return prefix != null ? new NAT64AddrInfo(prefix, suffix) : null;
+        return null;
     }
 
     /**
-     * An overload for {@link #hexStringToIPv6String(StringBuilder)}.
+     * Figures out all NAT64 prefixes/suffixes in use by a network, for
+     * example based on the IPv6 addresses synthesized for the well-known IPv4
+     * addresses of "ipv4only.arpa" as described in RFC 7050.
      *
-     * @param hexStr a hex representation of IPv6 address bytes.
-     * @return an IPv6 address string.
+     * @param ipv4AddrsBytes the IPv4 addresses of a host.
+     * @param ipv6AddrsBytes the IPv6 addresses of the same host in NAT64
+     * network.
+     * @return the distinct {@link NAT64AddrInfo}s which map any of
+     * {@code ipv4AddrsBytes} to any of {@code ipv6AddrsBytes}, in the order of
+     * {@code ipv6AddrsBytes}.
      */
-    static String hexStringToIPv6String(String hexStr) {
-        return hexStringToIPv6String(new StringBuilder(hexStr));
+    static List<NAT64AddrInfo> figureOutNAT64AddrInfos(
+            List<byte[]> ipv4AddrsBytes,
+            List<byte[]> ipv6AddrsBytes) {
+        List<NAT64AddrInfo> infos = new ArrayList<>();
+
+        for (byte[] ipv6AddrBytes : ipv6AddrsBytes) {
+            for (byte[] ipv4AddrBytes : ipv4AddrsBytes) {
+                NAT64AddrInfo info
+                    = figureOutNAT64AddrInfo(ipv4AddrBytes, ipv6AddrBytes);
+
+                if (info != null) {
+                    if (!infos.contains(info)) {
+                        infos.add(info);
+                    }
+                    break;
+                }
+            }
+        }
+
+        return infos;
+    }
+
+    /**
+     * Gets the indexes of the bytes of the IPv4 address within the IPv6
+     * address for a specific NAT64 prefix length.
+     *
+     * @param prefixLength the NAT64 prefix length in bits.
+     * @return the indexes of the 4 bytes of the IPv4 address.
+     */
+    private static int[] getIPv4Offsets(int prefixLength) {
+        int[] ipv4Offsets = new int[4];
+
+        for (int i = 0, offset = prefixLength / 8; i < 4; offset++) {
+            if (offset != U_OCTET_INDEX) {
+                ipv4Offsets[i++] = offset;
+            }
+        }
+
+        return ipv4Offsets;
     }
 
     /**
      * Converts from HEX representation of IPv6 address bytes into IPv6 address
      * string which includes the ':' signs.
      *
-     * @param str a hex representation of IPv6 address bytes.
+     * @param hexStr a hex representation of IPv6 address bytes i.e. 32 hex
+     * digits.
      * @return eg. FE80:CD00:0000:0CDA:1357:0000:212F:749C
      */
-    static String hexStringToIPv6String(StringBuilder str) {
-        for (int i = 32 - 4; i > 0; i -= 4) {
-            str.insert(i, ":");
+    static String hexStringToIPv6String(String hexStr) {
+        int length = hexStr.length();
+        StringBuilder str = new StringBuilder(length + 7);
+
+        for (int i = 0; i < length; i++) {
+            if (i != 0 && i % 4 == 0 && i < 32) {
+                str.append(':');
+            }
+            str.append(Character.toUpperCase(hexStr.charAt(i)));
         }
 
-        return str.toString().toUpperCase();
+        return str.toString();
     }
 
     /**
@@ -171,44 +245,100 @@ public class NAT64AddrInfo {
      * @throws IllegalArgumentException if the address is not in valid format.
      */
     static byte[] ipv4AddressStringToBytes(String ipv4Address) {
-        InetAddress address;
+        int ipv4 = parseIPv4Address(ipv4Address);
 
-        try {
-            address = InetAddress.getByName(ipv4Address);
-        } catch (UnknownHostException e) {
-            throw new IllegalArgumentException(
-                    "Invalid IP address: " + ipv4Address, e);
-        }
+        return new byte[] {
+            (byte) (ipv4 >>> 24),
+            (byte) (ipv4 >>> 16),
+            (byte) (ipv4 >>> 8),
+            (byte) ipv4
+        };
+    }
+
+    /**
+     * Parses an IPv4 address in dotted-decimal notation. Unlike
+     * {@link InetAddress#getByName(String)}, never does a DNS lookup.
+     *
+     * @param ipv4Address eg. '192.168.3.23'
+     * @return the IPv4 address as an {@code int} in network byte order.
+     * @throws IllegalArgumentException if the address is not in valid format.
+     */
+    static int parseIPv4Address(String ipv4Address) {
+        int length = ipv4Address.length();
+        int ipv4 = 0;
+        int octet = 0;
+        int octets = 0;
+        int digits = 0;
 
-        byte[] bytes = address.getAddress();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? ipv4Address.charAt(i) : '.';
 
-        if (bytes.length != 4) {
-            throw new IllegalArgumentException(
-                    "Not an IPv4 address: " + ipv4Address);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    break;
+                }
+            } else if (c == '.' && digits != 0 && octets < 4) {
+                ipv4 = (ipv4 << 8) | octet;
+                octet = 0;
+                digits = 0;
+                if (++octets == 4 && i == length) {
+                    return ipv4;
+                }
+            } else {
+                break;
+            }
         }
 
-        return bytes;
+        throw new IllegalArgumentException(
+                "Invalid IPv4 address: " + ipv4Address);
     }
 
     /**
-     * The NAT64 prefix added to construct IPv6 from an IPv4 address.
+     * The positions within {@link #template} of the (first) hex digits of the
+     * 4 bytes of the IPv4 address.
      */
-    private final String prefix;
+    private final int[] ipv4CharOffsets;
 
     /**
-     * The NAT64 suffix (if any) used to construct IPv6 from an IPv4 address.
+     * The IPv6 address string with the NAT64 prefix and suffix and zeros in
+     * place of the IPv4 address e.g. 64:FF9B:0000:0000:0000:0000:0000:0000.
      */
-    private final String suffix;
+    private final char[] template;
 
     /**
      * Creates new instance of {@link NAT64AddrInfo}.
      *
-     * @param prefix the NAT64 prefix.
-     * @param suffix the NAT64 suffix.
+     * @param template the bytes of an IPv6 address with the NAT64 prefix and
+     * suffix and zeros in place of the IPv4 address.
+     * @param ipv4Offsets the indexes of the 4 bytes of the IPv4 address within
+     * {@code template}.
      */
-    private NAT64AddrInfo(String prefix, String suffix) {
-        this.prefix = prefix;
-        this.suffix = suffix;
+    private NAT64AddrInfo(byte[] template, int[] ipv4Offsets) {
+        this.template = hexStringToIPv6String(bytesToHexString(template))
+            .toCharArray();
+
+        ipv4CharOffsets = new int[ipv4Offsets.length];
+        for (int i = 0; i < ipv4Offsets.length; i++) {
+            // Every 2 bytes are 4 hex digits followed by a colon.
+            ipv4CharOffsets[i] = ipv4Offsets[i] * 2 + ipv4Offsets[i] / 2;
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof NAT64AddrInfo)) {
+            return false;
+        }
+
+        NAT64AddrInfo other = (NAT64AddrInfo) obj;
+
+        return
+            Arrays.equals(template, other.template)
+                && Arrays.equals(ipv4CharOffsets, other.ipv4CharOffsets);
     }
 
     /**
@@ -221,18 +351,23 @@ public class NAT64AddrInfo {
      * address.
      */
     public String getIPv6Address(String ipv4Address) {
-        byte[] ipv4AddressBytes = ipv4AddressStringToBytes(ipv4Address);
-        StringBuilder newIPv6Str = new StringBuilder();
+        int ipv4 = parseIPv4Address(ipv4Address);
+        char[] chars = template.clone();
 
-        newIPv6Str.append(prefix);
-        newIPv6Str.append(bytesToHexString(ipv4AddressBytes));
+        for (int i = 0; i < 4; i++) {
+            int b = (ipv4 >>> (24 - 8 * i)) & 0xFF;
+            int offset = ipv4CharOffsets[i];
 
-        if (suffix != null) {
-            // Insert the 'u' octet.
-            newIPv6Str.insert(16, "00");
-            newIPv6Str.append(suffix);
+            chars[offset] = HEX_DIGITS[b >>> 4];
+            chars[offset + 1] = HEX_DIGITS[b & 0x0F];
         }
 
-        return hexStringToIPv6String(newIPv6Str);
+        return new String(chars);
+    }
+
+    @Override
+    public int hashCode() {
+        return
+            31 * Arrays.hashCode(template) + Arrays.hashCode(ipv4CharOffsets);
     }
 }
@@ -0,0 +1,303 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the {@link NAT64AddrInfo}s of each network and discovers them
+ * asynchronously on an {@link Executor}, so that the thread asking for them
+ * is never blocked by DNS.
+ *
+ * The results are kept per network so that moving back and forth between, for
+ * example, WiFi and an IPv6-only cellular network neither uses the prefix of
+ * the other network nor discovers it again. Concurrent requests share a single
+ * discovery (single-flight). Once the cached result is older than its
+ * lifetime, which follows the TTLs of the DNS records it is based on, it is
+ * still served while a new discovery runs in the background
+ * (stale-while-revalidate). Failed discoveries are remembered for
+ * {@link #FAILURE_LIFETIME} so that a broken DNS is not hammered by every
+ * caller.
+ *
+ * @param <N> the type of the networks.
+ */
+abstract class NAT64AddrInfoCache<N> {
+    /**
+     * Receives the result of {@link #get(Callback)}.
+     */
+    interface Callback {
+        /**
+         * Invoked with the {@link NAT64AddrInfo}s of the current network.
+         *
+         * @param infos the {@code NAT64AddrInfo}s of the current network, the
+         * preferred one first. Empty if the network is not a NAT64 one or the
+         * discovery failed.
+         */
+        void onNAT64AddrInfo(List<NAT64AddrInfo> infos);
+    }
+
+    /**
+     * The cached result of the discoveries on a network.
+     */
+    private static class Entry {
+        /**
+         * When, in milliseconds as returned by {@link #now()}, {@link #infos}
+         * is to be discovered again.
+         */
+        long expiration;
+
+        /**
+         * Whether the last discovery failed.
+         */
+        boolean failed;
+
+        /**
+         * The cached {@link NAT64AddrInfo}s.
+         */
+        List<NAT64AddrInfo> infos;
+
+        /**
+         * The {@link Callback}s waiting for the discovery in flight or
+         * {@code null} if there is none.
+         */
+        List<Callback> pendingCallbacks;
+
+        /**
+         * Whether a discovery has completed yet.
+         */
+        boolean resolved;
+    }
+
+    /**
+     * How long, in milliseconds, a failed discovery is remembered.
+     */
+    static final long FAILURE_LIFETIME = 10 * 1000;
+
+    /**
+     * The minimum time, in milliseconds, a successful discovery is considered
+     * fresh regardless of the TTLs of the DNS records it is based on.
+     */
+    static final long MIN_INFO_LIFETIME = 10 * 1000;
+
+    /**
+     * How long, in milliseconds, a successful discovery is considered fresh
+     * when the TTLs of the DNS records it is based on are unknown.
+     */
+    private final long defaultInfoLifetime;
+
+    /**
+     * The {@link Entry}s of the networks.
+     */
+    private final Map<N, Entry> entries = new HashMap<>();
+
+    /**
+     * The {@link Executor} discoveries run on.
+     */
+    private final Executor executor;
+
+    /**
+     * Creates new {@link NAT64AddrInfoCache}.
+     *
+     * @param executor the {@code Executor} to run discoveries on.
+     * @param defaultInfoLifetime how long, in milliseconds, a successful
+     * discovery is considered fresh when the TTLs of the DNS records it is
+     * based on are unknown.
+     */
+    NAT64AddrInfoCache(Executor executor, long defaultInfoLifetime) {
+        this.executor = executor;
+        this.defaultInfoLifetime = defaultInfoLifetime;
+    }
+
+    /**
+     * Discovers the {@link NAT64AddrInfo}s of a network. Invoked on
+     * {@link #executor}.
+     *
+     * @param network the network to discover the {@code NAT64AddrInfo}s of.
+     * @return the {@link NAT64Discovery} with the {@code NAT64AddrInfo}s of
+     * {@code network}.
+     * @throws IOException if the discovery failed.
+     */
+    abstract NAT64Discovery discover(N network) throws IOException;
+
+    /**
+     * Runs a discovery and delivers its result to the
+     * {@link Entry#pendingCallbacks} of the network.
+     *
+     * @param network the network to run the discovery on.
+     * @param entry the {@code Entry} of {@code network}. It may have been
+     * invalidated by the time the discovery completes in which case the result
+     * is delivered but no longer cached.
+     */
+    private void doDiscover(N network, Entry entry) {
+        List<NAT64AddrInfo> infos;
+        long lifetime;
+        boolean failed;
+
+        try {
+            NAT64Discovery discovery = discover(network);
+            long ttl = discovery.getTtl();
+
+            infos = discovery.getInfos();
+            lifetime
+                = ttl == DnsRecord.TTL_UNKNOWN
+                    ? defaultInfoLifetime
+                    : Math.max(
+                        MIN_INFO_LIFETIME,
+                        TimeUnit.SECONDS.toMillis(ttl));
+            failed = false;
+        } catch (IOException | RuntimeException e) {
+            infos = Collections.emptyList();
+            lifetime = FAILURE_LIFETIME;
+            failed = true;
+        }
+
+        List<Callback> callbacks;
+
+        synchronized (this) {
+            entry.expiration = now() + lifetime;
+            entry.failed = failed;
+            entry.infos = infos;
+            entry.resolved = true;
+
+            callbacks = entry.pendingCallbacks;
+            entry.pendingCallbacks = null;
+        }
+
+        for (Callback callback : callbacks) {
+            callback.onNAT64AddrInfo(infos);
+        }
+    }
+
+    /**
+     * Adds a {@link Callback} to the ones waiting for the discovery in flight
+     * on a network, starting one if necessary. Must be called with the lock
+     * held.
+     *
+     * @param network the network.
+     * @param entry the {@code Entry} of {@code network}.
+     * @param callback the {@code Callback} to add.
+     */
+    private void enqueue(N network, Entry entry, Callback callback) {
+        if (entry.pendingCallbacks == null) {
+            startDiscovery(network, entry);
+        }
+        entry.pendingCallbacks.add(callback);
+    }
+
+    /**
+     * Gets the {@link NAT64AddrInfo}s of the current network. The
+     * {@code callback} is invoked synchronously if a usable result is cached;
+     * otherwise, on {@link #executor} once the discovery completes.
+     *
+     * @param callback the {@code Callback} to deliver the result to.
+     * @throws RejectedExecutionException if a discovery is necessary but
+     * {@link #executor} does not accept it e.g. because it was shut down.
+     */
+    void get(Callback callback) {
+        N network = getActiveNetwork();
+        List<NAT64AddrInfo> infos;
+
+        synchronized (this) {
+            Entry entry = entries.get(network);
+
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(network, entry);
+            }
+
+            if (!entry.resolved) {
+                enqueue(network, entry, callback);
+                return;
+            } else if (now() <= entry.expiration) {
+                infos = entry.infos;
+            } else if (!entry.failed) {
+                // Serve the stale result while revalidating it.
+                infos = entry.infos;
+                if (entry.pendingCallbacks == null) {
+                    startDiscovery(network, entry);
+                }
+            } else {
+                enqueue(network, entry, callback);
+                return;
+            }
+        }
+
+        callback.onNAT64AddrInfo(infos);
+    }
+
+    /**
+     * Gets the network the device currently uses by default.
+     *
+     * @return the current network, {@code null} if it cannot be told apart
+     * from the others.
+     */
+    abstract N getActiveNetwork();
+
+    /**
+     * Forgets the result of the discoveries on a network e.g. because the
+     * network was lost or its configuration changed.
+     *
+     * @param network the network to forget the result of.
+     */
+    synchronized void invalidate(N network) {
+        entries.remove(network);
+    }
+
+    /**
+     * Forgets the results of the discoveries on all networks.
+     */
+    synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the current time.
+     *
+     * @return the current time in milliseconds, from a monotonic clock.
+     */
+    long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * Starts a discovery on a network. Must be called with the lock held.
+     *
+     * @param network the network to run the discovery on.
+     * @param entry the {@code Entry} of {@code network}.
+     */
+    private void startDiscovery(final N network, final Entry entry) {
+        entry.pendingCallbacks = new ArrayList<>();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    doDiscover(network, entry);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            entry.pendingCallbacks = null;
+            throw ree;
+        }
+    }
+}
@@ -15,22 +15,43 @@
  */
 package org.jitsi.meet.sdk.net;
 
+import android.annotation.TargetApi;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.LinkProperties;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Build;
 import android.util.Log;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
 
-import java.net.UnknownHostException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This module exposes the functionality of creating an IPv6 representation
  * of IPv4 addresses in NAT64 environment.
  *
- * See[1] and [2] for more info on what NAT64 is.
+ * See[1] and [2] for more info on what NAT64 is and [3] for how the NAT64
+ * prefixes are discovered.
  * [1]: https://tools.ietf.org/html/rfc6146
  * [2]: https://tools.ietf.org/html/rfc6052
+ * [3]: https://tools.ietf.org/html/rfc7050
  */
 public class NAT64AddrInfoModule extends ReactContextBaseJavaModule {
     /**
@@ -40,7 +61,10 @@ public class NAT64AddrInfoModule extends ReactContextBaseJavaModule {
     private final static String HOST = "nat64.jitsi.net";
 
     /**
-     * How long is the {@link NAT64AddrInfo} instance valid.
+     * How long is the {@link NAT64AddrInfo} instance valid. The resolver of
+     * the system does not tell the TTLs of the DNS records it was discovered
+     * from. Afterwards it is still used while it is being discovered again in
+     * the background.
      */
     private final static long INFO_LIFETIME = 60 * 1000;
 
@@ -55,14 +79,64 @@ public class NAT64AddrInfoModule extends ReactContextBaseJavaModule {
     private final static String TAG = MODULE_NAME;
 
     /**
-     * The {@link NAT64AddrInfo} instance which holds NAT64 prefix/suffix.
+     * The {@link BroadcastReceiver} which invalidates {@link #infoCache} on
+     * network changes on Android < M.
      */
-    private NAT64AddrInfo info;
+    private BroadcastReceiver connectivityReceiver;
 
     /**
-     * When {@link #info} was created.
+     * The {@link ConnectivityManager} which tells the networks apart on
+     * Android >= M.
      */
-    private long infoTimestamp;
+    private final ConnectivityManager connectivityManager;
+
+    /**
+     * The {@link ExecutorService} on which the NAT64 discoveries run so that
+     * they do not block the native modules thread.
+     */
+    private final ExecutorService executor
+        = Executors.newSingleThreadExecutor();
+
+    /**
+     * The {@link NAT64AddrInfoCache} which holds the NAT64 prefixes/suffixes
+     * of the networks. They are keyed by {@link Network} on Android >= M;
+     * otherwise, there is a single entry (with a {@code null} key) for the
+     * current network.
+     */
+    private final NAT64AddrInfoCache<Object> infoCache
+        = new NAT64AddrInfoCache<Object>(executor, INFO_LIFETIME) {
+            @Override
+            NAT64Discovery discover(Object network) throws IOException {
+                // XXX The DNS of the network is queried through the resolver
+                // of the system rather than over UDP port 53 directly so that
+                // Private DNS and the DNS of a VPN are honored.
+                DnsResolver resolver
+                    = network == null
+                        ? new InetAddressDnsResolver()
+                        : InetAddressDnsResolver.forNetwork((Network) network);
+
+                try {
+                    return NAT64Discovery.discover(resolver, HOST);
+                } catch (IOException e) {
+                    Log.e(TAG, "NAT64 discovery failed on " + network, e);
+                    throw e;
+                }
+            }
+
+            @Override
+            Object getActiveNetwork() {
+                return
+                    Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                        ? connectivityManager.getActiveNetwork()
+                        : null;
+            }
+        };
+
+    /**
+     * The {@link ConnectivityManager.NetworkCallback} which invalidates
+     * {@link #infoCache} on network changes on Android >= M.
+     */
+    private Object networkCallback;
 
     /**
      * Creates new {@link NAT64AddrInfoModule}.
@@ -72,6 +146,26 @@ public class NAT64AddrInfoModule extends ReactContextBaseJavaModule {
      */
     public NAT64AddrInfoModule(ReactApplicationContext reactContext) {
         super(reactContext);
+
+        connectivityManager
+            = (ConnectivityManager)
+                reactContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            registerNetworkCallback();
+        } else {
+            connectivityReceiver = new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    if (!isInitialStickyBroadcast()) {
+                        infoCache.invalidateAll();
+                    }
+                }
+            };
+            reactContext.registerReceiver(
+                connectivityReceiver,
+                new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+        }
     }
 
     /**
@@ -84,39 +178,155 @@ public class NAT64AddrInfoModule extends ReactContextBaseJavaModule {
      * rejected if given {@code ipv4Address} is not a valid IPv4 address.
      */
     @ReactMethod
-    public void getIPv6Address(String ipv4Address, final Promise promise) {
-        // Reset if cached for too long.
-        if (System.currentTimeMillis() - infoTimestamp > INFO_LIFETIME) {
-            info = null;
+    public void getIPv6Address(
+            final String ipv4Address,
+            final Promise promise) {
+        try {
+            infoCache.get(new NAT64AddrInfoCache.Callback() {
+                @Override
+                public void onNAT64AddrInfo(List<NAT64AddrInfo> infos) {
+                    promise.resolve(getIPv6Address(infos, ipv4Address));
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            // The React instance is being destroyed.
+            promise.resolve(null);
         }
+    }
 
-        if (info == null) {
-            String host = HOST;
+    /**
+     * Tries to obtain IPv6 addresses for given IPv4 addresses in NAT64
+     * environment. All of them are synthesized with the same
+     * {@link NAT64AddrInfo} so that, for example, the ICE candidates of a
+     * session description cost a single call regardless of their number.
+     *
+     * @param ipv4Addresses IPv4 address strings.
+     * @param promise a {@link Promise} which will be resolved with an array of
+     * the IPv6 addresses for given IPv4 addresses, in the same order. An
+     * element is {@code null} if no {@link NAT64AddrInfo} was resolved for the
+     * current network or if the respective IPv4 address is not valid.
+     */
+    @ReactMethod
+    public void getIPv6Addresses(
+            ReadableArray ipv4Addresses,
+            final Promise promise) {
+        final String[] ipv4AddressStrings = new String[ipv4Addresses.size()];
 
-            try {
-                info = NAT64AddrInfo.discover(host);
-            } catch (UnknownHostException e) {
-                Log.e(TAG, "NAT64AddrInfo.discover: " + host, e);
-            }
-            infoTimestamp = System.currentTimeMillis();
+        for (int i = 0; i < ipv4AddressStrings.length; i++) {
+            ipv4AddressStrings[i]
+                = ipv4Addresses.getType(i) == ReadableType.String
+                    ? ipv4Addresses.getString(i)
+                    : null;
         }
 
-        String result;
+        try {
+            infoCache.get(new NAT64AddrInfoCache.Callback() {
+                @Override
+                public void onNAT64AddrInfo(List<NAT64AddrInfo> infos) {
+                    WritableArray ipv6Addresses = Arguments.createArray();
+
+                    for (String ipv4Address : ipv4AddressStrings) {
+                        String ipv6Address
+                            = ipv4Address == null
+                                ? null
+                                : getIPv6Address(infos, ipv4Address);
+
+                        if (ipv6Address == null) {
+                            ipv6Addresses.pushNull();
+                        } else {
+                            ipv6Addresses.pushString(ipv6Address);
+                        }
+                    }
+                    promise.resolve(ipv6Addresses);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            // The React instance is being destroyed.
+            promise.resolve(null);
+        }
+    }
+
+    /**
+     * Creates the IPv6 representation of an IPv4 address.
+     *
+     * @param infos the {@link NAT64AddrInfo}s of the current network, the
+     * preferred one first.
+     * @param ipv4Address IPv4 address string.
+     * @return the IPv6 address for {@code ipv4Address} with the preferred
+     * NAT64 prefix or {@code null} if {@code infos} is empty or
+     * {@code ipv4Address} is invalid.
+     */
+    private static String getIPv6Address(
+            List<NAT64AddrInfo> infos,
+            String ipv4Address) {
+        if (infos.isEmpty()) {
+            return null;
+        }
 
         try {
-            result = info == null ? null : info.getIPv6Address(ipv4Address);
+            return infos.get(0).getIPv6Address(ipv4Address);
         } catch (IllegalArgumentException exc) {
             Log.e(TAG, "Failed to get IPv6 address for: " + ipv4Address, exc);
 
             // We don't want to reject. It's not a big deal if there's no IPv6
             // address resolved.
-            result = null;
+            return null;
         }
-        promise.resolve(result);
     }
 
     @Override
     public String getName() {
         return MODULE_NAME;
     }
+
+    /**
+     * Stops the discoveries and the monitoring of the networks when the React
+     * instance this module belongs to is destroyed.
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+
+        if (networkCallback != null) {
+            connectivityManager.unregisterNetworkCallback(
+                (ConnectivityManager.NetworkCallback) networkCallback);
+            networkCallback = null;
+        }
+        if (connectivityReceiver != null) {
+            getReactApplicationContext().unregisterReceiver(
+                connectivityReceiver);
+            connectivityReceiver = null;
+        }
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * Invalidates the cached NAT64 prefixes/suffixes of a network when it is
+     * lost or its configuration (e.g. its addresses or DNS servers) changes.
+     */
+    @TargetApi(Build.VERSION_CODES.M)
+    private void registerNetworkCallback() {
+        ConnectivityManager.NetworkCallback networkCallback
+            = new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onLinkPropertiesChanged(
+                        Network network,
+                        LinkProperties linkProperties) {
+                    infoCache.invalidate(network);
+                }
+
+                @Override
+                public void onLost(Network network) {
+                    infoCache.invalidate(network);
+                }
+            };
+
+        connectivityManager.registerNetworkCallback(
+            new NetworkRequest.Builder()
+                .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                .build(),
+            networkCallback);
+        this.networkCallback = networkCallback;
+    }
 }
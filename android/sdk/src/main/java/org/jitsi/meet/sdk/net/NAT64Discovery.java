@@ -0,0 +1,179 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of discovering the NAT64 prefixes/suffixes of a network.
+ *
+ * The well-known name "ipv4only.arpa" of RFC 7050 is queried first: a DNS64
+ * synthesizes an IPv6 address per prefix for each of its well-known IPv4
+ * addresses. If that does not reveal any prefix, the IPv4 and IPv6 addresses
+ * of a host of our own are compared.
+ */
+final class NAT64Discovery {
+    /**
+     * The well-known name of RFC 7050.
+     */
+    static final String IPV4ONLY_ARPA = "ipv4only.arpa";
+
+    /**
+     * The well-known IPv4 addresses of {@link #IPV4ONLY_ARPA}.
+     */
+    private static final List<byte[]> WELL_KNOWN_IPV4_ADDRESSES
+        = Collections.unmodifiableList(
+            Arrays.asList(
+                new byte[] { (byte) 192, 0, 0, (byte) 170 },
+                new byte[] { (byte) 192, 0, 0, (byte) 171 }));
+
+    /**
+     * Discovers the NAT64 prefixes/suffixes of a network.
+     *
+     * @param resolver the {@link DnsResolver} which queries the DNS of the
+     * network.
+     * @param host the host which has both IPv4 and IPv6 addresses to fall back
+     * to if {@link #IPV4ONLY_ARPA} does not reveal any prefix.
+     * @return the {@link NAT64Discovery} with the NAT64 prefixes/suffixes of
+     * the network, none if it is not a NAT64 one.
+     * @throws IOException if neither of the queries succeeded.
+     */
+    static NAT64Discovery discover(DnsResolver resolver, String host)
+        throws IOException {
+        boolean ipv4onlyArpaFailed;
+
+        try {
+            List<DnsRecord> ipv6s
+                = resolver.query(IPV4ONLY_ARPA, DnsResolver.TYPE_AAAA);
+            List<NAT64AddrInfo> infos
+                = NAT64AddrInfo.figureOutNAT64AddrInfos(
+                    WELL_KNOWN_IPV4_ADDRESSES,
+                    getAddresses(ipv6s));
+
+            if (!infos.isEmpty()) {
+                return new NAT64Discovery(infos, getTtl(ipv6s));
+            }
+            ipv4onlyArpaFailed = false;
+        } catch (IOException e) {
+            ipv4onlyArpaFailed = true;
+        }
+
+        List<DnsRecord> ipv4s;
+        List<DnsRecord> ipv6s;
+
+        try {
+            ipv4s = resolver.query(host, DnsResolver.TYPE_A);
+            ipv6s = resolver.query(host, DnsResolver.TYPE_AAAA);
+        } catch (IOException e) {
+            if (ipv4onlyArpaFailed) {
+                throw e;
+            }
+
+            // The DNS answered that the network is not a NAT64 one.
+            return new NAT64Discovery(
+                Collections.<NAT64AddrInfo>emptyList(),
+                DnsRecord.TTL_UNKNOWN);
+        }
+
+        List<NAT64AddrInfo> infos
+            = NAT64AddrInfo.figureOutNAT64AddrInfos(
+                getAddresses(ipv4s),
+                getAddresses(ipv6s));
+
+        return new NAT64Discovery(
+            infos,
+            infos.isEmpty()
+                ? DnsRecord.TTL_UNKNOWN
+                : Math.min(getTtl(ipv4s), getTtl(ipv6s)));
+    }
+
+    /**
+     * Gets the addresses of {@link DnsRecord}s.
+     */
+    private static List<byte[]> getAddresses(List<DnsRecord> records) {
+        List<byte[]> addresses = new ArrayList<>(records.size());
+
+        for (DnsRecord record : records) {
+            addresses.add(record.getAddress());
+        }
+
+        return addresses;
+    }
+
+    /**
+     * Gets the smallest TTL of {@link DnsRecord}s.
+     *
+     * @return the smallest TTL in seconds, {@link DnsRecord#TTL_UNKNOWN} if
+     * any of the TTLs is unknown or there are no records.
+     */
+    private static long getTtl(List<DnsRecord> records) {
+        long ttl = Long.MAX_VALUE;
+
+        for (DnsRecord record : records) {
+            ttl = Math.min(ttl, record.getTtl());
+        }
+
+        return ttl == Long.MAX_VALUE ? DnsRecord.TTL_UNKNOWN : ttl;
+    }
+
+    /**
+     * The discovered {@link NAT64AddrInfo}s, the preferred one first.
+     */
+    private final List<NAT64AddrInfo> infos;
+
+    /**
+     * How long, in seconds, the result may be cached or
+     * {@link DnsRecord#TTL_UNKNOWN}.
+     */
+    private final long ttl;
+
+    /**
+     * Creates new {@link NAT64Discovery}.
+     *
+     * @param infos the discovered {@code NAT64AddrInfo}s, the preferred one
+     * first.
+     * @param ttl how long, in seconds, the result may be cached or
+     * {@link DnsRecord#TTL_UNKNOWN}.
+     */
+    NAT64Discovery(List<NAT64AddrInfo> infos, long ttl) {
+        this.infos = Collections.unmodifiableList(infos);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Gets the discovered {@link NAT64AddrInfo}s.
+     *
+     * @return the discovered {@code NAT64AddrInfo}s, the preferred one first,
+     * empty if the network is not a NAT64 one.
+     */
+    List<NAT64AddrInfo> getInfos() {
+        return infos;
+    }
+
+    /**
+     * Gets how long the result may be cached.
+     *
+     * @return the smallest TTL, in seconds, of the DNS records the result is
+     * based on or {@link DnsRecord#TTL_UNKNOWN}.
+     */
+    long getTtl() {
+        return ttl;
+    }
+}
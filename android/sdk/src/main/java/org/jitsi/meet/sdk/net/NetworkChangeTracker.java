@@ -0,0 +1,153 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+/**
+ * Tracks the default network of the device and tells which of the changes
+ * reported by the system are worth telling the JavaScript side about.
+ *
+ * Not thread-safe, the changes are to be reported from a single thread.
+ *
+ * @param <N> the type of the keys the networks are told apart by.
+ */
+final class NetworkChangeTracker<N> {
+    /**
+     * The default network became available while there was none.
+     */
+    static final String AVAILABLE = "available";
+
+    /**
+     * The properties of the default network changed significantly i.e. in a
+     * way which affects the recommended {@link VideoConstraints}.
+     */
+    static final String CHANGED = "changed";
+
+    /**
+     * The default network was lost and there is none now.
+     */
+    static final String LOST = "lost";
+
+    /**
+     * Another network became the default one e.g. WiFi replaced cellular.
+     * Established connections are most probably broken.
+     */
+    static final String SWITCHED = "switched";
+
+    /**
+     * Determines whether the properties of a network changed in a way which
+     * matters to a conference.
+     *
+     * @param oldInfo the old {@link ConnectionInfo} of the network.
+     * @param newInfo the new {@link ConnectionInfo} of the network.
+     * @return {@code true} if the transport, the metered state or the
+     * recommended {@link VideoConstraints} differ; {@code false}, otherwise.
+     */
+    static boolean isSignificantChange(
+            ConnectionInfo oldInfo,
+            ConnectionInfo newInfo) {
+        if (!oldInfo.getTransport().equals(newInfo.getTransport())
+                || oldInfo.isMetered() != newInfo.isMetered()) {
+            return true;
+        }
+
+        VideoConstraints oldConstraints = VideoConstraints.recommend(oldInfo);
+        VideoConstraints newConstraints = VideoConstraints.recommend(newInfo);
+
+        return
+            oldConstraints.getMaxSendHeight()
+                    != newConstraints.getMaxSendHeight()
+                || oldConstraints.getMaxReceiveHeight()
+                    != newConstraints.getMaxReceiveHeight();
+    }
+
+    /**
+     * The {@link ConnectionInfo} of {@link #network}.
+     */
+    private ConnectionInfo info;
+
+    /**
+     * The default network or {@code null} if there is none.
+     */
+    private N network;
+
+    /**
+     * Gets the default network.
+     *
+     * @return the default network or {@code null} if there is none.
+     */
+    N getNetwork() {
+        return network;
+    }
+
+    /**
+     * Reports that a specific network became the default one.
+     *
+     * @param network the network which became the default one.
+     * @param info the {@link ConnectionInfo} of {@code network}.
+     * @return {@link #AVAILABLE}, {@link #SWITCHED}, {@link #CHANGED} or
+     * {@code null} if the change is not worth reporting.
+     */
+    String onAvailable(N network, ConnectionInfo info) {
+        if (network.equals(this.network)) {
+            return onChanged(network, info);
+        }
+
+        String change = this.network == null ? AVAILABLE : SWITCHED;
+
+        this.network = network;
+        this.info = info;
+
+        return change;
+    }
+
+    /**
+     * Reports that the properties of a specific network changed.
+     *
+     * @param network the network the properties of which changed.
+     * @param info the new {@link ConnectionInfo} of {@code network}.
+     * @return {@link #CHANGED} or {@code null} if {@code network} is not the
+     * default one or the change is not significant.
+     */
+    String onChanged(N network, ConnectionInfo info) {
+        if (!network.equals(this.network)) {
+            return null;
+        }
+
+        ConnectionInfo oldInfo = this.info;
+
+        this.info = info;
+
+        return isSignificantChange(oldInfo, info) ? CHANGED : null;
+    }
+
+    /**
+     * Reports that a specific network was lost.
+     *
+     * @param network the network which was lost.
+     * @return {@link #LOST} or {@code null} if {@code network} is not the
+     * default one.
+     */
+    String onLost(N network) {
+        if (!network.equals(this.network)) {
+            return null;
+        }
+
+        this.network = null;
+        this.info = null;
+
+        return LOST;
+    }
+}
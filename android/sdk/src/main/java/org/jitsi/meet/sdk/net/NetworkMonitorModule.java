@@ -0,0 +1,284 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import android.annotation.TargetApi;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkInfo;
+import android.os.Build;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.WritableMap;
+
+import org.jitsi.meet.sdk.ReactContextUtils;
+
+/**
+ * Module which monitors the default network of the device and emits an event
+ * to the JavaScript side as soon as it becomes available, is lost, is
+ * replaced by another network or its properties change significantly. The
+ * JavaScript side may then e.g. restart ICE and reconnect XMPP right away
+ * instead of waiting for the respective timeouts.
+ *
+ * Uses a default {@link ConnectivityManager.NetworkCallback} on Android >= N
+ * and {@link ConnectivityManager#CONNECTIVITY_ACTION} on older versions.
+ */
+public class NetworkMonitorModule extends ReactContextBaseJavaModule {
+    /**
+     * The name of this module.
+     */
+    private final static String MODULE_NAME = "NetworkMonitor";
+
+    /**
+     * The name of the event emitted on network changes. Its data is a map of
+     * the {@code type} of the change ({@code "available"},
+     * {@code "switched"}, {@code "changed"} or {@code "lost"}) and the
+     * {@code connectionInfo} of the default network, if any, in the format
+     * of {@link ConnectionInfoModule}.
+     */
+    private final static String NETWORK_CHANGED_EVENT
+        = "org.jitsi.meet:features/base/lib-jitsi-meet#networkChanged";
+
+    /**
+     * The {@code Log} tag {@code NetworkMonitorModule} is to log messages
+     * with.
+     */
+    private final static String TAG = MODULE_NAME;
+
+    /**
+     * The {@link BroadcastReceiver} which monitors the network on
+     * Android < N.
+     */
+    private BroadcastReceiver connectivityReceiver;
+
+    /**
+     * The {@link ConnectivityManager} the network is monitored through.
+     */
+    private final ConnectivityManager connectivityManager;
+
+    /**
+     * The {@link ConnectivityManager.NetworkCallback} which monitors the
+     * network on Android >= N.
+     */
+    private Object networkCallback;
+
+    /**
+     * The {@link NetworkChangeTracker} which tells the changes worth emitting
+     * apart. The networks are keyed by {@link Network} on Android >= N;
+     * otherwise, by their type and extra info (e.g. the SSID of a WiFi
+     * network).
+     */
+    private final NetworkChangeTracker<Object> tracker
+        = new NetworkChangeTracker<>();
+
+    /**
+     * Creates new {@link NetworkMonitorModule}.
+     *
+     * @param reactContext the react context to be used by the new module
+     * instance.
+     */
+    public NetworkMonitorModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+
+        connectivityManager
+            = (ConnectivityManager)
+                reactContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            registerNetworkCallback();
+        } else {
+            connectivityReceiver = new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    onConnectivityChanged(!isInitialStickyBroadcast());
+                }
+            };
+            reactContext.registerReceiver(
+                connectivityReceiver,
+                new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+        }
+    }
+
+    /**
+     * Emits {@link #NETWORK_CHANGED_EVENT} to the JavaScript side.
+     *
+     * @param type the type of the change or {@code null} if it is not worth
+     * emitting.
+     * @param info the {@link ConnectionInfo} of the default network or
+     * {@code null} if there is none.
+     */
+    private void emitNetworkChanged(String type, ConnectionInfo info) {
+        if (type == null) {
+            return;
+        }
+
+        Log.d(TAG, "Network " + type
+            + (info == null ? "" : ": " + info.getTransport()));
+
+        WritableMap data = Arguments.createMap();
+
+        data.putString("type", type);
+        if (info != null) {
+            data.putMap(
+                "connectionInfo",
+                ConnectionInfoModule.toWritableMap(info));
+        }
+
+        ReactContextUtils.emitEvent(
+            getReactApplicationContext(),
+            NETWORK_CHANGED_EVENT,
+            data);
+    }
+
+    /**
+     * Gets the {@link ConnectionInfo} of a specific network.
+     *
+     * @param network the {@link Network} to get the {@code ConnectionInfo} of.
+     * @param networkCapabilities the {@link NetworkCapabilities} of
+     * {@code network} or {@code null} if they are not known (yet).
+     * @return the {@link ConnectionInfo} of {@code network}.
+     */
+    @TargetApi(Build.VERSION_CODES.N)
+    private ConnectionInfo getConnectionInfo(
+            Network network,
+            NetworkCapabilities networkCapabilities) {
+        if (networkCapabilities == null) {
+            return
+                new ConnectionInfo(
+                    ConnectionInfo.TRANSPORT_UNKNOWN,
+                    false,
+                    ConnectionInfo.UNKNOWN,
+                    ConnectionInfo.UNKNOWN,
+                    ConnectionInfo.UNKNOWN,
+                    null);
+        }
+
+        return
+            ConnectionInfoModule.getConnectionInfo(
+                getReactApplicationContext(),
+                network,
+                networkCapabilities);
+    }
+
+    @Override
+    public String getName() {
+        return MODULE_NAME;
+    }
+
+    /**
+     * Stops monitoring the network when the React instance this module belongs
+     * to is destroyed.
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+
+        if (networkCallback != null) {
+            connectivityManager.unregisterNetworkCallback(
+                (ConnectivityManager.NetworkCallback) networkCallback);
+            networkCallback = null;
+        }
+        if (connectivityReceiver != null) {
+            getReactApplicationContext().unregisterReceiver(
+                connectivityReceiver);
+            connectivityReceiver = null;
+        }
+    }
+
+    /**
+     * Handles a {@link ConnectivityManager#CONNECTIVITY_ACTION} broadcast on
+     * Android < N.
+     *
+     * @param emit {@code true} to emit the change, if any; {@code false} to
+     * only take note of the current network e.g. upon the initial sticky
+     * broadcast.
+     */
+    private void onConnectivityChanged(boolean emit) {
+        NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+        ConnectionInfo info = null;
+        String type;
+
+        if (networkInfo == null || !networkInfo.isConnected()) {
+            Object network = tracker.getNetwork();
+
+            type = network == null ? null : tracker.onLost(network);
+        } else {
+            // XXX The type alone does not tell apart e.g. two WiFi networks
+            // the device roams between.
+            Object network
+                = networkInfo.getType() + "/" + networkInfo.getExtraInfo();
+
+            info
+                = ConnectionInfoModule.getConnectionInfo(
+                    getReactApplicationContext());
+            type = tracker.onAvailable(network, info);
+        }
+
+        if (emit) {
+            emitNetworkChanged(type, info);
+        }
+    }
+
+    /**
+     * Registers the {@link ConnectivityManager.NetworkCallback} which monitors
+     * the default network on Android >= N. It is invoked on a thread of the
+     * system which is the only one touching {@link #tracker} then.
+     */
+    @TargetApi(Build.VERSION_CODES.N)
+    private void registerNetworkCallback() {
+        ConnectivityManager.NetworkCallback networkCallback
+            = new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(Network network) {
+                    ConnectionInfo info
+                        = getConnectionInfo(
+                            network,
+                            connectivityManager.getNetworkCapabilities(
+                                network));
+
+                    emitNetworkChanged(
+                        tracker.onAvailable(network, info),
+                        info);
+                }
+
+                @Override
+                public void onCapabilitiesChanged(
+                        Network network,
+                        NetworkCapabilities networkCapabilities) {
+                    ConnectionInfo info
+                        = getConnectionInfo(network, networkCapabilities);
+
+                    emitNetworkChanged(tracker.onChanged(network, info), info);
+                }
+
+                @Override
+                public void onLost(Network network) {
+                    emitNetworkChanged(tracker.onLost(network), null);
+                }
+            };
+
+        connectivityManager.registerDefaultNetworkCallback(networkCallback);
+        this.networkCallback = networkCallback;
+    }
+}
@@ -0,0 +1,530 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Measures the round-trip time, jitter and short-burst throughput to a
+ * conference host before joining it e.g. to show a "your connection" check on
+ * a lobby screen and to pre-pick the video quality.
+ *
+ * The round-trip times and throughput are measured over HTTP(S) to the URL of
+ * the conference. If the address of a UDP echo server is configured, the
+ * round-trip times and packet loss over UDP are measured as well because they
+ * are closer to what the media will experience.
+ *
+ * The measurements are made on a background thread, one after the other so
+ * that they do not disturb each other, and may be cancelled at any time.
+ */
+public class NetworkProbe {
+    /**
+     * The listener to be notified about the result of a {@code NetworkProbe}.
+     */
+    public interface Listener {
+        /**
+         * Called on the thread of the {@link NetworkProbe} when it completes.
+         * Not called if the {@code NetworkProbe} is cancelled.
+         *
+         * @param result the {@link NetworkProbeResult}.
+         */
+        void onNetworkProbeCompleted(NetworkProbeResult result);
+    }
+
+    /**
+     * The timeout in milliseconds of connecting to and reading from the
+     * conference host over HTTP(S).
+     */
+    static final int HTTP_TIMEOUT = 3000;
+
+    /**
+     * The number of HTTP(S) requests the round-trip times are measured with.
+     */
+    static final int HTTP_REQUESTS = 5;
+
+    /**
+     * The maximum number of bytes to download in order to measure the
+     * throughput.
+     */
+    static final int MAX_DOWNLOAD_BYTES = 512 * 1024;
+
+    /**
+     * The maximum time in milliseconds to spend downloading in order to
+     * measure the throughput.
+     */
+    static final long MAX_DOWNLOAD_TIME = 2000;
+
+    /**
+     * The minimum number of bytes to be downloaded for the throughput to be
+     * meaningful.
+     */
+    static final int MIN_DOWNLOAD_BYTES = 16 * 1024;
+
+    /**
+     * The interval in milliseconds between consecutive UDP echo packets.
+     */
+    static final long UDP_INTERVAL = 20;
+
+    /**
+     * The number of UDP echo packets the round-trip times and loss are
+     * measured with.
+     */
+    static final int UDP_PACKETS = 10;
+
+    /**
+     * The time in milliseconds to wait for a UDP echo packet to come back
+     * before it is considered lost.
+     */
+    static final int UDP_TIMEOUT = 500;
+
+    /**
+     * Gets the mean absolute difference between consecutive values.
+     *
+     * @param values the values.
+     * @param count the number of values in {@code values} to consider.
+     * @return the mean absolute difference between consecutive values or
+     * {@link NetworkProbeResult#UNKNOWN} if there are less than two.
+     */
+    static double jitter(double[] values, int count) {
+        if (count < 2) {
+            return NetworkProbeResult.UNKNOWN;
+        }
+
+        double sum = 0;
+
+        for (int i = 1; i < count; i++) {
+            sum += Math.abs(values[i] - values[i - 1]);
+        }
+
+        return sum / (count - 1);
+    }
+
+    /**
+     * Gets the median of specific values.
+     *
+     * @param values the values.
+     * @param count the number of values in {@code values} to consider.
+     * @return the median or {@link NetworkProbeResult#UNKNOWN} if there are no
+     * values.
+     */
+    static double median(double[] values, int count) {
+        if (count == 0) {
+            return NetworkProbeResult.UNKNOWN;
+        }
+
+        double[] sorted = Arrays.copyOf(values, count);
+
+        Arrays.sort(sorted);
+
+        return
+            count % 2 == 1
+                ? sorted[count / 2]
+                : (sorted[count / 2 - 1] + sorted[count / 2]) / 2;
+    }
+
+    /**
+     * Gets the milliseconds elapsed since a specific {@link System#nanoTime()}.
+     *
+     * @param start the {@code System.nanoTime()} to measure from.
+     * @return the milliseconds elapsed since {@code start}.
+     */
+    private static double millisSince(long start) {
+        return (System.nanoTime() - start) / 1000000d;
+    }
+
+    /**
+     * Whether this probe was cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * The HTTP(S) connection being measured, if any. Disconnected upon
+     * cancellation.
+     */
+    private volatile HttpURLConnection connection;
+
+    /**
+     * The UDP socket being measured, if any. Closed upon cancellation.
+     */
+    private volatile DatagramSocket socket;
+
+    /**
+     * The thread this probe runs on, if started.
+     */
+    private Thread thread;
+
+    /**
+     * The address of the UDP echo server or {@code null} if the round-trip
+     * times over UDP are not to be measured.
+     */
+    private final InetSocketAddress udpEchoAddress;
+
+    /**
+     * The URL of the conference the host of which is to be probed.
+     */
+    private final URL url;
+
+    /**
+     * Initializes a new {@code NetworkProbe} instance.
+     *
+     * @param url the URL of the conference the host of which is to be probed.
+     * @param udpEchoAddress the address of a UDP echo server close to the
+     * conference host or {@code null} if the round-trip times over UDP are not
+     * to be measured.
+     */
+    public NetworkProbe(URL url, InetSocketAddress udpEchoAddress) {
+        this.url = url;
+        this.udpEchoAddress = udpEchoAddress;
+    }
+
+    /**
+     * Cancels this probe. Its {@link Listener} will not be notified. Does
+     * nothing if this probe completed already.
+     */
+    public void cancel() {
+        cancelled = true;
+
+        HttpURLConnection connection = this.connection;
+
+        if (connection != null) {
+            connection.disconnect();
+        }
+
+        DatagramSocket socket = this.socket;
+
+        if (socket != null) {
+            socket.close();
+        }
+
+        synchronized (this) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Gets whether this probe was cancelled.
+     *
+     * @return {@code true} if this probe was cancelled; {@code false},
+     * otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Measures the throughput by downloading from {@link #url} for a short
+     * while.
+     *
+     * @return the throughput in kbps or {@link NetworkProbeResult#UNKNOWN}.
+     */
+    private int measureDownstreamThroughput() {
+        if (cancelled) {
+            return NetworkProbeResult.UNKNOWN;
+        }
+
+        HttpURLConnection connection = null;
+
+        try {
+            connection = openConnection("GET");
+            // Compressed content would overestimate the throughput.
+            connection.setRequestProperty("Accept-Encoding", "identity");
+
+            // XXX The clock starts once the response headers are in so that
+            // the round-trip time does not count.
+            connection.getResponseCode();
+
+            InputStream is = connection.getInputStream();
+            byte[] buffer = new byte[8192];
+            long start = System.nanoTime();
+            long deadline = start + MAX_DOWNLOAD_TIME * 1000000;
+            int bytes = 0;
+            int n;
+
+            try {
+                while (bytes < MAX_DOWNLOAD_BYTES
+                        && System.nanoTime() < deadline
+                        && (n = is.read(buffer)) != -1) {
+                    bytes += n;
+                }
+            } finally {
+                is.close();
+            }
+
+            double millis = millisSince(start);
+
+            if (bytes < MIN_DOWNLOAD_BYTES || millis <= 0) {
+                return NetworkProbeResult.UNKNOWN;
+            }
+
+            // bits per millisecond are kilobits per second.
+            return (int) Math.min(Integer.MAX_VALUE, bytes * 8 / millis);
+        } catch (IOException e) {
+            return NetworkProbeResult.UNKNOWN;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            this.connection = null;
+        }
+    }
+
+    /**
+     * Measures the round-trip times of HTTP(S) requests to {@link #url}. The
+     * first request establishes the connection and is not measured, the
+     * following reuse it.
+     *
+     * @param rtts the array to store the round-trip times in milliseconds
+     * into.
+     * @return the number of round-trip times stored into {@code rtts}.
+     */
+    private int measureHttpRtts(double[] rtts) {
+        int count = 0;
+
+        for (int i = -1; i < rtts.length && !cancelled; i++) {
+            try {
+                long start = System.nanoTime();
+                HttpURLConnection connection = openConnection("HEAD");
+
+                try {
+                    // Any response at all means the host is reachable.
+                    connection.getResponseCode();
+                    if (i >= 0) {
+                        rtts[count++] = millisSince(start);
+                    }
+                    drain(connection);
+                } finally {
+                    this.connection = null;
+                }
+            } catch (IOException e) {
+                if (i < 0) {
+                    // The host is not reachable at all.
+                    break;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Measures the round-trip times and loss of UDP packets echoed by
+     * {@link #udpEchoAddress}.
+     *
+     * @param rtts the array to store the round-trip times in milliseconds
+     * into.
+     * @return the number of round-trip times stored into {@code rtts} or
+     * {@code -1} if the UDP socket failed.
+     */
+    private int measureUdpRtts(double[] rtts) {
+        DatagramSocket socket = null;
+        int count = 0;
+
+        try {
+            socket = new DatagramSocket();
+            this.socket = socket;
+            if (cancelled) {
+                return -1;
+            }
+            socket.connect(udpEchoAddress);
+            socket.setSoTimeout(UDP_TIMEOUT);
+
+            ByteBuffer sent = ByteBuffer.allocate(12);
+            byte[] received = new byte[sent.capacity()];
+            DatagramPacket receivedPacket
+                = new DatagramPacket(received, received.length);
+
+            for (int seq = 0; seq < rtts.length && !cancelled; seq++) {
+                if (seq > 0) {
+                    Thread.sleep(UDP_INTERVAL);
+                }
+
+                long start = System.nanoTime();
+
+                sent.clear();
+                sent.putInt(seq).putLong(start);
+                socket.send(
+                    new DatagramPacket(sent.array(), sent.capacity()));
+
+                // Skip the late echoes of the previous packets.
+                while (true) {
+                    try {
+                        receivedPacket.setLength(received.length);
+                        socket.receive(receivedPacket);
+                    } catch (SocketTimeoutException e) {
+                        break;
+                    }
+                    if (receivedPacket.getLength() == received.length
+                            && ByteBuffer.wrap(received).getInt() == seq) {
+                        rtts[count++] = millisSince(start);
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return cancelled || count > 0 ? count : -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (socket != null) {
+                socket.close();
+            }
+            this.socket = null;
+        }
+
+        return count;
+    }
+
+    /**
+     * Opens an HTTP(S) connection to {@link #url}.
+     *
+     * @param method the HTTP method of the request.
+     * @return the {@link HttpURLConnection} which is also stored in
+     * {@link #connection} so that it is disconnected upon cancellation.
+     * @throws IOException if the connection fails to be opened.
+     */
+    private HttpURLConnection openConnection(String method)
+            throws IOException {
+        HttpURLConnection connection
+            = (HttpURLConnection) url.openConnection();
+
+        connection.setConnectTimeout(HTTP_TIMEOUT);
+        connection.setInstanceFollowRedirects(false);
+        connection.setReadTimeout(HTTP_TIMEOUT);
+        connection.setRequestMethod(method);
+        connection.setUseCaches(false);
+        this.connection = connection;
+        if (cancelled) {
+            connection.disconnect();
+            throw new IOException("Cancelled");
+        }
+
+        return connection;
+    }
+
+    /**
+     * Reads the (rest of the) body of the response of a specific
+     * {@link HttpURLConnection} so that its connection may be reused.
+     *
+     * @param connection the {@code HttpURLConnection} to drain.
+     */
+    private static void drain(HttpURLConnection connection) {
+        try {
+            InputStream is = connection.getInputStream();
+
+            try {
+                byte[] buffer = new byte[1024];
+
+                while (is.read(buffer) != -1) {
+                    // Discard.
+                }
+            } finally {
+                is.close();
+            }
+        } catch (IOException e) {
+            // An error response, the connection will not be reused.
+            InputStream es = connection.getErrorStream();
+
+            if (es != null) {
+                try {
+                    es.close();
+                } catch (IOException ioe) {
+                    // Ignore.
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs this probe on the current thread.
+     *
+     * @return the {@link NetworkProbeResult} or {@code null} if this probe was
+     * cancelled.
+     */
+    NetworkProbeResult run() {
+        double udpRtt = NetworkProbeResult.UNKNOWN;
+        double udpJitter = NetworkProbeResult.UNKNOWN;
+        double udpLoss = NetworkProbeResult.UNKNOWN;
+
+        // XXX UDP goes first because the HTTP(S) download could fill up
+        // buffers along the path and inflate the round-trip times.
+        if (udpEchoAddress != null) {
+            double[] rtts = new double[UDP_PACKETS];
+            int count = measureUdpRtts(rtts);
+
+            if (count >= 0 && !cancelled) {
+                udpRtt = median(rtts, count);
+                udpJitter = jitter(rtts, count);
+                udpLoss = (rtts.length - count) / (double) rtts.length;
+            }
+        }
+
+        double[] rtts = new double[HTTP_REQUESTS];
+        int count = measureHttpRtts(rtts);
+        int downstreamThroughput
+            = count == 0
+                ? NetworkProbeResult.UNKNOWN
+                : measureDownstreamThroughput();
+
+        if (cancelled) {
+            return null;
+        }
+
+        return
+            new NetworkProbeResult(
+                median(rtts, count),
+                jitter(rtts, count),
+                downstreamThroughput,
+                udpRtt,
+                udpJitter,
+                udpLoss);
+    }
+
+    /**
+     * Starts this probe on a new background thread.
+     *
+     * @param listener the {@link Listener} to notify about the result.
+     * @throws IllegalStateException if this probe was started already.
+     */
+    public synchronized void start(final Listener listener) {
+        if (thread != null) {
+            throw new IllegalStateException("Already started");
+        }
+
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                NetworkProbeResult result = NetworkProbe.this.run();
+
+                if (result != null && !cancelled) {
+                    listener.onNetworkProbeCompleted(result);
+                }
+            }
+        }, "NetworkProbe");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
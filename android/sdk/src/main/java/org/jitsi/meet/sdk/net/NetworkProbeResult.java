@@ -0,0 +1,192 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+/**
+ * The result of a {@link NetworkProbe} i.e. the round-trip time, jitter,
+ * packet loss and throughput measured to a conference host. The values which
+ * could not be measured (e.g. because the host did not respond or no UDP echo
+ * server was configured) are {@link #UNKNOWN}.
+ */
+public final class NetworkProbeResult {
+    /**
+     * The round-trip time in milliseconds at or above which the
+     * recommended video height is lowered.
+     */
+    private static final double HIGH_RTT = 300;
+
+    /**
+     * The UDP packet loss at or above which the recommended video height is
+     * lowered.
+     */
+    private static final double HIGH_UDP_LOSS = 0.05;
+
+    /**
+     * The value of the measurements which could not be made.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * The throughput measured by a short HTTP(S) download in kbps.
+     */
+    private final int downstreamThroughput;
+
+    /**
+     * The jitter of the HTTP(S) round-trip times in milliseconds.
+     */
+    private final double httpJitter;
+
+    /**
+     * The median round-trip time of HTTP(S) requests in milliseconds.
+     */
+    private final double httpRtt;
+
+    /**
+     * The jitter of the UDP echo round-trip times in milliseconds.
+     */
+    private final double udpJitter;
+
+    /**
+     * The fraction of UDP echo packets which were not echoed in time.
+     */
+    private final double udpLoss;
+
+    /**
+     * The median round-trip time of UDP echo packets in milliseconds.
+     */
+    private final double udpRtt;
+
+    NetworkProbeResult(
+            double httpRtt,
+            double httpJitter,
+            int downstreamThroughput,
+            double udpRtt,
+            double udpJitter,
+            double udpLoss) {
+        this.httpRtt = httpRtt;
+        this.httpJitter = httpJitter;
+        this.downstreamThroughput = downstreamThroughput;
+        this.udpRtt = udpRtt;
+        this.udpJitter = udpJitter;
+        this.udpLoss = udpLoss;
+    }
+
+    /**
+     * Gets the throughput measured by a short HTTP(S) download from the
+     * conference host. Being short, it underestimates rather than
+     * overestimates the bandwidth.
+     *
+     * @return the throughput in kbps or {@link #UNKNOWN}.
+     */
+    public int getDownstreamThroughput() {
+        return downstreamThroughput;
+    }
+
+    /**
+     * Gets the jitter of the round-trip times of HTTP(S) requests to the
+     * conference host i.e. the mean difference between consecutive ones.
+     *
+     * @return the jitter in milliseconds or {@link #UNKNOWN}.
+     */
+    public double getHttpJitter() {
+        return httpJitter;
+    }
+
+    /**
+     * Gets the median round-trip time of HTTP(S) requests to the conference
+     * host, over an established connection.
+     *
+     * @return the round-trip time in milliseconds or {@link #UNKNOWN}.
+     */
+    public double getHttpRtt() {
+        return httpRtt;
+    }
+
+    /**
+     * Gets the height of the video recommended to be received in a conference
+     * given the measurements e.g. to pre-pick the video quality on a lobby
+     * screen.
+     *
+     * @return 180, 360 or 720.
+     */
+    public int getRecommendedMaxReceiveHeight() {
+        if (!isReachable()) {
+            return VideoConstraints.HEIGHTS[0];
+        }
+
+        double rtt = udpRtt == UNKNOWN ? httpRtt : udpRtt;
+        int steps = 0;
+
+        if (rtt >= HIGH_RTT) {
+            steps++;
+        }
+        if (udpLoss >= HIGH_UDP_LOSS) {
+            steps++;
+        }
+
+        return VideoConstraints.getMaxHeight(downstreamThroughput, steps);
+    }
+
+    /**
+     * Gets the jitter of the round-trip times of UDP echo packets i.e. the
+     * mean difference between consecutive ones.
+     *
+     * @return the jitter in milliseconds or {@link #UNKNOWN}.
+     */
+    public double getUdpJitter() {
+        return udpJitter;
+    }
+
+    /**
+     * Gets the fraction of UDP echo packets which were not echoed in time.
+     *
+     * @return the loss in the range of 0 to 1 (both inclusive) or
+     * {@link #UNKNOWN}.
+     */
+    public double getUdpLoss() {
+        return udpLoss;
+    }
+
+    /**
+     * Gets the median round-trip time of UDP echo packets.
+     *
+     * @return the round-trip time in milliseconds or {@link #UNKNOWN}.
+     */
+    public double getUdpRtt() {
+        return udpRtt;
+    }
+
+    /**
+     * Gets whether the conference host could be reached at all.
+     *
+     * @return {@code true} if the conference host responded over HTTP(S) or
+     * UDP; {@code false}, otherwise.
+     */
+    public boolean isReachable() {
+        return httpRtt != UNKNOWN || udpRtt != UNKNOWN;
+    }
+
+    @Override
+    public String toString() {
+        return
+            "NetworkProbeResult{httpRtt=" + httpRtt
+                + ", httpJitter=" + httpJitter
+                + ", downstreamThroughput=" + downstreamThroughput
+                + ", udpRtt=" + udpRtt
+                + ", udpJitter=" + udpJitter
+                + ", udpLoss=" + udpLoss + "}";
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import okhttp3.Dns;
+
+/**
+ * An OkHttp {@link Dns} which looks host names up in a {@link DnsCache} and
+ * falls back to the resolver of the system if that fails.
+ */
+class OkHttpDns implements Dns {
+    /**
+     * The {@link DnsCache} to look host names up in.
+     */
+    private final DnsCache dnsCache;
+
+    /**
+     * Creates new {@link OkHttpDns}.
+     *
+     * @param dnsCache the {@link DnsCache} to look host names up in.
+     */
+    OkHttpDns(DnsCache dnsCache) {
+        this.dnsCache = dnsCache;
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname)
+        throws UnknownHostException {
+        try {
+            return dnsCache.lookup(hostname);
+        } catch (UnknownHostException e) {
+            return Dns.SYSTEM.lookup(hostname);
+        }
+    }
+}
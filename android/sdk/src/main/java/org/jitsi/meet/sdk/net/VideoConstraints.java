@@ -0,0 +1,180 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+/**
+ * The video constraints recommended for a conference over a network with a
+ * specific {@link ConnectionInfo} so that calls on poor links start at an
+ * appropriate resolution instead of converging to it slowly.
+ */
+final class VideoConstraints {
+    /**
+     * The video heights which may be recommended, from the lowest to the
+     * highest. They match the simulcast layers of the Jitsi Videobridge.
+     */
+    static final int[] HEIGHTS = { 180, 360, 720 };
+
+    /**
+     * The bandwidths in kbps required by the respective {@link #HEIGHTS}.
+     */
+    private static final int[] REQUIRED_BANDWIDTHS = { 0, 800, 2500 };
+
+    /**
+     * The signal level at or below which the recommended heights are lowered
+     * by one step because the bandwidth estimates of the system do not account
+     * for a poor signal.
+     */
+    private static final int POOR_SIGNAL_LEVEL = 1;
+
+    /**
+     * Gets the estimate of the bandwidth of a network in a specific direction.
+     * Falls back to a typical bandwidth of the cellular generation if the
+     * system does not provide an estimate.
+     *
+     * @param info the {@link ConnectionInfo} of the network.
+     * @param downstream {@code true} for the downstream bandwidth;
+     * {@code false} for the upstream bandwidth.
+     * @return the estimate of the bandwidth in kbps or
+     * {@link ConnectionInfo#UNKNOWN}.
+     */
+    private static int getBandwidth(ConnectionInfo info, boolean downstream) {
+        int bandwidth
+            = downstream
+                ? info.getDownstreamBandwidth()
+                : info.getUpstreamBandwidth();
+
+        if (bandwidth != ConnectionInfo.UNKNOWN) {
+            return bandwidth;
+        }
+
+        String generation = info.getCellularGeneration();
+
+        if (ConnectionInfo.GENERATION_2G.equals(generation)) {
+            return downstream ? 100 : 50;
+        } else if (ConnectionInfo.GENERATION_3G.equals(generation)) {
+            return downstream ? 2000 : 500;
+        } else if (ConnectionInfo.GENERATION_4G.equals(generation)) {
+            return downstream ? 15000 : 5000;
+        } else if (ConnectionInfo.GENERATION_5G.equals(generation)) {
+            return downstream ? 50000 : 10000;
+        } else if (ConnectionInfo.TRANSPORT_CELLULAR.equals(
+                info.getTransport())) {
+            // XXX We do not know the generation so be conservative.
+            return REQUIRED_BANDWIDTHS[1];
+        }
+
+        return ConnectionInfo.UNKNOWN;
+    }
+
+    /**
+     * Gets the index in {@link #HEIGHTS} of the greatest height which a
+     * specific bandwidth allows.
+     *
+     * @param bandwidth the bandwidth in kbps or {@link ConnectionInfo#UNKNOWN}
+     * in which case the greatest height is allowed.
+     * @return the index in {@link #HEIGHTS}.
+     */
+    private static int getHeightIndex(int bandwidth) {
+        if (bandwidth == ConnectionInfo.UNKNOWN) {
+            return HEIGHTS.length - 1;
+        }
+
+        int i = REQUIRED_BANDWIDTHS.length - 1;
+
+        while (i > 0 && bandwidth < REQUIRED_BANDWIDTHS[i]) {
+            i--;
+        }
+
+        return i;
+    }
+
+    /**
+     * Gets the greatest of {@link #HEIGHTS} which a specific bandwidth allows.
+     *
+     * @param bandwidth the bandwidth in kbps or {@link ConnectionInfo#UNKNOWN}
+     * in which case the greatest height is allowed.
+     * @param steps the number of steps to lower the height by e.g. because the
+     * link is lossy.
+     * @return the greatest of {@link #HEIGHTS} which {@code bandwidth} allows.
+     */
+    static int getMaxHeight(int bandwidth, int steps) {
+        return HEIGHTS[Math.max(0, getHeightIndex(bandwidth) - steps)];
+    }
+
+    /**
+     * Recommends video constraints for a network with a specific
+     * {@link ConnectionInfo}.
+     *
+     * @param info the {@link ConnectionInfo} of the network.
+     * @return the recommended {@link VideoConstraints}.
+     */
+    static VideoConstraints recommend(ConnectionInfo info) {
+        if (ConnectionInfo.TRANSPORT_NONE.equals(info.getTransport())) {
+            return new VideoConstraints(HEIGHTS[0], HEIGHTS[0]);
+        }
+
+        int receiveIndex = getHeightIndex(getBandwidth(info, true));
+        int sendIndex = getHeightIndex(getBandwidth(info, false));
+        int signalLevel = info.getSignalLevel();
+
+        if (signalLevel != ConnectionInfo.UNKNOWN
+                && signalLevel <= POOR_SIGNAL_LEVEL) {
+            receiveIndex = Math.max(0, receiveIndex - 1);
+            sendIndex = Math.max(0, sendIndex - 1);
+        }
+
+        return new VideoConstraints(HEIGHTS[sendIndex], HEIGHTS[receiveIndex]);
+    }
+
+    /**
+     * The maximum height of the video to be received.
+     */
+    private final int maxReceiveHeight;
+
+    /**
+     * The maximum height of the video to be sent.
+     */
+    private final int maxSendHeight;
+
+    /**
+     * Creates new {@link VideoConstraints}.
+     *
+     * @param maxSendHeight the maximum height of the video to be sent.
+     * @param maxReceiveHeight the maximum height of the video to be received.
+     */
+    VideoConstraints(int maxSendHeight, int maxReceiveHeight) {
+        this.maxSendHeight = maxSendHeight;
+        this.maxReceiveHeight = maxReceiveHeight;
+    }
+
+    /**
+     * Gets the maximum height of the video to be received.
+     *
+     * @return the maximum height of the video to be received.
+     */
+    int getMaxReceiveHeight() {
+        return maxReceiveHeight;
+    }
+
+    /**
+     * Gets the maximum height of the video to be sent.
+     *
+     * @return the maximum height of the video to be sent.
+     */
+    int getMaxSendHeight() {
+        return maxSendHeight;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import android.media.AudioManager;
+import android.os.Build;
+
+import com.facebook.react.bridge.PromiseImpl;
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the audio focus handling of {@link AudioModeModule} through
+ * {@link AudioFocusHandler} with {@link FakeAudioHardware}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.LOLLIPOP)
+public class AudioFocusHandlerTest {
+    /**
+     * Asserts that the audio focus is not requested again by an audio route
+     * update after a permanent loss, only by an explicit setMode.
+     */
+    @Test
+    public void testPermanentLoss() {
+        ReactApplicationContext reactContext
+            = new ReactApplicationContext(RuntimeEnvironment.application);
+        FakeAudioHardware hardware
+            = new FakeAudioHardware(RuntimeEnvironment.application);
+        AudioModeModule audioModeModule
+            = new AudioModeModule(reactContext, hardware) {
+                @Override
+                void onAudioFocusChange(int focusChange) {
+                    // Reporting to JavaScript needs the native bridge which
+                    // Robolectric does not load.
+                }
+            };
+        int videoCall
+            = (Integer) audioModeModule.getConstants().get("VIDEO_CALL");
+
+        audioModeModule.setMode(videoCall, new PromiseImpl(null, null));
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(1, hardware.getAudioFocusRequestCount());
+
+        hardware.changeAudioFocus(AudioManager.AUDIOFOCUS_LOSS);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        // The route follows the devices but the focus stays with whoever
+        // took it.
+        hardware.plugWiredHeadset(true);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertFalse(hardware.isSpeakerphoneOn());
+        assertEquals(1, hardware.getAudioFocusRequestCount());
+
+        audioModeModule.setMode(videoCall, new PromiseImpl(null, null));
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(2, hardware.getAudioFocusRequestCount());
+
+        // The focus is held again so route updates do not churn it.
+        hardware.plugWiredHeadset(false);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertTrue(hardware.isSpeakerphoneOn());
+        assertEquals(2, hardware.getAudioFocusRequestCount());
+
+        audioModeModule.onCatalystInstanceDestroy();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+}
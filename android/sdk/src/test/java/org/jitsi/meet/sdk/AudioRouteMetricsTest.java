@@ -0,0 +1,86 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AudioRouteMetrics} class.
+ */
+public class AudioRouteMetricsTest {
+    /**
+     * The {@code AudioRouteMetrics} under test.
+     */
+    private final AudioRouteMetrics metrics = AudioRouteMetrics.getInstance();
+
+    @Before
+    public void setUp() {
+        metrics.markUnchanged();
+        metrics.reset();
+    }
+
+    @Test
+    public void testSCOConnected() {
+        metrics.start();
+        metrics.markDecided();
+        metrics.markApplied(/* awaitingSCO */ true);
+        metrics.markSCOConnected();
+
+        assertEquals(1, metrics.getCallbackToDecision().getCount());
+        assertEquals(1, metrics.getCallbackToApply().getCount());
+        assertEquals(1, metrics.getDecisionToApply().getCount());
+        assertEquals(1, metrics.getCallbackToSCOConnected().getCount());
+        assertEquals(1, metrics.getApplyToSCOConnected().getCount());
+
+        // The switch ended so a later SCO connection is not counted.
+        metrics.markSCOConnected();
+        assertEquals(1, metrics.getCallbackToSCOConnected().getCount());
+    }
+
+    @Test
+    public void testSCOFailed() {
+        metrics.start();
+        metrics.markDecided();
+        metrics.markApplied(/* awaitingSCO */ true);
+        metrics.markSCOFailed();
+
+        // The fallback audio route does not count towards the switch.
+        metrics.markDecided();
+        metrics.markApplied(/* awaitingSCO */ false);
+        metrics.markSCOConnected();
+
+        assertEquals(1, metrics.getCallbackToDecision().getCount());
+        assertEquals(1, metrics.getCallbackToApply().getCount());
+        assertEquals(0, metrics.getCallbackToSCOConnected().getCount());
+        assertEquals(0, metrics.getApplyToSCOConnected().getCount());
+    }
+
+    @Test
+    public void testNotAwaitingSCO() {
+        metrics.start();
+        metrics.markDecided();
+        metrics.markApplied(/* awaitingSCO */ false);
+
+        // An SCO connection which the switch did not wait for is not counted.
+        metrics.markSCOConnected();
+
+        assertEquals(1, metrics.getCallbackToApply().getCount());
+        assertEquals(0, metrics.getCallbackToSCOConnected().getCount());
+    }
+}
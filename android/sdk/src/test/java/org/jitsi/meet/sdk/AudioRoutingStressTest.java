@@ -0,0 +1,179 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import android.bluetooth.BluetoothDevice;
+import android.media.AudioManager;
+import android.os.Build;
+
+import com.facebook.react.bridge.PromiseImpl;
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowBluetoothDevice;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stress tests the audio routing of {@link AudioModeModule} with
+ * {@link FakeAudioHardware}: headsets are plugged and unplugged and Bluetooth
+ * SCO connections are lost in random bursts, faster than the main thread
+ * handles them. Once things settle, audio must be routed to the best device
+ * and the number of calls into the audio hardware must not have grown out of
+ * bounds. The time spent is not asserted because it depends on the machine
+ * running the test.
+ *
+ * Runs on Android < M only because the {@code AudioDeviceInfo}s of Android >= M
+ * cannot be faked.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.LOLLIPOP)
+public class AudioRoutingStressTest {
+    /**
+     * The number of device events fired per run.
+     */
+    private static final int EVENTS = 2000;
+
+    /**
+     * The maximum number of device events fired before the main thread gets
+     * to run.
+     */
+    private static final int MAX_BURST = 8;
+
+    /**
+     * The maximum average number of calls into the audio hardware per device
+     * event.
+     */
+    private static final int MAX_CALLS_PER_EVENT = 10;
+
+    /**
+     * The seeds of the runs so that failures can be reproduced.
+     */
+    private static final long[] SEEDS = { 1, 2, 3, 4, 5 };
+
+    /**
+     * Asserts that audio is routed to the best available device of a video
+     * call according to {@link DefaultAudioRoutePolicy}.
+     */
+    private static void assertRoute(FakeAudioHardware hardware, long seed) {
+        String message = "Wrong audio route (seed " + seed + ")";
+
+        assertEquals(
+            message,
+            AudioManager.MODE_IN_COMMUNICATION,
+            hardware.getMode());
+
+        if (hardware.isBluetoothHeadsetConnected()) {
+            assertTrue(message, hardware.isBluetoothScoRouted());
+            assertFalse(message, hardware.isSpeakerphoneOn());
+        } else {
+            assertFalse(message, hardware.isBluetoothScoRouted());
+            assertEquals(
+                message,
+                !hardware.isWiredHeadsetOn(),
+                hardware.isSpeakerphoneOn());
+        }
+    }
+
+    private static void fireRandomEvent(
+            Random random,
+            FakeAudioHardware hardware,
+            BluetoothDevice[] bluetoothHeadsets) {
+        BluetoothDevice bluetoothHeadset
+            = bluetoothHeadsets[random.nextInt(bluetoothHeadsets.length)];
+
+        switch (random.nextInt(5)) {
+        case 0:
+            hardware.plugWiredHeadset(true);
+            break;
+        case 1:
+            hardware.plugWiredHeadset(false);
+            break;
+        case 2:
+            hardware.connectBluetoothHeadset(bluetoothHeadset);
+            break;
+        case 3:
+            hardware.disconnectBluetoothHeadset(bluetoothHeadset);
+            break;
+        default:
+            hardware.dropSco();
+            break;
+        }
+    }
+
+    /**
+     * Runs the tasks queued on the main thread, including the delayed ones
+     * e.g. the timeouts of {@link BluetoothSCOStateMachine}.
+     */
+    private static void runMainThread() {
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+
+    private static void testDeviceChurn(long seed) {
+        Random random = new Random(seed);
+        ReactApplicationContext reactContext
+            = new ReactApplicationContext(RuntimeEnvironment.application);
+        FakeAudioHardware hardware
+            = new FakeAudioHardware(RuntimeEnvironment.application);
+        AudioModeModule audioModeModule
+            = new AudioModeModule(reactContext, hardware);
+        BluetoothDevice[] bluetoothHeadsets = {
+            ShadowBluetoothDevice.newInstance("00:11:22:33:44:01"),
+            ShadowBluetoothDevice.newInstance("00:11:22:33:44:02")
+        };
+
+        audioModeModule.setMode(
+            (Integer) audioModeModule.getConstants().get("VIDEO_CALL"),
+            new PromiseImpl(null, null));
+        runMainThread();
+        assertRoute(hardware, seed);
+
+        int callCount = hardware.getCallCount();
+
+        for (int i = 0; i < EVENTS;) {
+            int burst = 1 + random.nextInt(MAX_BURST);
+
+            for (int j = 0; j < burst && i < EVENTS; j++, i++) {
+                fireRandomEvent(random, hardware, bluetoothHeadsets);
+            }
+            runMainThread();
+        }
+
+        callCount = hardware.getCallCount() - callCount;
+        assertRoute(hardware, seed);
+        assertTrue(
+            callCount + " audio hardware calls for " + EVENTS
+                + " events (seed " + seed + ")",
+            callCount <= EVENTS * MAX_CALLS_PER_EVENT);
+
+        audioModeModule.onCatalystInstanceDestroy();
+        runMainThread();
+    }
+
+    @Test
+    public void testDeviceChurn() {
+        for (long seed : SEEDS) {
+            testDeviceChurn(seed);
+        }
+    }
+}
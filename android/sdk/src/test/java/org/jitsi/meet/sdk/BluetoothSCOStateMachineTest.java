@@ -0,0 +1,91 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import android.os.Build;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowBluetoothDevice;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BluetoothSCOStateMachine} class with
+ * {@link FakeAudioHardware}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.LOLLIPOP)
+public class BluetoothSCOStateMachineTest {
+    /**
+     * Asserts that a {@link BluetoothSCOStateMachine#disconnect()} which the
+     * system did not acknowledge yet neither times the following
+     * {@link BluetoothSCOStateMachine#connect()} out nor has its DISCONNECTED
+     * taken for the failure of the new attempt.
+     */
+    @Test
+    public void testDisconnectThenConnect() {
+        ReactApplicationContext reactContext
+            = new ReactApplicationContext(RuntimeEnvironment.application);
+        FakeAudioHardware hardware
+            = new FakeAudioHardware(RuntimeEnvironment.application);
+        AudioModeModule audioModeModule
+            = new AudioModeModule(reactContext, hardware);
+        BluetoothSCOStateMachine stateMachine
+            = new BluetoothSCOStateMachine(
+                audioModeModule,
+                RuntimeEnvironment.application,
+                hardware);
+
+        // The system is still connecting when the attempt is aborted, there
+        // is no headset yet so it ends with CONNECTING -> DISCONNECTED.
+        stateMachine.connect();
+        stateMachine.disconnect();
+        assertEquals(
+            BluetoothSCOStateMachine.STATE_DISCONNECTING,
+            stateMachine.getState());
+
+        hardware.connectBluetoothHeadset(
+            ShadowBluetoothDevice.newInstance("00:11:22:33:44:01"));
+        stateMachine.connect();
+        assertEquals(
+            BluetoothSCOStateMachine.STATE_CONNECTING,
+            stateMachine.getState());
+
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(
+            BluetoothSCOStateMachine.STATE_CONNECTED,
+            stateMachine.getState());
+        assertTrue(hardware.isBluetoothScoRouted());
+
+        // Neither the timeout of disconnect() nor a retry is pending.
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(
+            BluetoothSCOStateMachine.STATE_CONNECTED,
+            stateMachine.getState());
+        assertTrue(hardware.isBluetoothScoRouted());
+
+        stateMachine.dispose();
+        audioModeModule.onCatalystInstanceDestroy();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+}
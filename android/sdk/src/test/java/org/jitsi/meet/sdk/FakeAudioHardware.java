@@ -0,0 +1,426 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothHeadset;
+import android.bluetooth.BluetoothProfile;
+import android.content.Context;
+import android.content.Intent;
+import android.media.AudioDeviceCallback;
+import android.media.AudioDeviceInfo;
+import android.media.AudioFocusRequest;
+import android.media.AudioManager;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link AudioHardware} which simulates the audio and Bluetooth subsystems of
+ * an Android < M device. Headsets are plugged and unplugged by the tests, the
+ * resulting broadcasts are sent the way the system sends them and Bluetooth
+ * SCO connections are established asynchronously. Every call into it is
+ * counted as an IPC.
+ */
+class FakeAudioHardware implements AudioHardware {
+    /**
+     * The listener of the last audio focus request.
+     */
+    private AudioManager.OnAudioFocusChangeListener audioFocusListener;
+
+    /**
+     * The number of audio focus requests.
+     */
+    private int audioFocusRequestCount;
+
+    /**
+     * The connected Bluetooth headsets.
+     */
+    private final List<BluetoothDevice> bluetoothHeadsets = new ArrayList<>();
+
+    /**
+     * The value set with {@link #setBluetoothScoOn(boolean)}.
+     */
+    private boolean bluetoothScoOn;
+
+    /**
+     * The number of calls into this {@code AudioHardware}.
+     */
+    private int callCount;
+
+    /**
+     * The {@code Context} broadcasts are sent in.
+     */
+    private final Context context;
+
+    /**
+     * {@link Handler} for simulating the asynchronous operations of the
+     * system.
+     */
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /**
+     * The value set with {@link #setMode(int)}.
+     */
+    private int mode = AudioManager.MODE_NORMAL;
+
+    /**
+     * Whether the Bluetooth SCO connection is established.
+     */
+    private boolean scoConnected;
+
+    /**
+     * The value set with {@link #setSpeakerphoneOn(boolean)}.
+     */
+    private boolean speakerphoneOn;
+
+    /**
+     * Whether a wired headset is plugged.
+     */
+    private boolean wiredHeadsetOn;
+
+    FakeAudioHardware(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public void abandonAudioFocus(
+            AudioManager.OnAudioFocusChangeListener listener) {
+        callCount++;
+    }
+
+    @Override
+    public void abandonAudioFocusRequest(AudioFocusRequest audioFocusRequest) {
+        callCount++;
+    }
+
+    /**
+     * Reports an audio focus change to the listener of the last audio focus
+     * request e.g. because another application took the focus.
+     *
+     * @param focusChange one of the {@code AudioManager.AUDIOFOCUS_*}
+     * constants.
+     */
+    void changeAudioFocus(int focusChange) {
+        if (audioFocusListener != null) {
+            audioFocusListener.onAudioFocusChange(focusChange);
+        }
+    }
+
+    @Override
+    public void closeBluetoothHeadsetProfileProxy(BluetoothProfile proxy) {
+        callCount++;
+    }
+
+    /**
+     * Connects a Bluetooth headset.
+     *
+     * @param device the Bluetooth headset to connect.
+     */
+    void connectBluetoothHeadset(BluetoothDevice device) {
+        if (!bluetoothHeadsets.contains(device)) {
+            bluetoothHeadsets.add(device);
+            sendBluetoothHeadsetBroadcast(
+                device,
+                BluetoothProfile.STATE_CONNECTED);
+        }
+    }
+
+    /**
+     * Disconnects a Bluetooth headset. The SCO connection is lost if it was
+     * the last one.
+     *
+     * @param device the Bluetooth headset to disconnect.
+     */
+    void disconnectBluetoothHeadset(BluetoothDevice device) {
+        if (bluetoothHeadsets.remove(device)) {
+            if (bluetoothHeadsets.isEmpty()) {
+                dropSco();
+            }
+            sendBluetoothHeadsetBroadcast(
+                device,
+                BluetoothProfile.STATE_DISCONNECTED);
+        }
+    }
+
+    /**
+     * Loses the Bluetooth SCO connection e.g. because the headset went out of
+     * range for a moment.
+     */
+    void dropSco() {
+        if (scoConnected) {
+            scoConnected = false;
+            sendScoBroadcast(
+                AudioManager.SCO_AUDIO_STATE_DISCONNECTED,
+                AudioManager.SCO_AUDIO_STATE_CONNECTED);
+        }
+    }
+
+    @Override
+    public boolean getBluetoothHeadsetProfileProxy(
+            final BluetoothProfile.ServiceListener listener) {
+        callCount++;
+
+        final BluetoothProfile proxy = new BluetoothProfile() {
+            @Override
+            public List<BluetoothDevice> getConnectedDevices() {
+                callCount++;
+                return new ArrayList<>(bluetoothHeadsets);
+            }
+
+            @Override
+            public int getConnectionState(BluetoothDevice device) {
+                callCount++;
+                return
+                    bluetoothHeadsets.contains(device)
+                        ? STATE_CONNECTED
+                        : STATE_DISCONNECTED;
+            }
+
+            @Override
+            public List<BluetoothDevice> getDevicesMatchingConnectionStates(
+                    int[] states) {
+                callCount++;
+
+                // Only connected devices are known.
+                for (int state : states) {
+                    if (state == STATE_CONNECTED) {
+                        return new ArrayList<>(bluetoothHeadsets);
+                    }
+                }
+                return new ArrayList<>();
+            }
+        };
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onServiceConnected(BluetoothProfile.HEADSET, proxy);
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Gets the number of audio focus requests.
+     *
+     * @return the number of audio focus requests.
+     */
+    int getAudioFocusRequestCount() {
+        return audioFocusRequestCount;
+    }
+
+    /**
+     * Gets the number of calls into this {@code AudioHardware}.
+     *
+     * @return the number of calls into this {@code AudioHardware}.
+     */
+    int getCallCount() {
+        return callCount;
+    }
+
+    @Override
+    public AudioDeviceInfo[] getDevices(int flags) {
+        callCount++;
+
+        // AudioDeviceInfo cannot be faked so report no devices.
+        return new AudioDeviceInfo[0];
+    }
+
+    /**
+     * Gets the value set with {@link #setMode(int)}.
+     *
+     * @return the audio mode.
+     */
+    int getMode() {
+        return mode;
+    }
+
+    /**
+     * Whether a Bluetooth headset is connected.
+     *
+     * @return {@code true} if a Bluetooth headset is connected; otherwise,
+     * {@code false}.
+     */
+    boolean isBluetoothHeadsetConnected() {
+        return !bluetoothHeadsets.isEmpty();
+    }
+
+    @Override
+    public boolean isBluetoothScoAvailableOffCall() {
+        callCount++;
+        return true;
+    }
+
+    /**
+     * Whether audio is routed to the Bluetooth headset i.e. the SCO
+     * connection is established and was turned on.
+     *
+     * @return {@code true} if audio is routed to the Bluetooth headset;
+     * otherwise, {@code false}.
+     */
+    boolean isBluetoothScoRouted() {
+        return scoConnected && bluetoothScoOn;
+    }
+
+    /**
+     * Gets the value set with {@link #setSpeakerphoneOn(boolean)}.
+     *
+     * @return whether the speakerphone is on.
+     */
+    boolean isSpeakerphoneOn() {
+        return speakerphoneOn;
+    }
+
+    @Override
+    public boolean isWiredHeadsetOn() {
+        callCount++;
+        return wiredHeadsetOn;
+    }
+
+    /**
+     * Plugs or unplugs the wired headset.
+     *
+     * @param wiredHeadsetOn {@code true} to plug the wired headset;
+     * {@code false} to unplug it.
+     */
+    void plugWiredHeadset(boolean wiredHeadsetOn) {
+        if (this.wiredHeadsetOn != wiredHeadsetOn) {
+            this.wiredHeadsetOn = wiredHeadsetOn;
+            context.sendBroadcast(
+                new Intent(AudioManager.ACTION_HEADSET_PLUG)
+                    .putExtra("state", wiredHeadsetOn ? 1 : 0));
+        }
+    }
+
+    @Override
+    public void registerAudioDeviceCallback(AudioDeviceCallback callback) {
+        // There are no devices to report to the callback.
+        callCount++;
+    }
+
+    @Override
+    public int requestAudioFocus(AudioFocusRequest audioFocusRequest) {
+        callCount++;
+        return AudioManager.AUDIOFOCUS_REQUEST_GRANTED;
+    }
+
+    @Override
+    public int requestAudioFocus(
+            AudioManager.OnAudioFocusChangeListener listener,
+            int streamType,
+            int durationHint) {
+        callCount++;
+        audioFocusListener = listener;
+        audioFocusRequestCount++;
+        return AudioManager.AUDIOFOCUS_REQUEST_GRANTED;
+    }
+
+    private void sendBluetoothHeadsetBroadcast(
+            BluetoothDevice device,
+            int state) {
+        context.sendBroadcast(
+            new Intent(BluetoothHeadset.ACTION_CONNECTION_STATE_CHANGED)
+                .putExtra(BluetoothProfile.EXTRA_STATE, state)
+                .putExtra(BluetoothDevice.EXTRA_DEVICE, device));
+    }
+
+    private void sendScoBroadcast(int state, int previousState) {
+        context.sendBroadcast(
+            new Intent(AudioManager.ACTION_SCO_AUDIO_STATE_UPDATED)
+                .putExtra(AudioManager.EXTRA_SCO_AUDIO_STATE, state)
+                .putExtra(
+                    AudioManager.EXTRA_SCO_AUDIO_PREVIOUS_STATE,
+                    previousState));
+    }
+
+    @Override
+    public void setBluetoothScoOn(boolean on) {
+        callCount++;
+        bluetoothScoOn = on;
+    }
+
+    @Override
+    public void setMicrophoneMute(boolean on) {
+        callCount++;
+    }
+
+    @Override
+    public void setMode(int mode) {
+        callCount++;
+        this.mode = mode;
+    }
+
+    @Override
+    public void setSpeakerphoneOn(boolean on) {
+        callCount++;
+        speakerphoneOn = on;
+    }
+
+    @Override
+    public void startBluetoothSco() {
+        callCount++;
+
+        // Like the system, decide right away but report asynchronously.
+        final boolean connect = !bluetoothHeadsets.isEmpty();
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (scoConnected) {
+                    sendScoBroadcast(
+                        AudioManager.SCO_AUDIO_STATE_CONNECTED,
+                        AudioManager.SCO_AUDIO_STATE_CONNECTED);
+                    return;
+                }
+
+                sendScoBroadcast(
+                    AudioManager.SCO_AUDIO_STATE_CONNECTING,
+                    AudioManager.SCO_AUDIO_STATE_DISCONNECTED);
+                if (connect && !bluetoothHeadsets.isEmpty()) {
+                    scoConnected = true;
+                    sendScoBroadcast(
+                        AudioManager.SCO_AUDIO_STATE_CONNECTED,
+                        AudioManager.SCO_AUDIO_STATE_CONNECTING);
+                } else {
+                    sendScoBroadcast(
+                        AudioManager.SCO_AUDIO_STATE_DISCONNECTED,
+                        AudioManager.SCO_AUDIO_STATE_CONNECTING);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void stopBluetoothSco() {
+        callCount++;
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                dropSco();
+            }
+        });
+    }
+
+    @Override
+    public void unregisterAudioDeviceCallback(AudioDeviceCallback callback) {
+        callCount++;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LinkQualityPredictor} class. The rssi traces were recorded
+ * at an interval of one second.
+ */
+public class LinkQualityPredictorTest {
+    private static final String BSSID1 = "00:11:22:33:44:55";
+
+    private static final String BSSID2 = "00:11:22:33:44:66";
+
+    /**
+     * Standing next to the access point with people walking around.
+     */
+    private static final int[] STATIONARY_TRACE = {
+        -58, -61, -57, -60, -63, -59, -58, -62, -60, -57,
+        -61, -64, -60, -58, -59, -62, -61, -57, -60, -63,
+        -59, -61, -58, -60, -62, -60, -57, -59, -61, -60
+    };
+
+    /**
+     * Walking away from the access point, down the stairs.
+     */
+    private static final int[] WALKING_AWAY_TRACE = {
+        -55, -56, -54, -55, -57, -56, -58, -60, -59, -62,
+        -63, -62, -65, -67, -66, -69, -70, -72, -71, -74,
+        -76, -75, -78, -80, -79, -82
+    };
+
+    private LinkQualityPredictor predictor;
+
+    /**
+     * Adds a trace to {@link #predictor}.
+     *
+     * @param start the time of the first sample.
+     * @param trace the rssis to add.
+     * @param linkSpeed the link speed of all samples.
+     * @return the index of the first sample at which {@link #predictor}
+     * predicted degradation or {@code -1}.
+     */
+    private int addTrace(long start, int[] trace, int linkSpeed) {
+        int degradingAt = -1;
+
+        for (int i = 0; i < trace.length; i++) {
+            predictor.add(start + i * 1000, trace[i], linkSpeed, BSSID1);
+            if (degradingAt == -1 && predictor.isDegrading()) {
+                degradingAt = i;
+            }
+        }
+
+        return degradingAt;
+    }
+
+    @Before
+    public void setUp() {
+        predictor = new LinkQualityPredictor(1000);
+    }
+
+    @Test
+    public void testLinkSpeedDrop() {
+        for (int i = 0; i < 5; i++) {
+            assertFalse(predictor.add(i * 1000, -60, 144, BSSID1));
+        }
+        // A drop to half is not considered substantial.
+        assertFalse(predictor.add(5000, -60, 72, BSSID1));
+        assertTrue(predictor.add(6000, -61, 54, BSSID1));
+        assertEquals(
+            LinkQualityPredictor.REASON_LINK_SPEED,
+            predictor.getReasons());
+
+        // An unknown link speed is not a drop.
+        predictor.reset();
+        predictor.add(0, -60, 144, BSSID1);
+        assertFalse(
+            predictor.add(1000, -60, WiFiStatsHistory.UNKNOWN, BSSID1));
+    }
+
+    @Test
+    public void testRecovery() {
+        assertTrue(addTrace(0, WALKING_AWAY_TRACE, 72) != -1);
+
+        // Walking back towards the access point.
+        long t = WALKING_AWAY_TRACE.length * 1000;
+
+        for (int rssi = -76; predictor.getReasons() != 0; rssi += 4) {
+            predictor.add(t, rssi, 72, BSSID1);
+            t += 1000;
+        }
+
+        // The prediction holds for a while after the last sample for which
+        // a reason held.
+        long lastReasonAt = t - 2000;
+
+        assertTrue(predictor.isDegrading());
+        for (; !predictor.add(t, -60, 72, BSSID1); t += 1000) {
+            assertTrue(predictor.isDegrading());
+        }
+        assertFalse(predictor.isDegrading());
+        assertEquals(lastReasonAt + LinkQualityPredictor.RECOVERY_TIME, t);
+    }
+
+    @Test
+    public void testRoaming() {
+        assertFalse(predictor.add(0, -70, 72, BSSID1));
+        assertFalse(predictor.add(1000, -72, 72, null));
+        assertTrue(predictor.add(2000, -50, 144, BSSID2.toUpperCase()));
+        assertEquals(
+            LinkQualityPredictor.REASON_ROAMING,
+            predictor.getReasons());
+
+        // The window restarted with the new access point.
+        assertTrue(Double.isNaN(predictor.getSlope()));
+
+        long t = 3000;
+
+        for (; predictor.getReasons() != 0; t += 1000) {
+            predictor.add(t, -50, 144, BSSID2);
+        }
+        assertEquals(2000 + LinkQualityPredictor.ROAMING_TIME, t - 1000);
+        assertTrue(predictor.isDegrading());
+
+        // Upper and lower case BSSIDs are the same access point.
+        for (long end = t + LinkQualityPredictor.RECOVERY_TIME; t <= end;
+                t += 1000) {
+            predictor.add(t, -50, 144, BSSID2.toLowerCase());
+        }
+        assertFalse(predictor.isDegrading());
+    }
+
+    @Test
+    public void testStationary() {
+        assertEquals(-1, addTrace(0, STATIONARY_TRACE, 144));
+        assertEquals(0, predictor.getSlope(), 0.3);
+        assertEquals(-60, predictor.getPredictedRssi(), 2);
+    }
+
+    @Test
+    public void testWalkingAway() {
+        int degradingAt = addTrace(0, WALKING_AWAY_TRACE, 72);
+
+        assertTrue(degradingAt != -1);
+        assertEquals(
+            LinkQualityPredictor.REASON_RSSI_TREND,
+            predictor.getReasons());
+        assertTrue(predictor.getSlope() < LinkQualityPredictor.SLOPE_THRESHOLD);
+
+        // The degradation is predicted before the rssi becomes poor.
+        assertTrue(WALKING_AWAY_TRACE[degradingAt]
+            > LinkQualityPredictor.POOR_RSSI);
+    }
+
+    @Test
+    public void testWindow() {
+        // A fall in the distant past does not count.
+        predictor = new LinkQualityPredictor(5000, 1000);
+        addTrace(0, new int[] { -50, -60, -70, -74, -74, -74, -74 }, 72);
+        assertTrue(predictor.isDegrading());
+        assertTrue(predictor.add(20000, -74, 72, BSSID1));
+        assertFalse(predictor.isDegrading());
+        assertTrue(Double.isNaN(predictor.getSlope()));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ListenerUtils} class.
+ */
+public class ListenerUtilsTest {
+    @Test
+    public void testMapListenerMethods() {
+        Map<String, Method> methods
+            = ListenerUtils.mapListenerMethods(JitsiMeetViewListener.class);
+
+        assertEquals(
+            new HashSet<>(
+                Arrays.asList(
+                    "CONFERENCE_FAILED",
+                    "CONFERENCE_JOINED",
+                    "CONFERENCE_LEFT",
+                    "CONFERENCE_WILL_JOIN",
+                    "CONFERENCE_WILL_LEAVE",
+                    "LOAD_CONFIG_ERROR")),
+            methods.keySet());
+        assertEquals(
+            "onConferenceWillJoin",
+            methods.get("CONFERENCE_WILL_JOIN").getName());
+    }
+}
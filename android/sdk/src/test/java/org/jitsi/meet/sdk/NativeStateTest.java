@@ -0,0 +1,145 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link NativeState} class.
+ */
+public class NativeStateTest {
+    @Test
+    public void testPublish() {
+        NativeState before = NativeState.get();
+        NativeState state
+            = NativeState.publishAudioDevices(
+                Arrays.asList("earpiece", "speaker"),
+                "earpiece");
+
+        assertSame(state, NativeState.get());
+        assertEquals(before.version + 1, state.version);
+        assertEquals(Arrays.asList("earpiece", "speaker"), state.audioDevices);
+        assertEquals("earpiece", state.selectedAudioDevice);
+        assertEquals(
+            before.pictureInPictureSupported,
+            state.pictureInPictureSupported);
+        assertEquals(before.proximityEnabled, state.proximityEnabled);
+
+        // Publishing an unchanged value does not produce a new snapshot.
+        assertSame(
+            state,
+            NativeState.publishProximityEnabled(state.proximityEnabled));
+
+        NativeState proximity
+            = NativeState.publishProximityEnabled(!state.proximityEnabled);
+
+        assertEquals(state.version + 1, proximity.version);
+        assertEquals(state.audioDevices, proximity.audioDevices);
+        assertEquals("earpiece", proximity.selectedAudioDevice);
+    }
+
+    @Test
+    public void testConcurrentPublish() throws Exception {
+        final int threads = 4;
+        final int publications = 1000;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Void>> futures = new ArrayList<>();
+        long version = NativeState.get().version;
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int j = 0; j < publications; j++) {
+                            NativeState.publishAudioDevices(
+                                Collections.singletonList("speaker"),
+                                "speaker");
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Rethrows whatever a publishing thread threw.
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+
+        // No publication was lost.
+        assertEquals(
+            version + threads * publications,
+            NativeState.get().version);
+    }
+
+    /**
+     * Asserts that a snapshot published on one thread is what another thread
+     * reads, without a round-trip through the thread which published it.
+     */
+    @Test
+    public void testReadFromAnotherThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Callable<NativeState> read = new Callable<NativeState>() {
+            @Override
+            public NativeState call() {
+                return NativeState.get();
+            }
+        };
+
+        try {
+            NativeState state
+                = NativeState.publishAudioDevices(
+                    Arrays.asList("bluetooth", "speaker"),
+                    "bluetooth");
+
+            assertSame(state, executor.submit(read).get());
+
+            NativeState published
+                = executor.submit(new Callable<NativeState>() {
+                    @Override
+                    public NativeState call() {
+                        return NativeState.publishAudioDevices(
+                            Collections.singletonList("speaker"),
+                            "speaker");
+                    }
+                }).get();
+
+            assertSame(published, NativeState.get());
+            assertEquals("speaker", NativeState.get().selectedAudioDevice);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
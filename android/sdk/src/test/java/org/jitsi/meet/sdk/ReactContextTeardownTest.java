@@ -0,0 +1,158 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk;
+
+import android.os.Build;
+
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.jitsi.meet.sdk.net.NAT64AddrInfoModule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowApplication;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the native modules of the SDK release their receivers and
+ * callbacks when the React instance they belong to is destroyed, so that
+ * recreating the React context does not leak module instances.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = { Build.VERSION_CODES.LOLLIPOP, Build.VERSION_CODES.O_MR1 })
+public class ReactContextTeardownTest {
+    /**
+     * The number of times the React context is recreated.
+     */
+    private static final int ITERATIONS = 100;
+
+    /**
+     * The maximum number of React contexts and of module instances of each
+     * kind which may remain reachable after the React contexts were destroyed
+     * e.g. because of lazily cleared platform caches.
+     */
+    private static final int MAX_RETAINED_INSTANCES = 2;
+
+    /**
+     * Asserts that at most {@link #MAX_RETAINED_INSTANCES} of specific objects
+     * are still reachable.
+     *
+     * @param what the kind of the objects, for the assertion message.
+     * @param refs the {@code WeakReference}s to the objects.
+     */
+    private static void assertRetained(
+            String what,
+            List<? extends WeakReference<?>> refs) {
+        int retained = countRetained(refs);
+
+        assertTrue(
+            retained + " of " + refs.size() + " " + what + " retained",
+            retained <= MAX_RETAINED_INSTANCES);
+    }
+
+    private static int countRetained(List<? extends WeakReference<?>> refs) {
+        int retained = 0;
+
+        for (WeakReference<?> ref : refs) {
+            if (ref.get() != null) {
+                retained++;
+            }
+        }
+
+        return retained;
+    }
+
+    private static List<NativeModule> createNativeModules(
+            ReactApplicationContext reactContext) {
+        return Arrays.<NativeModule>asList(
+            new AudioModeModule(reactContext),
+            new NAT64AddrInfoModule(reactContext),
+            new ProximityModule(reactContext));
+    }
+
+    /**
+     * Runs the garbage collector until it actually collected an object which
+     * is only weakly reachable.
+     */
+    private static void forceGc() {
+        WeakReference<Object> sentinel = new WeakReference<>(new Object());
+
+        for (int i = 0; i < 10 && sentinel.get() != null; i++) {
+            System.gc();
+            System.runFinalization();
+        }
+    }
+
+    @Test
+    public void testReactContextRecreation() {
+        ShadowApplication application = ShadowApplication.getInstance();
+        int receivers = application.getRegisteredReceivers().size();
+        List<WeakReference<ReactApplicationContext>> contextRefs
+            = new ArrayList<>();
+        Map<String, List<WeakReference<NativeModule>>> moduleRefs
+            = new LinkedHashMap<>();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            ReactApplicationContext reactContext
+                = new ReactApplicationContext(RuntimeEnvironment.application);
+
+            contextRefs.add(new WeakReference<>(reactContext));
+            for (NativeModule module : createNativeModules(reactContext)) {
+                String name = module.getClass().getSimpleName();
+                List<WeakReference<NativeModule>> refs = moduleRefs.get(name);
+
+                if (refs == null) {
+                    refs = new ArrayList<>();
+                    moduleRefs.put(name, refs);
+                }
+                refs.add(new WeakReference<>(module));
+                module.onCatalystInstanceDestroy();
+            }
+            ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+            assertEquals(
+                "Receivers leaked after " + (i + 1) + " iterations",
+                receivers,
+                application.getRegisteredReceivers().size());
+        }
+
+        // A single collection may leave some of the garbage behind so give
+        // the garbage collector a few chances.
+        for (int i = 0;
+                i < 10 && countRetained(contextRefs) > MAX_RETAINED_INSTANCES;
+                i++) {
+            forceGc();
+        }
+
+        assertRetained("React contexts", contextRefs);
+        for (Map.Entry<String, List<WeakReference<NativeModule>>> e
+                : moduleRefs.entrySet()) {
+            assertRetained(e.getKey() + " instances", e.getValue());
+        }
+    }
+}
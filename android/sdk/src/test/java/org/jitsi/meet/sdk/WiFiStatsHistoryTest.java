@@ -0,0 +1,117 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link WiFiStatsHistory} class.
+ */
+public class WiFiStatsHistoryTest {
+    @Test
+    public void testEmpty() {
+        WiFiStatsHistory history = new WiFiStatsHistory(4);
+
+        assertEquals(4, history.getCapacity());
+        assertEquals(0, history.getCount());
+        assertEquals(0, history.getOldestIndex());
+        assertEquals(0, history.size());
+        assertEquals(0, history.copy(0, new long[4], null, null, null));
+        assertEquals(0, history.copy(0, null, null, null, null));
+    }
+
+    @Test
+    public void testCopy() {
+        WiFiStatsHistory history = new WiFiStatsHistory(4);
+
+        history.add(1000, -50, 72, 2412);
+        history.add(2000, -55, 65, WiFiStatsHistory.UNKNOWN);
+
+        long[] timestamps = new long[4];
+        int[] rssis = new int[4];
+        int[] linkSpeeds = new int[4];
+        int[] frequencies = new int[4];
+
+        assertEquals(
+            2,
+            history.copy(0, timestamps, rssis, linkSpeeds, frequencies));
+        assertEquals(1000, timestamps[0]);
+        assertEquals(2000, timestamps[1]);
+        assertEquals(-50, rssis[0]);
+        assertEquals(-55, rssis[1]);
+        assertEquals(72, linkSpeeds[0]);
+        assertEquals(65, linkSpeeds[1]);
+        assertEquals(2412, frequencies[0]);
+        assertEquals(WiFiStatsHistory.UNKNOWN, frequencies[1]);
+
+        // Only the samples from the specified index on.
+        assertEquals(1, history.copy(1, null, rssis, null, null));
+        assertEquals(-55, rssis[0]);
+        assertEquals(0, history.copy(2, null, rssis, null, null));
+
+        // No more samples than fit in the arrays.
+        assertEquals(1, history.copy(0, null, new int[1], null, null));
+    }
+
+    @Test
+    public void testOverwrite() {
+        WiFiStatsHistory history = new WiFiStatsHistory(3);
+
+        for (int i = 0; i < 7; i++) {
+            history.add(i, -i, i, i);
+        }
+
+        assertEquals(7, history.getCount());
+        assertEquals(4, history.getOldestIndex());
+        assertEquals(3, history.size());
+
+        long[] timestamps = new long[5];
+
+        // The overwritten samples are skipped.
+        assertEquals(3, history.copy(0, timestamps, null, null, null));
+        assertEquals(4, timestamps[0]);
+        assertEquals(5, timestamps[1]);
+        assertEquals(6, timestamps[2]);
+
+        assertEquals(2, history.copy(5, timestamps, null, null, null));
+        assertEquals(5, timestamps[0]);
+        assertEquals(6, timestamps[1]);
+    }
+
+    @Test
+    public void testClear() {
+        WiFiStatsHistory history = new WiFiStatsHistory(2);
+
+        history.add(1, -1, 1, 1);
+        history.add(2, -2, 2, 2);
+        history.add(3, -3, 3, 3);
+        history.clear();
+
+        assertEquals(0, history.getCount());
+        assertEquals(0, history.size());
+        assertEquals(0, history.copy(0, new long[2], null, null, null));
+
+        history.add(4, -4, 4, 4);
+
+        long[] timestamps = new long[2];
+
+        assertEquals(1, history.copy(0, timestamps, null, null, null));
+        assertEquals(4, timestamps[0]);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the sequencing of the queries of {@link AddPeopleController}.
+ */
+public class AddPeopleControllerTest {
+    /**
+     * The {@code AddPeopleController} under test.
+     */
+    private AddPeopleController addPeopleController;
+
+    @Before
+    public void setUp() {
+        addPeopleController
+            = new AddPeopleController(
+                new InviteController("externalAPIScope"),
+                /* reactContext */ null);
+    }
+
+    @Test
+    public void testCancelQuery() {
+        int a = addPeopleController.nextQuerySequence();
+
+        assertTrue(addPeopleController.startRemoteQuery("a", a));
+        addPeopleController.cancelQuery();
+        assertFalse(addPeopleController.isLatestQuery("a"));
+
+        // A cancelled query which is still being debounced does not start.
+        int ab = addPeopleController.nextQuerySequence();
+
+        addPeopleController.cancelQuery();
+        assertFalse(addPeopleController.startRemoteQuery("ab", ab));
+    }
+
+    @Test
+    public void testDebounce() {
+        int a = addPeopleController.nextQuerySequence();
+        int ab = addPeopleController.nextQuerySequence();
+        int abc = addPeopleController.nextQuerySequence();
+
+        assertTrue(a < ab && ab < abc);
+
+        // Only the latest of the queries typed within the delay starts.
+        assertFalse(addPeopleController.startRemoteQuery("a", a));
+        assertFalse(addPeopleController.startRemoteQuery("ab", ab));
+        assertTrue(addPeopleController.startRemoteQuery("abc", abc));
+
+        assertFalse(addPeopleController.isLatestQuery("a"));
+        assertTrue(addPeopleController.isLatestQuery("abc"));
+    }
+
+    @Test
+    public void testStaleResults() {
+        assertFalse(addPeopleController.isLatestQuery("a"));
+
+        int a = addPeopleController.nextQuerySequence();
+
+        assertTrue(addPeopleController.startRemoteQuery("a", a));
+        assertTrue(addPeopleController.isLatestQuery("a"));
+
+        // The results of a arrive after ab was searched.
+        int ab = addPeopleController.nextQuerySequence();
+
+        assertTrue(addPeopleController.startRemoteQuery("ab", ab));
+        assertFalse(addPeopleController.isLatestQuery("a"));
+        assertTrue(addPeopleController.isLatestQuery("ab"));
+
+        // The results of ab arrive after abc was typed but before its remote
+        // search started.
+        addPeopleController.nextQuerySequence();
+        assertFalse(addPeopleController.isLatestQuery("ab"));
+    }
+}
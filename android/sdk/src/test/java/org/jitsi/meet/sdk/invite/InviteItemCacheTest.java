@@ -0,0 +1,184 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link InviteItemCache} and {@link InviteItem} classes.
+ */
+public class InviteItemCacheTest {
+    /**
+     * The {@code InviteItemCache} under test.
+     */
+    private InviteItemCache cache;
+
+    /**
+     * The current time of {@link #cache}.
+     */
+    private long now;
+
+    private static InviteItem createItem(String id) {
+        Map<String, Object> map = new HashMap<>();
+
+        map.put("id", id);
+        map.put("type", "user");
+
+        return new InviteItem(map);
+    }
+
+    @Before
+    public void setUp() {
+        cache = new InviteItemCache(3, 1000) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testAge() {
+        InviteItem item = createItem("a");
+
+        cache.put("a", item);
+        now += 999;
+        assertSame(item, cache.get("a"));
+        now += 1;
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+
+        // Putting again restarts the age.
+        cache.put("a", item);
+        now += 500;
+        cache.put("a", item);
+        now += 999;
+        assertSame(item, cache.get("a"));
+    }
+
+    @Test
+    public void testEvicted() {
+        final List<String> evicted = new ArrayList<>();
+
+        cache = new InviteItemCache(2, 1000) {
+            @Override
+            void evicted(String key, InviteItem item) {
+                evicted.add(key);
+            }
+
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        cache.put("a", createItem("a"));
+        cache.put("b", createItem("b"));
+        cache.put("c", createItem("c"));
+        assertEquals(Collections.singletonList("a"), evicted);
+
+        now += 1000;
+        assertNull(cache.peek("b"));
+        assertEquals(Arrays.asList("a", "b"), evicted);
+
+        // Peeking does not count.
+        assertEquals(0, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test
+    public void testHitRate() {
+        assertEquals(0, cache.getHitRate(), 0);
+
+        cache.put("a", createItem("a"));
+        cache.get("a");
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.75, cache.getHitRate(), 0);
+
+        cache.clear();
+        assertNull(cache.get("a"));
+        assertEquals(0.6, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void testItem() {
+        Map<String, Object> avatar = new HashMap<>();
+        List<Object> emails = new ArrayList<>();
+        Map<String, Object> map = new HashMap<>();
+
+        avatar.put("url", "https://example.com/a.png");
+        emails.add("a@example.com");
+        emails.add(avatar);
+        map.put("id", "a");
+        map.put("online", true);
+        map.put("score", 1.5);
+        map.put("avatar", avatar);
+        map.put("emails", emails);
+        map.put("title", null);
+
+        InviteItem item = new InviteItem(map);
+        Map<String, Object> expectedAvatar = new HashMap<>(avatar);
+        Map<String, Object> expected = new HashMap<>(map);
+
+        expected.put("avatar", expectedAvatar);
+        expected.put(
+            "emails",
+            Arrays.<Object>asList("a@example.com", expectedAvatar));
+
+        // The item is a deep copy.
+        avatar.put("url", "https://example.com/b.png");
+        emails.clear();
+        map.put("id", "b");
+        assertEquals(expected, item.toHashMap());
+
+        assertEquals("a", item.getString("id"));
+        assertEquals(true, item.get("online"));
+        assertNull(item.getString("online"));
+        assertNull(item.get("title"));
+        assertNull(item.get("missing"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsed() {
+        InviteItem a = createItem("a");
+
+        cache.put("a", a);
+        cache.put("b", createItem("b"));
+        cache.put("c", createItem("c"));
+
+        // Using a makes b the least recently used.
+        assertSame(a, cache.get("a"));
+        cache.put("d", createItem("d"));
+        assertEquals(3, cache.size());
+        assertNull(cache.get("b"));
+        assertSame(a, cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+    }
+}
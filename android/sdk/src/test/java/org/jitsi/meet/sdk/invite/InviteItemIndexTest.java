@@ -0,0 +1,144 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link InviteItemIndex} class.
+ */
+public class InviteItemIndexTest {
+    /**
+     * The {@code InviteItemIndex} under test.
+     */
+    private InviteItemIndex index;
+
+    private static InviteItem createPhone(String number) {
+        Map<String, Object> map = new HashMap<>();
+
+        map.put("type", "phone");
+        map.put("number", number);
+        map.put("title", "Dial out to " + number);
+
+        return new InviteItem(map);
+    }
+
+    private static InviteItem createUser(String id, String name) {
+        Map<String, Object> map = new HashMap<>();
+
+        map.put("type", "user");
+        map.put("id", id);
+        map.put("name", name);
+        map.put("avatar", "https://example.com/avatar.png");
+
+        return new InviteItem(map);
+    }
+
+    @Before
+    public void setUp() {
+        index = new InviteItemIndex();
+        index.put(
+            "jdoe@example.com",
+            createUser("jdoe@example.com", "John Doe"));
+        index.put(
+            "jane.roe@example.com",
+            createUser("jane.roe@example.com", "Jane Roe"));
+        index.put("+15550001", createPhone("+15550001"));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(index.search("", 10).isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+        assertTrue(index.search("j", 0).isEmpty());
+    }
+
+    @Test
+    public void testLimit() {
+        assertEquals(2, index.search("j", 10).size());
+        assertEquals(1, index.search("j", 1).size());
+    }
+
+    @Test
+    public void testPrefixes() {
+        // Names, ids/emails and their words.
+        assertEquals(
+            Collections.singletonList("jdoe@example.com"),
+            index.search("Doe", 10));
+        assertEquals(
+            Collections.singletonList("jdoe@example.com"),
+            index.search("jdoe@ex", 10));
+        assertEquals(
+            Collections.singletonList("jane.roe@example.com"),
+            index.search("jane.r", 10));
+        assertEquals(
+            new HashSet<>(
+                Arrays.asList("jdoe@example.com", "jane.roe@example.com")),
+            new HashSet<>(index.search("example", 10)));
+
+        // Every word of the query must match.
+        assertEquals(
+            Collections.singletonList("jane.roe@example.com"),
+            index.search("  j   ROE ", 10));
+        assertTrue(index.search("john roe", 10).isEmpty());
+
+        // Numbers, with or without the plus.
+        assertEquals(
+            Collections.singletonList("+15550001"),
+            index.search("+1555", 10));
+        assertEquals(
+            Collections.singletonList("+15550001"),
+            index.search("1555", 10));
+
+        // The titles and the avatars are not indexed.
+        assertTrue(index.search("dial", 10).isEmpty());
+        assertTrue(index.search("https", 10).isEmpty());
+    }
+
+    @Test
+    public void testPutAndRemove() {
+        assertEquals(3, index.size());
+
+        // Replacing an item drops its old terms.
+        index.put(
+            "jdoe@example.com",
+            createUser("jdoe@example.com", "Johnny Doe"));
+        assertEquals(3, index.size());
+        assertEquals(1, index.search("john", 10).size());
+        assertEquals(1, index.search("johnny", 10).size());
+        index.put(
+            "jdoe@example.com",
+            createUser("jdoe@example.com", "Jim Doe"));
+        assertTrue(index.search("johnny", 10).isEmpty());
+
+        index.remove("jdoe@example.com");
+        index.remove("unknown");
+        assertEquals(2, index.size());
+        assertTrue(index.search("doe", 10).isEmpty());
+        assertEquals(1, index.search("example", 10).size());
+    }
+}
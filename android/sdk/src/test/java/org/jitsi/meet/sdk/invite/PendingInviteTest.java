@@ -0,0 +1,154 @@
+/*
+ * Copyright @ 2017-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jitsi.meet.sdk.invite;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PendingInvite} class.
+ */
+public class PendingInviteTest {
+    /**
+     * The invitees of {@link #pendingInvite}.
+     */
+    private final List<Map<String, Object>> invitees = new ArrayList<>();
+
+    /**
+     * The {@code PendingInvite} under test.
+     */
+    private PendingInvite pendingInvite;
+
+    /**
+     * The pending invites by scope {@link #pendingInvite} is tracked in.
+     */
+    private final ConcurrentMap<String, PendingInvite> pendingInvites
+        = new ConcurrentHashMap<>();
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> invitee = new HashMap<>();
+
+            invitee.put("type", "user");
+            invitee.put("id", "user" + i + "@example.com");
+            invitees.add(invitee);
+        }
+
+        pendingInvite = new PendingInvite("scope", invitees, pendingInvites);
+    }
+
+    @Test
+    public void testCancel() {
+        assertSame(pendingInvite, pendingInvites.get("scope"));
+        assertTrue(pendingInvite.cancel(false));
+        assertTrue(pendingInvites.isEmpty());
+
+        // Settling after cancelling does nothing.
+        pendingInvite.settle(invitees);
+        assertTrue(pendingInvite.isCancelled());
+    }
+
+    @Test
+    public void testCompletionListener() {
+        final AtomicInteger completions = new AtomicInteger();
+        Runnable completionListener = new Runnable() {
+            @Override
+            public void run() {
+                completions.incrementAndGet();
+            }
+        };
+
+        pendingInvite.setCompletionListener(completionListener);
+        assertEquals(0, completions.get());
+
+        // The listener runs once, upon the first completion.
+        pendingInvite.settle(invitees);
+        pendingInvite.timeOut();
+        assertEquals(1, completions.get());
+
+        // It runs right away if the invite has completed already.
+        pendingInvite.setCompletionListener(completionListener);
+        assertEquals(2, completions.get());
+    }
+
+    @Test
+    public void testFail() throws Exception {
+        pendingInvite.fail();
+        assertEquals(invitees, pendingInvite.get(0, TimeUnit.SECONDS));
+        assertTrue(pendingInvites.isEmpty());
+    }
+
+    @Test
+    public void testSettle() throws Exception {
+        assertFalse(pendingInvite.isDone());
+
+        final List<Map<String, Object>> failedInvitees
+            = Collections.singletonList(invitees.get(1));
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pendingInvite.settle(failedInvitees);
+            }
+        });
+
+        thread.start();
+        assertEquals(failedInvitees, pendingInvite.get(5, TimeUnit.SECONDS));
+        thread.join();
+        assertTrue(pendingInvites.isEmpty());
+
+        // Timing out after settling does nothing.
+        pendingInvite.timeOut();
+        assertEquals(failedInvitees, pendingInvite.get());
+    }
+
+    @Test
+    public void testTimeOut() throws InterruptedException {
+        pendingInvite.timeOut();
+        assertTrue(pendingInvites.isEmpty());
+
+        try {
+            pendingInvite.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        // Settling after timing out does nothing.
+        pendingInvite.settle(Collections.<Map<String, Object>>emptyList());
+        try {
+            pendingInvite.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DnsCache} class.
+ */
+public class DnsCacheTest {
+    private static final byte[] IPV4 = { (byte) 203, 0, 113, 1 };
+
+    private static final byte[] IPV6 = {
+        0x20, 0x01, 0x0d, (byte) 0xb8, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1
+    };
+
+    /**
+     * The {@code DnsCache} under test.
+     */
+    private DnsCache cache;
+
+    /**
+     * Whether the next queries fail.
+     */
+    private boolean fail;
+
+    /**
+     * The current time of {@link #cache}.
+     */
+    private long now;
+
+    /**
+     * The names queried, one entry per query.
+     */
+    private final List<String> queries
+        = Collections.synchronizedList(new ArrayList<String>());
+
+    /**
+     * The records answered by type.
+     */
+    private final Map<Integer, List<DnsRecord>> records = new HashMap<>();
+
+    /**
+     * The prefetches {@link #cache} started but which did not run yet.
+     */
+    private final Queue<Runnable> tasks = new LinkedList<>();
+
+    private void assertAddresses(List<InetAddress> addresses) {
+        assertEquals(2, addresses.size());
+        assertArrayEquals(IPV4, addresses.get(0).getAddress());
+        assertArrayEquals(IPV6, addresses.get(1).getAddress());
+    }
+
+    private DnsCache createCache(DnsResolver resolver, Executor executor) {
+        return new DnsCache(resolver, executor) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+    }
+
+    private void setRecords(long ipv4Ttl, long ipv6Ttl) {
+        records.put(
+            DnsResolver.TYPE_A,
+            Collections.singletonList(new DnsRecord(IPV4, ipv4Ttl)));
+        records.put(
+            DnsResolver.TYPE_AAAA,
+            Collections.singletonList(new DnsRecord(IPV6, ipv6Ttl)));
+    }
+
+    @Before
+    public void setUp() {
+        cache = createCache(
+            new DnsResolver() {
+                @Override
+                public List<DnsRecord> query(String name, int type)
+                    throws IOException {
+                    queries.add(name);
+                    if (fail) {
+                        throw new IOException("fail");
+                    }
+
+                    List<DnsRecord> r = records.get(type);
+
+                    return
+                        r == null
+                            ? Collections.<DnsRecord>emptyList()
+                            : r;
+                }
+            },
+            new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    tasks.add(command);
+                }
+            });
+        setRecords(300, 300);
+    }
+
+    @Test
+    public void testIPAddressLiteral() throws UnknownHostException {
+        List<InetAddress> addresses = cache.lookup("192.0.2.1");
+
+        assertEquals(1, addresses.size());
+        assertEquals("192.0.2.1", addresses.get(0).getHostAddress());
+        assertEquals(1, cache.lookup("::1").size());
+        assertTrue(queries.isEmpty());
+        assertEquals(0, cache.getHitCount() + cache.getMissCount());
+
+        cache.prefetch("192.0.2.1");
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testNegative() {
+        records.clear();
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.lookup("nxdomain.example.com");
+                fail();
+            } catch (UnknownHostException e) {
+                // Expected.
+            }
+        }
+        assertEquals(2, queries.size());
+        assertEquals(1, cache.getHitCount());
+
+        now += DnsCache.NEGATIVE_TTL;
+        try {
+            cache.lookup("nxdomain.example.com");
+            fail();
+        } catch (UnknownHostException e) {
+            // Expected.
+        }
+        assertEquals(4, queries.size());
+
+        // The failure of both queries (e.g. no network) is not cached.
+        fail = true;
+        now += DnsCache.NEGATIVE_TTL;
+        try {
+            cache.lookup("example.com");
+            fail();
+        } catch (UnknownHostException e) {
+            // Expected.
+        }
+        fail = false;
+        setRecords(300, 300);
+        try {
+            assertAddresses(cache.lookup("example.com"));
+        } catch (UnknownHostException e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testInetAddressDnsResolver() throws Exception {
+        cache = createCache(
+            new InetAddressDnsResolver() {
+                @Override
+                InetAddress[] getAllByName(String host)
+                    throws UnknownHostException {
+                    queries.add(host);
+                    return new InetAddress[] {
+                        InetAddress.getByAddress(host, IPV6),
+                        InetAddress.getByAddress(host, IPV4)
+                    };
+                }
+            },
+            null);
+
+        // The system resolver is asked once for both A and AAAA records.
+        assertAddresses(cache.lookup("example.com"));
+        assertEquals(1, queries.size());
+
+        // The TTLs are unknown so the default applies.
+        now += DnsCache.DEFAULT_TTL - 1;
+        assertAddresses(cache.lookup("example.com"));
+        assertEquals(1, queries.size());
+        now += 1;
+        assertAddresses(cache.lookup("example.com"));
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    public void testResolverThrowsRuntimeException() throws Exception {
+        final CountDownLatch looked = new CountDownLatch(1);
+
+        cache = createCache(
+            new DnsResolver() {
+                @Override
+                public List<DnsRecord> query(String name, int type) {
+                    queries.add(name);
+                    throw new IllegalArgumentException("label too long");
+                }
+            },
+            null);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.lookup("example.com");
+                fail();
+            } catch (UnknownHostException e) {
+                assertTrue(
+                    e.getCause().getCause()
+                        instanceof IllegalArgumentException);
+            }
+        }
+        // The failure is not cached so each lookup resolves.
+        assertEquals(4, queries.size());
+
+        // The entry does not stay pending i.e. a lookup from another thread
+        // does not hang.
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    cache.lookup("example.com");
+                } catch (UnknownHostException e) {
+                    looked.countDown();
+                }
+            }
+        });
+
+        thread.setDaemon(true);
+        thread.start();
+        assertTrue(looked.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPrefetch() throws UnknownHostException {
+        cache.prefetch("example.com", "bosh.example.com", null, "");
+        assertEquals(2, tasks.size());
+        assertEquals(2, cache.getPrefetchCount());
+
+        // Already being prefetched.
+        cache.prefetch("EXAMPLE.com");
+        assertEquals(2, tasks.size());
+
+        while (!tasks.isEmpty()) {
+            tasks.remove().run();
+        }
+        assertEquals(4, queries.size());
+
+        assertAddresses(cache.lookup("example.com"));
+        assertAddresses(cache.lookup("bosh.example.com"));
+        assertEquals(4, queries.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(1, cache.getHitRate(), 0);
+
+        // Cached already.
+        cache.prefetch("example.com");
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        final CountDownLatch queried = new CountDownLatch(1);
+        final CountDownLatch answer = new CountDownLatch(1);
+
+        cache = createCache(
+            new DnsResolver() {
+                @Override
+                public List<DnsRecord> query(String name, int type)
+                    throws IOException {
+                    queries.add(name);
+                    queried.countDown();
+                    try {
+                        answer.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return records.get(type);
+                }
+            },
+            null);
+
+        final List<List<InetAddress>> results
+            = Collections.synchronizedList(new ArrayList<List<InetAddress>>());
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        results.add(cache.lookup("example.com"));
+                    } catch (UnknownHostException e) {
+                        // The assertion on results will fail.
+                    }
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        assertTrue(queried.await(5, TimeUnit.SECONDS));
+        // Give the other lookups the time to join the resolution.
+        Thread.sleep(100);
+        answer.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(3, results.size());
+        for (List<InetAddress> addresses : results) {
+            assertAddresses(addresses);
+        }
+        // One resolution i.e. an A and an AAAA query.
+        assertEquals(2, queries.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testTtl() throws UnknownHostException {
+        // The shortest TTL wins.
+        setRecords(300, 30);
+        assertAddresses(cache.lookup("example.com"));
+        assertAddresses(cache.lookup("example.com"));
+        assertEquals(2, queries.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5, cache.getHitRate(), 0);
+
+        now += 30 * 1000 - 1;
+        cache.lookup("example.com");
+        assertEquals(2, queries.size());
+        now += 1;
+        cache.lookup("example.com");
+        assertEquals(4, queries.size());
+
+        // Unknown TTLs.
+        setRecords(DnsRecord.TTL_UNKNOWN, 300);
+        now += 30 * 1000;
+        cache.lookup("example.com");
+        now += DnsCache.DEFAULT_TTL - 1;
+        cache.lookup("example.com");
+        assertEquals(6, queries.size());
+        now += 1;
+        cache.lookup("example.com");
+        assertEquals(8, queries.size());
+
+        // A TTL of zero is cached for a little while nevertheless.
+        setRecords(0, 0);
+        now += DnsCache.DEFAULT_TTL;
+        cache.lookup("example.com");
+        cache.lookup("example.com");
+        assertEquals(10, queries.size());
+        now += DnsCache.MIN_TTL;
+        cache.lookup("example.com");
+        assertEquals(12, queries.size());
+
+        // Host names are case-insensitive.
+        cache.lookup("Example.COM");
+        assertEquals(12, queries.size());
+
+        cache.clear();
+        cache.lookup("example.com");
+        assertEquals(14, queries.size());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A stand-in for a conference host on the loopback interface: an HTTP server
+ * which responds with a body of a specific size and a UDP echo server which
+ * may drop specific packets. Used to test {@link NetworkProbe}.
+ */
+class LoopbackServer {
+    /**
+     * The size in bytes of the body of the HTTP responses.
+     */
+    private final int bodySize;
+
+    /**
+     * The sequence numbers of the UDP echo packets to drop.
+     */
+    private final Set<Integer> droppedSeqs;
+
+    /**
+     * The {@link CountDownLatch} the HTTP server waits for before responding
+     * to a GET request, if any. Used to hold a download up.
+     */
+    volatile CountDownLatch getLatch;
+
+    /**
+     * Counted down when the HTTP server receives a GET request.
+     */
+    final CountDownLatch getReceived = new CountDownLatch(1);
+
+    private final HttpServer httpServer;
+
+    private final DatagramSocket udpSocket;
+
+    private final Thread udpThread;
+
+    /**
+     * Initializes and starts a new {@code LoopbackServer} instance.
+     *
+     * @param bodySize the size in bytes of the body of the HTTP responses.
+     * @param droppedSeqs the sequence numbers of the UDP echo packets to drop.
+     * @throws IOException if the servers fail to start.
+     */
+    LoopbackServer(int bodySize, Set<Integer> droppedSeqs)
+            throws IOException {
+        this.bodySize = bodySize;
+        this.droppedSeqs = droppedSeqs;
+
+        InetAddress loopback = InetAddress.getByName("127.0.0.1");
+
+        httpServer = HttpServer.create(new InetSocketAddress(loopback, 0), 0);
+        httpServer.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                handleHttp(exchange);
+            }
+        });
+        httpServer.start();
+
+        udpSocket = new DatagramSocket(0, loopback);
+        udpThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                echo();
+            }
+        });
+        udpThread.start();
+    }
+
+    /**
+     * Echoes the UDP packets received on {@link #udpSocket} until it is
+     * closed, except for those to be dropped.
+     */
+    private void echo() {
+        byte[] buffer = new byte[1500];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+
+        try {
+            while (true) {
+                packet.setLength(buffer.length);
+                udpSocket.receive(packet);
+
+                int seq = ByteBuffer.wrap(buffer).getInt();
+
+                if (!droppedSeqs.contains(seq)) {
+                    udpSocket.send(packet);
+                }
+            }
+        } catch (IOException e) {
+            // Closed.
+        }
+    }
+
+    URL getHttpURL() throws IOException {
+        InetSocketAddress address = httpServer.getAddress();
+
+        return
+            new URL(
+                "http://" + address.getAddress().getHostAddress() + ":"
+                    + address.getPort() + "/room");
+    }
+
+    InetSocketAddress getUdpEchoAddress() {
+        return
+            new InetSocketAddress(
+                udpSocket.getLocalAddress(),
+                udpSocket.getLocalPort());
+    }
+
+    private void handleHttp(HttpExchange exchange) throws IOException {
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+
+        if (!head) {
+            getReceived.countDown();
+
+            CountDownLatch getLatch = this.getLatch;
+
+            if (getLatch != null) {
+                try {
+                    getLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        exchange.sendResponseHeaders(200, head ? -1 : bodySize);
+        if (!head) {
+            OutputStream os = exchange.getResponseBody();
+            byte[] buffer = new byte[8192];
+
+            try {
+                for (int n = 0; n < bodySize; n += buffer.length) {
+                    os.write(buffer, 0, Math.min(buffer.length, bodySize - n));
+                }
+            } catch (IOException e) {
+                // The client went away.
+            }
+        }
+        exchange.close();
+    }
+
+    void stop() {
+        CountDownLatch getLatch = this.getLatch;
+
+        if (getLatch != null) {
+            getLatch.countDown();
+        }
+        httpServer.stop(0);
+        udpSocket.close();
+        try {
+            udpThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
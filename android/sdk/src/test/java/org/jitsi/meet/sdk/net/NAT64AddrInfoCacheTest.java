@@ -0,0 +1,321 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link NAT64AddrInfoCache} class.
+ */
+public class NAT64AddrInfoCacheTest {
+    /**
+     * The lifetime of successful discoveries used by the tests.
+     */
+    private static final long INFO_LIFETIME = 60 * 1000;
+
+    /**
+     * The {@code NAT64AddrInfoCache} under test.
+     */
+    private NAT64AddrInfoCache<String> cache;
+
+    /**
+     * The number of discoveries {@link #cache} ran.
+     */
+    private int discoveries;
+
+    /**
+     * Whether the next discoveries fail.
+     */
+    private boolean fail;
+
+    /**
+     * The {@code NAT64AddrInfo} the discoveries find.
+     */
+    private NAT64AddrInfo info;
+
+    /**
+     * The current network of {@link #cache}.
+     */
+    private String network;
+
+    /**
+     * The networks the discoveries ran on.
+     */
+    private final List<String> networks = new ArrayList<>();
+
+    /**
+     * The current time of {@link #cache}.
+     */
+    private long now;
+
+    /**
+     * The TTL, in seconds, of the results of the discoveries.
+     */
+    private long ttl = DnsRecord.TTL_UNKNOWN;
+
+    /**
+     * The discoveries {@link #cache} started but which did not run yet.
+     */
+    private final Queue<Runnable> tasks = new LinkedList<>();
+
+    /**
+     * Records the results delivered by {@link #cache}.
+     */
+    private static class Results implements NAT64AddrInfoCache.Callback {
+        final List<NAT64AddrInfo> infos = new ArrayList<>();
+
+        @Override
+        public void onNAT64AddrInfo(List<NAT64AddrInfo> infos) {
+            this.infos.add(infos.isEmpty() ? null : infos.get(0));
+        }
+    }
+
+    @Before
+    public void setUp() {
+        info
+            = NAT64AddrInfo.figureOutNAT64AddrInfo(
+                new byte[] { (byte) 203, 0, 113, 1 },
+                new byte[] {
+                    0x26, 0x07, 0x77, 0x00, 0, 0, 0, 0x04, 0, 0, 0, 0,
+                    (byte) 203, 0, 113, 1
+                });
+        assertNotNull(info);
+
+        cache = new NAT64AddrInfoCache<String>(
+                new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        tasks.add(command);
+                    }
+                },
+                INFO_LIFETIME) {
+            @Override
+            NAT64Discovery discover(String network) throws IOException {
+                discoveries++;
+                networks.add(network);
+                if (fail) {
+                    throw new UnknownHostException();
+                }
+                return new NAT64Discovery(
+                    Collections.singletonList(info),
+                    ttl);
+            }
+
+            @Override
+            String getActiveNetwork() {
+                return network;
+            }
+
+            @Override
+            long now() {
+                return now;
+            }
+        };
+    }
+
+    private void runTasks() {
+        Runnable task;
+
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void testSingleFlight() {
+        Results results = new Results();
+
+        for (int i = 0; i < 10; i++) {
+            cache.get(results);
+        }
+
+        // Nobody is blocked, everybody waits for the one discovery.
+        assertTrue(results.infos.isEmpty());
+        assertEquals(1, tasks.size());
+
+        runTasks();
+
+        assertEquals(1, discoveries);
+        assertEquals(10, results.infos.size());
+        for (NAT64AddrInfo i : results.infos) {
+            assertSame(info, i);
+        }
+
+        // Fresh results are delivered synchronously.
+        cache.get(results);
+        assertEquals(11, results.infos.size());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() {
+        Results results = new Results();
+
+        cache.get(results);
+        runTasks();
+
+        NAT64AddrInfo staleInfo = info;
+
+        info = NAT64AddrInfo.figureOutNAT64AddrInfo(
+            new byte[] { 10, 0, 0, 1 },
+            new byte[] {
+                0x20, 0x01, 0x0d, (byte) 0xb8, 0, 0, 0, 0, 0, 0, 0, 0,
+                10, 0, 0, 1
+            });
+        now += INFO_LIFETIME + 1;
+
+        // The stale result is served while a single refresh runs.
+        cache.get(results);
+        cache.get(results);
+        assertEquals(3, results.infos.size());
+        assertSame(staleInfo, results.infos.get(2));
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals(2, discoveries);
+
+        cache.get(results);
+        assertSame(info, results.infos.get(3));
+    }
+
+    @Test
+    public void testFailureCaching() {
+        Results results = new Results();
+
+        fail = true;
+        cache.get(results);
+        runTasks();
+        assertNull(results.infos.get(0));
+
+        // Failures are remembered for a while.
+        now += NAT64AddrInfoCache.FAILURE_LIFETIME;
+        cache.get(results);
+        assertEquals(2, results.infos.size());
+        assertNull(results.infos.get(1));
+        assertTrue(tasks.isEmpty());
+
+        // And then the discovery is retried, without serving the failure.
+        fail = false;
+        now += 1;
+        cache.get(results);
+        assertEquals(2, results.infos.size());
+        runTasks();
+        assertEquals(2, discoveries);
+        assertSame(info, results.infos.get(2));
+    }
+
+    @Test
+    public void testTtl() {
+        Results results = new Results();
+
+        ttl = 300;
+        cache.get(results);
+        runTasks();
+
+        // The TTL rather than the default lifetime applies.
+        now += INFO_LIFETIME + 1;
+        cache.get(results);
+        assertTrue(tasks.isEmpty());
+
+        now = 300 * 1000 + 1;
+        cache.get(results);
+        assertEquals(1, tasks.size());
+
+        // But short TTLs do not make the discoveries run all the time.
+        ttl = 0;
+        runTasks();
+        now += NAT64AddrInfoCache.MIN_INFO_LIFETIME + 1;
+        cache.get(results);
+        runTasks();
+        now += NAT64AddrInfoCache.MIN_INFO_LIFETIME;
+        cache.get(results);
+        assertTrue(tasks.isEmpty());
+        assertEquals(3, discoveries);
+        assertEquals(5, results.infos.size());
+    }
+
+    @Test
+    public void testNetworks() {
+        Results results = new Results();
+        NAT64AddrInfo wifiInfo = info;
+
+        network = "wifi";
+        cache.get(results);
+        runTasks();
+
+        NAT64AddrInfo cellularInfo
+            = NAT64AddrInfo.figureOutNAT64AddrInfo(
+                new byte[] { 10, 0, 0, 1 },
+                new byte[] {
+                    0x20, 0x01, 0x0d, (byte) 0xb8, 0, 0, 0, 0, 0, 0, 0, 0,
+                    10, 0, 0, 1
+                });
+
+        // A fresh result of another network is not used.
+        info = cellularInfo;
+        network = "cellular";
+        cache.get(results);
+        assertEquals(1, results.infos.size());
+        runTasks();
+        assertSame(cellularInfo, results.infos.get(1));
+
+        // Going back does not discover again.
+        network = "wifi";
+        cache.get(results);
+        assertSame(wifiInfo, results.infos.get(2));
+        assertTrue(tasks.isEmpty());
+
+        // Unless the network changed in the meantime.
+        cache.invalidate("wifi");
+        cache.get(results);
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(
+            Arrays.asList("wifi", "cellular", "wifi"),
+            networks);
+    }
+
+    @Test
+    public void testInvalidateDuringDiscovery() {
+        Results results = new Results();
+
+        network = "wifi";
+        cache.get(results);
+
+        // The network changes while the discovery is in flight. Its result is
+        // still delivered to whoever waits for it but not cached.
+        cache.invalidate("wifi");
+        runTasks();
+        assertSame(info, results.infos.get(0));
+
+        cache.get(results);
+        assertEquals(1, results.infos.size());
+        assertEquals(1, tasks.size());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the byte-level {@link NAT64AddrInfo} produces exactly the same
+ * output as the string-based {@link LegacyNAT64AddrInfo} it replaced.
+ */
+public class NAT64AddrInfoEquivalenceTest {
+    /**
+     * The number of random NAT64 networks to try per prefix length.
+     */
+    private static final int NETWORKS = 200;
+
+    /**
+     * The number of random IPv4 addresses to synthesize per NAT64 network.
+     */
+    private static final int ADDRESSES = 50;
+
+    /**
+     * The prefix lengths defined by RFC 6052.
+     */
+    private static final int[] PREFIX_LENGTHS = { 32, 40, 48, 56, 64, 96 };
+
+    /**
+     * Builds the IPv6 address a NAT64 network with the given prefix length
+     * would synthesize for {@code ipv4}, using random prefix and suffix bits.
+     */
+    private static byte[] synthesize(
+            Random random,
+            int prefixLength,
+            byte[] ipv4) {
+        byte[] ipv6 = new byte[16];
+
+        random.nextBytes(ipv6);
+
+        if (prefixLength == 96) {
+            System.arraycopy(ipv4, 0, ipv6, 12, 4);
+        } else {
+            ipv6[8] = 0;
+            for (int i = 0, offset = prefixLength / 8; i < 4; offset++) {
+                if (offset != 8) {
+                    ipv6[offset] = ipv4[i++];
+                }
+            }
+        }
+
+        return ipv6;
+    }
+
+    private static byte[] randomIPv4(Random random) {
+        byte[] ipv4 = new byte[4];
+
+        random.nextBytes(ipv4);
+
+        return ipv4;
+    }
+
+    private static String toString(byte[] ipv4) {
+        return (ipv4[0] & 0xFF) + "." + (ipv4[1] & 0xFF) + "."
+            + (ipv4[2] & 0xFF) + "." + (ipv4[3] & 0xFF);
+    }
+
+    @Test
+    public void testBytesToHexString() {
+        Random random = new Random(1);
+
+        for (int length = 0; length <= 16; length++) {
+            byte[] bytes = new byte[length];
+
+            random.nextBytes(bytes);
+            assertEquals(
+                LegacyNAT64AddrInfo.bytesToHexString(bytes),
+                NAT64AddrInfo.bytesToHexString(bytes));
+        }
+    }
+
+    @Test
+    public void testHexStringToIPv6String() {
+        Random random = new Random(2);
+
+        for (int i = 0; i < 1000; i++) {
+            byte[] bytes = new byte[16];
+
+            random.nextBytes(bytes);
+
+            // Mixed case input, as the legacy code upper-cased its output.
+            String hexStr = NAT64AddrInfo.bytesToHexString(bytes);
+
+            if (random.nextBoolean()) {
+                hexStr = hexStr.toLowerCase();
+            }
+
+            assertEquals(
+                LegacyNAT64AddrInfo.hexStringToIPv6String(hexStr),
+                NAT64AddrInfo.hexStringToIPv6String(hexStr));
+        }
+    }
+
+    @Test
+    public void testIPv4AddressStringToBytes() {
+        Random random = new Random(3);
+
+        for (int i = 0; i < 1000; i++) {
+            String ipv4 = toString(randomIPv4(random));
+
+            assertArrayEquals(
+                LegacyNAT64AddrInfo.ipv4AddressStringToBytes(ipv4),
+                NAT64AddrInfo.ipv4AddressStringToBytes(ipv4));
+        }
+    }
+
+    @Test
+    public void testGetIPv6Address() {
+        Random random = new Random(4);
+
+        for (int prefixLength : PREFIX_LENGTHS) {
+            for (int n = 0; n < NETWORKS; n++) {
+                byte[] ipv4 = randomIPv4(random);
+                byte[] ipv6 = synthesize(random, prefixLength, ipv4);
+                LegacyNAT64AddrInfo legacy
+                    = LegacyNAT64AddrInfo.figureOutNAT64AddrInfo(ipv4, ipv6);
+                NAT64AddrInfo info
+                    = NAT64AddrInfo.figureOutNAT64AddrInfo(ipv4, ipv6);
+
+                // A random network may accidentally match a longer prefix
+                // first, both implementations must agree on that too.
+                assertNotNull(legacy);
+                assertNotNull(info);
+
+                for (int a = 0; a < ADDRESSES; a++) {
+                    String address = toString(randomIPv4(random));
+
+                    assertEquals(
+                        legacy.getIPv6Address(address),
+                        info.getIPv6Address(address));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoMatch() {
+        Random random = new Random(5);
+
+        for (int i = 0; i < 1000; i++) {
+            byte[] ipv4 = randomIPv4(random);
+            byte[] ipv6 = new byte[16];
+
+            random.nextBytes(ipv6);
+
+            LegacyNAT64AddrInfo legacy
+                = LegacyNAT64AddrInfo.figureOutNAT64AddrInfo(ipv4, ipv6);
+            NAT64AddrInfo info
+                = NAT64AddrInfo.figureOutNAT64AddrInfo(ipv4, ipv6);
+
+            assertEquals(legacy == null, info == null);
+        }
+    }
+}
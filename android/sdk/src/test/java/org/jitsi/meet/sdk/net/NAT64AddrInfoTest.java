@@ -137,6 +137,16 @@ public class NAT64AddrInfoTest {
     public void testInvalidIPv4Format() {
         testInvalidIPv4Format("256.1.2.3");
         testInvalidIPv4Format("FE80:CD00:0000:0CDA:1357:0000:212F:749C");
+        testInvalidIPv4Format("");
+        testInvalidIPv4Format("1.2.3");
+        testInvalidIPv4Format("1.2.3.4.");
+        testInvalidIPv4Format(".1.2.3.4");
+        testInvalidIPv4Format("1..2.3");
+        testInvalidIPv4Format("1.2.3.0004");
+        testInvalidIPv4Format("1.2.3.4.5");
+        testInvalidIPv4Format("1.2.3.-4");
+        // Host names must not trigger a DNS lookup.
+        testInvalidIPv4Format("localhost");
     }
 
     private void testInvalidIPv4Format(String ipv4Str) {
@@ -0,0 +1,143 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link NAT64Discovery} class.
+ */
+public class NAT64DiscoveryTest {
+    /**
+     * The host {@link NAT64Discovery} falls back to.
+     */
+    private static final String HOST = "nat64.example.com";
+
+    /**
+     * A {@link DnsResolver} which answers from a fixed set of records. Names
+     * without records fail.
+     */
+    private static class FakeDnsResolver extends DnsResolver {
+        final Map<String, List<DnsRecord>> records = new HashMap<>();
+
+        void add(String name, int type, String address, long ttl)
+            throws UnknownHostException {
+            String key = name + "/" + type;
+            List<DnsRecord> list = records.get(key);
+
+            if (list == null) {
+                list = new ArrayList<>();
+                records.put(key, list);
+            }
+            list.add(
+                new DnsRecord(
+                    InetAddress.getByName(address).getAddress(),
+                    ttl));
+        }
+
+        @Override
+        public List<DnsRecord> query(String name, int type)
+            throws IOException {
+            List<DnsRecord> list = records.get(name + "/" + type);
+
+            if (list == null) {
+                throw new IOException("No records for " + name);
+            }
+
+            return list;
+        }
+    }
+
+    @Test
+    public void testIPv4OnlyArpa() throws IOException {
+        FakeDnsResolver resolver = new FakeDnsResolver();
+
+        resolver.add(
+            NAT64Discovery.IPV4ONLY_ARPA, DnsResolver.TYPE_AAAA,
+            "64:ff9b::c000:aa", 600);
+        resolver.add(
+            NAT64Discovery.IPV4ONLY_ARPA, DnsResolver.TYPE_AAAA,
+            "64:ff9b::c000:ab", 300);
+        resolver.add(
+            NAT64Discovery.IPV4ONLY_ARPA, DnsResolver.TYPE_AAAA,
+            "2001:db8:100:c0:0:aa::", 900);
+
+        NAT64Discovery discovery = NAT64Discovery.discover(resolver, HOST);
+        List<NAT64AddrInfo> infos = discovery.getInfos();
+
+        // Both well-known addresses reveal the same /96 prefix, a /56 one is
+        // in use as well.
+        assertEquals(2, infos.size());
+        assertEquals(
+            "0064:FF9B:0000:0000:0000:0000:0102:0304",
+            infos.get(0).getIPv6Address("1.2.3.4"));
+        assertEquals(
+            "2001:0DB8:0100:0001:0002:0304:0000:0000",
+            infos.get(1).getIPv6Address("1.2.3.4"));
+        assertEquals(300, discovery.getTtl());
+    }
+
+    @Test
+    public void testHostFallback() throws IOException {
+        FakeDnsResolver resolver = new FakeDnsResolver();
+
+        resolver.add(HOST, DnsResolver.TYPE_A, "203.0.113.1", 60);
+        resolver.add(HOST, DnsResolver.TYPE_AAAA, "64:ff9b::cb00:7101", 30);
+
+        NAT64Discovery discovery = NAT64Discovery.discover(resolver, HOST);
+
+        assertEquals(1, discovery.getInfos().size());
+        assertEquals(
+            "0064:FF9B:0000:0000:0000:0000:0102:0304",
+            discovery.getInfos().get(0).getIPv6Address("1.2.3.4"));
+        assertEquals(30, discovery.getTtl());
+    }
+
+    @Test
+    public void testNotNAT64() throws IOException {
+        FakeDnsResolver resolver = new FakeDnsResolver();
+
+        resolver.records.put(
+            NAT64Discovery.IPV4ONLY_ARPA + "/" + DnsResolver.TYPE_AAAA,
+            new ArrayList<DnsRecord>());
+
+        // The DNS answered so the failure to query the host does not matter.
+        NAT64Discovery discovery = NAT64Discovery.discover(resolver, HOST);
+
+        assertTrue(discovery.getInfos().isEmpty());
+        assertEquals(DnsRecord.TTL_UNKNOWN, discovery.getTtl());
+    }
+
+    @Test
+    public void testFailure() {
+        try {
+            NAT64Discovery.discover(new FakeDnsResolver(), HOST);
+            fail("Did not throw IOException");
+        } catch (IOException e) {
+            /* OK */
+        }
+    }
+}
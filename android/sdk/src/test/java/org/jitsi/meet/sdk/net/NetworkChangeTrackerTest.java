@@ -0,0 +1,114 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link NetworkChangeTracker} class.
+ */
+public class NetworkChangeTrackerTest {
+    private static final ConnectionInfo CELLULAR_4G
+        = new ConnectionInfo(
+            ConnectionInfo.TRANSPORT_CELLULAR,
+            true,
+            ConnectionInfo.UNKNOWN,
+            ConnectionInfo.UNKNOWN,
+            ConnectionInfo.UNKNOWN,
+            ConnectionInfo.GENERATION_4G);
+
+    private static final ConnectionInfo WIFI
+        = new ConnectionInfo(
+            ConnectionInfo.TRANSPORT_WIFI,
+            false,
+            50000,
+            20000,
+            4,
+            null);
+
+    @Test
+    public void testAvailableAndLost() {
+        NetworkChangeTracker<String> tracker = new NetworkChangeTracker<>();
+
+        assertNull(tracker.getNetwork());
+        assertEquals(
+            NetworkChangeTracker.AVAILABLE,
+            tracker.onAvailable("wifi", WIFI));
+        assertEquals("wifi", tracker.getNetwork());
+
+        // Networks other than the default one are of no interest.
+        assertNull(tracker.onLost("cellular"));
+        assertNull(tracker.onChanged("cellular", CELLULAR_4G));
+
+        assertEquals(NetworkChangeTracker.LOST, tracker.onLost("wifi"));
+        assertNull(tracker.getNetwork());
+        assertNull(tracker.onLost("wifi"));
+
+        assertEquals(
+            NetworkChangeTracker.AVAILABLE,
+            tracker.onAvailable("cellular", CELLULAR_4G));
+    }
+
+    @Test
+    public void testChanged() {
+        NetworkChangeTracker<String> tracker = new NetworkChangeTracker<>();
+
+        tracker.onAvailable("wifi", WIFI);
+
+        // The bandwidth changed but not enough to matter.
+        assertNull(
+            tracker.onChanged(
+                "wifi",
+                new ConnectionInfo(
+                    ConnectionInfo.TRANSPORT_WIFI, false, 40000, 10000, 3,
+                    null)));
+
+        // The signal became poor.
+        assertEquals(
+            NetworkChangeTracker.CHANGED,
+            tracker.onChanged(
+                "wifi",
+                new ConnectionInfo(
+                    ConnectionInfo.TRANSPORT_WIFI, false, 40000, 10000, 1,
+                    null)));
+
+        // Became metered e.g. a tethering hotspot was detected.
+        assertEquals(
+            NetworkChangeTracker.CHANGED,
+            tracker.onAvailable(
+                "wifi",
+                new ConnectionInfo(
+                    ConnectionInfo.TRANSPORT_WIFI, true, 40000, 10000, 1,
+                    null)));
+    }
+
+    @Test
+    public void testSwitched() {
+        NetworkChangeTracker<String> tracker = new NetworkChangeTracker<>();
+
+        tracker.onAvailable("wifi", WIFI);
+        assertEquals(
+            NetworkChangeTracker.SWITCHED,
+            tracker.onAvailable("cellular", CELLULAR_4G));
+        assertEquals("cellular", tracker.getNetwork());
+
+        // The previous default network is lost after the switch.
+        assertNull(tracker.onLost("wifi"));
+        assertEquals("cellular", tracker.getNetwork());
+    }
+}
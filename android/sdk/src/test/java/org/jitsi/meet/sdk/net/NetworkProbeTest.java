@@ -0,0 +1,188 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link NetworkProbe} class against a {@link LoopbackServer}.
+ */
+public class NetworkProbeTest {
+    @Test
+    public void testCancel() throws Exception {
+        LoopbackServer server
+            = new LoopbackServer(
+                NetworkProbe.MAX_DOWNLOAD_BYTES,
+                Collections.<Integer>emptySet());
+
+        try {
+            // Hold the download up so that the probe is cancelled midway.
+            server.getLatch = new CountDownLatch(1);
+
+            final NetworkProbe probe
+                = new NetworkProbe(server.getHttpURL(), null);
+            final AtomicReference<NetworkProbeResult> result
+                = new AtomicReference<>();
+            final CountDownLatch completed = new CountDownLatch(1);
+
+            probe.start(new NetworkProbe.Listener() {
+                @Override
+                public void onNetworkProbeCompleted(NetworkProbeResult r) {
+                    result.set(r);
+                    completed.countDown();
+                }
+            });
+
+            assertTrue(server.getReceived.await(5, TimeUnit.SECONDS));
+            probe.cancel();
+            assertTrue(probe.isCancelled());
+            server.getLatch.countDown();
+
+            assertFalse(completed.await(1, TimeUnit.SECONDS));
+            assertNull(result.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testLoopback() throws Exception {
+        LoopbackServer server
+            = new LoopbackServer(
+                NetworkProbe.MAX_DOWNLOAD_BYTES,
+                Collections.<Integer>emptySet());
+
+        try {
+            NetworkProbeResult result
+                = new NetworkProbe(
+                        server.getHttpURL(),
+                        server.getUdpEchoAddress())
+                    .run();
+
+            assertNotNull(result);
+            assertTrue(result.isReachable());
+            assertTrue(result.getHttpRtt() >= 0);
+            assertTrue(result.getHttpJitter() >= 0);
+            assertTrue(result.getDownstreamThroughput() > 0);
+            assertTrue(result.getUdpRtt() >= 0);
+            assertTrue(result.getUdpJitter() >= 0);
+            assertEquals(0, result.getUdpLoss(), 0);
+            assertEquals(720, result.getRecommendedMaxReceiveHeight());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testMedianAndJitter() {
+        double[] values = { 10, 30, 20, 40 };
+
+        assertEquals(20, NetworkProbe.median(values, 3), 0);
+        assertEquals(25, NetworkProbe.median(values, 4), 0);
+        assertEquals(
+            NetworkProbeResult.UNKNOWN,
+            NetworkProbe.median(values, 0),
+            0);
+
+        // |30-10| + |20-30| + |40-20| over 3.
+        assertEquals(50 / 3d, NetworkProbe.jitter(values, 4), 1e-9);
+        assertEquals(
+            NetworkProbeResult.UNKNOWN,
+            NetworkProbe.jitter(values, 1),
+            0);
+    }
+
+    @Test
+    public void testSmallBody() throws Exception {
+        // Too small a body to tell the throughput.
+        LoopbackServer server
+            = new LoopbackServer(1024, Collections.<Integer>emptySet());
+
+        try {
+            NetworkProbeResult result
+                = new NetworkProbe(server.getHttpURL(), null).run();
+
+            assertTrue(result.isReachable());
+            assertEquals(
+                NetworkProbeResult.UNKNOWN,
+                result.getDownstreamThroughput());
+            assertEquals(NetworkProbeResult.UNKNOWN, result.getUdpRtt(), 0);
+            assertEquals(NetworkProbeResult.UNKNOWN, result.getUdpLoss(), 0);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testUdpLoss() throws Exception {
+        Set<Integer> droppedSeqs = new HashSet<>(Arrays.asList(3, 7));
+        LoopbackServer server
+            = new LoopbackServer(NetworkProbe.MAX_DOWNLOAD_BYTES, droppedSeqs);
+
+        try {
+            NetworkProbeResult result
+                = new NetworkProbe(
+                        server.getHttpURL(),
+                        server.getUdpEchoAddress())
+                    .run();
+
+            assertEquals(
+                droppedSeqs.size() / (double) NetworkProbe.UDP_PACKETS,
+                result.getUdpLoss(),
+                1e-9);
+
+            // Lossy links get a lower resolution.
+            assertEquals(360, result.getRecommendedMaxReceiveHeight());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testUnreachable() throws IOException {
+        // A port nobody listens on.
+        ServerSocket serverSocket = new ServerSocket(0);
+        int port = serverSocket.getLocalPort();
+
+        serverSocket.close();
+
+        NetworkProbeResult result
+            = new NetworkProbe(
+                    new URL("http://127.0.0.1:" + port + "/room"),
+                    null)
+                .run();
+
+        assertFalse(result.isReachable());
+        assertEquals(NetworkProbeResult.UNKNOWN, result.getHttpRtt(), 0);
+        assertEquals(
+            NetworkProbeResult.UNKNOWN,
+            result.getDownstreamThroughput());
+        assertEquals(180, result.getRecommendedMaxReceiveHeight());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright @ 2018-present Atlassian Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jitsi.meet.sdk.net;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link VideoConstraints} class.
+ */
+public class VideoConstraintsTest {
+    private static ConnectionInfo cellular(String generation, int signalLevel) {
+        return
+            new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_CELLULAR,
+                true,
+                ConnectionInfo.UNKNOWN,
+                ConnectionInfo.UNKNOWN,
+                signalLevel,
+                generation);
+    }
+
+    private static void assertConstraints(
+            int maxSendHeight,
+            int maxReceiveHeight,
+            ConnectionInfo info) {
+        VideoConstraints constraints = VideoConstraints.recommend(info);
+
+        assertEquals(maxSendHeight, constraints.getMaxSendHeight());
+        assertEquals(maxReceiveHeight, constraints.getMaxReceiveHeight());
+    }
+
+    @Test
+    public void testBandwidthEstimates() {
+        assertConstraints(
+            720, 720,
+            new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_WIFI, false, 50000, 20000, 4, null));
+        assertConstraints(
+            360, 720,
+            new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_WIFI, false, 2500, 2499, 4, null));
+        assertConstraints(
+            180, 360,
+            new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_ETHERNET, false, 800, 799,
+                ConnectionInfo.UNKNOWN, null));
+
+        // The estimates of the system take precedence over the generation.
+        assertConstraints(
+            180, 180,
+            new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_CELLULAR, true, 500, 100,
+                ConnectionInfo.UNKNOWN, ConnectionInfo.GENERATION_4G));
+    }
+
+    @Test
+    public void testCellularGeneration() {
+        assertEquals(
+            ConnectionInfo.GENERATION_2G,
+            ConnectionInfo.getCellularGeneration(2 /* EDGE */));
+        assertEquals(
+            ConnectionInfo.GENERATION_3G,
+            ConnectionInfo.getCellularGeneration(15 /* HSPAP */));
+        assertEquals(
+            ConnectionInfo.GENERATION_4G,
+            ConnectionInfo.getCellularGeneration(13 /* LTE */));
+        assertEquals(
+            ConnectionInfo.GENERATION_5G,
+            ConnectionInfo.getCellularGeneration(20 /* NR */));
+        assertNull(ConnectionInfo.getCellularGeneration(0 /* UNKNOWN */));
+
+        int unknown = ConnectionInfo.UNKNOWN;
+
+        assertConstraints(
+            180, 180, cellular(ConnectionInfo.GENERATION_2G, unknown));
+        assertConstraints(
+            180, 360, cellular(ConnectionInfo.GENERATION_3G, unknown));
+        assertConstraints(
+            720, 720, cellular(ConnectionInfo.GENERATION_4G, unknown));
+        assertConstraints(
+            720, 720, cellular(ConnectionInfo.GENERATION_5G, unknown));
+        assertConstraints(360, 360, cellular(null, unknown));
+    }
+
+    @Test
+    public void testNoBandwidthEstimate() {
+        // NetworkCapabilities reports 0 kbps when it has no estimate.
+        assertEquals(ConnectionInfo.UNKNOWN, ConnectionInfo.getBandwidth(0));
+        assertEquals(800, ConnectionInfo.getBandwidth(800));
+
+        ConnectionInfo vpn
+            = new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_VPN, false, 0, 0,
+                ConnectionInfo.UNKNOWN, null);
+
+        assertEquals(ConnectionInfo.UNKNOWN, vpn.getDownstreamBandwidth());
+        assertEquals(ConnectionInfo.UNKNOWN, vpn.getUpstreamBandwidth());
+        assertConstraints(720, 720, vpn);
+
+        // The typical bandwidths of the generation apply.
+        assertConstraints(
+            720, 720,
+            new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_CELLULAR, true, 0, 0,
+                ConnectionInfo.UNKNOWN, ConnectionInfo.GENERATION_4G));
+        assertConstraints(
+            180, 360,
+            new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_CELLULAR, true, 0, 0,
+                ConnectionInfo.UNKNOWN, ConnectionInfo.GENERATION_3G));
+    }
+
+    @Test
+    public void testNone() {
+        assertConstraints(180, 180, ConnectionInfo.NONE);
+    }
+
+    @Test
+    public void testPoorSignal() {
+        assertConstraints(
+            360, 360, cellular(ConnectionInfo.GENERATION_4G, 1));
+        assertConstraints(
+            720, 720, cellular(ConnectionInfo.GENERATION_4G, 2));
+        assertConstraints(
+            180, 180, cellular(ConnectionInfo.GENERATION_2G, 0));
+    }
+
+    @Test
+    public void testUnknown() {
+        // Without any estimate, do not hold a WiFi or Ethernet network back.
+        assertConstraints(
+            720, 720,
+            new ConnectionInfo(
+                ConnectionInfo.TRANSPORT_WIFI, false,
+                ConnectionInfo.UNKNOWN, ConnectionInfo.UNKNOWN,
+                ConnectionInfo.UNKNOWN, null));
+    }
+}
@@ -36,7 +36,8 @@ export const CONFERENCE_LEFT = Symbol('CONFERENCE_LEFT');
  *
  * {
  *     type: CONFERENCE_WILL_JOIN,
- *     conference: JitsiConference
+ *     conference: JitsiConference,
+ *     videoConstraints: ?Object
  * }
  */
 export const CONFERENCE_WILL_JOIN = Symbol('CONFERENCE_WILL_JOIN');
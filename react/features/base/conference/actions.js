@@ -243,9 +243,11 @@ export function conferenceLeft(conference: Object) {
  *
  * @param {JitsiConference} conference - The {@code JitsiConference} instance
  * the local participant will (try to) join.
+ * @param {Object} [videoConstraints] - The video constraints recommended for
+ * the active network, if any.
  * @returns {Function}
  */
-function _conferenceWillJoin(conference: Object) {
+function _conferenceWillJoin(conference: Object, videoConstraints: ?Object) {
     return (dispatch: Dispatch<*>, getState: Function) => {
         const localTracks
             = getLocalTracks(getState()['features/base/tracks'])
@@ -255,7 +257,7 @@ function _conferenceWillJoin(conference: Object) {
             _addLocalTracksToConference(conference, localTracks);
         }
 
-        dispatch(conferenceWillJoin(conference));
+        dispatch(conferenceWillJoin(conference, videoConstraints));
     };
 }
 
@@ -265,15 +267,22 @@ function _conferenceWillJoin(conference: Object) {
  *
  * @param {JitsiConference} conference - The {@code JitsiConference} instance
  * the local participant will (try to) join.
+ * @param {Object} [videoConstraints] - The video constraints recommended for
+ * the active network i.e. an object with maxSendHeight and maxReceiveHeight.
+ * They are applied once the conference is joined.
  * @returns {{
  *     type: CONFERENCE_WILL_JOIN,
- *     conference: JitsiConference
+ *     conference: JitsiConference,
+ *     videoConstraints: ?Object
  * }}
  */
-export function conferenceWillJoin(conference: Object) {
+export function conferenceWillJoin(
+        conference: Object,
+        videoConstraints: ?Object) {
     return {
         type: CONFERENCE_WILL_JOIN,
-        conference
+        conference,
+        videoConstraints
     };
 }
 
@@ -298,46 +307,79 @@ export function conferenceWillLeave(conference: Object) {
 }
 
 /**
- * Initializes a new conference.
+ * Initializes a new conference. On mobile, the video constraints which the
+ * native side recommends for the active network are retrieved before the
+ * conference is joined and applied once it is joined.
  *
  * @returns {Function}
  */
 export function createConference() {
     return (dispatch: Function, getState: Function) => {
-        const state = getState();
-        const { connection, locationURL } = state['features/base/connection'];
+        const { connection, locationURL }
+            = getState()['features/base/connection'];
 
         if (!connection) {
             throw new Error('Cannot create a conference without a connection!');
         }
 
-        const { password, room } = state['features/base/conference'];
+        const { password, room } = getState()['features/base/conference'];
 
         if (!room) {
             throw new Error('Cannot join a conference without a room name!');
         }
 
-        const conference
-            = connection.initJitsiConference(
+        return _getRecommendedVideoConstraints().then(videoConstraints => {
+            const state = getState();
 
-                // XXX Lib-jitsi-meet does not accept uppercase letters.
-                room.toLowerCase(), {
-                    ...state['features/base/config'],
-                    applicationName: getName(),
-                    getWiFiStatsMethod: getJitsiMeetGlobalNS().getWiFiStats
-                });
+            // The connection may have been disconnected in the meantime.
+            if (state['features/base/connection'].connection !== connection) {
+                return;
+            }
+
+            const conference
+                = connection.initJitsiConference(
 
-        conference[JITSI_CONFERENCE_URL_KEY] = locationURL;
-        dispatch(_conferenceWillJoin(conference));
+                    // XXX Lib-jitsi-meet does not accept uppercase letters.
+                    room.toLowerCase(), {
+                        ...state['features/base/config'],
+                        applicationName: getName(),
+                        getWiFiStatsMethod: getJitsiMeetGlobalNS().getWiFiStats
+                    });
 
-        _addConferenceListeners(conference, dispatch);
+            conference[JITSI_CONFERENCE_URL_KEY] = locationURL;
+            dispatch(_conferenceWillJoin(conference, videoConstraints));
 
-        sendLocalParticipant(state, conference);
+            _addConferenceListeners(conference, dispatch);
 
-        conference.join(password);
+            sendLocalParticipant(getState(), conference);
+
+            conference.join(password);
+        });
     };
 }
 
+/**
+ * Gets the video constraints which the native side recommends for the active
+ * network, if it recommends any.
+ *
+ * @private
+ * @returns {Promise<?Object>} A {@code Promise} which resolves with an object
+ * with maxSendHeight and maxReceiveHeight or with {@code undefined} if there
+ * is no recommendation. It is never rejected.
+ */
+function _getRecommendedVideoConstraints() {
+    const { getConnectionInfo } = getJitsiMeetGlobalNS();
+
+    if (typeof getConnectionInfo !== 'function') {
+        return Promise.resolve(undefined);
+    }
+
+    return (
+        getConnectionInfo()
+            .then(({ videoConstraints }) => videoConstraints)
+            .catch(() => undefined));
+}
+
 /**
  * Will try to join the conference again in case it failed earlier with
  * {@link JitsiConferenceErrors.AUTHENTICATION_REQUIRED}. It means that Jicofo
@@ -7,7 +7,8 @@ import { toState } from '../redux';
 import {
     AVATAR_ID_COMMAND,
     AVATAR_URL_COMMAND,
-    EMAIL_COMMAND
+    EMAIL_COMMAND,
+    VIDEO_QUALITY_LEVELS
 } from './constants';
 
 /**
@@ -60,6 +61,25 @@ export function getCurrentConference(stateful: Function | Object) {
             : joining);
 }
 
+/**
+ * Gets the maximum resolution of the remote video to be received in the
+ * conference which is joining or joined i.e. the highest one unless the video
+ * constraints recommended for the active network cap it.
+ *
+ * @param {Object} state - The redux state of the feature base/conference.
+ * @returns {number}
+ */
+export function getMaxReceiveVideoQuality(state: Object) {
+    const { videoConstraints } = state;
+    const maxReceiveHeight
+        = videoConstraints && videoConstraints.maxReceiveHeight;
+
+    return (
+        maxReceiveHeight > 0
+            ? Math.min(maxReceiveHeight, VIDEO_QUALITY_LEVELS.HIGH)
+            : VIDEO_QUALITY_LEVELS.HIGH);
+}
+
 /**
  * Handle an error thrown by the backend (i.e. lib-jitsi-meet) while
  * manipulating a conference participant (e.g. pin or select participant).
@@ -8,7 +8,11 @@ import {
     sendAnalytics
 } from '../../analytics';
 import { CONNECTION_ESTABLISHED } from '../connection';
-import { setVideoMuted, VIDEO_MUTISM_AUTHORITY } from '../media';
+import {
+    MEDIA_TYPE,
+    setVideoMuted,
+    VIDEO_MUTISM_AUTHORITY
+} from '../media';
 import {
     getLocalParticipant,
     getParticipantById,
@@ -17,7 +21,14 @@ import {
 } from '../participants';
 import { MiddlewareRegistry } from '../redux';
 import UIEvents from '../../../../service/UI/UIEvents';
-import { TRACK_ADDED, TRACK_REMOVED } from '../tracks';
+import {
+    TRACK_ADDED,
+    TRACK_REMOVED,
+    createLocalTracksF,
+    getLocalVideoTrack,
+    replaceLocalTrack,
+    setTrackMuted
+} from '../tracks';
 
 import {
     conferenceLeft,
@@ -43,6 +54,13 @@ import {
 
 const logger = require('jitsi-meet-logger').getLogger(__filename);
 
+/**
+ * The height of the video lib-jitsi-meet captures unless told otherwise.
+ *
+ * @type {number}
+ */
+const DEFAULT_RESOLUTION = 720;
+
 declare var APP: Object;
 
 /**
@@ -141,9 +159,81 @@ function _conferenceJoined({ dispatch, getState }, next, action) {
     // and the LastN value needs to be synchronized here.
     audioOnly && conference.getLastN() !== 0 && dispatch(setLastN(0));
 
+    _constrainLocalVideoTrack({ dispatch, getState }, conference);
+
     return result;
 }
 
+/**
+ * Re-creates the local video track of a specific conference with a lower
+ * resolution if it captures more than the video constraints recommended for
+ * the active network allow to send.
+ *
+ * @param {Store} store - The redux store.
+ * @param {JitsiConference} conference - The joined conference.
+ * @private
+ * @returns {void}
+ */
+function _constrainLocalVideoTrack({ dispatch, getState }, conference) {
+    const state = getState();
+    const { videoConstraints } = state['features/base/conference'];
+    const maxSendHeight = videoConstraints && videoConstraints.maxSendHeight;
+
+    if (!(maxSendHeight > 0)) {
+        return;
+    }
+
+    const localVideoTrack = getLocalVideoTrack(state['features/base/tracks']);
+
+    if (!localVideoTrack || localVideoTrack.videoType !== 'camera') {
+        return;
+    }
+
+    const { jitsiTrack } = localVideoTrack;
+    const resolution
+        = jitsiTrack.resolution
+            || state['features/base/config'].resolution
+            || DEFAULT_RESOLUTION;
+
+    if (resolution <= maxSendHeight) {
+        return;
+    }
+
+    createLocalTracksF(
+            {
+                devices: [ MEDIA_TYPE.VIDEO ],
+                facingMode: jitsiTrack.getCameraFacingMode(),
+                resolution: maxSendHeight
+            },
+            /* firePermissionPromptIsShownEvent */ false,
+            {
+                dispatch,
+                getState
+            })
+        .then(([ newTrack ]) => {
+            const nextState = getState();
+
+            // The conference may have been left or the track replaced in the
+            // meantime.
+            if (nextState['features/base/conference'].conference !== conference
+                    || getLocalVideoTrack(nextState['features/base/tracks'])
+                        !== localVideoTrack) {
+                return newTrack.dispose();
+            }
+
+            // XXX replaceLocalTrack applies the mute state of the new track
+            // to the app so carry the current one over.
+            return setTrackMuted(newTrack, jitsiTrack.isMuted())
+                .then(() =>
+                    dispatch(
+                        replaceLocalTrack(jitsiTrack, newTrack, conference)));
+        })
+        .catch(error =>
+            logger.warn(
+                `Failed to constrain the local video to ${maxSendHeight}`,
+                error));
+}
+
 /**
  * Notifies the feature base/conference that the action
  * {@code CONNECTION_ESTABLISHED} is being dispatched within a specific redux
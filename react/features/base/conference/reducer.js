@@ -22,8 +22,7 @@ import {
     SET_SIP_GATEWAY_ENABLED,
     SET_START_MUTED_POLICY
 } from './actionTypes';
-import { VIDEO_QUALITY_LEVELS } from './constants';
-import { isRoomValid } from './functions';
+import { getMaxReceiveVideoQuality, isRoomValid } from './functions';
 
 /**
  * Listen for actions that contain the conference object, so that it can be
@@ -188,11 +187,12 @@ function _conferenceJoined(state, { conference }) {
 
         /**
          * The current resolution restraint on receiving remote video. By
-         * default the conference will send the highest level possible.
+         * default the conference will send the highest level possible unless
+         * a lower one is recommended for the active network.
          *
          * @type number
          */
-        receiveVideoQuality: VIDEO_QUALITY_LEVELS.HIGH
+        receiveVideoQuality: getMaxReceiveVideoQuality(state)
     });
 }
 
@@ -247,10 +247,19 @@ function _conferenceLeft(state, { conference }) {
  * @returns {Object} The new state of the feature base/conference after the
  * reduction of the specified action.
  */
-function _conferenceWillJoin(state, { conference }) {
+function _conferenceWillJoin(state, { conference, videoConstraints }) {
     return assign(state, {
         error: undefined,
-        joining: conference
+        joining: conference,
+
+        /**
+         * The video constraints recommended for the active network at the
+         * time the conference was joined i.e. an object with maxSendHeight and
+         * maxReceiveHeight, if any.
+         *
+         * @type {Object}
+         */
+        videoConstraints
     });
 }
 
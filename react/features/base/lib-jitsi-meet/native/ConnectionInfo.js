@@ -0,0 +1,13 @@
+import { NativeModules } from 'react-native';
+import { getJitsiMeetGlobalNS } from '../../util';
+
+/**
+ * If ConnectionInfo native module exist attach it to JitsiMeetGlobalNS. It
+ * resolves with the properties of the active network and the video
+ * constraints (maxSendHeight and maxReceiveHeight) recommended for it, to be
+ * applied before joining a conference.
+ */
+if (NativeModules.ConnectionInfo) {
+    getJitsiMeetGlobalNS().getConnectionInfo
+        = NativeModules.ConnectionInfo.getConnectionInfo;
+}
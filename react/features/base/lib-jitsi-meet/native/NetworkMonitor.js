@@ -0,0 +1,35 @@
+import { NativeEventEmitter, NativeModules } from 'react-native';
+import { getJitsiMeetGlobalNS } from '../../util';
+
+/**
+ * The name of the event with which the NetworkMonitor native module reports
+ * changes of the default network.
+ */
+const NETWORK_CHANGED
+    = 'org.jitsi.meet:features/base/lib-jitsi-meet#networkChanged';
+
+/**
+ * If NetworkMonitor native module exist attach a way to listen to it to
+ * JitsiMeetGlobalNS.
+ */
+if (NativeModules.NetworkMonitor) {
+    const emitter = new NativeEventEmitter(NativeModules.NetworkMonitor);
+
+    /**
+     * Adds a listener to be invoked as soon as the default network becomes
+     * available, is lost, is switched to another network or its properties
+     * change significantly e.g. in order to restart ICE and reconnect XMPP
+     * right away.
+     *
+     * @param {Function} listener - The function to invoke with an object
+     * with the type of the change ('available', 'switched', 'changed' or
+     * 'lost') and the connectionInfo of the default network, if any.
+     * @returns {Function} The function to invoke in order to remove the
+     * listener.
+     */
+    getJitsiMeetGlobalNS().addNetworkChangeListener = listener => {
+        const subscription = emitter.addListener(NETWORK_CHANGED, listener);
+
+        return () => subscription.remove();
+    };
+}
@@ -277,6 +277,36 @@ const _synthesizeIPv6FromIPv4Address: string => Promise<?string> = (function() {
                 + ' NAT64AddrInfo.getIPv6Address!');
 })();
 
+/**
+ * Synthesizes IPv6 addresses from specific IPv4 addresses. Uses
+ * NAT64AddrInfo.getIPv6Addresses where available so that all addresses cost a
+ * single crossing of the React Native bridge.
+ *
+ * @param {Array<string>} ipv4s - The IPv4 addresses from which IPv6 addresses
+ * are to be synthesized.
+ * @returns {Promise<Array<?string>>} A {@code Promise} which gets resolved
+ * with the IPv6 addresses synthesized from the specified {@code ipv4s}, in the
+ * same order, where a falsy value is to be treated as inability to synthesize
+ * an IPv6 address from the respective IPv4 address.
+ */
+const _synthesizeIPv6FromIPv4Addresses: Array<string> => Promise<Array<?string>>
+    = (function() {
+        const { NAT64AddrInfo, POSIX } = NativeModules;
+
+        if (!(POSIX && typeof POSIX.getaddrinfo === 'function')
+                && NAT64AddrInfo
+                && typeof NAT64AddrInfo.getIPv6Addresses === 'function') {
+            return ipv4s =>
+                ipv4s.length
+                    ? NAT64AddrInfo.getIPv6Addresses(ipv4s)
+                    : Promise.resolve([]);
+        }
+
+        return ipv4s =>
+            Promise.all(
+                ipv4s.map(ipv4 => _synthesizeIPv6FromIPv4Address(ipv4)));
+    })();
+
 /**
  * Synthesizes IPv6 addresses on iOS in order to support IPv6 NAT64 networks.
  *
@@ -288,10 +318,25 @@ const _synthesizeIPv6FromIPv4Address: string => Promise<?string> = (function() {
 function _synthesizeIPv6Addresses(sdp) {
     return (
         new Promise(resolve => resolve(_synthesizeIPv6Addresses0(sdp)))
-            .then(({ ips, lines }) =>
-                Promise.all(Array.from(ips.values()))
-                    .then(() => _synthesizeIPv6Addresses1(sdp, ips, lines))
-            ));
+            .then(({ ips, lines }) => {
+                const ip4s = Array.from(ips.keys());
+
+                return (
+                    _synthesizeIPv6FromIPv4Addresses(ip4s)
+                        .then(ip6s => {
+                            ip4s.forEach((ip4, i) => {
+                                const ip6 = ip6s && ip6s[i];
+
+                                if (ip6 && ip6.indexOf(':') !== -1) {
+                                    ips.set(ip4, ip6);
+                                } else {
+                                    ips.delete(ip4);
+                                }
+                            });
+
+                            return _synthesizeIPv6Addresses1(sdp, ips, lines);
+                        }));
+            }));
 }
 
 /* eslint-disable max-depth */
@@ -343,27 +388,7 @@ function _synthesizeIPv6Addresses0(sessionDescription) {
 
                 for (const ip of ip4s) {
                     if (ip.indexOf(':') === -1) {
-                        ips.has(ip)
-                            || ips.set(ip, new Promise((resolve, reject) => {
-                                const v = ips.get(ip);
-
-                                if (v && typeof v === 'string') {
-                                    resolve(v);
-                                } else {
-                                    _synthesizeIPv6FromIPv4Address(ip).then(
-                                        value => {
-                                            if (!value
-                                                    || value.indexOf(':') === -1
-                                                    || value === ips.get(ip)) {
-                                                ips.delete(ip);
-                                            } else {
-                                                ips.set(ip, value);
-                                            }
-                                            resolve(value);
-                                        },
-                                        reject);
-                                }
-                            }));
+                        ips.has(ip) || ips.set(ip, undefined);
                     } else {
                         abort = true;
                         break;
@@ -1,9 +1,82 @@
-import { NativeModules } from 'react-native';
+import { NativeEventEmitter, NativeModules } from 'react-native';
 import { getJitsiMeetGlobalNS } from '../../util';
 
+/**
+ * The name of the event with which the WiFiStats native module emits changes
+ * of its prediction of the link quality while subscribed to.
+ */
+const LINK_QUALITY = 'org.jitsi.meet:features/base/lib-jitsi-meet#linkQuality';
+
+/**
+ * The name of the event with which the WiFiStats native module emits batches
+ * of samples while subscribed to.
+ */
+const WIFI_STATS = 'org.jitsi.meet:features/base/lib-jitsi-meet#wiFiStats';
+
 /**
  * If WiFiStats native module exist attach it to JitsiMeetGlobalNS.
  */
 if (NativeModules.WiFiStats) {
-    getJitsiMeetGlobalNS().getWiFiStats = NativeModules.WiFiStats.getWiFiStats;
+    const { WiFiStats } = NativeModules;
+
+    getJitsiMeetGlobalNS().getWiFiStats = WiFiStats.getWiFiStats;
+
+    // XXX getWiFiStats resolves with a JSON string for the sake of older
+    // JavaScript while getWiFiStatsMap resolves with an object which does not
+    // have to be parsed.
+    getJitsiMeetGlobalNS().getWiFiStatsMap = WiFiStats.getWiFiStatsMap;
+
+    if (WiFiStats.subscribe) {
+        /**
+         * Starts sampling the WiFi stats periodically and invokes a specific
+         * listener with batches of samples. There may be a single subscriber
+         * at a time.
+         *
+         * @param {Function} listener - The function to invoke with each batch
+         * of samples, an object with arrays of equal length named timestamp,
+         * rssi, signal, linkSpeed and frequency.
+         * @param {number} interval - The interval in milliseconds at which to
+         * take samples or 0 for the default.
+         * @param {number} batchSize - The number of samples per batch or 0 for
+         * the default.
+         * @returns {Function} The function to invoke in order to stop
+         * sampling.
+         */
+        getJitsiMeetGlobalNS().subscribeWiFiStats
+            = (listener, interval = 0, batchSize = 0) => {
+                const subscription
+                    = new NativeEventEmitter(WiFiStats).addListener(
+                        WIFI_STATS,
+                        listener);
+
+                WiFiStats.subscribe(interval, batchSize);
+
+                return () => {
+                    subscription.remove();
+                    WiFiStats.unsubscribe();
+                };
+            };
+
+        /**
+         * Adds a listener to be invoked whenever the WiFiStats native module
+         * predicts that the WiFi link starts or stops degrading, before packet
+         * loss starts. The predictions are made from the samples taken while
+         * subscribed to with {@code subscribeWiFiStats}.
+         *
+         * @param {Function} listener - The function to invoke with the
+         * prediction, an object with degrading (boolean), reasons (an array of
+         * 'rssiTrend', 'linkSpeed' and/or 'roaming'), rssi, timestamp and, if
+         * known, slope (dBm per second) and predictedRssi.
+         * @returns {Function} The function to invoke in order to remove the
+         * listener.
+         */
+        getJitsiMeetGlobalNS().addLinkQualityListener = listener => {
+            const subscription
+                = new NativeEventEmitter(WiFiStats).addListener(
+                    LINK_QUALITY,
+                    listener);
+
+            return () => subscription.remove();
+        };
+    }
 }
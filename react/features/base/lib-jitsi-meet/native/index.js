@@ -1,2 +1,4 @@
+import './ConnectionInfo';
+import './NetworkMonitor';
 import './polyfills-browser';
 import './WiFiStats';
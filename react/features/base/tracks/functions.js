@@ -15,8 +15,12 @@ const logger = require('jitsi-meet-logger').getLogger(__filename);
  * {@code undefined} to use app's settings.
  * @param {string[]} options.devices - Required track types such as 'audio'
  * and/or 'video'.
+ * @param {string} [options.facingMode] - The facing mode of the camera to
+ * capture video from.
  * @param {string|null} [options.micDeviceId] - Microphone device id or
  * {@code undefined} to use app's settings.
+ * @param {number} [options.resolution] - The height of the video to capture or
+ * {@code undefined} to use the resolution from the config.
  * @param {boolean} [firePermissionPromptIsShownEvent] - Whether lib-jitsi-meet
  * should check for a {@code getUserMedia} permission prompt and fire a
  * corresponding event.
@@ -66,9 +70,10 @@ export function createLocalTracksF(
 
                 // Copy array to avoid mutations inside library.
                 devices: options.devices.slice(0),
+                facingMode: options.facingMode,
                 firefox_fake_device, // eslint-disable-line camelcase
                 micDeviceId,
-                resolution
+                resolution: options.resolution || resolution
             },
             firePermissionPromptIsShownEvent)
         .then(tracks => {
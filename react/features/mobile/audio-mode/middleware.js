@@ -1,16 +1,35 @@
 /* @flow */
 
-import { NativeModules } from 'react-native';
+import { NativeEventEmitter, NativeModules } from 'react-native';
 
-import { APP_WILL_MOUNT } from '../../app';
+import { APP_WILL_MOUNT, APP_WILL_UNMOUNT } from '../../app';
 import {
     CONFERENCE_FAILED,
     CONFERENCE_LEFT,
     CONFERENCE_JOINED,
     SET_AUDIO_ONLY
 } from '../../base/conference';
+import { setAudioMuted } from '../../base/media';
 import { MiddlewareRegistry } from '../../base/redux';
 
+/**
+ * The name of the event the native AudioMode module emits when the audio focus
+ * changes.
+ */
+const AUDIO_FOCUS_CHANGED
+    = 'org.jitsi.meet:features/audio-mode#audioFocusChanged';
+
+/**
+ * The subscription to {@link AUDIO_FOCUS_CHANGED} events, if any.
+ */
+let _audioFocusSubscription;
+
+/**
+ * Whether the local audio was muted because of a transient loss of the audio
+ * focus and is to be unmuted when the focus is regained.
+ */
+let _mutedOnAudioFocusLoss = false;
+
 /**
  * Middleware that captures conference actions and sets the correct audio mode
  * based on the type of conference. Audio-only conferences don't use the speaker
@@ -19,7 +38,7 @@ import { MiddlewareRegistry } from '../../base/redux';
  * @param {Store} store - The redux store.
  * @returns {Function}
  */
-MiddlewareRegistry.register(({ getState }) => next => action => {
+MiddlewareRegistry.register(({ dispatch, getState }) => next => action => {
     const AudioMode = NativeModules.AudioMode;
 
     if (AudioMode) {
@@ -27,6 +46,22 @@ MiddlewareRegistry.register(({ getState }) => next => action => {
 
         switch (action.type) {
         case APP_WILL_MOUNT:
+            _audioFocusSubscription && _audioFocusSubscription.remove();
+            _audioFocusSubscription
+                = new NativeEventEmitter(AudioMode).addListener(
+                    AUDIO_FOCUS_CHANGED,
+                    ({ focus }) => _onAudioFocusChanged(
+                        { dispatch,
+                            getState },
+                        focus));
+            mode = AudioMode.DEFAULT;
+            break;
+
+        case APP_WILL_UNMOUNT:
+            _audioFocusSubscription && _audioFocusSubscription.remove();
+            _audioFocusSubscription = undefined;
+            break;
+
         case CONFERENCE_FAILED:
         case CONFERENCE_LEFT:
             mode = AudioMode.DEFAULT;
@@ -64,3 +99,46 @@ MiddlewareRegistry.register(({ getState }) => next => action => {
 
     return next(action);
 });
+
+/**
+ * Handles a change of the audio focus reported by the native AudioMode module.
+ * The local audio is muted while another app (e.g. a phone call) temporarily
+ * holds the focus and it is unmuted when the focus is regained unless the user
+ * unmuted it in the meantime. Requests to duck (e.g. a navigation prompt) are
+ * handled like transient losses because the native side asks the system to
+ * notify rather than duck automatically. The local audio is also muted upon a
+ * permanent loss but it is not unmuted automatically afterwards.
+ *
+ * @param {Store} store - The redux store.
+ * @param {string} focus - The new audio focus state i.e. GAIN, LOSS,
+ * LOSS_TRANSIENT or LOSS_TRANSIENT_CAN_DUCK.
+ * @private
+ * @returns {void}
+ */
+function _onAudioFocusChanged({ dispatch, getState }, focus) {
+    const { muted } = getState()['features/base/media'].audio;
+
+    switch (focus) {
+    case 'GAIN':
+        if (_mutedOnAudioFocusLoss) {
+            _mutedOnAudioFocusLoss = false;
+            muted && dispatch(setAudioMuted(false));
+        }
+        break;
+
+    case 'LOSS':
+        // The focus is not expected to come back so leave it to the user to
+        // unmute.
+        _mutedOnAudioFocusLoss = false;
+        muted || dispatch(setAudioMuted(true));
+        break;
+
+    case 'LOSS_TRANSIENT':
+    case 'LOSS_TRANSIENT_CAN_DUCK':
+        if (!muted) {
+            _mutedOnAudioFocusLoss = true;
+            dispatch(setAudioMuted(true));
+        }
+        break;
+    }
+}